@@ -10,7 +10,9 @@ DROP TABLE IF EXISTS inventory_reservation;
 CREATE TABLE inventory (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     sku_code VARCHAR(255) NOT NULL UNIQUE,
-    on_hand_quantity INT NOT NULL CHECK (on_hand_quantity >= 0)
+    on_hand_quantity INT NOT NULL CHECK (on_hand_quantity >= 0),
+    -- Sum of PENDING reservations for the SKU, kept in sync by inventory-service
+    reserved_quantity INT NOT NULL DEFAULT 0 CHECK (reserved_quantity >= 0)
 );
 
 CREATE TABLE inventory_reservation (
@@ -27,5 +29,7 @@ CREATE TABLE inventory_reservation (
     -- Indexes for better query performance
     INDEX idx_sku_code_status (sku_code, status),
     INDEX idx_order_number (order_number),
-    INDEX idx_order_sku (order_number, sku_code)
+    INDEX idx_order_sku (order_number, sku_code),
+    -- Lets the expiry sweeper find the oldest PENDING reservations without a scan
+    INDEX idx_status_reserved_at (status, reserved_at)
 );
\ No newline at end of file
@@ -8,17 +8,26 @@ USE order_db;
 DROP TABLE IF EXISTS order_line_items;
 DROP TABLE IF EXISTS orders;
 DROP TABLE IF EXISTS outbox_event;
+DROP TABLE IF EXISTS idempotency_key;
+DROP TABLE IF EXISTS id_generator;
+
+-- Pooled ID blocks for orders, order_line_items and outbox_event (Hibernate @TableGenerator).
+-- Hibernate adds each entity's row on first use.
+CREATE TABLE id_generator (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
 
 -- Create the orders table (for Order entity)
 CREATE TABLE orders (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     order_number VARCHAR(255) NOT NULL UNIQUE
 );
 
 -- Create the order_line_items table (for OrderLineItems entity)
 -- It includes a foreign key (order_id) referencing the 'orders' table
 CREATE TABLE order_line_items (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     sku_code VARCHAR(255) NOT NULL,
     price DECIMAL(19, 2) NOT NULL,
     quantity INT NOT NULL,
@@ -30,7 +39,7 @@ CREATE TABLE order_line_items (
 );
 
 CREATE TABLE outbox_event (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id BIGINT PRIMARY KEY,
     eventid VARCHAR(36) NOT NULL,
     eventtype VARCHAR(255) NOT NULL,
     aggregatetype VARCHAR(255) NOT NULL,
@@ -38,5 +47,17 @@ CREATE TABLE outbox_event (
     createdat BIGINT NOT NULL,
     processedat BIGINT NULL,
     payload JSON NOT NULL,
-    INDEX idx_processedat (processedat)
-);
\ No newline at end of file
+    INDEX idx_processedat (processedat),
+    INDEX idx_createdat (createdat)
+);
+
+-- Idempotency-Key of each order placed with one, written in the same transaction as the order.
+-- Rows older than order.idempotency.ttl are deleted by IdempotencyKeyPurgeJob.
+CREATE TABLE idempotency_key (
+    idempotency_key VARCHAR(255) NOT NULL PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    order_id BIGINT NOT NULL,
+    order_number VARCHAR(255) NOT NULL,
+    created_at BIGINT NOT NULL,
+    INDEX idx_idempotency_key_created_at (created_at)
+);
@@ -15,10 +15,11 @@ echo -e "\n2. Checking Kafka topics..."
 docker exec broker kafka-topics --bootstrap-server localhost:29092 --list
 
 # Test inserting an event manually using Docker container
+# order-service assigns outbox IDs from id_generator, so use a negative ID that it never hands out
 echo -e "\n3. Testing manual event insertion..."
 docker exec mysql mysql -u order_user -pnS3johd59oQIcZhN order_db -e "
-INSERT INTO outbox_event(eventid, eventtype, aggregatetype, aggregateid, payload, createdat) 
-VALUES (UUID(), 'OrderStatusChangedEvent', 'Order', 'test-order-123', '{\"orderNumber\":\"test-order-123\", \"status\":\"FULFILLED\"}', UNIX_TIMESTAMP(NOW(3)) * 1000);
+INSERT INTO outbox_event(id, eventid, eventtype, aggregatetype, aggregateid, payload, createdat) 
+VALUES (-(UNIX_TIMESTAMP(NOW(3)) * 1000), UUID(), 'OrderStatusChangedEvent', 'Order', 'test-order-123', '{\"orderNumber\":\"test-order-123\", \"status\":\"FULFILLED\"}', UNIX_TIMESTAMP(NOW(3)) * 1000);
 "
 
 # Wait a moment for processing
@@ -0,0 +1,154 @@
+package com.orderproduct.inventoryservice.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * Short-lived, bounded LRU cache of available quantities per SKU, so hot SKUs
+ * polled by many clients do not all reach MySQL.
+ * <p>
+ * Entries expire after {@code inventory.availability.cache.ttl}. Writes drop
+ * their SKUs through {@link AvailabilityCacheInvalidator} once they commit, on
+ * this instance and, through Kafka, on the others. The TTL bounds how stale an
+ * entry can get if an invalidation is lost. Every invalidation bumps a
+ * generation counter, and a load that started before it is not cached, so a
+ * read racing with a write cannot put the old quantity back.
+ */
+@Component
+public class AvailabilityCache {
+
+    @Getter
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxSize;
+    private final LongSupplier nanoClock;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter invalidations;
+    private final Timer servedAge;
+
+    private final LinkedHashMap<String, CachedAvailability> availabilities = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedAvailability> eldest) {
+            if (size() <= maxSize) {
+                return false;
+            }
+            evictions.increment();
+            return true;
+        }
+    };
+
+    private long generation;
+
+    @Autowired
+    public AvailabilityCache(@Value("${inventory.availability.cache.enabled:true}") boolean enabled,
+            @Value("${inventory.availability.cache.ttl:PT2S}") Duration ttl,
+            @Value("${inventory.availability.cache.max-size:100000}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this(enabled, ttl, maxSize, meterRegistry, System::nanoTime);
+    }
+
+    AvailabilityCache(boolean enabled, Duration ttl, int maxSize, MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.nanoClock = nanoClock;
+        this.hits = Counter.builder("inventory.availability.cache.gets")
+                .tag("result", "hit")
+                .description("SKU availabilities served from the cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("inventory.availability.cache.gets")
+                .tag("result", "miss")
+                .description("SKU availabilities that had to be read from MySQL")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("inventory.availability.cache.evictions")
+                .description("SKU availabilities evicted because the cache reached its maximum size")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("inventory.availability.cache.invalidations")
+                .description("SKU availabilities dropped from the cache because the SKU changed")
+                .register(meterRegistry);
+        this.servedAge = Timer.builder("inventory.availability.cache.served.age")
+                .description("Age of cached availabilities when they are served, i.e. how stale a hit can be")
+                .register(meterRegistry);
+        Gauge.builder("inventory.availability.cache.size", this, AvailabilityCache::size)
+                .description("SKU availabilities currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return available quantity by SKU code for the SKUs cached and not
+     *         expired; the others are counted as misses
+     */
+    @NonNull
+    public synchronized Map<String, Integer> getAll(@NonNull Collection<String> skuCodes) {
+        if (!enabled) {
+            return Map.of();
+        }
+        long now = nanoClock.getAsLong();
+        Map<String, Integer> found = new HashMap<>();
+        for (String skuCode : skuCodes) {
+            CachedAvailability cached = availabilities.get(skuCode);
+            if (cached != null && now - cached.loadedAtNanos() >= ttlNanos) {
+                availabilities.remove(skuCode);
+                cached = null;
+            }
+            if (cached == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+                servedAge.record(now - cached.loadedAtNanos(), TimeUnit.NANOSECONDS);
+                found.put(skuCode, cached.availableQuantity());
+            }
+        }
+        return found;
+    }
+
+    // Read before loading from MySQL and pass to putAll, so the load is dropped if an invalidation happened meanwhile
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+
+    public synchronized void putAll(@NonNull Map<String, Integer> availableQuantities, long loadedAtGeneration) {
+        if (!enabled || loadedAtGeneration != generation) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        availableQuantities.forEach((skuCode, availableQuantity) -> availabilities.put(skuCode,
+                new CachedAvailability(availableQuantity, now)));
+    }
+
+    public synchronized void invalidate(@NonNull Collection<String> skuCodes) {
+        generation++;
+        for (String skuCode : skuCodes) {
+            if (availabilities.remove(skuCode) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return availabilities.size();
+    }
+
+    private record CachedAvailability(int availableQuantity, long loadedAtNanos) {
+    }
+}
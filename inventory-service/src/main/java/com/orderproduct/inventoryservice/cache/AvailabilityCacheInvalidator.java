@@ -0,0 +1,69 @@
+package com.orderproduct.inventoryservice.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orderproduct.inventoryservice.kafka.AvailabilityInvalidationPublisher;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops SKUs from the {@link AvailabilityCache} when their inventory row
+ * changes: on this instance, and on every other instance through Kafka.
+ * <p>
+ * Within a transaction, the SKUs are collected and invalidated once after it
+ * commits: invalidating before the commit would let a concurrent read cache
+ * the old quantity again, and a rollback leaves nothing to invalidate. Outside
+ * a transaction the SKUs are invalidated immediately.
+ */
+@Component
+@Slf4j
+@AllArgsConstructor
+public class AvailabilityCacheInvalidator {
+
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityInvalidationPublisher invalidationPublisher;
+
+    public void invalidateAfterCommit(@NonNull Collection<String> skuCodes) {
+        if (!availabilityCache.isEnabled() || skuCodes.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(skuCodes);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> transactionSkuCodes = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, transactionSkuCodes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AvailabilityCacheInvalidator.this);
+                    if (status == STATUS_COMMITTED) {
+                        invalidate(transactionSkuCodes);
+                    }
+                }
+            });
+            pending = transactionSkuCodes;
+        }
+        pending.addAll(skuCodes);
+    }
+
+    private void invalidate(Collection<String> skuCodes) {
+        log.debug("Invalidating cached availability for {} SKUs", skuCodes.size());
+        List<String> invalidated = List.copyOf(skuCodes);
+        availabilityCache.invalidate(invalidated);
+        invalidationPublisher.publish(invalidated);
+    }
+}
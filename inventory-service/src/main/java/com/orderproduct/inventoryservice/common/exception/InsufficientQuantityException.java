@@ -1,12 +1,24 @@
 package com.orderproduct.inventoryservice.common.exception;
 
+import java.util.List;
+
 import org.springframework.http.HttpStatus;
 
+import lombok.Getter;
+import lombok.NonNull;
+
+@Getter
 public class InsufficientQuantityException extends ApiException {
-    public InsufficientQuantityException() {
+
+    // SKU codes whose on-hand quantity could not cover the deduction
+    @NonNull
+    private final List<String> skuCodes;
+
+    public InsufficientQuantityException(List<String> skuCodes) {
         super(
                 HttpStatus.BAD_REQUEST,
                 "INSUFFICIENT_QUANTITY_ERROR",
                 "Insufficient quantity available for deduction");
+        this.skuCodes = skuCodes;
     }
 }
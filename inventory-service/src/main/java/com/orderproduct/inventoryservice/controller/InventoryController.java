@@ -1,8 +1,12 @@
 package com.orderproduct.inventoryservice.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,17 +18,24 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import com.orderproduct.inventoryservice.common.exception.ErrorBody;
 import com.orderproduct.inventoryservice.common.exception.ErrorComponent;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.dto.request.AvailabilityBatchRequest;
 import com.orderproduct.inventoryservice.dto.request.CreateInventoryRequest;
 import com.orderproduct.inventoryservice.dto.request.UpdateInventoryRequest;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
 import com.orderproduct.inventoryservice.dto.response.CreateInventoryResponse;
+import com.orderproduct.inventoryservice.dto.response.InventoryImportResponse;
 import com.orderproduct.inventoryservice.dto.response.UpdateInventoryResponse;
 import com.orderproduct.inventoryservice.service.InventoryAvailabilityService;
+import com.orderproduct.inventoryservice.service.InventoryImportService;
 import com.orderproduct.inventoryservice.service.InventoryManagementService;
 
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -36,7 +47,7 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-// Handles inventory management endpoints: create, delete, and check inventory availability
+// Handles inventory management endpoints: create, bulk import, delete, and check inventory availability
 @RestController
 @RequestMapping("/api/inventory")
 @Slf4j
@@ -45,6 +56,8 @@ public class InventoryController {
 
         private final InventoryAvailabilityService inventoryAvailabilityService;
         private final InventoryManagementService inventoryManagementService;
+        private final InventoryImportService inventoryImportService;
+        private final ObjectMapper objectMapper;
 
         /**
          * Get available inventory for a list of SKU codes.
@@ -69,6 +82,47 @@ public class InventoryController {
                 return inventoryAvailabilityService.getAvailableInventory(skuCode);
         }
 
+        /**
+         * Get available inventory for a large set of SKU codes sent in the request body.
+         * Availability is read in chunks, and the JSON array is written chunk by chunk
+         * as each one is read. Repeated SKU codes are answered once.
+         * Endpoint: POST /api/inventory/availability:batch
+         */
+        @PostMapping(path = "/availability:batch", produces = MediaType.APPLICATION_JSON_VALUE)
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "OK", content = {
+                                        @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AvailableInventoryResponse.class)))
+                        }),
+                        @ApiResponse(responseCode = "400", description = "Bad Request - No SKU codes, or too many", content = {
+                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                        }),
+                        @ApiResponse(responseCode = "500", description = "errorCode:"
+                                        + ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE + " errorMessage:"
+                                        + ErrorComponent.somethingWentWrongMsg, content = {
+                                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                                        })
+        })
+        public ResponseEntity<StreamingResponseBody> batchInventoryAvailabilities(
+                        @Valid @RequestBody AvailabilityBatchRequest request) throws InternalServerException {
+                log.info("POST:/api/inventory/availability:batch - Checking availability for {} SKU codes",
+                                request.skuCodes().size());
+                Iterator<List<AvailableInventoryResponse>> chunks = inventoryAvailabilityService
+                                .streamAvailableInventory(request.skuCodes()).iterator();
+                // Read the first chunk up front so a failing database still gets a proper error response
+                List<AvailableInventoryResponse> firstChunk = chunks.next();
+                StreamingResponseBody body = outputStream -> {
+                        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                                generator.writeStartArray();
+                                writeChunk(generator, firstChunk);
+                                while (chunks.hasNext()) {
+                                        writeChunk(generator, chunks.next());
+                                }
+                                generator.writeEndArray();
+                        }
+                };
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+
         /**
          * Create a new inventory record for a SKU code.
          * Endpoint: POST /api/inventory
@@ -107,6 +161,53 @@ public class InventoryController {
                                 .body(response);
         }
 
+        /**
+         * Set on-hand quantities for many SKU codes from a CSV body with a
+         * skuCode,quantity header. Missing SKU codes are created.
+         * Endpoint: POST /api/inventory/bulk
+         */
+        @PostMapping(path = "/bulk", consumes = "text/csv")
+        @ResponseStatus(HttpStatus.OK)
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "OK - Imported, possibly with rejected rows", content = {
+                                        @Content(mediaType = "application/json", schema = @Schema(implementation = InventoryImportResponse.class))
+                        }),
+                        @ApiResponse(responseCode = "400", description = "Bad Request - CSV header without skuCode and quantity columns", content = {
+                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                        }),
+                        @ApiResponse(responseCode = "500", description = "errorCode:"
+                                        + ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE + " errorMessage:"
+                                        + ErrorComponent.somethingWentWrongMsg, content = {
+                                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                                        })
+        })
+        public InventoryImportResponse importStockLevelsCsv(InputStream body) throws InternalServerException {
+                log.info("POST:/api/inventory/bulk - Importing CSV stock levels");
+                return inventoryImportService.importCsv(body);
+        }
+
+        /**
+         * Set on-hand quantities for many SKU codes from a newline-delimited JSON
+         * body. Missing SKU codes are created.
+         * Endpoint: POST /api/inventory/bulk
+         */
+        @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+        @ResponseStatus(HttpStatus.OK)
+        @ApiResponses(value = {
+                        @ApiResponse(responseCode = "200", description = "OK - Imported, possibly with rejected rows", content = {
+                                        @Content(mediaType = "application/json", schema = @Schema(implementation = InventoryImportResponse.class))
+                        }),
+                        @ApiResponse(responseCode = "500", description = "errorCode:"
+                                        + ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE + " errorMessage:"
+                                        + ErrorComponent.somethingWentWrongMsg, content = {
+                                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                                        })
+        })
+        public InventoryImportResponse importStockLevelsNdjson(InputStream body) throws InternalServerException {
+                log.info("POST:/api/inventory/bulk - Importing NDJSON stock levels");
+                return inventoryImportService.importNdjson(body);
+        }
+
         /**
          * Update an inventory record for a SKU code.
          * Endpoint: PUT /api/inventory/{sku-code}
@@ -160,4 +261,12 @@ public class InventoryController {
                 log.info("DELETE:/api/inventory/{}", skuCode);
                 inventoryManagementService.deleteInventory(skuCode);
         }
+
+        private static void writeChunk(JsonGenerator generator, List<AvailableInventoryResponse> chunk)
+                        throws IOException {
+                for (AvailableInventoryResponse availability : chunk) {
+                        generator.writePOJO(availability);
+                }
+                generator.flush();
+        }
 }
\ No newline at end of file
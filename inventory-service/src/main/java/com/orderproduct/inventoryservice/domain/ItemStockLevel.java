@@ -0,0 +1,8 @@
+package com.orderproduct.inventoryservice.domain;
+
+public record ItemStockLevel(String skuCode, int onHandQuantity, int reservedQuantity) {
+
+    public int availableQuantity() {
+        return Math.max(0, onHandQuantity - reservedQuantity);
+    }
+}
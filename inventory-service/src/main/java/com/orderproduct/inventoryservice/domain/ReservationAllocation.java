@@ -0,0 +1,13 @@
+package com.orderproduct.inventoryservice.domain;
+
+/**
+ * Change in reserved quantity of a SKU for one order.
+ * {@code previouslyReservedQuantity} is what the order already holds as PENDING,
+ * so re-submitting an order only allocates the difference.
+ */
+public record ReservationAllocation(String skuCode, int requestedQuantity, int previouslyReservedQuantity) {
+
+    public int quantityDelta() {
+        return requestedQuantity - previouslyReservedQuantity;
+    }
+}
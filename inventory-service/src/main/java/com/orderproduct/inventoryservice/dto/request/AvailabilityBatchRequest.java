@@ -0,0 +1,10 @@
+package com.orderproduct.inventoryservice.dto.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record AvailabilityBatchRequest(
+        @NotEmpty(message = "SKU codes cannot be empty.") @Size(max = 10000, message = "At most 10000 SKU codes can be checked per request.") List<String> skuCodes) {
+}
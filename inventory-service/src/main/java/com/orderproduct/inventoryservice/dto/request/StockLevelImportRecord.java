@@ -0,0 +1,13 @@
+package com.orderproduct.inventoryservice.dto.request;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// One row of a bulk stock-level import; validated like CreateInventoryRequest
+public record StockLevelImportRecord(
+        @NotBlank(message = "SKU code cannot be blank.") @Pattern(regexp = "^[a-zA-Z0-9_-]*$", message = "SKU code can only contain alphanumeric characters, hyphens, and underscores.") @Size(max = 100, message = "SKU code length must be less than 100 characters.") String skuCode,
+        @NotNull(message = "Quantity is required.") @Min(value = 0, message = "Quantity must be non-negative.") Integer quantity) {
+}
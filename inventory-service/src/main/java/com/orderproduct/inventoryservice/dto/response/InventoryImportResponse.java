@@ -0,0 +1,15 @@
+package com.orderproduct.inventoryservice.dto.response;
+
+import java.util.List;
+
+/**
+ * Summary of a bulk stock-level import. {@code rejected} counts every rejected
+ * row, while {@code rejectedRows} lists at most
+ * {@code inventory.import.max-rejected-rows} of them.
+ */
+public record InventoryImportResponse(
+        long received,
+        long upserted,
+        long rejected,
+        List<RejectedStockLevel> rejectedRows) {
+}
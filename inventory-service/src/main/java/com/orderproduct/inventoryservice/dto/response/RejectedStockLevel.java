@@ -0,0 +1,5 @@
+package com.orderproduct.inventoryservice.dto.response;
+
+// A row of a bulk stock-level import that was not written; line numbers start at 1
+public record RejectedStockLevel(long line, String skuCode, String reason) {
+}
@@ -34,6 +34,11 @@ public class Inventory {
     @Column(name = "on_hand_quantity", nullable = false, columnDefinition = "INT CHECK (on_hand_quantity >= 0)")
     private int onHandQuantity;
 
+    // Sum of PENDING reservations for this SKU, maintained by the reservation flow
+    // so availability is a single-row check (on_hand_quantity - reserved_quantity).
+    @Column(name = "reserved_quantity", nullable = false, columnDefinition = "INT DEFAULT 0 CHECK (reserved_quantity >= 0)")
+    private int reservedQuantity;
+
     public static Inventory createInventory(String skuCode, int quantity) {
         if (quantity < 0) {
             throw new IllegalArgumentException("Quantity cannot be negative");
@@ -23,7 +23,8 @@ import lombok.Setter;
 @Table(name = "inventory_reservation", indexes = {
                 @Index(name = "idx_sku_code_status", columnList = "skuCode,status"),
                 @Index(name = "idx_order_number", columnList = "orderNumber"),
-                @Index(name = "idx_order_sku", columnList = "orderNumber,skuCode")
+                @Index(name = "idx_order_sku", columnList = "orderNumber,skuCode"),
+                @Index(name = "idx_status_reserved_at", columnList = "status,reservedAt")
 }, uniqueConstraints = {
                 @UniqueConstraint(columnNames = { "orderNumber", "skuCode" })
 })
@@ -1,6 +1,8 @@
 package com.orderproduct.inventoryservice.grpc;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import com.google.protobuf.Any;
@@ -14,6 +16,7 @@ import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAll
 import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.service.InventoryAvailabilityService;
 import com.orderproduct.inventoryservice.service.ReservationManagementService;
 
 import io.grpc.StatusRuntimeException;
@@ -29,6 +32,7 @@ import net.devh.boot.grpc.server.service.GrpcService;
 public class ReservationGrpcService extends ReservationServiceGrpc.ReservationServiceImplBase {
 
     private final ReservationManagementService reservationManagementService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
 
     @Override
     public void reserveProducts(ReserveProductsRequest request,
@@ -64,6 +68,79 @@ public class ReservationGrpcService extends ReservationServiceGrpc.ReservationSe
         }
     }
 
+    @Override
+    public void getAvailability(GetAvailabilityRequest request,
+            StreamObserver<GetAvailabilityResponse> responseObserver) {
+
+        log.info("gRPC:GetAvailability - Checking availability for {} SKU codes", request.getSkuCodesCount());
+
+        try {
+            // Each chunk is sent as soon as it is read, before the next chunk is queried
+            inventoryAvailabilityService.streamAvailableInventory(request.getSkuCodesList())
+                    .map(this::convertToGetAvailabilityResponse)
+                    .forEach(responseObserver::onNext);
+            responseObserver.onCompleted();
+        } catch (InternalServerException e) {
+            log.error("gRPC:GetAvailability - Internal server error for {} SKU codes", request.getSkuCodesCount(), e);
+            responseObserver.onError(buildInternalServerError(e));
+        } catch (Exception e) {
+            log.error("gRPC:GetAvailability - Unexpected error for {} SKU codes", request.getSkuCodesCount(), e);
+            responseObserver.onError(buildUnexpectedError(e));
+        }
+    }
+
+    @Override
+    public void reserveProductsBatch(ReserveProductsBatchRequest request,
+            StreamObserver<ReserveProductsBatchResponse> responseObserver) {
+
+        log.info("gRPC:ReserveProductsBatch - Reserving products for {} orders", request.getOrdersCount());
+
+        List<CompletableFuture<List<AvailableInventoryResponse>>> results;
+        try {
+            results = reservationManagementService.reserveProductsBatch(request.getOrdersList().stream()
+                    .map(this::convertToOrderReservationRequest)
+                    .toList());
+        } catch (Exception e) {
+            log.error("gRPC:ReserveProductsBatch - Unexpected error for {} orders", request.getOrdersCount(), e);
+            responseObserver.onError(buildUnexpectedError(e));
+            return;
+        }
+
+        // Answered once every order is decided, from the thread that completes the last one
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).whenComplete((ignored, throwable) -> {
+            try {
+                ReserveProductsBatchResponse.Builder responseBuilder = ReserveProductsBatchResponse.newBuilder();
+                for (int i = 0; i < results.size(); i++) {
+                    responseBuilder.addResults(convertToOrderReservationResult(
+                            request.getOrders(i).getOrderNumber(), results.get(i)));
+                }
+                ReserveProductsBatchResponse grpcResponse = responseBuilder.build();
+
+                log.info("gRPC:ReserveProductsBatch - Reserved products for {} of {} orders",
+                        grpcResponse.getResultsList().stream().filter(OrderReservationResult::hasReserved).count(),
+                        request.getOrdersCount());
+                responseObserver.onNext(grpcResponse);
+                responseObserver.onCompleted();
+            } catch (Exception e) {
+                log.error("gRPC:ReserveProductsBatch - Unexpected error for {} orders", request.getOrdersCount(), e);
+                responseObserver.onError(buildUnexpectedError(e));
+            }
+        });
+    }
+
+    private OrderReservationResult convertToOrderReservationResult(String orderNumber,
+            CompletableFuture<List<AvailableInventoryResponse>> result) {
+        OrderReservationResult.Builder resultBuilder = OrderReservationResult.newBuilder().setOrderNumber(orderNumber);
+        try {
+            return resultBuilder.setReserved(convertToGrpcResponse(result.join())).build();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            log.warn("gRPC:ReserveProductsBatch - Could not reserve products for order: {} - {}", orderNumber,
+                    cause.getClass().getSimpleName());
+            return resultBuilder.setError(buildOrderErrorStatus(cause)).build();
+        }
+    }
+
     private OrderReservationRequest convertToOrderReservationRequest(ReserveProductsRequest grpcRequest) {
         List<ItemReservationRequest> itemRequests = grpcRequest.getItemReservationRequestsList().stream()
                 .map(grpcItem -> new ItemReservationRequest(grpcItem.getSkuCode(), grpcItem.getQuantity()))
@@ -86,7 +163,26 @@ public class ReservationGrpcService extends ReservationServiceGrpc.ReservationSe
         return responseBuilder.build();
     }
 
+    private GetAvailabilityResponse convertToGetAvailabilityResponse(
+            List<AvailableInventoryResponse> inventoryResponses) {
+        GetAvailabilityResponse.Builder responseBuilder = GetAvailabilityResponse.newBuilder();
+
+        for (AvailableInventoryResponse inventoryResponse : inventoryResponses) {
+            responseBuilder.addAvailableInventory(
+                    com.orderproduct.inventoryservice.grpc.AvailableInventoryResponse.newBuilder()
+                            .setSkuCode(inventoryResponse.skuCode())
+                            .setAvailableQuantity(inventoryResponse.availableQuantity())
+                            .build());
+        }
+
+        return responseBuilder.build();
+    }
+
     private StatusRuntimeException buildNotEnoughItemError(NotEnoughItemException e) {
+        return StatusProto.toStatusRuntimeException(buildNotEnoughItemStatus(e));
+    }
+
+    private Status buildNotEnoughItemStatus(NotEnoughItemException e) {
         ErrorInfo errorInfo = buildBaseErrorInfo(e.getErrorCode());
 
         // Add unavailable products as metadata
@@ -100,41 +196,59 @@ public class ReservationGrpcService extends ReservationServiceGrpc.ReservationSe
                     .build();
         }
 
-        Status rpcStatus = buildBaseStatus(Code.RESOURCE_EXHAUSTED, e.getErrorMessage())
+        return buildBaseStatus(Code.RESOURCE_EXHAUSTED, e.getErrorMessage())
                 .addDetails(Any.pack(errorInfo))
                 .build();
-        return StatusProto.toStatusRuntimeException(rpcStatus);
     }
 
     private StatusRuntimeException buildOrderReservationNotAllowedError(OrderReservationNotAllowedException e) {
+        return StatusProto.toStatusRuntimeException(buildOrderReservationNotAllowedStatus(e));
+    }
+
+    private Status buildOrderReservationNotAllowedStatus(OrderReservationNotAllowedException e) {
         ErrorInfo errorInfo = buildBaseErrorInfo(e.getErrorCode());
-        Status rpcStatus = buildBaseStatus(Code.FAILED_PRECONDITION, e.getErrorMessage())
+        return buildBaseStatus(Code.FAILED_PRECONDITION, e.getErrorMessage())
                 .addDetails(Any.pack(errorInfo))
                 .build();
-        return StatusProto.toStatusRuntimeException(rpcStatus);
     }
 
     private StatusRuntimeException buildInternalServerError(InternalServerException e) {
+        return StatusProto.toStatusRuntimeException(buildInternalServerStatus(e));
+    }
+
+    private Status buildInternalServerStatus(InternalServerException e) {
         ErrorInfo errorInfo = buildBaseErrorInfo(e.getErrorCode());
-        Status rpcStatus = buildBaseStatus(Code.INTERNAL, e.getErrorMessage())
+        return buildBaseStatus(Code.INTERNAL, e.getErrorMessage())
                 .addDetails(Any.pack(errorInfo))
                 .build();
+    }
 
-        return StatusProto.toStatusRuntimeException(rpcStatus);
+    private StatusRuntimeException buildUnexpectedError(Throwable e) {
+        return StatusProto.toStatusRuntimeException(buildUnexpectedStatus(e));
     }
 
-    private StatusRuntimeException buildUnexpectedError(Exception e) {
+    private Status buildUnexpectedStatus(Throwable e) {
         ErrorInfo errorInfo = buildBaseErrorInfo(
                 ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE)
                 .toBuilder()
                 .putMetadata("original_exception", e.getClass().getSimpleName())
                 .build();
 
-        Status rpcStatus = buildBaseStatus(Code.INTERNAL, ErrorComponent.somethingWentWrongMsg)
+        return buildBaseStatus(Code.INTERNAL, ErrorComponent.somethingWentWrongMsg)
                 .addDetails(Any.pack(errorInfo))
                 .build();
+    }
 
-        return StatusProto.toStatusRuntimeException(rpcStatus);
+    // Same status as the unary ReserveProducts would have returned for the order
+    private Status buildOrderErrorStatus(Throwable e) {
+        if (e instanceof NotEnoughItemException notEnoughItemException) {
+            return buildNotEnoughItemStatus(notEnoughItemException);
+        } else if (e instanceof OrderReservationNotAllowedException orderReservationNotAllowedException) {
+            return buildOrderReservationNotAllowedStatus(orderReservationNotAllowedException);
+        } else if (e instanceof InternalServerException internalServerException) {
+            return buildInternalServerStatus(internalServerException);
+        }
+        return buildUnexpectedStatus(e);
     }
 
     private ErrorInfo buildBaseErrorInfo(String errorCode) {
@@ -0,0 +1,75 @@
+package com.orderproduct.inventoryservice.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.inventoryservice.cache.AvailabilityCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Applies availability invalidations published by other instances to the
+ * local {@link AvailabilityCache}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "inventory.availability.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityInvalidationListener {
+
+    private static final TypeReference<List<String>> SKU_CODES = new TypeReference<>() {
+    };
+
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityInvalidationPublisher invalidationPublisher;
+    private final ObjectMapper objectMapper;
+    private final Timer invalidationLag;
+
+    public AvailabilityInvalidationListener(AvailabilityCache availabilityCache,
+            AvailabilityInvalidationPublisher invalidationPublisher,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.availabilityCache = availabilityCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.objectMapper = objectMapper;
+        this.invalidationLag = Timer.builder("inventory.availability.cache.invalidation.lag")
+                .description("Time from a write on another instance to its cache invalidation here")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${inventory.availability.cache.invalidation-topic:inventory.availability.invalidated}",
+            groupId = "inventory-availability-cache-#{@availabilityInvalidationPublisher.instanceId}",
+            containerFactory = "availabilityInvalidationListenerContainerFactory")
+    public void handleAvailabilityInvalidation(ConsumerRecord<String, String> record) {
+        Header origin = record.headers().lastHeader(AvailabilityInvalidationPublisher.ORIGIN_HEADER);
+        if (origin != null && invalidationPublisher.getInstanceId()
+                .equals(new String(origin.value(), StandardCharsets.UTF_8))) {
+            return;
+        }
+
+        List<String> skuCodes;
+        try {
+            skuCodes = objectMapper.readValue(record.value(), SKU_CODES);
+        } catch (Exception e) {
+            log.error("Skipping invalid availability invalidation - Partition: {}, Offset: {}",
+                    record.partition(), record.offset());
+            return;
+        }
+        availabilityCache.invalidate(skuCodes);
+        if (record.timestamp() >= 0) {
+            invalidationLag.record(Math.max(0, System.currentTimeMillis() - record.timestamp()),
+                    TimeUnit.MILLISECONDS);
+        }
+        log.debug("Invalidated cached availability for {} SKUs from another instance", skuCodes.size());
+    }
+}
@@ -0,0 +1,99 @@
+package com.orderproduct.inventoryservice.kafka;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tells the other inventory-service instances which SKUs to drop from their
+ * availability cache. Each message is a JSON array of SKU codes, tagged with
+ * the id of the publishing instance so it can skip its own messages. The id
+ * also names this instance's consumer group, so it is kept stable across
+ * restarts: {@code inventory.availability.cache.instance-id}, else the Eureka
+ * instance id, else the host name and server port. A random id is only the
+ * fallback for a random port, since each restart then leaves an orphan
+ * consumer group behind.
+ */
+@Component
+@Slf4j
+public class AvailabilityInvalidationPublisher {
+
+    static final String ORIGIN_HEADER = "origin";
+
+    @Getter
+    private final String instanceId;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+
+    public AvailabilityInvalidationPublisher(
+            @Qualifier("availabilityInvalidationKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+            ObjectMapper objectMapper,
+            @Value("${inventory.availability.cache.invalidation-topic:inventory.availability.invalidated}") String topic,
+            @Value("${inventory.availability.cache.instance-id:${eureka.instance.instance-id:}}") String instanceId,
+            @Value("${server.port:8080}") int serverPort) {
+        this.instanceId = resolveInstanceId(instanceId, serverPort);
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+    }
+
+    /**
+     * Sends the SKU codes without waiting for the broker. A failed send is only
+     * logged: the other instances then serve the old quantity until their cache
+     * entry expires.
+     */
+    public void publish(@NonNull List<String> skuCodes) {
+        ProducerRecord<String, String> record;
+        try {
+            record = new ProducerRecord<>(topic, objectMapper.writeValueAsString(skuCodes));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialise availability invalidation for {} SKUs", skuCodes.size(), e);
+            return;
+        }
+        record.headers().add(ORIGIN_HEADER, instanceId.getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record).whenComplete((result, e) -> {
+                if (e != null) {
+                    log.warn("Failed to publish availability invalidation for {} SKUs - Error: {}",
+                            skuCodes.size(), e.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Failed to publish availability invalidation for {} SKUs - Error: {}",
+                    skuCodes.size(), e.getMessage());
+        }
+    }
+
+    // Instances sharing a host only differ by port, so a random port cannot identify one.
+    static String resolveInstanceId(String configuredInstanceId, int serverPort) {
+        if (configuredInstanceId != null && !configuredInstanceId.isBlank()) {
+            return configuredInstanceId.strip();
+        }
+        if (serverPort > 0) {
+            try {
+                return InetAddress.getLocalHost().getHostName() + ":" + serverPort;
+            } catch (UnknownHostException e) {
+                log.debug("Could not resolve the local host name - Error: {}", e.getMessage());
+            }
+        }
+        String randomId = UUID.randomUUID().toString();
+        log.warn("No stable instance id for availability invalidations, using {}", randomId);
+        return randomId;
+    }
+}
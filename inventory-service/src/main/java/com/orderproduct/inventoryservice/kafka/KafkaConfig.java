@@ -1,10 +1,13 @@
 package com.orderproduct.inventoryservice.kafka;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +16,9 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
 
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -25,6 +31,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    // Consumer threads; each owns one or more partitions, so values above the partition count sit idle
+    @Value("${inventory.kafka.order-events.concurrency:1}")
+    private int concurrency;
+
+    // Upper bound on the records handed to one batch listener call (and one DB transaction)
+    @Value("${inventory.kafka.order-events.max-poll-records:500}")
+    private int maxPollRecords;
+
+    // How long publishing an availability invalidation may block (e.g. while Kafka is unreachable) before giving up
+    @Value("${inventory.availability.cache.invalidation.max-block:PT1S}")
+    private Duration invalidationMaxBlock;
+
     @PostConstruct
     public void logKafkaConfig() {
         log.info("KafkaConfig initialized with bootstrap servers: {}", bootstrapServers);
@@ -39,8 +57,9 @@ public class KafkaConfig {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        props.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
+        // Offsets are acknowledged by the listener once its batch transaction has committed
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         log.info("Creating Kafka consumer factory with bootstrap servers: {}", bootstrapServers);
         return new DefaultKafkaConsumerFactory<>(props);
@@ -51,8 +70,48 @@ public class KafkaConfig {
     public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
-        log.info("Creating Kafka listener container factory with bootstrap servers: {}", bootstrapServers);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+        log.info("Creating batch Kafka listener container factory with bootstrap servers: {}, concurrency: {}",
+                bootstrapServers, concurrency);
+        return factory;
+    }
+
+    /**
+     * Publishes availability invalidations. It is called after a transaction has
+     * committed, on the request thread, so it gives up quickly instead of holding
+     * the request while Kafka is down; the cache TTL then bounds staleness on the
+     * other instances.
+     */
+    @Bean
+    public KafkaTemplate<String, String> availabilityInvalidationKafkaTemplate() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, (int) invalidationMaxBlock.toMillis());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    /**
+     * Listener factory for availability invalidations. Every instance must see
+     * every invalidation, so each one consumes with its own group id and starts at
+     * the latest offset; its cache starts empty, so older invalidations do not
+     * matter.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> availabilityInvalidationListenerContainerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
         return factory;
     }
 
-}
+}
\ No newline at end of file
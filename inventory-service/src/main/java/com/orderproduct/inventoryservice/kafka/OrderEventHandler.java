@@ -1,10 +1,15 @@
 package com.orderproduct.inventoryservice.kafka;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,24 +29,79 @@ public class OrderEventHandler {
     private final ReservationService reservationService;
     private final ObjectMapper objectMapper;
 
+    /**
+     * Handles one poll of order events. All state updates are applied in a single
+     * transaction, and offsets are acknowledged only after it commits. If that
+     * transaction fails, the updates are applied one by one, each in its own
+     * transaction, and the first record that still fails is reported with a
+     * {@link BatchListenerFailedException}. The error handler then commits the
+     * records before it and retries (or finally skips) only that record.
+     * Records that cannot be parsed are logged and skipped so they do not block
+     * the partition.
+     */
     @KafkaListener(topics = "outbox.event.Order")
-    public void handleOrderStatusChangedEvent(
-            @Payload String payload,
-            @Header("eventType") String eventType,
-            @Header("aggregateType") String aggregateType,
-            @Header("aggregateId") String aggregateId,
-            @Header("eventId") String eventId) throws InvalidKafkaEventException {
-        log.info("Received OrderStatusChangedEvent - EventId: {}, AggregateId: {}, EventType: {}, Raw payload: {}",
-                eventId, aggregateId, eventType, payload);
-        OrderStatusChangedEvent event = extractOrderStatusChangedEvent(payload);
-        if (shouldProcessOrderStatus(event.status())) {
-            ReservationState reservationState = mapOrderStatusToReservationState(event.status());
-            reservationService.updateReservationState(
-                    new ReservationStateUpdateRequest(event.orderNumber(), reservationState));
-            log.debug("Successfully processed order status: {} for order: {}", event.status(), event.orderNumber());
-        } else {
+    public void handleOrderStatusChangedEvents(List<ConsumerRecord<String, String>> records,
+            Acknowledgment acknowledgment) {
+        log.info("Received {} OrderStatusChangedEvents", records.size());
+        List<ReservationStateUpdateRequest> requests = new ArrayList<>();
+        List<Integer> recordIndexes = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            ReservationStateUpdateRequest request = toReservationStateUpdateRequest(records.get(i));
+            if (request != null) {
+                requests.add(request);
+                recordIndexes.add(i);
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            try {
+                reservationService.updateReservationStates(requests);
+            } catch (RuntimeException e) {
+                log.warn("Batch of {} order status updates failed, applying them one by one: {}", requests.size(),
+                        e.getMessage());
+                updateOneByOne(requests, recordIndexes);
+            }
+        }
+        acknowledgment.acknowledge();
+        log.debug("Processed {} order status updates from {} records", requests.size(), records.size());
+    }
+
+    private void updateOneByOne(List<ReservationStateUpdateRequest> requests, List<Integer> recordIndexes) {
+        for (int i = 0; i < requests.size(); i++) {
+            ReservationStateUpdateRequest request = requests.get(i);
+            try {
+                reservationService.updateReservationState(request);
+            } catch (RuntimeException e) {
+                log.error("Failed to update reservation state to {} for order: {}", request.state(),
+                        request.orderNumber(), e);
+                throw new BatchListenerFailedException("Failed to update reservation state for order "
+                        + request.orderNumber(), e, recordIndexes.get(i));
+            }
+        }
+    }
+
+    private ReservationStateUpdateRequest toReservationStateUpdateRequest(ConsumerRecord<String, String> record) {
+        String eventId = headerValue(record, "eventId");
+        log.debug("Received OrderStatusChangedEvent - EventId: {}, AggregateId: {}, EventType: {}, Raw payload: {}",
+                eventId, headerValue(record, "aggregateId"), headerValue(record, "eventType"), record.value());
+        OrderStatusChangedEvent event;
+        try {
+            event = extractOrderStatusChangedEvent(record.value());
+        } catch (InvalidKafkaEventException e) {
+            log.error("Skipping invalid OrderStatusChangedEvent - EventId: {}, Partition: {}, Offset: {}",
+                    eventId, record.partition(), record.offset());
+            return null;
+        }
+        if (!shouldProcessOrderStatus(event.status())) {
             log.debug("Ignoring order status: {} for order: {}", event.status(), event.orderNumber());
+            return null;
         }
+        return new ReservationStateUpdateRequest(event.orderNumber(), mapOrderStatusToReservationState(event.status()));
+    }
+
+    private String headerValue(ConsumerRecord<String, String> record, String key) {
+        Header header = record.headers().lastHeader(key);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
     }
 
     private OrderStatusChangedEvent extractOrderStatusChangedEvent(String payload) {
@@ -3,19 +3,33 @@ package com.orderproduct.inventoryservice.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.entity.Inventory;
 
+import jakarta.persistence.LockModeType;
 import lombok.NonNull;
 
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
 
     Optional<Inventory> findBySkuCode(String skuCode);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.skuCode = :skuCode")
+    Optional<Inventory> findBySkuCodeForUpdate(@Param("skuCode") String skuCode);
+
+    // Locks rows in SKU order, the same order every other multi-SKU update uses
+    @NonNull
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.skuCode IN :skuCodes ORDER BY i.skuCode")
+    List<Inventory> findBySkuCodeInForUpdate(@Param("skuCodes") List<String> skuCodes);
+
     @NonNull
     List<Inventory> findBySkuCodeIn(List<String> skuCodes);
 
@@ -27,7 +41,41 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     @Query("UPDATE Inventory i SET i.onHandQuantity = :quantity WHERE i.skuCode = :skuCode")
     int updateQuantityBySkuCode(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
 
+    @NonNull
+    @Query("SELECT new com.orderproduct.inventoryservice.domain.ItemStockLevel(i.skuCode, i.onHandQuantity, i.reservedQuantity) "
+            + "FROM Inventory i WHERE i.skuCode IN :skuCodes")
+    List<ItemStockLevel> findStockLevelsBySkuCodeIn(@Param("skuCodes") List<String> skuCodes);
+
+    // Keyset page over all SKUs: pass the last SKU code of the previous page ("" for the first page)
+    @NonNull
+    @Query("SELECT new com.orderproduct.inventoryservice.domain.ItemStockLevel(i.skuCode, i.onHandQuantity, i.reservedQuantity) "
+            + "FROM Inventory i WHERE i.skuCode > :afterSkuCode ORDER BY i.skuCode")
+    List<ItemStockLevel> findStockLevelsAfterSkuCode(@Param("afterSkuCode") String afterSkuCode, Pageable pageable);
+
+    /**
+     * Reserves {@code quantity} only if that much is still unreserved. The row stays
+     * locked until the surrounding transaction ends.
+     *
+     * @return 1 if reserved, 0 if the SKU does not exist or has too little available
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity "
+            + "WHERE i.skuCode = :skuCode AND i.onHandQuantity - i.reservedQuantity >= :quantity")
+    int reserveQuantityIfAvailable(@Param("skuCode") String skuCode, @Param("quantity") int quantity);
+
+    /**
+     * Changes the reserved quantity by {@code delta} unless that would take it
+     * below zero.
+     *
+     * @return 1 if adjusted, 0 if the SKU does not exist or holds less than a
+     *         negative {@code delta} releases
+     */
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :delta "
+            + "WHERE i.skuCode = :skuCode AND i.reservedQuantity + :delta >= 0")
+    int adjustReservedQuantityBySkuCode(@Param("skuCode") String skuCode, @Param("delta") int delta);
+
     @Modifying
-    @Query("UPDATE Inventory i SET i.onHandQuantity = i.onHandQuantity - :deductionQuantity WHERE i.skuCode = :skuCode")
-    int deductQuantityBySkuCode(@Param("skuCode") String skuCode, @Param("deductionQuantity") int deductionQuantity);
+    @Query("UPDATE Inventory i SET i.reservedQuantity = 0 WHERE i.skuCode = :skuCode")
+    int clearReservedQuantityBySkuCode(@Param("skuCode") String skuCode);
 }
@@ -0,0 +1,36 @@
+package com.orderproduct.inventoryservice.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.NonNull;
+
+/**
+ * Bulk inventory statements that Spring Data cannot derive or express as a
+ * single JPQL query.
+ */
+public interface InventoryRepositoryCustom {
+
+    /**
+     * Deducts on-hand quantities for many SKUs in one JDBC batch. Each SKU is
+     * only deducted if it has at least that much on hand, and SKUs are updated in
+     * sorted order so concurrent deductions lock rows in the same order.
+     *
+     * @param deductionQuantities SKU code to quantity to deduct
+     * @return SKU codes that were not deducted, either because they do not exist
+     *         or because their on-hand quantity is too low
+     */
+    @NonNull
+    List<String> deductQuantitiesIfAvailable(@NonNull Map<String, Integer> deductionQuantities);
+
+    /**
+     * Sets on-hand quantities for many SKUs in one JDBC batch of
+     * {@code INSERT ... ON DUPLICATE KEY UPDATE} statements. Missing SKUs are
+     * created with nothing reserved; existing SKUs keep their reserved quantity.
+     * SKUs are written in sorted order so the batch locks rows in the same order
+     * as concurrent deductions.
+     *
+     * @param onHandQuantities SKU code to new on-hand quantity
+     */
+    void upsertOnHandQuantities(@NonNull Map<String, Integer> onHandQuantities);
+}
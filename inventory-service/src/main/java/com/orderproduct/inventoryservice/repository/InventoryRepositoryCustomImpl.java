@@ -0,0 +1,65 @@
+package com.orderproduct.inventoryservice.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+
+@AllArgsConstructor
+class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    private static final String DEDUCT_QUANTITY_IF_AVAILABLE_SQL = "UPDATE inventory "
+            + "SET on_hand_quantity = on_hand_quantity - ? "
+            + "WHERE sku_code = ? AND on_hand_quantity >= ?";
+
+    private static final String UPSERT_ON_HAND_QUANTITY_SQL = "INSERT INTO inventory "
+            + "(sku_code, on_hand_quantity, reserved_quantity) VALUES (?, ?, 0) "
+            + "ON DUPLICATE KEY UPDATE on_hand_quantity = VALUES(on_hand_quantity)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @NonNull
+    public List<String> deductQuantitiesIfAvailable(@NonNull Map<String, Integer> deductionQuantities) {
+        List<Map.Entry<String, Integer>> deductions = new ArrayList<>(new TreeMap<>(deductionQuantities).entrySet());
+        if (deductions.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(DEDUCT_QUANTITY_IF_AVAILABLE_SQL, deductions, deductions.size(),
+                (statement, deduction) -> {
+                    statement.setInt(1, deduction.getValue());
+                    statement.setString(2, deduction.getKey());
+                    statement.setInt(3, deduction.getValue());
+                })[0];
+
+        List<String> notDeducted = new ArrayList<>();
+        for (int i = 0; i < deductions.size(); i++) {
+            if (updateCounts[i] == 0) {
+                notDeducted.add(deductions.get(i).getKey());
+            }
+        }
+        return notDeducted;
+    }
+
+    @Override
+    public void upsertOnHandQuantities(@NonNull Map<String, Integer> onHandQuantities) {
+        List<Map.Entry<String, Integer>> upserts = new ArrayList<>(new TreeMap<>(onHandQuantities).entrySet());
+        if (upserts.isEmpty()) {
+            return;
+        }
+
+        // With rewriteBatchedStatements the driver sends this as multi-row INSERTs, so the
+        // per-row counts are not reported and are not needed
+        jdbcTemplate.batchUpdate(UPSERT_ON_HAND_QUANTITY_SQL, upserts, upserts.size(),
+                (statement, upsert) -> {
+                    statement.setString(1, upsert.getKey());
+                    statement.setInt(2, upsert.getValue());
+                });
+    }
+}
@@ -1,17 +1,19 @@
 package com.orderproduct.inventoryservice.repository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import com.orderproduct.inventoryservice.common.exception.DuplicateSkuCodeException;
-import com.orderproduct.inventoryservice.common.exception.InsufficientQuantityException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
 import com.orderproduct.inventoryservice.common.exception.NegativeQuantityException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.entity.Inventory;
 
 import jakarta.persistence.PersistenceException;
@@ -37,6 +39,20 @@ public class InventoryRepositoryWrapper {
                 "skuCode", skuCode);
     }
 
+    public Optional<Inventory> findBySkuCodeForUpdate(String skuCode) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.findBySkuCodeForUpdate(skuCode),
+                "locking inventory by SKU code",
+                "skuCode", skuCode);
+    }
+
+    public List<Inventory> findBySkuCodeInForUpdate(List<String> skuCodes) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.findBySkuCodeInForUpdate(skuCodes),
+                "locking inventory by SKU codes",
+                "skuCodes", skuCodes);
+    }
+
     public List<Inventory> findBySkuCodeIn(List<String> skuCodes) throws InternalServerException {
         return exceptionHandler.executeInventoryOperation(
                 () -> inventoryRepository.findBySkuCodeIn(skuCodes),
@@ -44,6 +60,42 @@ public class InventoryRepositoryWrapper {
                 "skuCodes", skuCodes);
     }
 
+    public List<ItemStockLevel> findStockLevelsBySkuCodeIn(List<String> skuCodes) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.findStockLevelsBySkuCodeIn(skuCodes),
+                "finding stock levels by SKU codes",
+                "skuCodes", skuCodes);
+    }
+
+    public List<ItemStockLevel> findStockLevelsAfterSkuCode(String afterSkuCode, int limit)
+            throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.findStockLevelsAfterSkuCode(afterSkuCode, PageRequest.of(0, limit)),
+                "finding stock levels after SKU code",
+                "afterSkuCode", afterSkuCode, "limit", limit);
+    }
+
+    public int reserveQuantityIfAvailable(String skuCode, int quantity) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.reserveQuantityIfAvailable(skuCode, quantity),
+                "reserving inventory quantity",
+                "skuCode", skuCode, "quantity", quantity);
+    }
+
+    public int adjustReservedQuantityBySkuCode(String skuCode, int delta) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.adjustReservedQuantityBySkuCode(skuCode, delta),
+                "adjusting reserved inventory quantity",
+                "skuCode", skuCode, "delta", delta);
+    }
+
+    public int clearReservedQuantityBySkuCode(String skuCode) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.clearReservedQuantityBySkuCode(skuCode),
+                "clearing reserved inventory quantity",
+                "skuCode", skuCode);
+    }
+
     public int updateQuantityBySkuCode(String skuCode, int quantity)
             throws InternalServerException, NegativeQuantityException {
         try {
@@ -69,31 +121,22 @@ public class InventoryRepositoryWrapper {
         }
     }
 
-    public int deductQuantityBySkuCode(String skuCode, int deductionQuantity)
-            throws InternalServerException, InsufficientQuantityException {
-        try {
-            return inventoryRepository.deductQuantityBySkuCode(skuCode, deductionQuantity);
-        } catch (DataAccessException e) {
-            if (e.getCause() instanceof ConstraintViolationException) {
-                log.warn("Insufficient quantity for deduction - SKU: {}, deductionQuantity: {}", skuCode,
-                        deductionQuantity);
-                throw new InsufficientQuantityException();
-            }
-            log.error(
-                    "DataAccessException when deducting inventory quantity - Context: skuCode, {}, deductionQuantity, {} - Error: {}",
-                    skuCode, deductionQuantity, e.getMessage(), e);
-            throw new InternalServerException();
-        } catch (PersistenceException e) {
-            log.error(
-                    "PersistenceException when deducting inventory quantity - Context: skuCode, {}, deductionQuantity, {} - Error: {}",
-                    skuCode, deductionQuantity, e.getMessage(), e);
-            throw new InternalServerException();
-        } catch (Exception e) {
-            log.error(
-                    "Exception when deducting inventory quantity - Context: skuCode, {}, deductionQuantity, {} - Error: {}",
-                    skuCode, deductionQuantity, e.getMessage(), e);
-            throw new InternalServerException();
-        }
+    public List<String> deductQuantitiesIfAvailable(Map<String, Integer> deductionQuantities)
+            throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> inventoryRepository.deductQuantitiesIfAvailable(deductionQuantities),
+                "deducting inventory quantities",
+                "deductionQuantities", deductionQuantities);
+    }
+
+    public void upsertOnHandQuantities(Map<String, Integer> onHandQuantities) throws InternalServerException {
+        exceptionHandler.executeInventoryOperation(
+                () -> {
+                    inventoryRepository.upsertOnHandQuantities(onHandQuantities);
+                    return null;
+                },
+                "upserting inventory quantities",
+                "skuCount", onHandQuantities.size());
     }
 
     public int deleteBySkuCode(String skuCode) throws InternalServerException {
@@ -1,12 +1,21 @@
 package com.orderproduct.inventoryservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import lombok.NonNull;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
@@ -14,9 +23,39 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @NonNull
     List<Reservation> findBySkuCodeInAndStatus(List<String> skuCodes, ReservationState status);
 
+    // One row per SKU, served from idx_sku_code_status, instead of one entity per reservation
+    @NonNull
+    @Query("SELECT new com.orderproduct.inventoryservice.domain.ReservedItemQuantity(r.skuCode, CAST(SUM(r.reservedQuantity) AS Integer)) "
+            + "FROM Reservation r WHERE r.skuCode IN :skuCodes AND r.status = :status GROUP BY r.skuCode")
+    List<ReservedItemQuantity> sumReservedQuantitiesBySkuCodeInAndStatus(@Param("skuCodes") List<String> skuCodes,
+            @Param("status") ReservationState status);
+
     @NonNull
     List<Reservation> findByOrderNumber(String orderNumber);
 
+    // Locks the order's reservations so state changes and expiry cannot both release them
+    @NonNull
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.orderNumber = :orderNumber")
+    List<Reservation> findByOrderNumberForUpdate(@Param("orderNumber") String orderNumber);
+
+    @NonNull
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Reservation r WHERE r.orderNumber IN :orderNumbers")
+    List<Reservation> findByOrderNumberInForUpdate(@Param("orderNumbers") List<String> orderNumbers);
+
+    /**
+     * Claims the oldest reservations in {@code status} reserved before the cutoff.
+     * Rows locked by another transaction are skipped (SKIP LOCKED), so several
+     * instances can sweep at once without waiting on or double-processing rows.
+     */
+    @NonNull
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM Reservation r WHERE r.status = :status AND r.reservedAt < :reservedBefore ORDER BY r.reservedAt")
+    List<Reservation> claimByStatusAndReservedAtBefore(@Param("status") ReservationState status,
+            @Param("reservedBefore") LocalDateTime reservedBefore, Pageable pageable);
+
     @NonNull
     List<Reservation> findByOrderNumberAndSkuCodeIn(String orderNumber, List<String> skuCodes);
 
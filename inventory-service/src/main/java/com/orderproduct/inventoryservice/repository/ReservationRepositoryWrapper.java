@@ -1,14 +1,17 @@
 package com.orderproduct.inventoryservice.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
+import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 
@@ -36,6 +39,14 @@ public class ReservationRepositoryWrapper {
                 "skuCodes", skuCodes, "status", status);
     }
 
+    public List<ReservedItemQuantity> sumReservedQuantitiesBySkuCodeInAndStatus(List<String> skuCodes,
+            ReservationState status) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodes, status),
+                "summing reserved quantities by SKU codes and status",
+                "skuCodes", skuCodes, "status", status);
+    }
+
     public List<Reservation> findByOrderNumber(String orderNumber) throws InternalServerException {
         return exceptionHandler.executeInventoryOperation(
                 () -> reservationRepository.findByOrderNumber(orderNumber),
@@ -43,6 +54,29 @@ public class ReservationRepositoryWrapper {
                 "orderNumber", orderNumber);
     }
 
+    public List<Reservation> findByOrderNumberForUpdate(String orderNumber) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> reservationRepository.findByOrderNumberForUpdate(orderNumber),
+                "locking reservations by order number",
+                "orderNumber", orderNumber);
+    }
+
+    public List<Reservation> findByOrderNumberInForUpdate(List<String> orderNumbers) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> reservationRepository.findByOrderNumberInForUpdate(orderNumbers),
+                "locking reservations by order numbers",
+                "orderNumbers", orderNumbers);
+    }
+
+    public List<Reservation> claimByStatusAndReservedAtBefore(ReservationState status, LocalDateTime reservedBefore,
+            int limit) throws InternalServerException {
+        return exceptionHandler.executeInventoryOperation(
+                () -> reservationRepository.claimByStatusAndReservedAtBefore(status, reservedBefore,
+                        PageRequest.of(0, limit)),
+                "claiming reservations by status and reserved time",
+                "status", status, "reservedBefore", reservedBefore, "limit", limit);
+    }
+
     public List<Reservation> findByOrderNumberAndSkuCodeIn(String orderNumber, List<String> skuCodes)
             throws InternalServerException {
         return exceptionHandler.executeInventoryOperation(
@@ -0,0 +1,91 @@
+package com.orderproduct.inventoryservice.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.service.reservation.ReservationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Expires PENDING reservations older than {@code inventory.reservation.expiry.ttl},
+ * e.g. when the order was never saved or its CANCELLED event was lost.
+ * <p>
+ * Each batch is its own transaction, and a run stops after
+ * {@code max-batches-per-run} batches so a large backlog is worked off over
+ * several runs. Batches claim rows with SKIP LOCKED, so every instance can run
+ * the sweeper at the same time.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "inventory.reservation.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservationExpiryJob {
+
+    private final ReservationService reservationService;
+    private final TimeProvider timeProvider;
+    private final Duration ttl;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter expiredCounter;
+    private final Timer sweepTimer;
+
+    public ReservationExpiryJob(ReservationService reservationService,
+            TimeProvider timeProvider,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.reservation.expiry.ttl:PT30M}") Duration ttl,
+            @Value("${inventory.reservation.expiry.batch-size:200}") int batchSize,
+            @Value("${inventory.reservation.expiry.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.reservationService = reservationService;
+        this.timeProvider = timeProvider;
+        this.ttl = ttl;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.expiredCounter = Counter.builder("inventory.reservation.expired")
+                .description("PENDING reservations moved to EXPIRED by the expiry sweeper")
+                .register(meterRegistry);
+        this.sweepTimer = Timer.builder("inventory.reservation.expiry.sweep")
+                .description("Duration of one reservation expiry sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${inventory.reservation.expiry.interval:PT1M}",
+            fixedDelayString = "${inventory.reservation.expiry.interval:PT1M}")
+    public void expire() {
+        Timer.Sample sample = Timer.start();
+        try {
+            int expired = expireStaleReservations();
+            if (expired > 0) {
+                log.info("Expired {} reservations older than {}", expired, ttl);
+            }
+        } catch (InternalServerException | DuplicateReservationException e) {
+            log.error("Reservation expiry sweep failed, will retry on the next run");
+        } finally {
+            sample.stop(sweepTimer);
+        }
+    }
+
+    int expireStaleReservations() throws InternalServerException, DuplicateReservationException {
+        LocalDateTime reservedBefore = timeProvider.getCurrentTimestamp().minus(ttl);
+        int expired = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int batchExpired = reservationService.expireStaleReservations(reservedBefore, batchSize).size();
+            expired += batchExpired;
+            expiredCounter.increment(batchExpired);
+            if (batchExpired < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,75 @@
+package com.orderproduct.inventoryservice.scheduler;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.service.inventory.ReservedQuantityReconciliationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Periodically walks all SKUs and repairs {@code inventory.reserved_quantity}
+ * where it no longer matches the PENDING reservations. Drift is not expected;
+ * repairs are logged and counted in {@code inventory.reservation.reconciliation.repaired}.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "inventory.reservation.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class ReservedQuantityReconciliationJob {
+
+    private final ReservedQuantityReconciliationService reconciliationService;
+    private final int batchSize;
+    private final Counter repairedCounter;
+
+    public ReservedQuantityReconciliationJob(ReservedQuantityReconciliationService reconciliationService,
+            MeterRegistry meterRegistry,
+            @Value("${inventory.reservation.reconciliation.batch-size:500}") int batchSize) {
+        this.reconciliationService = reconciliationService;
+        this.batchSize = batchSize;
+        this.repairedCounter = Counter.builder("inventory.reservation.reconciliation.repaired")
+                .description("SKUs whose reserved quantity had drifted from their pending reservations")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${inventory.reservation.reconciliation.interval:PT10M}",
+            fixedDelayString = "${inventory.reservation.reconciliation.interval:PT10M}")
+    public void reconcile() {
+        try {
+            int repaired = reconcileAll();
+            if (repaired > 0) {
+                log.warn("Reserved quantity reconciliation repaired {} SKUs", repaired);
+            } else {
+                log.debug("Reserved quantity reconciliation found no drift");
+            }
+        } catch (InternalServerException e) {
+            log.error("Reserved quantity reconciliation failed, will retry on the next run");
+        }
+    }
+
+    int reconcileAll() throws InternalServerException {
+        int repaired = 0;
+        String afterSkuCode = "";
+        List<ItemStockLevel> page;
+        do {
+            page = reconciliationService.stockLevelsAfter(afterSkuCode, batchSize);
+            for (String skuCode : reconciliationService.findDriftedSkuCodes(page)) {
+                if (reconciliationService.repair(skuCode)) {
+                    repaired++;
+                    repairedCounter.increment();
+                }
+            }
+            if (!page.isEmpty()) {
+                afterSkuCode = page.get(page.size() - 1).skuCode();
+            }
+        } while (page.size() == batchSize);
+        return repaired;
+    }
+}
@@ -1,30 +1,42 @@
 package com.orderproduct.inventoryservice.service;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.orderproduct.inventoryservice.cache.AvailabilityCache;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
-import com.orderproduct.inventoryservice.common.util.InventoryCalculationUtils;
-import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
-import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
 import com.orderproduct.inventoryservice.service.inventory.ItemOnHandService;
-import com.orderproduct.inventoryservice.service.reservation.ReservationService;
 
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
 @Slf4j
-@AllArgsConstructor
 public class InventoryAvailabilityService {
 
     private final ItemOnHandService itemOnHandService;
-    private final ReservationService reservationService;
+    private final AvailabilityCache availabilityCache;
+    private final int chunkSize;
+
+    public InventoryAvailabilityService(ItemOnHandService itemOnHandService,
+            AvailabilityCache availabilityCache,
+            @Value("${inventory.availability.chunk-size:1000}") int chunkSize) {
+        this.itemOnHandService = itemOnHandService;
+        this.availabilityCache = availabilityCache;
+        this.chunkSize = chunkSize;
+    }
 
     @Transactional(readOnly = true)
     @NonNull
@@ -32,35 +44,57 @@ public class InventoryAvailabilityService {
             throws InternalServerException {
         log.info("Calculating available inventory for {} SKU codes: {}", skuCodes.size(), skuCodes);
 
-        // Create maps for efficient lookup
-        Map<String, Integer> inventoryQuantityMap = skuCodeToOnHandsQuantityMap(skuCodes);
-        Map<String, Integer> reservedQuantityMap = skuCodeToReservedQuantityMap(skuCodes);
-
-        List<AvailableInventoryResponse> result = skuCodes.stream()
-                .map(skuCode -> {
-                    int availableQuantity = InventoryCalculationUtils.calculateAvailableQuantity(skuCode,
-                            inventoryQuantityMap,
-                            reservedQuantityMap);
-                    return new AvailableInventoryResponse(skuCode, availableQuantity);
-                })
-                .toList();
+        List<AvailableInventoryResponse> result = availableInventory(skuCodes);
 
         log.debug("Calculated available inventory for {} SKUs", result.size());
         return result;
     }
 
-    private Map<String, Integer> skuCodeToOnHandsQuantityMap(List<String> skuCodes)
+    /**
+     * Available inventory for a large set of SKU codes, one chunk of
+     * {@code inventory.availability.chunk-size} SKUs at a time. Repeated SKU codes
+     * are answered once. The stream is lazy: each chunk is read with its own IN
+     * query only when the stream reaches it, so a caller can send a chunk before
+     * the next one is read.
+     */
+    @NonNull
+    public Stream<List<AvailableInventoryResponse>> streamAvailableInventory(@NonNull Collection<String> skuCodes) {
+        List<String> distinctSkuCodes = List.copyOf(new LinkedHashSet<>(skuCodes));
+        int chunks = (distinctSkuCodes.size() + chunkSize - 1) / chunkSize;
+        log.info("Calculating available inventory for {} SKU codes in {} chunks", distinctSkuCodes.size(), chunks);
+
+        return IntStream.range(0, chunks)
+                .mapToObj(chunk -> distinctSkuCodes.subList(chunk * chunkSize,
+                        Math.min((chunk + 1) * chunkSize, distinctSkuCodes.size())))
+                .map(this::availableInventory);
+    }
+
+    private List<AvailableInventoryResponse> availableInventory(List<String> skuCodes)
             throws InternalServerException {
-        List<ItemOnHandQuantity> itemOnHandQuantityList = itemOnHandService.itemAvailabilities(skuCodes);
-        Map<String, Integer> result = InventoryCalculationUtils
-                .createSkuCodeToOnHandsQuantityMap(itemOnHandQuantityList);
-        return result;
+        Map<String, Integer> availableQuantityMap = new HashMap<>(availabilityCache.getAll(skuCodes));
+        List<String> uncachedSkuCodes = skuCodes.stream()
+                .filter(skuCode -> !availableQuantityMap.containsKey(skuCode))
+                .toList();
+        if (!uncachedSkuCodes.isEmpty()) {
+            long generation = availabilityCache.currentGeneration();
+            Map<String, Integer> loaded = skuCodeToAvailableQuantityMap(uncachedSkuCodes);
+            // SKUs without an inventory row are cached as unavailable too
+            Map<String, Integer> uncachedQuantities = new HashMap<>();
+            uncachedSkuCodes.forEach(skuCode -> uncachedQuantities.put(skuCode, loaded.getOrDefault(skuCode, 0)));
+            availabilityCache.putAll(uncachedQuantities, generation);
+            availableQuantityMap.putAll(uncachedQuantities);
+        }
+
+        return skuCodes.stream()
+                .map(skuCode -> new AvailableInventoryResponse(skuCode, availableQuantityMap.get(skuCode)))
+                .toList();
     }
 
-    private Map<String, Integer> skuCodeToReservedQuantityMap(List<String> skuCodes) {
-        List<ReservedItemQuantity> reservedQuantityList = reservationService.findPendingReservedQuantities(skuCodes);
-        Map<String, Integer> result = InventoryCalculationUtils
-                .createSkuCodeToReservedQuantityMap(reservedQuantityList);
-        return result;
+    private Map<String, Integer> skuCodeToAvailableQuantityMap(List<String> skuCodes)
+            throws InternalServerException {
+        // One inventory row per SKU carries both on-hand and reserved quantities,
+        // so this does not depend on how many reservations are open.
+        return itemOnHandService.stockLevels(skuCodes).stream()
+                .collect(Collectors.toMap(ItemStockLevel::skuCode, ItemStockLevel::availableQuantity));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package com.orderproduct.inventoryservice.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.dto.request.StockLevelImportRecord;
+import com.orderproduct.inventoryservice.dto.response.InventoryImportResponse;
+import com.orderproduct.inventoryservice.dto.response.RejectedStockLevel;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Imports stock levels from a CSV or NDJSON body, e.g. a nightly warehouse
+ * sync.
+ * <p>
+ * The body is read one line at a time, so it is never held in memory. Valid
+ * rows are upserted in chunks of {@code inventory.import.chunk-size}, and each
+ * chunk is committed in its own transaction. Invalid rows are rejected without
+ * failing their chunk. If a chunk cannot be written, the import stops with an
+ * {@link InternalServerException}. The chunks committed before it stay
+ * committed, and because an upsert sets absolute quantities the whole file can
+ * simply be sent again.
+ */
+@Service
+@Slf4j
+public class InventoryImportService {
+
+    static final String SKU_CODE_COLUMN = "skuCode";
+    static final String QUANTITY_COLUMN = "quantity";
+    static final String MALFORMED_ROW_MSG = "Row could not be parsed.";
+
+    private final InventoryManagementService inventoryManagementService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxRejectedRows;
+    // Without a schema each CSV line is read as an array of its (unquoted) fields
+    private final ObjectReader csvLineReader = new CsvMapper().readerFor(String[].class);
+
+    public InventoryImportService(InventoryManagementService inventoryManagementService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${inventory.import.chunk-size:1000}") int chunkSize,
+            @Value("${inventory.import.max-rejected-rows:1000}") int maxRejectedRows) {
+        this.inventoryManagementService = inventoryManagementService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxRejectedRows = maxRejectedRows;
+    }
+
+    /**
+     * Imports a CSV body. The first line is a header naming a {@code skuCode} and
+     * a {@code quantity} column, in any order; other columns are ignored.
+     *
+     * @throws IllegalArgumentException if the header is missing either column
+     */
+    @NonNull
+    public InventoryImportResponse importCsv(@NonNull InputStream body) throws InternalServerException {
+        try (BufferedReader reader = reader(body)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return new StockLevelImport().toResponse();
+            }
+            List<String> columns = Arrays.stream(csvLineReader.<String[]>readValue(header)).map(String::trim).toList();
+            int skuCodeIndex = columns.indexOf(SKU_CODE_COLUMN);
+            int quantityIndex = columns.indexOf(QUANTITY_COLUMN);
+            if (skuCodeIndex < 0 || quantityIndex < 0) {
+                throw new IllegalArgumentException(
+                        "CSV header must contain the columns " + SKU_CODE_COLUMN + " and " + QUANTITY_COLUMN + ".");
+            }
+
+            return importLines(reader, 1, line -> {
+                String[] fields = csvLineReader.readValue(line);
+                String quantity = field(fields, quantityIndex);
+                return new StockLevelImportRecord(field(fields, skuCodeIndex),
+                        quantity == null || quantity.isBlank() ? null : Integer.valueOf(quantity.trim()));
+            });
+        } catch (IOException e) {
+            log.error("Failed to read the CSV stock-level import - Error: {}", e.getMessage(), e);
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * Imports a newline-delimited JSON body with one
+     * {@code {"skuCode": ..., "quantity": ...}} object per line.
+     */
+    @NonNull
+    public InventoryImportResponse importNdjson(@NonNull InputStream body) throws InternalServerException {
+        try (BufferedReader reader = reader(body)) {
+            return importLines(reader, 0, line -> objectMapper.readValue(line, StockLevelImportRecord.class));
+        } catch (IOException e) {
+            log.error("Failed to read the NDJSON stock-level import - Error: {}", e.getMessage(), e);
+            throw new InternalServerException();
+        }
+    }
+
+    private InventoryImportResponse importLines(BufferedReader reader, long linesRead, LineParser parser)
+            throws IOException, InternalServerException {
+        StockLevelImport stockLevelImport = new StockLevelImport();
+        long lineNumber = linesRead;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            StockLevelImportRecord record;
+            try {
+                record = parser.parse(line);
+            } catch (IOException | NumberFormatException e) {
+                record = null;
+            }
+            if (record == null) {
+                stockLevelImport.reject(lineNumber, null, MALFORMED_ROW_MSG);
+                continue;
+            }
+            String violations = violations(record);
+            if (violations.isEmpty()) {
+                stockLevelImport.accept(record);
+            } else {
+                stockLevelImport.reject(lineNumber, record.skuCode(), violations);
+            }
+        }
+        stockLevelImport.flush();
+
+        InventoryImportResponse response = stockLevelImport.toResponse();
+        log.info("Imported stock levels - received: {}, upserted: {}, rejected: {}",
+                response.received(), response.upserted(), response.rejected());
+        return response;
+    }
+
+    private String violations(StockLevelImportRecord record) {
+        return validator.validate(record).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String field(String[] fields, int index) {
+        return index < fields.length ? fields[index] : null;
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        StockLevelImportRecord parse(String line) throws IOException;
+    }
+
+    // Progress of a single import: the pending chunk and the counts so far
+    private class StockLevelImport {
+
+        // A SKU repeated within a chunk keeps its last quantity, as it would with one upsert per row
+        private Map<String, Integer> chunk = new LinkedHashMap<>();
+        private final List<RejectedStockLevel> rejectedRows = new ArrayList<>();
+        private int chunkRows;
+        private long received;
+        private long upserted;
+        private long rejected;
+
+        void accept(StockLevelImportRecord record) throws InternalServerException {
+            received++;
+            chunk.put(record.skuCode(), record.quantity());
+            chunkRows++;
+            if (chunkRows == chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long lineNumber, String skuCode, String reason) {
+            received++;
+            rejected++;
+            if (rejectedRows.size() < maxRejectedRows) {
+                rejectedRows.add(new RejectedStockLevel(lineNumber, skuCode, reason));
+            }
+        }
+
+        void flush() throws InternalServerException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                inventoryManagementService.upsertStockLevels(chunk);
+            } catch (InternalServerException e) {
+                log.error("Stock-level import stopped after {} upserted rows: a chunk of {} rows failed",
+                        upserted, chunkRows);
+                throw e;
+            }
+            upserted += chunkRows;
+            chunk = new LinkedHashMap<>();
+            chunkRows = 0;
+        }
+
+        InventoryImportResponse toResponse() {
+            return new InventoryImportResponse(received, upserted, rejected, List.copyOf(rejectedRows));
+        }
+    }
+}
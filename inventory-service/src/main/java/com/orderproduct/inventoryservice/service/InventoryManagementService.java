@@ -1,5 +1,7 @@
 package com.orderproduct.inventoryservice.service;
 
+import java.util.Map;
+
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -53,6 +55,18 @@ public class InventoryManagementService {
                 return response;
         }
 
+        /**
+         * Sets on-hand quantities for a chunk of SKUs in a single transaction,
+         * creating SKUs that do not exist yet.
+         */
+        @Transactional
+        public void upsertStockLevels(@NonNull Map<String, Integer> onHandQuantities)
+                        throws InternalServerException {
+                log.info("Upserting stock levels for {} SKUs", onHandQuantities.size());
+                itemOnHandService.upsertOnHandQuantities(onHandQuantities);
+                log.debug("Successfully upserted stock levels for {} SKUs", onHandQuantities.size());
+        }
+
         @Transactional
         public void deleteInventory(@NonNull String skuCode) throws InternalServerException, NotFoundException {
                 log.info("Deleting inventory for SKU: {}", skuCode);
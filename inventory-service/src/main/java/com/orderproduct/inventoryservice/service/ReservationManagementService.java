@@ -2,6 +2,8 @@ package com.orderproduct.inventoryservice.service;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -10,16 +12,14 @@ import com.orderproduct.inventoryservice.common.exception.DuplicateReservationEx
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
 import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
-import com.orderproduct.inventoryservice.common.util.InventoryCalculationUtils;
-import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
-import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateRequest;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
-import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
 import com.orderproduct.inventoryservice.dto.response.ReservationStateUpdateResponse;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.service.inventory.ItemOnHandService;
+import com.orderproduct.inventoryservice.service.reservation.ReservationCoalescer;
 import com.orderproduct.inventoryservice.service.reservation.ReservationService;
 
 import lombok.AllArgsConstructor;
@@ -32,63 +32,50 @@ public class ReservationManagementService {
 
         private final ItemOnHandService itemOnHandService;
         private final ReservationService reservationService;
+        private final ReservationCoalescer reservationCoalescer;
 
-        @Transactional
+        // Not transactional: with coalescing, the caller must not hold a connection while its batch runs.
+        // Otherwise the reservation commits on its own and availability is read afterwards, without row locks.
         public List<AvailableInventoryResponse> reserveProductsIfAvailable(OrderReservationRequest request)
                         throws NotEnoughItemException, InternalServerException, OrderReservationNotAllowedException,
                         DuplicateReservationException {
                 log.info("Attempting to reserve products for order: {} with {} items",
                                 request.orderNumber(), request.itemReservationRequests().size());
 
-                List<String> skuCodes = extractSkuCodes(request);
-
-                // Create maps for efficient lookup
-                Map<String, Integer> skuCodeToOnHandsQuantityMap = skuCodeToOnHandsQuantityMap(skuCodes);
-                Map<String, Integer> skuCodeToReservedQuantityMap = skuCodeToReservedQuantityMap(skuCodes);
-
-                // Find unavailable products
-                List<ItemAvailability> unavailableItems = request.itemReservationRequests().stream()
-                                .map(requestedItem -> {
-                                        String skuCode = requestedItem.skuCode();
-                                        int requestedQuantity = requestedItem.quantity();
-                                        int availableQuantity = InventoryCalculationUtils.calculateAvailableQuantity(
-                                                        skuCode,
-                                                        skuCodeToOnHandsQuantityMap,
-                                                        skuCodeToReservedQuantityMap);
-                                        return new ItemAvailability(skuCode, requestedQuantity, availableQuantity);
-                                })
-                                .filter(itemAvailability -> itemAvailability.requestedQuantity() > itemAvailability
-                                                .availableQuantity())
-                                .toList();
-
-                // If there are any unavailable products, throw NotEnoughItemException
-                if (!unavailableItems.isEmpty()) {
-                        log.debug("Insufficient item for order: {}. Unavailable products: {}",
-                                        request.orderNumber(), unavailableItems);
-                        throw new NotEnoughItemException(unavailableItems);
+                if (reservationCoalescer.isEnabled()) {
+                        return reservationCoalescer.reserveProducts(request);
                 }
 
-                // Reserve products
+                // Availability is checked and reserved in one conditional update per SKU,
+                // so concurrent orders for the same SKU cannot oversell.
                 reservationService.reserveProducts(request);
 
                 // Return available inventory for each SKU with updated quantities
+                Map<String, Integer> skuCodeToAvailableQuantityMap = skuCodeToAvailableQuantityMap(
+                                extractSkuCodes(request));
                 List<AvailableInventoryResponse> result = request.itemReservationRequests().stream()
-                                .map(requestedItem -> {
-                                        String skuCode = requestedItem.skuCode();
-                                        int requestedQuantity = requestedItem.quantity();
-                                        int originalAvailableQuantity = InventoryCalculationUtils
-                                                        .calculateAvailableQuantity(skuCode,
-                                                                        skuCodeToOnHandsQuantityMap,
-                                                                        skuCodeToReservedQuantityMap);
-                                        int updatedAvailableQuantity = originalAvailableQuantity - requestedQuantity;
-                                        return new AvailableInventoryResponse(skuCode, updatedAvailableQuantity);
-                                })
+                                .map(requestedItem -> new AvailableInventoryResponse(
+                                                requestedItem.skuCode(),
+                                                skuCodeToAvailableQuantityMap.getOrDefault(requestedItem.skuCode(), 0)))
                                 .toList();
 
                 log.debug("Returning updated availability for {} SKUs after reservation", result.size());
                 return result;
         }
 
+        /**
+         * Reserves several orders, each in full or not at all, e.g. for gRPC ReserveProductsBatch. They are
+         * reserved together, through {@link ReservationCoalescer}, instead of in one transaction per order.
+         *
+         * @return one future per request, in request order, completed with the order's available inventory or
+         *         with the exception {@link #reserveProductsIfAvailable} would have thrown
+         */
+        public List<CompletableFuture<List<AvailableInventoryResponse>>> reserveProductsBatch(
+                        List<OrderReservationRequest> requests) {
+                log.info("Attempting to reserve products for {} orders in one batch", requests.size());
+                return reservationCoalescer.submitAll(requests);
+        }
+
         @Transactional
         public ReservationStateUpdateResponse updateReservationState(ReservationStateUpdateRequest request)
                         throws InternalServerException {
@@ -118,19 +105,9 @@ public class ReservationManagementService {
                                 .toList();
         }
 
-        private Map<String, Integer> skuCodeToOnHandsQuantityMap(List<String> skuCodes)
+        private Map<String, Integer> skuCodeToAvailableQuantityMap(List<String> skuCodes)
                         throws InternalServerException {
-                List<ItemOnHandQuantity> itemOnHandQuantityList = itemOnHandService.itemAvailabilities(skuCodes);
-                Map<String, Integer> result = InventoryCalculationUtils
-                                .createSkuCodeToOnHandsQuantityMap(itemOnHandQuantityList);
-                return result;
-        }
-
-        private Map<String, Integer> skuCodeToReservedQuantityMap(List<String> skuCodes) {
-                List<ReservedItemQuantity> reservedQuantityList = reservationService
-                                .findPendingReservedQuantities(skuCodes);
-                Map<String, Integer> result = InventoryCalculationUtils
-                                .createSkuCodeToReservedQuantityMap(reservedQuantityList);
-                return result;
+                return itemOnHandService.stockLevels(skuCodes).stream()
+                                .collect(Collectors.toMap(ItemStockLevel::skuCode, ItemStockLevel::availableQuantity));
         }
-}
\ No newline at end of file
+}
@@ -0,0 +1,15 @@
+package com.orderproduct.inventoryservice.service.inventory;
+
+import java.util.Map;
+
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+
+/**
+ * Outcome of {@link InventoryAllocationService#allocateTogether}: the orders
+ * that could not be allocated, by their position in the batch, and the stock
+ * levels of every SKU in the batch once the others were allocated.
+ */
+public record BatchAllocation(Map<Integer, NotEnoughItemException> rejectedOrders,
+        Map<String, ItemStockLevel> stockLevels) {
+}
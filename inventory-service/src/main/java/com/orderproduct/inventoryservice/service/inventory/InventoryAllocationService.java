@@ -0,0 +1,209 @@
+package com.orderproduct.inventoryservice.service.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
+import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.repository.InventoryRepositoryWrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code inventory.reserved_quantity} in step with PENDING reservations.
+ * <p>
+ * Reservations are taken with one conditional update per SKU
+ * ({@code ... WHERE on_hand_quantity - reserved_quantity >= :quantity}), so the
+ * availability check and the reservation are a single atomic step and
+ * concurrent orders cannot oversell. Each update locks its inventory row until
+ * the transaction ends; SKUs are always processed in sorted order so two
+ * orders sharing SKUs cannot deadlock.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class InventoryAllocationService {
+
+    private final InventoryRepositoryWrapper inventoryRepository;
+    private final AvailabilityCacheInvalidator availabilityCacheInvalidator;
+
+    /**
+     * Applies the reservation changes of an order.
+     *
+     * @throws NotEnoughItemException if any SKU cannot cover its increase, which
+     *                                rolls back the surrounding transaction
+     */
+    @Transactional
+    public void allocate(@NonNull List<ReservationAllocation> allocations)
+            throws InternalServerException, NotEnoughItemException {
+        List<ReservationAllocation> failed = new ArrayList<>();
+        for (ReservationAllocation allocation : sortedBySkuCode(allocations)) {
+            int delta = allocation.quantityDelta();
+            if (delta > 0) {
+                if (inventoryRepository.reserveQuantityIfAvailable(allocation.skuCode(), delta) == 0) {
+                    failed.add(allocation);
+                }
+            } else if (delta < 0) {
+                adjustReservedQuantity(allocation.skuCode(), delta);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            List<ItemAvailability> unavailableItems = toUnavailableItems(allocations, failed);
+            log.debug("Insufficient items, unavailable products: {}", unavailableItems);
+            throw new NotEnoughItemException(unavailableItems);
+        }
+        availabilityCacheInvalidator.invalidateAfterCommit(allocations.stream()
+                .filter(allocation -> allocation.quantityDelta() != 0)
+                .map(ReservationAllocation::skuCode)
+                .toList());
+        log.debug("Allocated reserved quantities for {} SKUs", allocations.size());
+    }
+
+    /**
+     * Allocates several orders together, e.g. a batch of coalesced reservation
+     * requests. All their SKUs are locked with one query, in sorted order, and
+     * the orders are then checked in memory in batch order: an order is
+     * allocated in full or rejected, and a rejected order does not affect the
+     * others. The net change per SKU is written once at the end.
+     *
+     * @param allocationsPerOrder the allocations of each order in the batch
+     */
+    @NonNull
+    @Transactional
+    public BatchAllocation allocateTogether(@NonNull List<List<ReservationAllocation>> allocationsPerOrder)
+            throws InternalServerException {
+        List<String> skuCodes = allocationsPerOrder.stream()
+                .flatMap(List::stream)
+                .map(ReservationAllocation::skuCode)
+                .distinct()
+                .sorted()
+                .toList();
+        if (skuCodes.isEmpty()) {
+            return new BatchAllocation(Map.of(), Map.of());
+        }
+        Map<String, ItemStockLevel> lockedStockLevels = inventoryRepository.findBySkuCodeInForUpdate(skuCodes).stream()
+                .collect(Collectors.toMap(Inventory::getSkuCode, inventory -> new ItemStockLevel(
+                        inventory.getSkuCode(), inventory.getOnHandQuantity(), inventory.getReservedQuantity())));
+
+        Map<String, ItemStockLevel> stockLevels = new HashMap<>(lockedStockLevels);
+        Map<Integer, NotEnoughItemException> rejectedOrders = new HashMap<>();
+        for (int order = 0; order < allocationsPerOrder.size(); order++) {
+            List<ReservationAllocation> allocations = allocationsPerOrder.get(order);
+            Map<String, ItemStockLevel> allocated = new HashMap<>();
+            List<ReservationAllocation> failed = new ArrayList<>();
+            for (ReservationAllocation allocation : sortedBySkuCode(allocations)) {
+                ItemStockLevel stockLevel = allocated.getOrDefault(allocation.skuCode(),
+                        stockLevels.get(allocation.skuCode()));
+                int delta = allocation.quantityDelta();
+                if (delta > 0 && (stockLevel == null || stockLevel.availableQuantity() < delta)) {
+                    failed.add(allocation);
+                } else if (delta != 0 && stockLevel != null) {
+                    int reservedQuantity = stockLevel.reservedQuantity() + delta;
+                    if (reservedQuantity < 0) {
+                        logReservedQuantityDrift(allocation.skuCode(), -delta);
+                        reservedQuantity = 0;
+                    }
+                    allocated.put(allocation.skuCode(), new ItemStockLevel(allocation.skuCode(),
+                            stockLevel.onHandQuantity(), reservedQuantity));
+                }
+            }
+
+            if (failed.isEmpty()) {
+                stockLevels.putAll(allocated);
+            } else {
+                rejectedOrders.put(order, new NotEnoughItemException(toUnavailableItems(allocations, failed,
+                        stockLevels)));
+            }
+        }
+
+        Map<String, Integer> reservedQuantityChanges = new HashMap<>();
+        stockLevels.forEach((skuCode, stockLevel) -> reservedQuantityChanges.put(skuCode,
+                stockLevel.reservedQuantity() - lockedStockLevels.get(skuCode).reservedQuantity()));
+        adjustReservedQuantities(reservedQuantityChanges);
+        log.debug("Allocated {} of {} orders together over {} SKUs",
+                allocationsPerOrder.size() - rejectedOrders.size(), allocationsPerOrder.size(), skuCodes.size());
+        return new BatchAllocation(rejectedOrders, stockLevels);
+    }
+
+    /**
+     * Adjusts reserved quantities unconditionally, e.g. when reservations leave
+     * PENDING. A release larger than the reserved quantity means the counter has
+     * drifted: it is logged and the counter is set to 0, for the reconciliation
+     * job to restore from the PENDING reservations.
+     *
+     * @param reservedQuantityChanges SKU code to change in reserved quantity
+     */
+    @Transactional
+    public void adjustReservedQuantities(@NonNull Map<String, Integer> reservedQuantityChanges)
+            throws InternalServerException {
+        new TreeMap<>(reservedQuantityChanges).forEach((skuCode, delta) -> {
+            if (delta != 0) {
+                adjustReservedQuantity(skuCode, delta);
+            }
+        });
+        availabilityCacheInvalidator.invalidateAfterCommit(reservedQuantityChanges.entrySet().stream()
+                .filter(change -> change.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .toList());
+        log.debug("Adjusted reserved quantities for {} SKUs", reservedQuantityChanges.size());
+    }
+
+    private void adjustReservedQuantity(String skuCode, int delta) throws InternalServerException {
+        if (inventoryRepository.adjustReservedQuantityBySkuCode(skuCode, delta) == 0 && delta < 0
+                && inventoryRepository.clearReservedQuantityBySkuCode(skuCode) == 1) {
+            logReservedQuantityDrift(skuCode, -delta);
+        }
+    }
+
+    private void logReservedQuantityDrift(String skuCode, int released) {
+        log.warn("Reserved quantity of SKU: {} is below the {} being released; setting it to 0 until "
+                + "reconciliation repairs it", skuCode, released);
+    }
+
+    private List<ReservationAllocation> sortedBySkuCode(List<ReservationAllocation> allocations) {
+        return allocations.stream()
+                .sorted(Comparator.comparing(ReservationAllocation::skuCode))
+                .toList();
+    }
+
+    private List<ItemAvailability> toUnavailableItems(List<ReservationAllocation> allocations,
+            List<ReservationAllocation> failed) throws InternalServerException {
+        List<String> failedSkuCodes = failed.stream().map(ReservationAllocation::skuCode).toList();
+        Map<String, ItemStockLevel> stockLevels = inventoryRepository.findStockLevelsBySkuCodeIn(failedSkuCodes)
+                .stream()
+                .collect(Collectors.toMap(ItemStockLevel::skuCode, Function.identity()));
+        return toUnavailableItems(allocations, failed, stockLevels);
+    }
+
+    // Reported in request order; available is what this order could have taken, counting what it already holds.
+    private static List<ItemAvailability> toUnavailableItems(List<ReservationAllocation> allocations,
+            List<ReservationAllocation> failed, Map<String, ItemStockLevel> stockLevels) {
+        return allocations.stream()
+                .filter(failed::contains)
+                .map(allocation -> {
+                    ItemStockLevel stockLevel = stockLevels.get(allocation.skuCode());
+                    int available = stockLevel == null
+                            ? 0
+                            : stockLevel.availableQuantity() + allocation.previouslyReservedQuantity();
+                    return new ItemAvailability(allocation.skuCode(), allocation.requestedQuantity(), available);
+                })
+                .toList();
+    }
+}
@@ -1,12 +1,14 @@
 package com.orderproduct.inventoryservice.service.inventory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.orderproduct.inventoryservice.common.exception.InsufficientQuantityException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
-import com.orderproduct.inventoryservice.common.exception.NotFoundException;
 import com.orderproduct.inventoryservice.entity.Reservation;
 
 import lombok.AllArgsConstructor;
@@ -16,8 +18,9 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Service for handling inventory deduction operations when orders are
  * fulfilled.
- * This service orchestrates the deduction of inventory quantities for multiple
- * reservations.
+ * Quantities are summed per SKU and deducted in one batch, in sorted SKU order,
+ * so an order with many line items costs one round trip and concurrent
+ * deductions lock inventory rows in the same order.
  */
 @Service
 @Slf4j
@@ -32,29 +35,53 @@ public class InventoryDeductionService {
      * need to be deducted from the on-hand inventory.
      * 
      * @param fulfilledReservations List of reservations that have been fulfilled
-     * @throws InternalServerException if inventory deduction fails
+     * @throws InternalServerException       if inventory deduction fails
+     * @throws InsufficientQuantityException if any SKU has too little on hand
      */
     @Transactional
     public void deductInventoryForFulfilledOrder(@NonNull List<Reservation> fulfilledReservations)
-            throws InternalServerException {
+            throws InternalServerException, InsufficientQuantityException {
         log.debug("Processing inventory deduction for {} reservations", fulfilledReservations.size());
         if (fulfilledReservations.isEmpty()) {
             return;
         }
-        String orderNumber = fulfilledReservations.get(0).getOrderNumber();
-        for (Reservation reservation : fulfilledReservations) {
-            try {
-                itemOnHandService.deductInventoryQuantity(
-                        reservation.getSkuCode(),
-                        reservation.getReservedQuantity());
-            } catch (NotFoundException e) {
-                log.warn("SKU {} not found for order {} - skipping deduction",
-                        reservation.getSkuCode(), orderNumber);
-            } catch (InternalServerException e) {
-                log.error("Failed to deduct inventory for SKU {} in order {} - transaction will rollback",
-                        reservation.getSkuCode(), orderNumber);
-                throw e;
+        Map<String, Integer> deductionQuantities = fulfilledReservations.stream()
+                .collect(Collectors.toMap(Reservation::getSkuCode, Reservation::getReservedQuantity, Integer::sum));
+        deduct(deductionQuantities, "order " + fulfilledReservations.get(0).getOrderNumber());
+    }
+
+    /**
+     * Deducts summed quantities per SKU, e.g. for all orders fulfilled in one
+     * batch of events.
+     *
+     * @param deductionQuantities SKU code to quantity to deduct
+     * @throws InternalServerException       if inventory deduction fails
+     * @throws InsufficientQuantityException if any SKU has too little on hand
+     */
+    @Transactional
+    public void deductInventoryQuantities(@NonNull Map<String, Integer> deductionQuantities)
+            throws InternalServerException, InsufficientQuantityException {
+        log.debug("Processing inventory deduction for {} SKUs", deductionQuantities.size());
+        if (deductionQuantities.isEmpty()) {
+            return;
+        }
+        deduct(deductionQuantities, "batch of " + deductionQuantities.size() + " SKUs");
+    }
+
+    private void deduct(Map<String, Integer> deductionQuantities, String description)
+            throws InternalServerException, InsufficientQuantityException {
+        try {
+            List<String> missingSkuCodes = itemOnHandService.deductInventoryQuantities(deductionQuantities);
+            if (!missingSkuCodes.isEmpty()) {
+                log.warn("SKUs {} not found for {} - skipping deduction", missingSkuCodes, description);
             }
+        } catch (InsufficientQuantityException e) {
+            log.error("Insufficient inventory for SKUs {} in {} - transaction will rollback",
+                    e.getSkuCodes(), description);
+            throw e;
+        } catch (InternalServerException e) {
+            log.error("Failed to deduct inventory for {} - transaction will rollback", description);
+            throw e;
         }
     }
 }
@@ -1,16 +1,21 @@
 package com.orderproduct.inventoryservice.service.inventory;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.stereotype.Service;
 
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
 import com.orderproduct.inventoryservice.common.exception.DuplicateSkuCodeException;
 import com.orderproduct.inventoryservice.common.exception.InsufficientQuantityException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.NegativeQuantityException;
 import com.orderproduct.inventoryservice.common.exception.NotFoundException;
 import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.response.CreateInventoryResponse;
 import com.orderproduct.inventoryservice.dto.response.UpdateInventoryResponse;
 import com.orderproduct.inventoryservice.entity.Inventory;
@@ -26,6 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 public class ItemOnHandService {
 
     private final InventoryRepositoryWrapper inventoryRepository;
+    private final AvailabilityCacheInvalidator availabilityCacheInvalidator;
 
     @NonNull
     public List<ItemOnHandQuantity> itemAvailabilities(@NonNull List<String> skuCodes) throws InternalServerException {
@@ -38,10 +44,23 @@ public class ItemOnHandService {
         return result;
     }
 
+    /**
+     * Reads on-hand and reserved quantities straight from the database; SKUs
+     * without inventory are omitted.
+     */
+    @NonNull
+    public List<ItemStockLevel> stockLevels(@NonNull List<String> skuCodes) throws InternalServerException {
+        log.debug("Fetching stock levels for {} SKU codes", skuCodes.size());
+        List<ItemStockLevel> result = inventoryRepository.findStockLevelsBySkuCodeIn(skuCodes);
+        log.debug("Retrieved stock levels for {} SKUs", result.size());
+        return result;
+    }
+
     @NonNull
     public CreateInventoryResponse createInventory(@NonNull Inventory inventory)
             throws InternalServerException, DuplicateSkuCodeException {
         saveInventory(inventory);
+        availabilityCacheInvalidator.invalidateAfterCommit(List.of(inventory.getSkuCode()));
         return CreateInventoryResponse.success(inventory.getSkuCode());
     }
 
@@ -53,6 +72,7 @@ public class ItemOnHandService {
             log.warn("No inventory found to update for SKU: {}", skuCode);
             throw new NotFoundException();
         }
+        availabilityCacheInvalidator.invalidateAfterCommit(List.of(skuCode));
 
         return UpdateInventoryResponse.success(skuCode, quantity);
     }
@@ -63,16 +83,53 @@ public class ItemOnHandService {
             log.warn("No inventory found to delete for SKU: {}", skuCode);
             throw new NotFoundException();
         }
+        availabilityCacheInvalidator.invalidateAfterCommit(List.of(skuCode));
     }
 
-    public void deductInventoryQuantity(@NonNull String skuCode, int deductionQuantity)
-            throws InternalServerException, NotFoundException, InsufficientQuantityException {
-        int updatedCount = deductItemQuantity(skuCode, deductionQuantity);
-        if (updatedCount == 0) {
-            log.warn("No inventory found to deduct from for SKU: {}", skuCode);
-            throw new NotFoundException();
+    /**
+     * Sets on-hand quantities for many SKUs in one batch, creating SKUs that do
+     * not exist yet.
+     *
+     * @param onHandQuantities SKU code to new on-hand quantity
+     */
+    public void upsertOnHandQuantities(@NonNull Map<String, Integer> onHandQuantities)
+            throws InternalServerException {
+        log.debug("Upserting on-hand quantities for {} SKUs", onHandQuantities.size());
+        inventoryRepository.upsertOnHandQuantities(onHandQuantities);
+        availabilityCacheInvalidator.invalidateAfterCommit(onHandQuantities.keySet());
+    }
+
+    /**
+     * Deducts quantities for many SKUs in one batch, in sorted SKU order.
+     *
+     * @param deductionQuantities SKU code to quantity to deduct
+     * @return SKU codes without inventory, which are not deducted
+     * @throws InsufficientQuantityException listing every SKU whose on-hand
+     *                                       quantity is too low; the caller's
+     *                                       transaction must roll back
+     */
+    @NonNull
+    public List<String> deductInventoryQuantities(@NonNull Map<String, Integer> deductionQuantities)
+            throws InternalServerException, InsufficientQuantityException {
+        log.debug("Deducting inventory quantities for {} SKUs", deductionQuantities.size());
+        List<String> notDeducted = inventoryRepository.deductQuantitiesIfAvailable(deductionQuantities);
+        // Nothing is invalidated if the deduction throws, because the caller's transaction then rolls back
+        availabilityCacheInvalidator.invalidateAfterCommit(deductionQuantities.keySet());
+        if (notDeducted.isEmpty()) {
+            return List.of();
+        }
+
+        // Tell missing SKUs apart from SKUs with too little on hand
+        Set<String> existingSkuCodes = inventoryRepository.findStockLevelsBySkuCodeIn(notDeducted).stream()
+                .map(ItemStockLevel::skuCode)
+                .collect(Collectors.toSet());
+        List<String> insufficientSkuCodes = notDeducted.stream().filter(existingSkuCodes::contains).toList();
+        if (!insufficientSkuCodes.isEmpty()) {
+            log.warn("Insufficient quantity for deduction - SKUs: {}", insufficientSkuCodes);
+            throw new InsufficientQuantityException(insufficientSkuCodes);
         }
-        log.debug("Successfully deducted {} from inventory for SKU: {}", deductionQuantity, skuCode);
+        log.warn("No inventory found to deduct from for SKUs: {}", notDeducted);
+        return notDeducted;
     }
 
     private List<Inventory> getAvailableInventories(List<String> skuCodes) throws InternalServerException {
@@ -116,13 +173,6 @@ public class ItemOnHandService {
         return result;
     }
 
-    private int deductItemQuantity(@NonNull String skuCode, int deductionQuantity) throws InternalServerException {
-        log.debug("Deducting {} from inventory quantity for SKU: {}", deductionQuantity, skuCode);
-        int result = inventoryRepository.deductQuantityBySkuCode(skuCode, deductionQuantity);
-        log.debug("Deducted from {} inventory records for SKU: {}", result, skuCode);
-        return result;
-    }
-
     private List<ItemOnHandQuantity> getItemOnHandQuantity(List<String> skuCodes, List<Inventory> inventoryList)
             throws InternalServerException {
         return skuCodes.stream()
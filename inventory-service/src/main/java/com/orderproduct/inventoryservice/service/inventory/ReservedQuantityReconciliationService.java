@@ -0,0 +1,101 @@
+package com.orderproduct.inventoryservice.service.inventory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.InventoryRepositoryWrapper;
+import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifies {@code inventory.reserved_quantity} against the PENDING reservation
+ * rows it summarises, and repairs SKUs that have drifted.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class ReservedQuantityReconciliationService {
+
+    private final InventoryRepositoryWrapper inventoryRepository;
+    private final ReservationRepositoryWrapper reservationRepository;
+    private final AvailabilityCacheInvalidator availabilityCacheInvalidator;
+
+    /**
+     * Reads the next page of stock levels in SKU order.
+     *
+     * @param afterSkuCode last SKU code of the previous page, or "" for the first
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<ItemStockLevel> stockLevelsAfter(@NonNull String afterSkuCode, int limit)
+            throws InternalServerException {
+        return inventoryRepository.findStockLevelsAfterSkuCode(afterSkuCode, limit);
+    }
+
+    /**
+     * Compares the stock levels with the sum of their PENDING reservations without
+     * taking locks. Reservations in flight can show up as drift here, so callers
+     * should confirm each SKU with {@link #repair(String)}.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    public List<String> findDriftedSkuCodes(@NonNull List<ItemStockLevel> stockLevels)
+            throws InternalServerException {
+        if (stockLevels.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> pendingQuantities = pendingQuantities(
+                stockLevels.stream().map(ItemStockLevel::skuCode).toList());
+        return stockLevels.stream()
+                .filter(stockLevel -> stockLevel.reservedQuantity() != pendingQuantities
+                        .getOrDefault(stockLevel.skuCode(), 0))
+                .map(ItemStockLevel::skuCode)
+                .toList();
+    }
+
+    /**
+     * Locks the inventory row and sets its reserved quantity to the sum of the
+     * PENDING reservations. Every reservation change locks the same row first, so
+     * under READ COMMITTED the sum read here is exact.
+     *
+     * @return true if the reserved quantity was out of sync and has been corrected
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public boolean repair(@NonNull String skuCode) throws InternalServerException {
+        Optional<Inventory> lockedInventory = inventoryRepository.findBySkuCodeForUpdate(skuCode);
+        if (lockedInventory.isEmpty()) {
+            return false;
+        }
+        Inventory inventory = lockedInventory.get();
+        int pendingQuantity = pendingQuantities(List.of(skuCode)).getOrDefault(skuCode, 0);
+        if (inventory.getReservedQuantity() == pendingQuantity) {
+            return false;
+        }
+        log.warn("Reserved quantity drift for SKU: {} - recorded: {}, pending reservations: {}",
+                skuCode, inventory.getReservedQuantity(), pendingQuantity);
+        inventory.setReservedQuantity(pendingQuantity);
+        availabilityCacheInvalidator.invalidateAfterCommit(List.of(skuCode));
+        return true;
+    }
+
+    private Map<String, Integer> pendingQuantities(List<String> skuCodes) throws InternalServerException {
+        return reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodes, ReservationState.PENDING)
+                .stream()
+                .collect(Collectors.toMap(ReservedItemQuantity::skuCode, ReservedItemQuantity::quantity));
+    }
+}
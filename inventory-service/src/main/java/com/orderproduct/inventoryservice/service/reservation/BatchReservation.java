@@ -0,0 +1,15 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import java.util.Map;
+
+import com.orderproduct.inventoryservice.common.exception.ApiException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+
+/**
+ * Outcome of {@link ReservationService#reserveProductsTogether}: the requests
+ * that were rejected, by their position in the batch, and the stock levels of
+ * the batch's SKUs once the others were reserved.
+ */
+public record BatchReservation(Map<Integer, ApiException> rejectedRequests,
+        Map<String, ItemStockLevel> stockLevels) {
+}
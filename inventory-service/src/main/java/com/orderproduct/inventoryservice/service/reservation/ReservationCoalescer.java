@@ -0,0 +1,291 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.orderproduct.inventoryservice.common.exception.ApiException;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in group commit for reservations
+ * ({@code inventory.reservation.coalescing.enabled}).
+ * <p>
+ * When many orders reserve the same hot SKUs, running each in its own
+ * transaction makes them queue on the same inventory rows one commit at a time.
+ * Instead, requests are queued here and picked up by {@code flushers} threads,
+ * each of which waits up to {@code max-wait} for up to {@code max-batch-size}
+ * requests and reserves them together with
+ * {@link ReservationService#reserveProductsTogether}: one locked read per SKU,
+ * allocation in memory, one update per SKU and one commit for the whole batch.
+ * Every caller still gets its own result, or its own
+ * {@link com.orderproduct.inventoryservice.common.exception.NotEnoughItemException}.
+ * <p>
+ * A request whose order is already in the batch waits for the next one. If a
+ * batch fails as a whole, e.g. on a database error, its requests are retried
+ * one by one so only the culprit fails. When the queue is full, requests are
+ * reserved directly on the caller's thread.
+ */
+@Service
+@Slf4j
+public class ReservationCoalescer implements AutoCloseable {
+
+    private static final String METRIC_PREFIX = "inventory.reservation.coalescing";
+
+    @Getter
+    private final boolean enabled;
+    private final long maxWaitNanos;
+    private final int maxBatchSize;
+    private final ReservationService reservationService;
+    private final BlockingQueue<PendingReservation> queue;
+    private final ExecutorService flushers;
+
+    private final DistributionSummary batchSizes;
+    private final Counter batchFailures;
+    private final Counter overflows;
+
+    @Autowired
+    public ReservationCoalescer(@Value("${inventory.reservation.coalescing.enabled:false}") boolean enabled,
+            @Value("${inventory.reservation.coalescing.max-wait:PT0.005S}") Duration maxWait,
+            @Value("${inventory.reservation.coalescing.max-batch-size:200}") int maxBatchSize,
+            @Value("${inventory.reservation.coalescing.queue-capacity:10000}") int queueCapacity,
+            @Value("${inventory.reservation.coalescing.flushers:2}") int flushers,
+            ReservationService reservationService,
+            MeterRegistry meterRegistry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        if (flushers < 1) {
+            throw new IllegalArgumentException("flushers must be at least 1");
+        }
+        this.enabled = enabled;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.reservationService = reservationService;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder(METRIC_PREFIX + ".batch.size")
+                .description("Reservation requests reserved together in one transaction")
+                .register(meterRegistry);
+        this.batchFailures = Counter.builder(METRIC_PREFIX + ".batch.failures")
+                .description("Batches that failed as a whole and were retried one request at a time")
+                .register(meterRegistry);
+        this.overflows = Counter.builder(METRIC_PREFIX + ".overflows")
+                .description("Reservation requests reserved on the caller's thread because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queued", queue, BlockingQueue::size)
+                .description("Reservation requests waiting to be batched")
+                .register(meterRegistry);
+
+        if (enabled) {
+            this.flushers = Executors.newFixedThreadPool(flushers,
+                    Thread.ofPlatform().name("reservation-coalescer-", 0).daemon(true).factory());
+            for (int i = 0; i < flushers; i++) {
+                this.flushers.execute(this::flushContinuously);
+            }
+            log.info("Reservation coalescing enabled - maxWait: {}, maxBatchSize: {}, queueCapacity: {}, flushers: {}",
+                    maxWait, maxBatchSize, queueCapacity, flushers);
+        } else {
+            this.flushers = null;
+        }
+    }
+
+    /**
+     * Reserves the order as part of the next batch and waits for its result.
+     *
+     * @return available inventory for each requested SKU once the batch is
+     *         reserved, in request order
+     * @throws ApiException the same exceptions as
+     *                      {@link ReservationService#reserveProducts}
+     */
+    @NonNull
+    public List<AvailableInventoryResponse> reserveProducts(@NonNull OrderReservationRequest request) {
+        try {
+            return submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @NonNull
+    CompletableFuture<List<AvailableInventoryResponse>> submit(@NonNull OrderReservationRequest request) {
+        return submitAll(List.of(request)).get(0);
+    }
+
+    /**
+     * Submits several orders at once, e.g. from one gRPC
+     * {@code ReserveProductsBatch} call. With coalescing enabled they join the
+     * queue like any other request; otherwise they are reserved right away on the
+     * caller's thread, in as few batches as their order numbers allow.
+     *
+     * @return one future per request, in request order
+     */
+    @NonNull
+    public List<CompletableFuture<List<AvailableInventoryResponse>>> submitAll(
+            @NonNull List<OrderReservationRequest> requests) {
+        List<PendingReservation> pendingReservations = requests.stream()
+                .map(request -> new PendingReservation(request, new CompletableFuture<>()))
+                .toList();
+        if (enabled) {
+            for (PendingReservation pendingReservation : pendingReservations) {
+                if (!queue.offer(pendingReservation)) {
+                    overflows.increment();
+                    flush(List.of(pendingReservation));
+                }
+            }
+        } else {
+            List<PendingReservation> remaining = pendingReservations;
+            while (!remaining.isEmpty()) {
+                List<PendingReservation> batch = new ArrayList<>();
+                List<PendingReservation> deferred = new ArrayList<>();
+                Set<String> orderNumbers = new HashSet<>();
+                for (PendingReservation pendingReservation : remaining) {
+                    addOrDefer(pendingReservation, batch, orderNumbers, deferred);
+                }
+                flush(batch);
+                remaining = deferred;
+            }
+        }
+        return pendingReservations.stream().map(PendingReservation::result).toList();
+    }
+
+    private void flushContinuously() {
+        final List<PendingReservation> deferred = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingReservation> batch = new ArrayList<>();
+            try {
+                collectBatch(batch, deferred);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deferred.addAll(batch);
+            } catch (RuntimeException e) {
+                log.error("Reservation coalescer failed to flush a batch", e);
+                batch.forEach(pendingReservation -> pendingReservation.result().completeExceptionally(e));
+            }
+        }
+        failAll(deferred);
+    }
+
+    // Fills the batch with the deferred requests, then waits up to maxWait for more; leaves the rest in deferred
+    private void collectBatch(List<PendingReservation> batch, List<PendingReservation> deferred)
+            throws InterruptedException {
+        Set<String> orderNumbers = new HashSet<>();
+        List<PendingReservation> previouslyDeferred = new ArrayList<>(deferred);
+        deferred.clear();
+        for (PendingReservation pendingReservation : previouslyDeferred) {
+            addOrDefer(pendingReservation, batch, orderNumbers, deferred);
+        }
+        if (batch.isEmpty()) {
+            addOrDefer(queue.take(), batch, orderNumbers, deferred);
+        }
+
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            long remainingNanos = deadline - System.nanoTime();
+            PendingReservation pendingReservation = remainingNanos > 0
+                    ? queue.poll(remainingNanos, TimeUnit.NANOSECONDS)
+                    : null;
+            if (pendingReservation == null) {
+                break;
+            }
+            addOrDefer(pendingReservation, batch, orderNumbers, deferred);
+        }
+    }
+
+    private void addOrDefer(PendingReservation pendingReservation, List<PendingReservation> batch,
+            Set<String> orderNumbers, List<PendingReservation> deferred) {
+        if (batch.size() < maxBatchSize && orderNumbers.add(pendingReservation.request().orderNumber())) {
+            batch.add(pendingReservation);
+        } else {
+            deferred.add(pendingReservation);
+        }
+    }
+
+    private void flush(List<PendingReservation> batch) {
+        List<OrderReservationRequest> requests = batch.stream().map(PendingReservation::request).toList();
+        BatchReservation batchReservation;
+        try {
+            batchReservation = reservationService.reserveProductsTogether(requests);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Reserving {} orders together failed, retrying them one by one", batch.size(), e);
+            batchFailures.increment();
+            batch.forEach(pendingReservation -> flush(List.of(pendingReservation)));
+            return;
+        }
+
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PendingReservation pendingReservation = batch.get(i);
+            ApiException rejection = batchReservation.rejectedRequests().get(i);
+            if (rejection != null) {
+                pendingReservation.result().completeExceptionally(rejection);
+            } else {
+                pendingReservation.result().complete(toAvailableInventory(pendingReservation.request(),
+                        batchReservation.stockLevels()));
+            }
+        }
+    }
+
+    private List<AvailableInventoryResponse> toAvailableInventory(OrderReservationRequest request,
+            Map<String, ItemStockLevel> stockLevels) {
+        return request.itemReservationRequests().stream()
+                .map(requestedItem -> {
+                    ItemStockLevel stockLevel = stockLevels.get(requestedItem.skuCode());
+                    return new AvailableInventoryResponse(requestedItem.skuCode(),
+                            stockLevel == null ? 0 : stockLevel.availableQuantity());
+                })
+                .toList();
+    }
+
+    // Requests still waiting at shutdown are failed rather than left blocking their callers
+    private void failAll(List<PendingReservation> pendingReservations) {
+        pendingReservations.forEach(pendingReservation -> pendingReservation.result()
+                .completeExceptionally(new InternalServerException()));
+    }
+
+    @Override
+    public void close() {
+        if (flushers != null) {
+            flushers.shutdownNow();
+            List<PendingReservation> queued = new ArrayList<>();
+            queue.drainTo(queued);
+            failAll(queued);
+        }
+    }
+
+    private record PendingReservation(OrderReservationRequest request,
+            CompletableFuture<List<AvailableInventoryResponse>> result) {
+    }
+}
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.stereotype.Service;
 
@@ -11,6 +12,7 @@ import com.orderproduct.inventoryservice.common.exception.InternalServerExceptio
 import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
 import com.orderproduct.inventoryservice.common.util.TimeProvider;
 import com.orderproduct.inventoryservice.domain.PendingReservationItem;
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
 import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.entity.Reservation;
@@ -39,9 +41,24 @@ public class ReservationOrchestrator {
      * Handles idempotency by updating existing pendingreservations.
      * It's not allowed to modify other states of reservations.
      * Also deletes reservations for SKU codes that are no longer in the request.
+     * The returned allocations carry what the order already holds per SKU, so
+     * only the difference is reserved or released.
      */
     @NonNull
-    List<Reservation> buildReservationsToSave(@NonNull OrderReservationRequest request)
+    ReservationPlan buildReservationPlan(@NonNull OrderReservationRequest request)
+            throws InternalServerException, OrderReservationNotAllowedException {
+        ReservationPlan reservationPlan = planReservation(request);
+        deleteRemovedSkuReservations(request.orderNumber(), reservationPlan);
+        return reservationPlan;
+    }
+
+    /**
+     * Same as {@link #buildReservationPlan} without deleting anything, so the
+     * caller can still decide not to apply the plan. The order's reservations are
+     * locked either way.
+     */
+    @NonNull
+    ReservationPlan planReservation(@NonNull OrderReservationRequest request)
             throws InternalServerException, OrderReservationNotAllowedException {
         String orderNumber = request.orderNumber();
         List<Reservation> allExistingReservations = getAllExistingReservationsForOrder(orderNumber);
@@ -52,11 +69,10 @@ public class ReservationOrchestrator {
         Set<PendingReservationItem> existingPendingReservations = convertToPendingReservationItems(
                 allExistingReservations);
 
-        // Delete reservations for SKU codes that are no longer in the request,
-        // but they were previously reserved for this order.
-        deleteRemovedSkuReservations(orderNumber, request, existingPendingReservations);
+        // SKU codes that are no longer in the request, but were previously reserved for this order.
+        Set<String> removedSkuCodes = findRemovedSkuCodes(request, existingPendingReservations);
 
-        return request.itemReservationRequests().stream()
+        List<Reservation> reservationsToSave = request.itemReservationRequests().stream()
                 .map(reservationRequest -> {
                     String skuCode = reservationRequest.skuCode();
                     int quantity = reservationRequest.quantity();
@@ -65,12 +81,41 @@ public class ReservationOrchestrator {
                     return createOrUpdateReservation(orderNumber, skuCode, quantity, existingReservation);
                 })
                 .toList();
+
+        return new ReservationPlan(reservationsToSave,
+                buildAllocations(request, removedSkuCodes, existingPendingReservations), removedSkuCodes);
+    }
+
+    void deleteRemovedSkuReservations(@NonNull String orderNumber, @NonNull ReservationPlan reservationPlan)
+            throws InternalServerException {
+        if (!reservationPlan.removedSkuCodes().isEmpty()) {
+            reservationRepository.deleteByOrderNumberAndSkuCodeIn(orderNumber,
+                    List.copyOf(reservationPlan.removedSkuCodes()));
+        }
+    }
+
+    @NonNull
+    private List<ReservationAllocation> buildAllocations(@NonNull OrderReservationRequest request,
+            @NonNull Set<String> removedSkuCodes, @NonNull Set<PendingReservationItem> existingReservations) {
+        Stream<ReservationAllocation> requested = request.itemReservationRequests().stream()
+                .map(item -> new ReservationAllocation(item.skuCode(), item.quantity(),
+                        existingQuantityForSku(item.skuCode(), existingReservations)));
+        Stream<ReservationAllocation> removed = removedSkuCodes.stream()
+                .map(skuCode -> new ReservationAllocation(skuCode, 0,
+                        existingQuantityForSku(skuCode, existingReservations)));
+        return Stream.concat(requested, removed).toList();
+    }
+
+    private int existingQuantityForSku(@NonNull String skuCode,
+            @NonNull Set<PendingReservationItem> existingReservations) {
+        Reservation existingReservation = findExistingReservationForSku(skuCode, existingReservations);
+        return existingReservation == null ? 0 : existingReservation.getReservedQuantity();
     }
 
     @NonNull
     private List<Reservation> getAllExistingReservationsForOrder(@NonNull String orderNumber)
             throws InternalServerException {
-        return reservationRepository.findByOrderNumber(orderNumber);
+        return reservationRepository.findByOrderNumberForUpdate(orderNumber);
     }
 
     private boolean orderReservationAllowed(String orderNumber, List<Reservation> existingReservations) {
@@ -90,18 +135,15 @@ public class ReservationOrchestrator {
                 .collect(Collectors.toSet());
     }
 
-    private void deleteRemovedSkuReservations(@NonNull String orderNumber, @NonNull OrderReservationRequest request,
-            @NonNull Set<PendingReservationItem> existingReservations) throws InternalServerException {
+    @NonNull
+    private Set<String> findRemovedSkuCodes(@NonNull OrderReservationRequest request,
+            @NonNull Set<PendingReservationItem> existingReservations) {
         Set<String> requestedSkuCodes = extractSkuCodesFromRequest(request);
         Set<String> existingSkuCodes = extractSkuCodesFromAllReservations(existingReservations);
 
-        Set<String> skuCodesToDelete = existingSkuCodes.stream()
+        return existingSkuCodes.stream()
                 .filter(skuCode -> !requestedSkuCodes.contains(skuCode))
                 .collect(Collectors.toSet());
-
-        if (!skuCodesToDelete.isEmpty()) {
-            deleteReservationsForSkuCodes(orderNumber, skuCodesToDelete);
-        }
     }
 
     @NonNull
@@ -118,11 +160,6 @@ public class ReservationOrchestrator {
                 .collect(Collectors.toSet());
     }
 
-    private void deleteReservationsForSkuCodes(@NonNull String orderNumber, @NonNull Set<String> skuCodesToDelete)
-            throws InternalServerException {
-        reservationRepository.deleteByOrderNumberAndSkuCodeIn(orderNumber, List.copyOf(skuCodesToDelete));
-    }
-
     @Nullable
     private Reservation findExistingReservationForSku(@NonNull String skuCode,
             @NonNull Set<PendingReservationItem> existingReservations) {
@@ -0,0 +1,16 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import java.util.List;
+import java.util.Set;
+
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
+import com.orderproduct.inventoryservice.entity.Reservation;
+
+/**
+ * Reservations to persist for an order, together with the reserved quantity
+ * changes they imply per SKU (including SKUs dropped from the order, whose
+ * reservations are deleted).
+ */
+record ReservationPlan(List<Reservation> reservationsToSave, List<ReservationAllocation> allocations,
+        Set<String> removedSkuCodes) {
+}
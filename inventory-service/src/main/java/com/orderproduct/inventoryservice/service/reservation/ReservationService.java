@@ -1,17 +1,26 @@
 package com.orderproduct.inventoryservice.service.reservation;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.orderproduct.inventoryservice.common.exception.ApiException;
 import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
 import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
 import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateRequest;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.BatchAllocation;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
 
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
@@ -30,6 +39,7 @@ public class ReservationService {
     private final ReservedQuantityService reservedQuantityService;
     private final ReservationOrchestrator reservationOrchestrator;
     private final ReservationStateManager reservationStateManager;
+    private final InventoryAllocationService inventoryAllocationService;
 
     @NonNull
     public List<ReservedItemQuantity> findPendingReservedQuantities(@NonNull List<String> skuCodes)
@@ -38,24 +48,81 @@ public class ReservationService {
 
         List<ReservedItemQuantity> result = reservedQuantityService.findPendingReservedQuantities(skuCodes);
 
-        log.debug("Found {} pending reservations for {} SKU codes", result.size(), skuCodes.size());
+        log.debug("Found pending reserved quantities for {} of {} SKU codes", result.size(), skuCodes.size());
         return result;
     }
 
+    /**
+     * Reserves inventory for the order and saves its reservations atomically.
+     *
+     * @throws NotEnoughItemException if any requested SKU does not have enough
+     *                                unreserved quantity
+     */
     @NonNull
+    @Transactional
     public List<Reservation> reserveProducts(@NonNull OrderReservationRequest request)
-            throws InternalServerException, DuplicateReservationException, OrderReservationNotAllowedException {
+            throws InternalServerException, DuplicateReservationException, OrderReservationNotAllowedException,
+            NotEnoughItemException {
         log.debug("Reserving products for order: {} with {} items",
                 request.orderNumber(), request.itemReservationRequests().size());
 
-        List<Reservation> reservationsToSave = reservationOrchestrator.buildReservationsToSave(request);
-        List<Reservation> result = saveItems(reservationsToSave);
+        ReservationPlan reservationPlan = reservationOrchestrator.buildReservationPlan(request);
+        inventoryAllocationService.allocate(reservationPlan.allocations());
+        List<Reservation> result = saveItems(reservationPlan.reservationsToSave());
 
         log.debug("Successfully reserved {} items for order: {}", result.size(), request.orderNumber());
         return result;
     }
 
+    /**
+     * Reserves inventory for several orders in one transaction, e.g. a batch of
+     * coalesced requests. Each order is reserved in full or rejected on its own
+     * (see {@link InventoryAllocationService#allocateTogether}); the accepted
+     * orders' reservations are saved with one {@code saveAll}. Order numbers must
+     * be distinct within the batch.
+     */
     @NonNull
+    @Transactional
+    public BatchReservation reserveProductsTogether(@NonNull List<OrderReservationRequest> requests)
+            throws InternalServerException, DuplicateReservationException {
+        log.debug("Reserving products for {} orders together", requests.size());
+
+        Map<Integer, ApiException> rejectedRequests = new HashMap<>();
+        List<Integer> plannedRequests = new ArrayList<>();
+        List<ReservationPlan> reservationPlans = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                reservationPlans.add(reservationOrchestrator.planReservation(requests.get(i)));
+                plannedRequests.add(i);
+            } catch (OrderReservationNotAllowedException e) {
+                rejectedRequests.put(i, e);
+            }
+        }
+
+        BatchAllocation batchAllocation = inventoryAllocationService.allocateTogether(reservationPlans.stream()
+                .map(ReservationPlan::allocations)
+                .toList());
+        List<Reservation> reservationsToSave = new ArrayList<>();
+        for (int planned = 0; planned < reservationPlans.size(); planned++) {
+            int i = plannedRequests.get(planned);
+            NotEnoughItemException rejection = batchAllocation.rejectedOrders().get(planned);
+            if (rejection != null) {
+                rejectedRequests.put(i, rejection);
+            } else {
+                ReservationPlan reservationPlan = reservationPlans.get(planned);
+                reservationOrchestrator.deleteRemovedSkuReservations(requests.get(i).orderNumber(), reservationPlan);
+                reservationsToSave.addAll(reservationPlan.reservationsToSave());
+            }
+        }
+        saveItems(reservationsToSave);
+
+        log.debug("Reserved products for {} of {} orders together", requests.size() - rejectedRequests.size(),
+                requests.size());
+        return new BatchReservation(rejectedRequests, batchAllocation.stockLevels());
+    }
+
+    @NonNull
+    @Transactional
     public List<Reservation> updateReservationState(@NonNull ReservationStateUpdateRequest request)
             throws InternalServerException, DuplicateReservationException {
         log.debug("Updating reservation state to {} for order: {}", request.state(), request.orderNumber());
@@ -68,6 +135,47 @@ public class ReservationService {
         return result;
     }
 
+    /**
+     * Applies a batch of state updates in one transaction, with one query to
+     * load the affected reservations and one {@code saveAll}.
+     */
+    @NonNull
+    @Transactional
+    public List<Reservation> updateReservationStates(@NonNull List<ReservationStateUpdateRequest> requests)
+            throws InternalServerException, DuplicateReservationException {
+        log.debug("Updating reservation states for {} requests", requests.size());
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+
+        List<Reservation> updatedReservations = reservationStateManager.updateReservationStates(requests);
+        List<Reservation> result = saveItems(updatedReservations);
+
+        log.debug("Successfully applied {} state updates to {} reservations", requests.size(), result.size());
+        return result;
+    }
+
+    /**
+     * Expires one batch of stale PENDING reservations in its own transaction,
+     * keeping row locks short.
+     *
+     * @return the reservations that were expired; fewer than {@code limit} means
+     *         no claimable stale reservations are left
+     */
+    @NonNull
+    @Transactional
+    public List<Reservation> expireStaleReservations(@NonNull LocalDateTime reservedBefore, int limit)
+            throws InternalServerException, DuplicateReservationException {
+        List<Reservation> expiredReservations = reservationStateManager.expireReservations(reservedBefore, limit);
+        if (expiredReservations.isEmpty()) {
+            return expiredReservations;
+        }
+        List<Reservation> result = saveItems(expiredReservations);
+
+        log.debug("Expired {} reservations made before {}", result.size(), reservedBefore);
+        return result;
+    }
+
     @NonNull
     private List<Reservation> saveItems(List<Reservation> reservationsToSave)
             throws InternalServerException, DuplicateReservationException {
@@ -1,6 +1,11 @@
 package com.orderproduct.inventoryservice.service.reservation;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 
@@ -9,6 +14,7 @@ import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateReque
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
 import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
 
 import lombok.AllArgsConstructor;
@@ -25,12 +31,14 @@ import lombok.extern.slf4j.Slf4j;
 public class ReservationStateManager {
     private final ReservationRepositoryWrapper reservationRepository;
     private final InventoryDeductionService inventoryDeductionService;
+    private final InventoryAllocationService inventoryAllocationService;
 
     @NonNull
     public List<Reservation> updateReservationState(@NonNull ReservationStateUpdateRequest request)
             throws InternalServerException {
         List<Reservation> reservations = findReservations(request);
         List<Reservation> updatedReservations = updateReservationsState(reservations, request.state());
+        inventoryAllocationService.adjustReservedQuantities(reservedQuantityChanges(reservations, request.state()));
 
         if (request.state() == ReservationState.FULFILLED) {
             inventoryDeductionService.deductInventoryForFulfilledOrder(updatedReservations);
@@ -39,14 +47,87 @@ public class ReservationStateManager {
         return updatedReservations;
     }
 
+    /**
+     * Applies several state updates, e.g. one poll of order events, with one
+     * query to load and lock all affected reservations. Reserved quantity
+     * changes and deductions are summed per SKU across the whole batch. Updates
+     * for the same order are applied in request order.
+     */
+    @NonNull
+    public List<Reservation> updateReservationStates(@NonNull List<ReservationStateUpdateRequest> requests)
+            throws InternalServerException {
+        Map<String, List<Reservation>> reservationsByOrder = findReservationsByOrder(requests);
+        Map<String, Integer> reservedQuantityChanges = new HashMap<>();
+        Map<String, Integer> deductionQuantities = new HashMap<>();
+
+        for (ReservationStateUpdateRequest request : requests) {
+            List<Reservation> reservations = reservationsByOrder.get(request.orderNumber());
+            if (reservations == null) {
+                log.debug("No reservations found for order: {}", request.orderNumber());
+                continue;
+            }
+            List<Reservation> updatedReservations = updateReservationsState(reservations, request.state());
+            reservedQuantityChanges(reservations, request.state())
+                    .forEach((skuCode, change) -> reservedQuantityChanges.merge(skuCode, change, Integer::sum));
+            if (request.state() == ReservationState.FULFILLED) {
+                updatedReservations.forEach(reservation -> deductionQuantities.merge(
+                        reservation.getSkuCode(), reservation.getReservedQuantity(), Integer::sum));
+            }
+            reservationsByOrder.put(request.orderNumber(), updatedReservations);
+        }
+
+        inventoryAllocationService.adjustReservedQuantities(reservedQuantityChanges);
+        inventoryDeductionService.deductInventoryQuantities(deductionQuantities);
+
+        return reservationsByOrder.values().stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Moves up to {@code limit} PENDING reservations made before
+     * {@code reservedBefore} to EXPIRED and releases their reserved quantities.
+     * Reservations being handled by another transaction are skipped.
+     */
+    @NonNull
+    public List<Reservation> expireReservations(@NonNull LocalDateTime reservedBefore, int limit)
+            throws InternalServerException {
+        List<Reservation> staleReservations = reservationRepository.claimByStatusAndReservedAtBefore(
+                ReservationState.PENDING, reservedBefore, limit);
+        log.debug("Claimed {} PENDING reservations made before {}", staleReservations.size(), reservedBefore);
+        if (staleReservations.isEmpty()) {
+            return List.of();
+        }
+
+        List<Reservation> expiredReservations = updateReservationsState(staleReservations, ReservationState.EXPIRED);
+        inventoryAllocationService.adjustReservedQuantities(
+                reservedQuantityChanges(staleReservations, ReservationState.EXPIRED));
+        return expiredReservations;
+    }
+
     @NonNull
     private List<Reservation> findReservations(@NonNull ReservationStateUpdateRequest request)
             throws InternalServerException {
-        List<Reservation> result = reservationRepository.findByOrderNumber(request.orderNumber());
+        List<Reservation> result = reservationRepository.findByOrderNumberForUpdate(request.orderNumber());
         log.debug("Found {} reservations for order: {}", result.size(), request.orderNumber());
         return result;
     }
 
+    @NonNull
+    private Map<String, List<Reservation>> findReservationsByOrder(
+            @NonNull List<ReservationStateUpdateRequest> requests) throws InternalServerException {
+        List<String> orderNumbers = requests.stream()
+                .map(ReservationStateUpdateRequest::orderNumber)
+                .distinct()
+                .sorted()
+                .toList();
+        List<Reservation> reservations = reservationRepository.findByOrderNumberInForUpdate(orderNumbers);
+        log.debug("Found {} reservations for {} orders", reservations.size(), orderNumbers.size());
+        return reservations.stream()
+                .collect(Collectors.groupingBy(Reservation::getOrderNumber, LinkedHashMap::new,
+                        Collectors.toList()));
+    }
+
     @NonNull
     private List<Reservation> updateReservationsState(
             @NonNull List<Reservation> reservations,
@@ -58,4 +139,19 @@ public class ReservationStateManager {
         log.debug("Successfully transformed {} reservations to state: {}", updatedReservations.size(), newState);
         return updatedReservations;
     }
-}
\ No newline at end of file
+
+    // Reserved quantity per SKU only counts PENDING reservations, so leaving PENDING releases it.
+    @NonNull
+    private Map<String, Integer> reservedQuantityChanges(
+            @NonNull List<Reservation> reservations,
+            @NonNull ReservationState newState) {
+        return reservations.stream()
+                .filter(reservation -> (reservation.getStatus() == ReservationState.PENDING)
+                        != (newState == ReservationState.PENDING))
+                .collect(Collectors.groupingBy(
+                        Reservation::getSkuCode,
+                        Collectors.summingInt(reservation -> newState == ReservationState.PENDING
+                                ? reservation.getReservedQuantity()
+                                : -reservation.getReservedQuantity())));
+    }
+}
@@ -6,7 +6,6 @@ import org.springframework.stereotype.Service;
 
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
-import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
 
@@ -21,21 +20,17 @@ class ReservedQuantityService {
 
     private final ReservationRepositoryWrapper reservationRepository;
 
+    /**
+     * Sums PENDING reservations in the database, returning at most one entry per
+     * SKU. SKUs without PENDING reservations are omitted.
+     */
     @NonNull
     List<ReservedItemQuantity> findPendingReservedQuantities(@NonNull List<String> skuCodes)
             throws InternalServerException {
-        List<Reservation> reservedItems = getReservedItems(skuCodes);
-        return reservedItems.stream()
-                .map(ReservedItemQuantity::fromReservation)
-                .toList();
-    }
-
-    @NonNull
-    private List<Reservation> getReservedItems(List<String> skuCodes) throws InternalServerException {
-        log.debug("Querying reservations for {} SKU codes", skuCodes.size());
-        List<Reservation> result = reservationRepository.findBySkuCodeInAndStatus(skuCodes,
+        log.debug("Summing pending reservations for {} SKU codes", skuCodes.size());
+        List<ReservedItemQuantity> result = reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodes,
                 ReservationState.PENDING);
-        log.debug("Found {} pending reservations", result.size());
+        log.debug("Found pending reservations for {} SKU codes", result.size());
         return result;
     }
-}
\ No newline at end of file
+}
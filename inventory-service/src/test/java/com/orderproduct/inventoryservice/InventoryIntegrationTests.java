@@ -2,8 +2,10 @@ package com.orderproduct.inventoryservice;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,8 @@ import org.testcontainers.utility.DockerImageName;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.dto.response.InventoryImportResponse;
+import com.orderproduct.inventoryservice.dto.response.RejectedStockLevel;
 import com.orderproduct.inventoryservice.dto.response.UpdateInventoryResponse;
 import com.orderproduct.inventoryservice.entity.Inventory;
 import com.orderproduct.inventoryservice.entity.Reservation;
@@ -55,7 +59,12 @@ class InventoryIntegrationTests {
         @Autowired
         private ObjectMapper objectMapper;
 
-        private final Inventory inventory1 = Inventory.createInventory("skuCode1", 10);
+        // reservedQuantity mirrors the PENDING inventory1Reserved below
+        private final Inventory inventory1 = Inventory.builder()
+                        .skuCode("skuCode1")
+                        .onHandQuantity(10)
+                        .reservedQuantity(1)
+                        .build();
         private final Inventory inventory2 = Inventory.createInventory("skuCode2", 5);
         private final Inventory inventory3 = Inventory.createInventory("skuCode3", 0);
         private final Reservation inventory1Reserved = Reservation.builder()
@@ -126,6 +135,40 @@ class InventoryIntegrationTests {
                 assertEquals(expectedAvailableInventoryResponse, actualAvailableInventoryResponse);
         }
 
+        @Test
+        @DisplayName("POST:/api/inventory/availability:batch should return availability for every distinct skuCode")
+        void batchAvailableInventoryTest() throws Exception {
+                // Given - more SKUs than fit in one chunk
+                final var skuCodes = new ArrayList<>(List.of("skuCode1", "skuCode2", "skuCode3"));
+                for (int i = 0; i < 2500; i++) {
+                        skuCodes.add("random" + i);
+                }
+                skuCodes.add("skuCode1");
+
+                // Make Api call
+                MvcResult asyncResult = mockMvc.perform(
+                                MockMvcRequestBuilders
+                                                .post("/api/inventory/availability:batch")
+                                                .contentType("application/json")
+                                                .content(objectMapper.writeValueAsString(Map.of("skuCodes", skuCodes))))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+                MvcResult result = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(asyncResult))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Process response
+                final var response = Arrays.asList(objectMapper.readValue(
+                                result.getResponse().getContentAsString(), AvailableInventoryResponse[].class));
+
+                // Assert - the repeated skuCode1 is answered once
+                assertEquals(2503, response.size());
+                assertEquals(new AvailableInventoryResponse("skuCode1", 9), response.get(0));
+                assertEquals(new AvailableInventoryResponse("skuCode2", 5), response.get(1));
+                assertEquals(new AvailableInventoryResponse("skuCode3", 0), response.get(2));
+                assertEquals(new AvailableInventoryResponse("random2499", 0), response.get(2502));
+        }
+
         @Test
         @DisplayName("POST:/api/inventory should return 201 when creating new inventory")
         void createInventory_Success() throws Exception {
@@ -236,4 +279,45 @@ class InventoryIntegrationTests {
                 final var deletedInventory = inventoryRepository.findBySkuCode("skuCode1");
                 assertTrue(deletedInventory.isEmpty());
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("POST:/api/inventory/bulk should upsert CSV rows and report rejected rows")
+        void importStockLevels_Csv_UpsertsExistingAndNewSkus() throws Exception {
+                // Given - skuCode1 exists with 10 on hand and 1 reserved
+                final var csv = """
+                                skuCode,quantity
+                                skuCode1,25
+                                bulkSku1,7
+                                bulkSku2,-3
+                                skuCode2,0
+                                """;
+
+                // Make Api call
+                MvcResult result = mockMvc.perform(
+                                MockMvcRequestBuilders
+                                                .post("/api/inventory/bulk")
+                                                .contentType("text/csv")
+                                                .content(csv))
+                                .andExpect(status().isOk())
+                                .andReturn();
+
+                // Process response
+                final var response = objectMapper.readValue(result.getResponse().getContentAsString(),
+                                InventoryImportResponse.class);
+
+                // Assert
+                assertEquals(new InventoryImportResponse(4, 3, 1,
+                                List.of(new RejectedStockLevel(4, "bulkSku2", "Quantity must be non-negative."))),
+                                response);
+
+                // Verify in database: existing SKUs keep their reserved quantity
+                final var updatedInventory = inventoryRepository.findBySkuCode("skuCode1").orElseThrow();
+                assertEquals(25, updatedInventory.getOnHandQuantity());
+                assertEquals(1, updatedInventory.getReservedQuantity());
+                assertEquals(0, inventoryRepository.findBySkuCode("skuCode2").orElseThrow().getOnHandQuantity());
+                final var createdInventory = inventoryRepository.findBySkuCode("bulkSku1").orElseThrow();
+                assertEquals(7, createdInventory.getOnHandQuantity());
+                assertEquals(0, createdInventory.getReservedQuantity());
+                assertTrue(inventoryRepository.findBySkuCode("bulkSku2").isEmpty());
+        }
+}
@@ -0,0 +1,149 @@
+package com.orderproduct.inventoryservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
+import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.repository.InventoryRepository;
+import com.orderproduct.inventoryservice.repository.ReservationRepository;
+import com.orderproduct.inventoryservice.service.ReservationManagementService;
+import com.orderproduct.inventoryservice.service.reservation.ReservationCoalescer;
+import com.orderproduct.inventoryservice.service.reservation.ReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Compares sustained orders/sec for one transaction per order and for
+ * coalesced batches when every order reserves the same hot SKU, against MySQL.
+ * Run with {@code -Dbenchmark=true}.
+ */
+@SpringBootTest
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationCoalescingBenchmarkTest {
+
+        private static final String HOT_SKU = "hotSku";
+        private static final int ORDERS = 5_000;
+        private static final int THREADS = 64;
+        // Leaves some orders without stock, so rejections are part of the measurement
+        private static final int HOT_SKU_ON_HAND = ORDERS * 2 - ORDERS / 10;
+
+        @Container
+        static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+        @Autowired
+        private InventoryRepository inventoryRepository;
+
+        @Autowired
+        private ReservationRepository reservationRepository;
+
+        @Autowired
+        private ReservationManagementService reservationManagementService;
+
+        @Autowired
+        private ReservationService reservationService;
+
+        @DynamicPropertySource
+        static void configureTestProperties(DynamicPropertyRegistry registry) {
+                registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+                registry.add("spring.datasource.username", mySQLContainer::getUsername);
+                registry.add("spring.datasource.password", mySQLContainer::getPassword);
+                registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        }
+
+        @AfterEach
+        void cleanup() {
+                inventoryRepository.deleteAll();
+                reservationRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Hot SKU reservations: one transaction per order vs coalesced batches")
+        void reserveProducts_PerOrderVsCoalesced() throws Exception {
+                try (var coalescer = new ReservationCoalescer(true, Duration.ofMillis(5), 200, 10_000, 2,
+                                reservationService, new SimpleMeterRegistry())) {
+                        // Warm up both paths before measuring.
+                        run("warmup-direct", 500, reservationManagementService::reserveProductsIfAvailable);
+                        run("warmup-coalesced", 500, coalescer::reserveProducts);
+
+                        Result direct = run("direct", ORDERS, reservationManagementService::reserveProductsIfAvailable);
+                        Result coalesced = run("coalesced", ORDERS, coalescer::reserveProducts);
+
+                        System.out.printf("Hot SKU reservation benchmark (%d orders of 2 units, %d threads, %d on hand)%n",
+                                        ORDERS, THREADS, HOT_SKU_ON_HAND);
+                        System.out.printf("  per order: %8.1f orders/sec (%d reserved, %d rejected)%n",
+                                        direct.ordersPerSecond(), direct.reserved(), direct.rejected());
+                        System.out.printf("  coalesced: %8.1f orders/sec (%d reserved, %d rejected)%n",
+                                        coalesced.ordersPerSecond(), coalesced.reserved(), coalesced.rejected());
+
+                        // Both paths sell exactly what is on hand
+                        assertEquals(HOT_SKU_ON_HAND / 2, direct.reserved());
+                        assertEquals(HOT_SKU_ON_HAND / 2, coalesced.reserved());
+                }
+        }
+
+        private Result run(String orderPrefix, int orders, Consumer<OrderReservationRequest> reserve) throws Exception {
+                inventoryRepository.deleteAll();
+                reservationRepository.deleteAll();
+                inventoryRepository.save(Inventory.createInventory(HOT_SKU, Math.min(HOT_SKU_ON_HAND, orders * 2)));
+
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger reserved = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>(orders);
+                for (int i = 0; i < orders; i++) {
+                        final var request = new OrderReservationRequest(orderPrefix + "-" + i,
+                                        List.of(new ItemReservationRequest(HOT_SKU, 2)));
+                        futures.add(executor.submit(() -> {
+                                start.await();
+                                try {
+                                        reserve.accept(request);
+                                        reserved.incrementAndGet();
+                                } catch (NotEnoughItemException e) {
+                                        rejected.incrementAndGet();
+                                }
+                                return null;
+                        }));
+                }
+
+                long startedAt = System.nanoTime();
+                start.countDown();
+                for (Future<?> future : futures) {
+                        future.get(5, TimeUnit.MINUTES);
+                }
+                long elapsedNanos = System.nanoTime() - startedAt;
+                executor.shutdown();
+
+                return new Result(reserved.get(), rejected.get(), orders * 1e9 / elapsedNanos);
+        }
+
+        private record Result(int reserved, int rejected, double ordersPerSecond) {
+        }
+}
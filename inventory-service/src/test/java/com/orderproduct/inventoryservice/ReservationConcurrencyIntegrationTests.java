@@ -0,0 +1,142 @@
+package com.orderproduct.inventoryservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
+import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.entity.Reservation;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.InventoryRepository;
+import com.orderproduct.inventoryservice.repository.ReservationRepository;
+import com.orderproduct.inventoryservice.service.ReservationManagementService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@SpringBootTest
+@Testcontainers
+class ReservationConcurrencyIntegrationTests {
+
+        private static final String HOT_SKU = "hotSku";
+        private static final String OTHER_SKU = "otherSku";
+        private static final int HOT_SKU_ON_HAND = 50;
+        private static final int ORDERS = 200;
+        private static final int THREADS = 32;
+
+        @Container
+        static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+        @Autowired
+        private InventoryRepository inventoryRepository;
+
+        @Autowired
+        private ReservationRepository reservationRepository;
+
+        @Autowired
+        private ReservationManagementService reservationManagementService;
+
+        @DynamicPropertySource
+        static void configureTestProperties(DynamicPropertyRegistry registry) {
+                registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+                registry.add("spring.datasource.username", mySQLContainer::getUsername);
+                registry.add("spring.datasource.password", mySQLContainer::getPassword);
+                registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        }
+
+        @BeforeEach
+        void setupInventory() {
+                inventoryRepository.save(Inventory.createInventory(HOT_SKU, HOT_SKU_ON_HAND));
+                inventoryRepository.save(Inventory.createInventory(OTHER_SKU, ORDERS));
+        }
+
+        @AfterEach
+        void cleanup() {
+                inventoryRepository.deleteAll();
+                reservationRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Concurrent orders on a hot SKU should never reserve more than is on hand")
+        void reserveProducts_ConcurrentOrdersOnHotSku_DoesNotOversell() throws Exception {
+                // Given
+                ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+                CountDownLatch start = new CountDownLatch(1);
+                AtomicInteger reserved = new AtomicInteger();
+                AtomicInteger rejected = new AtomicInteger();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < ORDERS; i++) {
+                        // Alternate SKU order so lock ordering is exercised as well
+                        final var items = i % 2 == 0
+                                        ? List.of(new ItemReservationRequest(HOT_SKU, 1),
+                                                        new ItemReservationRequest(OTHER_SKU, 1))
+                                        : List.of(new ItemReservationRequest(OTHER_SKU, 1),
+                                                        new ItemReservationRequest(HOT_SKU, 1));
+                        final var request = new OrderReservationRequest("ORDER-" + i, items);
+                        futures.add(executor.submit(() -> {
+                                start.await();
+                                try {
+                                        reservationManagementService.reserveProductsIfAvailable(request);
+                                        reserved.incrementAndGet();
+                                } catch (NotEnoughItemException e) {
+                                        rejected.incrementAndGet();
+                                }
+                                return null;
+                        }));
+                }
+
+                // When
+                long startedAt = System.nanoTime();
+                start.countDown();
+                for (Future<?> future : futures) {
+                        future.get(60, TimeUnit.SECONDS);
+                }
+                long elapsedNanos = System.nanoTime() - startedAt;
+                executor.shutdown();
+
+                // Then
+                log.info("Reserved {} and rejected {} of {} orders in {} ms ({} orders/sec)",
+                                reserved.get(), rejected.get(), ORDERS, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                                Math.round(ORDERS / (elapsedNanos / 1_000_000_000.0)));
+                assertEquals(HOT_SKU_ON_HAND, reserved.get());
+                assertEquals(ORDERS - HOT_SKU_ON_HAND, rejected.get());
+
+                Inventory hotSku = inventoryRepository.findBySkuCode(HOT_SKU).orElseThrow();
+                Inventory otherSku = inventoryRepository.findBySkuCode(OTHER_SKU).orElseThrow();
+                assertEquals(HOT_SKU_ON_HAND, hotSku.getReservedQuantity());
+                assertEquals(pendingQuantity(HOT_SKU), hotSku.getReservedQuantity());
+                // Rejected orders roll back their other SKU as well
+                assertEquals(HOT_SKU_ON_HAND, otherSku.getReservedQuantity());
+                assertEquals(pendingQuantity(OTHER_SKU), otherSku.getReservedQuantity());
+        }
+
+        private int pendingQuantity(String skuCode) {
+                return reservationRepository.findBySkuCodeInAndStatus(List.of(skuCode), ReservationState.PENDING)
+                                .stream()
+                                .mapToInt(Reservation::getReservedQuantity)
+                                .sum();
+        }
+}
@@ -54,7 +54,12 @@ class ReservationIntegrationTests {
         @Autowired
         private ObjectMapper objectMapper;
 
-        private final Inventory inventory1 = Inventory.createInventory("skuCode1", 10);
+        // reservedQuantity mirrors the PENDING inventory1Reserved below
+        private final Inventory inventory1 = Inventory.builder()
+                        .skuCode("skuCode1")
+                        .onHandQuantity(10)
+                        .reservedQuantity(1)
+                        .build();
         private final Inventory inventory2 = Inventory.createInventory("skuCode2", 5);
         private final Inventory inventory3 = Inventory.createInventory("skuCode3", 0);
         private final Reservation inventory1Reserved = Reservation.builder()
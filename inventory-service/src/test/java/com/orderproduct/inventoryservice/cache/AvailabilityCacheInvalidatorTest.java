@@ -0,0 +1,101 @@
+package com.orderproduct.inventoryservice.cache;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.orderproduct.inventoryservice.kafka.AvailabilityInvalidationPublisher;
+
+public class AvailabilityCacheInvalidatorTest {
+
+    private final AvailabilityCache availabilityCache = mock(AvailabilityCache.class);
+    private final AvailabilityInvalidationPublisher invalidationPublisher = mock(AvailabilityInvalidationPublisher.class);
+    private final AvailabilityCacheInvalidator invalidator = new AvailabilityCacheInvalidator(availabilityCache,
+            invalidationPublisher);
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.unbindResourceIfPossible(invalidator);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("`invalidateAfterCommit()` should invalidate immediately outside a transaction")
+    public void invalidateAfterCommit_NoTransaction_InvalidatesImmediately() {
+        // Given
+        when(availabilityCache.isEnabled()).thenReturn(true);
+
+        // When
+        invalidator.invalidateAfterCommit(List.of("sku-1"));
+
+        // Then
+        verify(availabilityCache).invalidate(List.of("sku-1"));
+        verify(invalidationPublisher).publish(List.of("sku-1"));
+    }
+
+    @Test
+    @DisplayName("`invalidateAfterCommit()` should invalidate the SKUs of a transaction once, after it commits")
+    public void invalidateAfterCommit_Committed_InvalidatesOnceAfterCommit() {
+        // Given
+        when(availabilityCache.isEnabled()).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        invalidator.invalidateAfterCommit(List.of("sku-1", "sku-2"));
+        invalidator.invalidateAfterCommit(List.of("sku-2", "sku-3"));
+
+        // Then
+        verify(availabilityCache, never()).invalidate(anyList());
+        completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+        verify(availabilityCache).invalidate(List.of("sku-1", "sku-2", "sku-3"));
+        verify(invalidationPublisher).publish(List.of("sku-1", "sku-2", "sku-3"));
+    }
+
+    @Test
+    @DisplayName("`invalidateAfterCommit()` should not invalidate anything when the transaction rolls back")
+    public void invalidateAfterCommit_RolledBack_InvalidatesNothing() {
+        // Given
+        when(availabilityCache.isEnabled()).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        invalidator.invalidateAfterCommit(List.of("sku-1"));
+        completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Then
+        verify(availabilityCache, never()).invalidate(anyList());
+        verify(invalidationPublisher, never()).publish(anyList());
+    }
+
+    @Test
+    @DisplayName("`invalidateAfterCommit()` should do nothing when the cache is disabled")
+    public void invalidateAfterCommit_CacheDisabled_DoesNothing() {
+        // Given
+        when(availabilityCache.isEnabled()).thenReturn(false);
+
+        // When
+        invalidator.invalidateAfterCommit(List.of("sku-1"));
+
+        // Then
+        verify(availabilityCache, never()).invalidate(anyList());
+        verify(invalidationPublisher, never()).publish(anyList());
+    }
+
+    private static void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
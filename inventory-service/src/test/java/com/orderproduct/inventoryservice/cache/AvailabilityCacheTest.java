@@ -0,0 +1,112 @@
+package com.orderproduct.inventoryservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AvailabilityCacheTest {
+
+    private final AtomicLong nanoClock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityCache availabilityCache = new AvailabilityCache(true, Duration.ofSeconds(2), 2,
+            meterRegistry, nanoClock::get);
+
+    @Test
+    @DisplayName("`getAll()` should return cached SKUs and count hits and misses")
+    public void getAll_SomeCached_ReturnsCachedSkus() {
+        // Given
+        availabilityCache.putAll(Map.of("sku-1", 5), availabilityCache.currentGeneration());
+
+        // When
+        Map<String, Integer> result = availabilityCache.getAll(List.of("sku-1", "sku-2"));
+
+        // Then
+        assertEquals(Map.of("sku-1", 5), result);
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @DisplayName("`getAll()` should not return entries older than the TTL")
+    public void getAll_ExpiredEntry_ReturnsNothing() {
+        // Given
+        availabilityCache.putAll(Map.of("sku-1", 5), availabilityCache.currentGeneration());
+        nanoClock.addAndGet(Duration.ofSeconds(2).toNanos());
+
+        // When
+        Map<String, Integer> result = availabilityCache.getAll(List.of("sku-1"));
+
+        // Then
+        assertTrue(result.isEmpty());
+        assertEquals(0, availabilityCache.size());
+    }
+
+    @Test
+    @DisplayName("`putAll()` should evict the least recently used SKU beyond the maximum size")
+    public void putAll_BeyondMaxSize_EvictsLeastRecentlyUsed() {
+        // Given
+        availabilityCache.putAll(Map.of("sku-1", 1), availabilityCache.currentGeneration());
+        availabilityCache.putAll(Map.of("sku-2", 2), availabilityCache.currentGeneration());
+        availabilityCache.getAll(List.of("sku-1"));
+
+        // When
+        availabilityCache.putAll(Map.of("sku-3", 3), availabilityCache.currentGeneration());
+
+        // Then
+        assertEquals(Map.of("sku-1", 1, "sku-3", 3), availabilityCache.getAll(List.of("sku-1", "sku-2", "sku-3")));
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.evictions").counter().count());
+    }
+
+    @Test
+    @DisplayName("`putAll()` should drop a load that started before an invalidation")
+    public void putAll_InvalidatedDuringLoad_DoesNotCache() {
+        // Given
+        long generation = availabilityCache.currentGeneration();
+        availabilityCache.invalidate(List.of("sku-1"));
+
+        // When
+        availabilityCache.putAll(Map.of("sku-1", 5), generation);
+
+        // Then
+        assertEquals(0, availabilityCache.size());
+    }
+
+    @Test
+    @DisplayName("`invalidate()` should drop the SKUs and count the entries removed")
+    public void invalidate_CachedSku_RemovesIt() {
+        // Given
+        availabilityCache.putAll(Map.of("sku-1", 5, "sku-2", 6), availabilityCache.currentGeneration());
+
+        // When
+        availabilityCache.invalidate(List.of("sku-1", "sku-unknown"));
+
+        // Then
+        assertEquals(Map.of("sku-2", 6), availabilityCache.getAll(List.of("sku-1", "sku-2")));
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.invalidations").counter().count());
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.size").gauge().value());
+    }
+
+    @Test
+    @DisplayName("A disabled cache should neither store nor return anything")
+    public void disabledCache_PutAll_StoresNothing() {
+        // Given
+        AvailabilityCache disabledCache = new AvailabilityCache(false, Duration.ofSeconds(2), 2,
+                new SimpleMeterRegistry(), nanoClock::get);
+
+        // When
+        disabledCache.putAll(Map.of("sku-1", 5), disabledCache.currentGeneration());
+
+        // Then
+        assertTrue(disabledCache.getAll(List.of("sku-1")).isEmpty());
+        assertEquals(0, disabledCache.size());
+    }
+}
@@ -4,8 +4,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -13,9 +16,12 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +33,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.orderproduct.inventoryservice.common.exception.DuplicateSkuCodeException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
@@ -35,8 +42,11 @@ import com.orderproduct.inventoryservice.dto.request.CreateInventoryRequest;
 import com.orderproduct.inventoryservice.dto.request.UpdateInventoryRequest;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
 import com.orderproduct.inventoryservice.dto.response.CreateInventoryResponse;
+import com.orderproduct.inventoryservice.dto.response.InventoryImportResponse;
+import com.orderproduct.inventoryservice.dto.response.RejectedStockLevel;
 import com.orderproduct.inventoryservice.dto.response.UpdateInventoryResponse;
 import com.orderproduct.inventoryservice.service.InventoryAvailabilityService;
+import com.orderproduct.inventoryservice.service.InventoryImportService;
 import com.orderproduct.inventoryservice.service.InventoryManagementService;
 
 @WebMvcTest(controllers = { InventoryController.class })
@@ -52,9 +62,12 @@ public class InventoryControllerTest {
         @Autowired
         private InventoryManagementService inventoryManagementService;
 
+        @Autowired
+        private InventoryImportService inventoryImportService;
+
         @BeforeEach
         void setUp() {
-                reset(inventoryAvailabilityService, inventoryManagementService);
+                reset(inventoryAvailabilityService, inventoryManagementService, inventoryImportService);
         }
 
         @TestConfiguration
@@ -69,6 +82,11 @@ public class InventoryControllerTest {
                         return mock(InventoryManagementService.class);
                 }
 
+                @Bean
+                public InventoryImportService inventoryImportService() {
+                        return mock(InventoryImportService.class);
+                }
+
         }
 
         @Test
@@ -280,6 +298,159 @@ public class InventoryControllerTest {
                                 .andExpect(jsonPath("$.errorMessage").value("Sorry, something went wrong."));
         }
 
+        @Test
+        @DisplayName("should stream List<AvailableInventoryResponse> when POST /inventory/availability:batch is called")
+        public void batchInventoryAvailabilities_WhenProductsExist_StreamsAllChunks() throws Exception {
+                // Given
+                when(inventoryAvailabilityService.streamAvailableInventory(List.of("sku1", "sku2", "sku3")))
+                                .thenReturn(Stream.of(
+                                                List.of(new AvailableInventoryResponse("sku1", 10),
+                                                                new AvailableInventoryResponse("sku2", 0)),
+                                                List.of(new AvailableInventoryResponse("sku3", 4))));
+
+                // When
+                MvcResult result = mockMvc.perform(post("/api/inventory/availability:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                                { "skuCodes": ["sku1", "sku2", "sku3"] }
+                                                """))
+                                .andExpect(request().asyncStarted())
+                                .andReturn();
+
+                // Then
+                mockMvc.perform(asyncDispatch(result))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                                .andExpect(content().json("""
+                                                [
+                                                    {"skuCode": "sku1", "availableQuantity": 10},
+                                                    {"skuCode": "sku2", "availableQuantity": 0},
+                                                    {"skuCode": "sku3", "availableQuantity": 4}
+                                                ]
+                                                """, true));
+        }
+
+        @Test
+        @DisplayName("should return 400 when POST /inventory/availability:batch is called without skuCodes")
+        public void batchInventoryAvailabilities_EmptySkuCodes_Returns400() throws Exception {
+                mockMvc.perform(post("/api/inventory/availability:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                                { "skuCodes": [] }
+                                                """))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"))
+                                .andExpect(jsonPath("$.errorMessage").value("SKU codes cannot be empty."));
+        }
+
+        @Test
+        @DisplayName("should return 500 when POST /inventory/availability:batch cannot read the first chunk")
+        public void batchInventoryAvailabilities_WhenFirstChunkFails_Returns500() throws Exception {
+                // Given
+                when(inventoryAvailabilityService.streamAvailableInventory(List.of("sku1")))
+                                .thenReturn(Stream.of("sku1").map(skuCode -> {
+                                        throw new InternalServerException();
+                                }));
+
+                // When & Then
+                mockMvc.perform(post("/api/inventory/availability:batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("""
+                                                { "skuCodes": ["sku1"] }
+                                                """))
+                                .andExpect(status().isInternalServerError())
+                                .andExpect(jsonPath("$.errorCode").value("SOMETHING_WENT_WRONG"));
+        }
+
+        @Test
+        @DisplayName("should return InventoryImportResponse when POST /inventory/bulk is called with a CSV body")
+        void importStockLevels_CsvBody_ReturnsSummary() throws Exception {
+                // Given
+                when(inventoryImportService.importCsv(any(InputStream.class)))
+                                .thenReturn(new InventoryImportResponse(3, 2, 1,
+                                                List.of(new RejectedStockLevel(3, "SKU#3", "SKU code can only contain alphanumeric characters, hyphens, and underscores."))));
+
+                // When & Then
+                mockMvc.perform(post("/api/inventory/bulk")
+                                .contentType("text/csv")
+                                .content("""
+                                                skuCode,quantity
+                                                SKU-1,10
+                                                SKU#3,5
+                                                SKU-2,0
+                                                """))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.received").value(3))
+                                .andExpect(jsonPath("$.upserted").value(2))
+                                .andExpect(jsonPath("$.rejected").value(1))
+                                .andExpect(jsonPath("$.rejectedRows[0].line").value(3))
+                                .andExpect(jsonPath("$.rejectedRows[0].skuCode").value("SKU#3"));
+                verify(inventoryImportService, never()).importNdjson(any(InputStream.class));
+        }
+
+        @Test
+        @DisplayName("should return InventoryImportResponse when POST /inventory/bulk is called with an NDJSON body")
+        void importStockLevels_NdjsonBody_ReturnsSummary() throws Exception {
+                // Given
+                when(inventoryImportService.importNdjson(any(InputStream.class)))
+                                .thenReturn(new InventoryImportResponse(2, 2, 0, List.of()));
+
+                // When & Then
+                mockMvc.perform(post("/api/inventory/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("""
+                                                {"skuCode":"SKU-1","quantity":10}
+                                                {"skuCode":"SKU-2","quantity":0}
+                                                """))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.received").value(2))
+                                .andExpect(jsonPath("$.upserted").value(2))
+                                .andExpect(jsonPath("$.rejected").value(0));
+                verify(inventoryImportService, never()).importCsv(any(InputStream.class));
+        }
+
+        @Test
+        @DisplayName("should return 400 when POST /inventory/bulk is called with a CSV header missing a column")
+        void importStockLevels_CsvHeaderWithoutQuantity_Returns400() throws Exception {
+                // Given
+                when(inventoryImportService.importCsv(any(InputStream.class)))
+                                .thenThrow(new IllegalArgumentException("CSV header must contain the columns skuCode and quantity."));
+
+                // When & Then
+                mockMvc.perform(post("/api/inventory/bulk")
+                                .contentType("text/csv")
+                                .content("skuCode\nSKU-1\n"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.errorCode").value("BAD_REQUEST"))
+                                .andExpect(jsonPath("$.errorMessage")
+                                                .value("CSV header must contain the columns skuCode and quantity."));
+        }
+
+        @Test
+        @DisplayName("should return 415 when POST /inventory/bulk is called with a JSON body")
+        void importStockLevels_JsonBody_Returns415() throws Exception {
+                // When & Then
+                mockMvc.perform(post("/api/inventory/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]"))
+                                .andExpect(status().isUnsupportedMediaType());
+        }
+
+        @Test
+        @DisplayName("should return 500 when POST /inventory/bulk fails to write a chunk")
+        void importStockLevels_ChunkFails_Returns500() throws Exception {
+                // Given
+                when(inventoryImportService.importNdjson(any(InputStream.class)))
+                                .thenThrow(new InternalServerException());
+
+                // When & Then
+                mockMvc.perform(post("/api/inventory/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content("{\"skuCode\":\"SKU-1\",\"quantity\":10}\n"))
+                                .andExpect(status().isInternalServerError())
+                                .andExpect(jsonPath("$.errorCode").value("SOMETHING_WENT_WRONG"));
+        }
+
         @Test
         @DisplayName("should return 200 when PUT /inventory/{sku-code} is called with valid request")
         void updateInventory_ValidRequest_Returns200() throws Exception {
@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,7 +55,12 @@ class ReservationGrpcServiceIntegrationTest {
         @GrpcClient("reservation-service")
         private ReservationServiceGrpc.ReservationServiceBlockingStub reservationServiceStub;
 
-        private final Inventory inventory1 = Inventory.createInventory("skuCode1", 10);
+        // reservedQuantity mirrors the PENDING inventory1Reserved below
+        private final Inventory inventory1 = Inventory.builder()
+                        .skuCode("skuCode1")
+                        .onHandQuantity(10)
+                        .reservedQuantity(1)
+                        .build();
         private final Inventory inventory2 = Inventory.createInventory("skuCode2", 5);
         private final Inventory inventory3 = Inventory.createInventory("skuCode3", 0);
         private final Reservation inventory1Reserved = Reservation.builder()
@@ -150,6 +157,35 @@ class ReservationGrpcServiceIntegrationTest {
                 assertEquals(ReservationState.PENDING, skuCode2Reservation.getStatus());
         }
 
+        @Test
+        @DisplayName("Should stream availability for every distinct SKU code via gRPC")
+        void getAvailability_Success() {
+                // Given - more SKUs than fit in one chunk
+                List<String> skuCodes = new ArrayList<>(List.of("skuCode1", "skuCode2", "skuCode3"));
+                for (int i = 0; i < 1500; i++) {
+                        skuCodes.add("random" + i);
+                }
+                GetAvailabilityRequest request = GetAvailabilityRequest.newBuilder()
+                                .addAllSkuCodes(skuCodes)
+                                .build();
+
+                // When
+                List<GetAvailabilityResponse> responses = new ArrayList<>();
+                reservationServiceStub.getAvailability(request).forEachRemaining(responses::add);
+
+                // Then - one response per chunk of 1000 SKU codes
+                assertEquals(2, responses.size());
+                assertEquals(1000, responses.get(0).getAvailableInventoryCount());
+                assertEquals(503, responses.get(1).getAvailableInventoryCount());
+
+                // skuCode1: onHands=10, reserved=1, so available=9
+                AvailableInventoryResponse skuCode1Response = responses.get(0).getAvailableInventory(0);
+                assertEquals("skuCode1", skuCode1Response.getSkuCode());
+                assertEquals(9, skuCode1Response.getAvailableQuantity());
+                assertEquals(5, responses.get(0).getAvailableInventory(1).getAvailableQuantity());
+                assertEquals(0, responses.get(1).getAvailableInventory(502).getAvailableQuantity());
+        }
+
         @Test
         @DisplayName("Should return RESOURCE_EXHAUSTED when insufficient available items via gRPC")
         void reserveProducts_InsufficientItems() {
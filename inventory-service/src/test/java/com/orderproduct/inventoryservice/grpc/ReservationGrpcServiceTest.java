@@ -2,10 +2,15 @@ package com.orderproduct.inventoryservice.grpc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -25,6 +30,7 @@ import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAll
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
 import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
+import com.orderproduct.inventoryservice.service.InventoryAvailabilityService;
 import com.orderproduct.inventoryservice.service.ReservationManagementService;
 
 import io.grpc.Status;
@@ -38,12 +44,27 @@ class ReservationGrpcServiceTest {
         @Mock
         private ReservationManagementService reservationManagementService;
 
+        @Mock
+        private InventoryAvailabilityService inventoryAvailabilityService;
+
         @Mock
         private StreamObserver<ReserveProductsResponse> responseObserver;
 
+        @Mock
+        private StreamObserver<GetAvailabilityResponse> availabilityObserver;
+
         @Captor
         private ArgumentCaptor<ReserveProductsResponse> responseCaptor;
 
+        @Captor
+        private ArgumentCaptor<GetAvailabilityResponse> availabilityCaptor;
+
+        @Mock
+        private StreamObserver<ReserveProductsBatchResponse> batchObserver;
+
+        @Captor
+        private ArgumentCaptor<ReserveProductsBatchResponse> batchCaptor;
+
         @Captor
         private ArgumentCaptor<StatusRuntimeException> errorCaptor;
 
@@ -51,7 +72,8 @@ class ReservationGrpcServiceTest {
 
         @BeforeEach
         void setUp() {
-                reservationGrpcService = new ReservationGrpcService(reservationManagementService);
+                reservationGrpcService = new ReservationGrpcService(reservationManagementService,
+                                inventoryAvailabilityService);
         }
 
         @Test
@@ -261,6 +283,149 @@ class ReservationGrpcServiceTest {
                 assertEquals(ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE, errorInfo.getReason());
         }
 
+        @Test
+        @DisplayName("Should stream one GetAvailabilityResponse per availability chunk")
+        void getAvailability_Success_StreamsOneResponsePerChunk() {
+                // Given
+                GetAvailabilityRequest request = GetAvailabilityRequest.newBuilder()
+                                .addAllSkuCodes(List.of("skuCode1", "skuCode2", "skuCode3"))
+                                .build();
+                when(inventoryAvailabilityService.streamAvailableInventory(List.of("skuCode1", "skuCode2", "skuCode3")))
+                                .thenReturn(Stream.of(
+                                                List.of(new AvailableInventoryResponse("skuCode1", 7),
+                                                                new AvailableInventoryResponse("skuCode2", 0)),
+                                                List.of(new AvailableInventoryResponse("skuCode3", 4))));
+
+                // When
+                reservationGrpcService.getAvailability(request, availabilityObserver);
+
+                // Then
+                verify(availabilityObserver, times(2)).onNext(availabilityCaptor.capture());
+                verify(availabilityObserver).onCompleted();
+
+                List<GetAvailabilityResponse> responses = availabilityCaptor.getAllValues();
+                assertEquals(2, responses.get(0).getAvailableInventoryCount());
+                assertEquals("skuCode1", responses.get(0).getAvailableInventory(0).getSkuCode());
+                assertEquals(7, responses.get(0).getAvailableInventory(0).getAvailableQuantity());
+                assertEquals("skuCode2", responses.get(0).getAvailableInventory(1).getSkuCode());
+                assertEquals(0, responses.get(0).getAvailableInventory(1).getAvailableQuantity());
+                assertEquals(1, responses.get(1).getAvailableInventoryCount());
+                assertEquals("skuCode3", responses.get(1).getAvailableInventory(0).getSkuCode());
+                assertEquals(4, responses.get(1).getAvailableInventory(0).getAvailableQuantity());
+        }
+
+        @Test
+        @DisplayName("Should return INTERNAL after the chunks already sent when a later chunk fails")
+        void getAvailability_LaterChunkFails_ReturnsInternal() throws Exception {
+                // Given
+                GetAvailabilityRequest request = GetAvailabilityRequest.newBuilder()
+                                .addAllSkuCodes(List.of("skuCode1", "skuCode2"))
+                                .build();
+                when(inventoryAvailabilityService.streamAvailableInventory(List.of("skuCode1", "skuCode2")))
+                                .thenReturn(Stream.of("skuCode1", "skuCode2").map(skuCode -> {
+                                        if ("skuCode2".equals(skuCode)) {
+                                                throw new InternalServerException();
+                                        }
+                                        return List.of(new AvailableInventoryResponse(skuCode, 3));
+                                }));
+
+                // When
+                reservationGrpcService.getAvailability(request, availabilityObserver);
+
+                // Then
+                verify(availabilityObserver).onNext(availabilityCaptor.capture());
+                verify(availabilityObserver).onError(errorCaptor.capture());
+                verify(availabilityObserver, never()).onCompleted();
+
+                assertEquals("skuCode1", availabilityCaptor.getValue().getAvailableInventory(0).getSkuCode());
+                StatusRuntimeException capturedError = errorCaptor.getValue();
+                assertEquals(Status.INTERNAL.getCode(), capturedError.getStatus().getCode());
+                assertEquals(ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE,
+                                extractErrorInfo(capturedError).getReason());
+        }
+
+        @Test
+        @DisplayName("Should return one result per order for a batch, with errors for the rejected orders")
+        void reserveProductsBatch_SomeOrdersRejected_ReturnsResultPerOrder() throws Exception {
+                // Given
+                ReserveProductsBatchRequest request = ReserveProductsBatchRequest.newBuilder()
+                                .addOrders(ReserveProductsRequest.newBuilder()
+                                                .setOrderNumber("ORDER-001")
+                                                .addItemReservationRequests(ItemReservationRequest.newBuilder()
+                                                                .setSkuCode("skuCode1")
+                                                                .setQuantity(2)
+                                                                .build())
+                                                .build())
+                                .addOrders(ReserveProductsRequest.newBuilder()
+                                                .setOrderNumber("ORDER-002")
+                                                .addItemReservationRequests(ItemReservationRequest.newBuilder()
+                                                                .setSkuCode("skuCode1")
+                                                                .setQuantity(10)
+                                                                .build())
+                                                .build())
+                                .build();
+                List<OrderReservationRequest> expectedRequests = List.of(
+                                new OrderReservationRequest("ORDER-001", List.of(
+                                                new com.orderproduct.inventoryservice.dto.request.ItemReservationRequest(
+                                                                "skuCode1", 2))),
+                                new OrderReservationRequest("ORDER-002", List.of(
+                                                new com.orderproduct.inventoryservice.dto.request.ItemReservationRequest(
+                                                                "skuCode1", 10))));
+                when(reservationManagementService.reserveProductsBatch(expectedRequests)).thenReturn(List.of(
+                                CompletableFuture.completedFuture(List.of(new AvailableInventoryResponse("skuCode1", 3))),
+                                CompletableFuture.failedFuture(new NotEnoughItemException(
+                                                List.of(new ItemAvailability("skuCode1", 10, 3))))));
+
+                // When
+                reservationGrpcService.reserveProductsBatch(request, batchObserver);
+
+                // Then
+                verify(batchObserver).onNext(batchCaptor.capture());
+                verify(batchObserver).onCompleted();
+
+                ReserveProductsBatchResponse response = batchCaptor.getValue();
+                assertEquals(2, response.getResultsCount());
+                OrderReservationResult reserved = response.getResults(0);
+                assertEquals("ORDER-001", reserved.getOrderNumber());
+                assertEquals(3, reserved.getReserved().getAvailableInventory(0).getAvailableQuantity());
+                OrderReservationResult rejected = response.getResults(1);
+                assertEquals("ORDER-002", rejected.getOrderNumber());
+                assertEquals(Status.RESOURCE_EXHAUSTED.getCode().value(), rejected.getError().getCode());
+                assertEquals(ErrorComponent.NOT_ENOUGH_ITEM_ERROR_CODE,
+                                rejected.getError().getDetails(0).unpack(ErrorInfo.class).getReason());
+        }
+
+        @Test
+        @DisplayName("Should answer a batch only once every order is decided")
+        void reserveProductsBatch_PendingOrder_RespondsWhenItCompletes() throws Exception {
+                // Given
+                ReserveProductsBatchRequest request = ReserveProductsBatchRequest.newBuilder()
+                                .addOrders(ReserveProductsRequest.newBuilder()
+                                                .setOrderNumber("ORDER-001")
+                                                .addItemReservationRequests(ItemReservationRequest.newBuilder()
+                                                                .setSkuCode("skuCode1")
+                                                                .setQuantity(1)
+                                                                .build())
+                                                .build())
+                                .build();
+                CompletableFuture<List<AvailableInventoryResponse>> pending = new CompletableFuture<>();
+                when(reservationManagementService.reserveProductsBatch(List.of(new OrderReservationRequest(
+                                "ORDER-001",
+                                List.of(new com.orderproduct.inventoryservice.dto.request.ItemReservationRequest(
+                                                "skuCode1", 1))))))
+                                .thenReturn(List.of(pending));
+
+                // When
+                reservationGrpcService.reserveProductsBatch(request, batchObserver);
+                verify(batchObserver, never()).onNext(any());
+                pending.completeExceptionally(new InternalServerException());
+
+                // Then
+                verify(batchObserver).onNext(batchCaptor.capture());
+                verify(batchObserver).onCompleted();
+                assertEquals(Status.INTERNAL.getCode().value(), batchCaptor.getValue().getResults(0).getError().getCode());
+        }
+
         private ErrorInfo extractErrorInfo(StatusRuntimeException exception) {
                 // Get the status from the exception
                 io.grpc.Status grpcStatus = exception.getStatus();
@@ -0,0 +1,79 @@
+package com.orderproduct.inventoryservice.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.inventoryservice.cache.AvailabilityCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AvailabilityInvalidationListenerTest {
+
+    private final AvailabilityCache availabilityCache = mock(AvailabilityCache.class);
+    private final AvailabilityInvalidationPublisher invalidationPublisher = mock(AvailabilityInvalidationPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityInvalidationListener listener = new AvailabilityInvalidationListener(availabilityCache,
+            invalidationPublisher, new ObjectMapper(), meterRegistry);
+
+    @Test
+    @DisplayName("`handleAvailabilityInvalidation()` should invalidate the SKUs published by another instance")
+    public void handleAvailabilityInvalidation_OtherInstance_InvalidatesSkus() {
+        // Given
+        when(invalidationPublisher.getInstanceId()).thenReturn("this-instance");
+
+        // When
+        listener.handleAvailabilityInvalidation(record("[\"sku-1\",\"sku-2\"]", "other-instance"));
+
+        // Then
+        verify(availabilityCache).invalidate(List.of("sku-1", "sku-2"));
+        assertEquals(1, meterRegistry.get("inventory.availability.cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    @DisplayName("`handleAvailabilityInvalidation()` should skip invalidations published by this instance")
+    public void handleAvailabilityInvalidation_OwnInstance_Skips() {
+        // Given
+        when(invalidationPublisher.getInstanceId()).thenReturn("this-instance");
+
+        // When
+        listener.handleAvailabilityInvalidation(record("[\"sku-1\"]", "this-instance"));
+
+        // Then
+        verify(availabilityCache, never()).invalidate(anyList());
+    }
+
+    @Test
+    @DisplayName("`handleAvailabilityInvalidation()` should skip records that are not a list of SKU codes")
+    public void handleAvailabilityInvalidation_InvalidPayload_Skips() {
+        // Given
+        when(invalidationPublisher.getInstanceId()).thenReturn("this-instance");
+
+        // When
+        listener.handleAvailabilityInvalidation(record("{\"sku\":", "other-instance"));
+
+        // Then
+        verify(availabilityCache, never()).invalidate(anyList());
+    }
+
+    private static ConsumerRecord<String, String> record(String value, String origin) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(AvailabilityInvalidationPublisher.ORIGIN_HEADER, origin.getBytes(StandardCharsets.UTF_8));
+        return new ConsumerRecord<>("inventory.availability.invalidated", 0, 0, System.currentTimeMillis(),
+                TimestampType.CREATE_TIME, -1, value.length(), null, value, headers, Optional.empty());
+    }
+}
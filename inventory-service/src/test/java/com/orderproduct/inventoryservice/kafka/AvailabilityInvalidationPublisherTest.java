@@ -0,0 +1,44 @@
+package com.orderproduct.inventoryservice.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class AvailabilityInvalidationPublisherTest {
+
+    @Test
+    @DisplayName("`resolveInstanceId()` should prefer the configured instance id")
+    public void resolveInstanceId_Configured_ReturnsConfiguredId() {
+        assertEquals("inventory-1", AvailabilityInvalidationPublisher.resolveInstanceId(" inventory-1 ", 0));
+    }
+
+    @Test
+    @DisplayName("`resolveInstanceId()` should derive a stable id from the host name and a fixed port")
+    public void resolveInstanceId_FixedPort_ReturnsHostAndPort() {
+        // When
+        String first = AvailabilityInvalidationPublisher.resolveInstanceId("", 8082);
+        String second = AvailabilityInvalidationPublisher.resolveInstanceId(null, 8082);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first.endsWith(":8082"), first);
+    }
+
+    @Test
+    @DisplayName("`resolveInstanceId()` should fall back to a random id when the port is random")
+    public void resolveInstanceId_RandomPort_ReturnsRandomId() {
+        // When
+        String first = AvailabilityInvalidationPublisher.resolveInstanceId("", 0);
+        String second = AvailabilityInvalidationPublisher.resolveInstanceId("", 0);
+
+        // Then
+        assertNotEquals(first, second);
+        assertDoesNotThrow(() -> UUID.fromString(first));
+    }
+}
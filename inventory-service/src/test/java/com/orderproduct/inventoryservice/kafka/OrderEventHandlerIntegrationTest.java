@@ -2,17 +2,21 @@ package com.orderproduct.inventoryservice.kafka;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
@@ -54,6 +58,9 @@ class OrderEventHandlerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    private final AtomicInteger acknowledgements = new AtomicInteger();
+    private final Acknowledgment acknowledgment = acknowledgements::incrementAndGet;
+
     @BeforeEach
     void setUp() {
         // Clean up data before each test
@@ -76,9 +83,17 @@ class OrderEventHandlerIntegrationTest {
         String skuCode1 = "SKU-001";
         String skuCode2 = "SKU-002";
 
-        // Create inventory with initial quantities
-        Inventory inventory1 = Inventory.createInventory(skuCode1, 100);
-        Inventory inventory2 = Inventory.createInventory(skuCode2, 50);
+        // Create inventory with initial quantities, holding the pending reservations below
+        Inventory inventory1 = Inventory.builder()
+                .skuCode(skuCode1)
+                .onHandQuantity(100)
+                .reservedQuantity(30)
+                .build();
+        Inventory inventory2 = Inventory.builder()
+                .skuCode(skuCode2)
+                .onHandQuantity(50)
+                .reservedQuantity(20)
+                .build();
         inventoryRepository.saveAll(List.of(inventory1, inventory2));
 
         // Create pending reservations
@@ -102,12 +117,7 @@ class OrderEventHandlerIntegrationTest {
         String payload = createOrderStatusChangedEventPayload(orderNumber, "FULFILLED");
 
         // When - Process the FULFILLED order event
-        orderEventHandler.handleOrderStatusChangedEvent(
-                payload,
-                "OrderStatusChangedEvent",
-                "Order",
-                "aggregate-" + orderNumber,
-                "event-" + orderNumber);
+        orderEventHandler.handleOrderStatusChangedEvents(List.of(toRecord(0, orderNumber, payload)), acknowledgment);
 
         // Then - Verify reservations are updated to FULFILLED
         List<Reservation> updatedReservations = reservationRepository.findByOrderNumber(orderNumber);
@@ -120,6 +130,8 @@ class OrderEventHandlerIntegrationTest {
 
         assertThat(updatedInventory1.getOnHandQuantity()).isEqualTo(70); // 100 - 30
         assertThat(updatedInventory2.getOnHandQuantity()).isEqualTo(30); // 50 - 20
+        assertThat(updatedInventory1.getReservedQuantity()).isZero();
+        assertThat(updatedInventory2.getReservedQuantity()).isZero();
     }
 
     @Test
@@ -130,9 +142,17 @@ class OrderEventHandlerIntegrationTest {
         String skuCode1 = "SKU-001";
         String skuCode2 = "SKU-002";
 
-        // Create inventory with initial quantities
-        Inventory inventory1 = Inventory.createInventory(skuCode1, 100);
-        Inventory inventory2 = Inventory.createInventory(skuCode2, 50);
+        // Create inventory with initial quantities, holding the pending reservations below
+        Inventory inventory1 = Inventory.builder()
+                .skuCode(skuCode1)
+                .onHandQuantity(100)
+                .reservedQuantity(30)
+                .build();
+        Inventory inventory2 = Inventory.builder()
+                .skuCode(skuCode2)
+                .onHandQuantity(50)
+                .reservedQuantity(20)
+                .build();
         inventoryRepository.saveAll(List.of(inventory1, inventory2));
 
         // Create pending reservations
@@ -156,12 +176,7 @@ class OrderEventHandlerIntegrationTest {
         String payload = createOrderStatusChangedEventPayload(orderNumber, "CANCELLED");
 
         // When - Process the CANCELLED order event
-        orderEventHandler.handleOrderStatusChangedEvent(
-                payload,
-                "OrderStatusChangedEvent",
-                "Order",
-                "aggregate-" + orderNumber,
-                "event-" + orderNumber);
+        orderEventHandler.handleOrderStatusChangedEvents(List.of(toRecord(0, orderNumber, payload)), acknowledgment);
 
         // Then - Verify reservations are updated to CANCELLED
         List<Reservation> updatedReservations = reservationRepository.findByOrderNumber(orderNumber);
@@ -174,6 +189,8 @@ class OrderEventHandlerIntegrationTest {
 
         assertThat(updatedInventory1.getOnHandQuantity()).isEqualTo(100); // Unchanged
         assertThat(updatedInventory2.getOnHandQuantity()).isEqualTo(50); // Unchanged
+        assertThat(updatedInventory1.getReservedQuantity()).isZero();
+        assertThat(updatedInventory2.getReservedQuantity()).isZero();
     }
 
     @Test
@@ -183,7 +200,11 @@ class OrderEventHandlerIntegrationTest {
         String orderNumber = "ORDER-PENDING-001";
         String skuCode = "SKU-001";
 
-        Inventory inventory = Inventory.createInventory(skuCode, 100);
+        Inventory inventory = Inventory.builder()
+                .skuCode(skuCode)
+                .onHandQuantity(100)
+                .reservedQuantity(25)
+                .build();
         inventoryRepository.save(inventory);
 
         Reservation reservation = Reservation.builder()
@@ -199,12 +220,7 @@ class OrderEventHandlerIntegrationTest {
         String payload = createOrderStatusChangedEventPayload(orderNumber, "PENDING");
 
         // When - Process the PENDING order event
-        orderEventHandler.handleOrderStatusChangedEvent(
-                payload,
-                "OrderStatusChangedEvent",
-                "Order",
-                "aggregate-" + orderNumber,
-                "event-" + orderNumber);
+        orderEventHandler.handleOrderStatusChangedEvents(List.of(toRecord(0, orderNumber, payload)), acknowledgment);
 
         // Then - Verify reservations remain unchanged
         List<Reservation> reservations = reservationRepository.findByOrderNumber(orderNumber);
@@ -214,6 +230,63 @@ class OrderEventHandlerIntegrationTest {
         // Verify inventory quantity remains unchanged
         Inventory updatedInventory = inventoryRepository.findBySkuCode(skuCode).orElseThrow();
         assertThat(updatedInventory.getOnHandQuantity()).isEqualTo(100); // Unchanged
+        assertThat(updatedInventory.getReservedQuantity()).isEqualTo(25); // Still held
+    }
+
+    @Test
+    @DisplayName("A batch of events should update all orders in one transaction and acknowledge once")
+    void handleOrderStatusChangedEvents_MixedBatch_UpdatesAllOrders() throws Exception {
+        // Given - Two orders sharing a SKU, one fulfilled and one cancelled in the same poll
+        Inventory inventory = Inventory.builder()
+                .skuCode("SKU-001")
+                .onHandQuantity(100)
+                .reservedQuantity(30)
+                .build();
+        inventoryRepository.save(inventory);
+        reservationRepository.saveAll(List.of(
+                Reservation.builder()
+                        .orderNumber("ORDER-BATCH-001")
+                        .skuCode("SKU-001")
+                        .reservedQuantity(10)
+                        .reservedAt(LocalDateTime.now())
+                        .status(ReservationState.PENDING)
+                        .build(),
+                Reservation.builder()
+                        .orderNumber("ORDER-BATCH-002")
+                        .skuCode("SKU-001")
+                        .reservedQuantity(20)
+                        .reservedAt(LocalDateTime.now())
+                        .status(ReservationState.PENDING)
+                        .build()));
+
+        // When
+        orderEventHandler.handleOrderStatusChangedEvents(List.of(
+                toRecord(0, "ORDER-BATCH-001",
+                        createOrderStatusChangedEventPayload("ORDER-BATCH-001", "FULFILLED")),
+                toRecord(1, "ORDER-BATCH-002",
+                        createOrderStatusChangedEventPayload("ORDER-BATCH-002", "CANCELLED"))),
+                acknowledgment);
+
+        // Then
+        assertThat(reservationRepository.findByOrderNumber("ORDER-BATCH-001"))
+                .allMatch(r -> r.getStatus() == ReservationState.FULFILLED);
+        assertThat(reservationRepository.findByOrderNumber("ORDER-BATCH-002"))
+                .allMatch(r -> r.getStatus() == ReservationState.CANCELLED);
+
+        Inventory updatedInventory = inventoryRepository.findBySkuCode("SKU-001").orElseThrow();
+        assertThat(updatedInventory.getOnHandQuantity()).isEqualTo(90); // 100 - 10 fulfilled
+        assertThat(updatedInventory.getReservedQuantity()).isZero();
+        assertThat(acknowledgements.get()).isEqualTo(1);
+    }
+
+    private ConsumerRecord<String, String> toRecord(long offset, String orderNumber, String payload) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>("outbox.event.Order", 0, offset,
+                "aggregate-" + orderNumber, payload);
+        record.headers().add("eventId", ("event-" + orderNumber).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("eventType", "OrderStatusChangedEvent".getBytes(StandardCharsets.UTF_8));
+        record.headers().add("aggregateType", "Order".getBytes(StandardCharsets.UTF_8));
+        record.headers().add("aggregateId", ("aggregate-" + orderNumber).getBytes(StandardCharsets.UTF_8));
+        return record;
     }
 
     private String createOrderStatusChangedEventPayload(String orderNumber, String status) throws Exception {
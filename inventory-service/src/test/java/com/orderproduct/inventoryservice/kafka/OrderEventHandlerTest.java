@@ -1,20 +1,28 @@
 package com.orderproduct.inventoryservice.kafka;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.orderproduct.inventoryservice.common.exception.InvalidKafkaEventException;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateRequest;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.service.reservation.ReservationService;
@@ -23,150 +31,173 @@ public class OrderEventHandlerTest {
 
     private final ReservationService reservationService = mock(ReservationService.class);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
     private final OrderEventHandler orderEventHandler = new OrderEventHandler(reservationService, objectMapper);
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should successfully process FULFILLED order status")
-    public void handleOrderStatusChangedEvent_FulfilledStatus_ProcessesSuccessfully() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should successfully process FULFILLED order status")
+    public void handleOrderStatusChangedEvents_FulfilledStatus_ProcessesSuccessfully() throws Exception {
         // Given
-        final var payload = createPayloadJson(new OrderStatusChangedEvent("ORDER-123", "FULFILLED"));
-        final var expectedRequest = new ReservationStateUpdateRequest("ORDER-123", ReservationState.FULFILLED);
+        final var records = List.of(record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-123", "FULFILLED"))));
+        final var expectedRequests = List.of(new ReservationStateUpdateRequest("ORDER-123", ReservationState.FULFILLED));
 
         // When
-        orderEventHandler.handleOrderStatusChangedEvent(payload, "OrderStatusChangedEvent", "Order", "aggregate-123",
-                "event-123");
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
         // Then
-        verify(reservationService).updateReservationState(expectedRequest);
+        verify(reservationService).updateReservationStates(expectedRequests);
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should successfully process CANCELLED order status")
-    public void handleOrderStatusChangedEvent_CancelledStatus_ProcessesSuccessfully() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should successfully process CANCELLED order status")
+    public void handleOrderStatusChangedEvents_CancelledStatus_ProcessesSuccessfully() throws Exception {
         // Given
-        final var payload = createPayloadJson(new OrderStatusChangedEvent("ORDER-456", "CANCELLED"));
-        final var expectedRequest = new ReservationStateUpdateRequest("ORDER-456", ReservationState.CANCELLED);
+        final var records = List.of(record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-456", "CANCELLED"))));
+        final var expectedRequests = List.of(new ReservationStateUpdateRequest("ORDER-456", ReservationState.CANCELLED));
 
         // When
-        orderEventHandler.handleOrderStatusChangedEvent(payload, "OrderStatusChanged", "Order", "aggregate-456",
-                "event-456");
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
         // Then
-        verify(reservationService).updateReservationState(expectedRequest);
+        verify(reservationService).updateReservationStates(expectedRequests);
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should process FULFILLED status case-insensitively")
-    public void handleOrderStatusChangedEvent_FulfilledStatusLowerCase_ProcessesSuccessfully() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should process FULFILLED status case-insensitively")
+    public void handleOrderStatusChangedEvents_FulfilledStatusLowerCase_ProcessesSuccessfully() throws Exception {
         // Given
-        final var payload = createPayloadJson(new OrderStatusChangedEvent("ORDER-789", "fulfilled"));
-        final var expectedRequest = new ReservationStateUpdateRequest("ORDER-789", ReservationState.FULFILLED);
+        final var records = List.of(record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-789", "fulfilled"))));
+        final var expectedRequests = List.of(new ReservationStateUpdateRequest("ORDER-789", ReservationState.FULFILLED));
 
         // When
-        orderEventHandler.handleOrderStatusChangedEvent(payload, "OrderStatusChanged", "Order", "aggregate-789",
-                "event-789");
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
         // Then
-        verify(reservationService).updateReservationState(expectedRequest);
+        verify(reservationService).updateReservationStates(expectedRequests);
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should ignore PENDING order status")
-    public void handleOrderStatusChangedEvent_PendingStatus_IgnoresEvent() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should apply all events of a poll in one call, in record order")
+    public void handleOrderStatusChangedEvents_MultipleRecords_UpdatesInOneBatch() throws Exception {
         // Given
-        final var payload = createPayloadJson(new OrderStatusChangedEvent("ORDER-202", "PENDING"));
+        final var records = List.of(
+                record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-1", "FULFILLED"))),
+                record(1, createPayloadJson(new OrderStatusChangedEvent("ORDER-2", "PENDING"))),
+                record(2, "invalid-json"),
+                record(3, createPayloadJson(new OrderStatusChangedEvent("ORDER-3", "CANCELLED"))));
+        final var expectedRequests = List.of(
+                new ReservationStateUpdateRequest("ORDER-1", ReservationState.FULFILLED),
+                new ReservationStateUpdateRequest("ORDER-3", ReservationState.CANCELLED));
 
         // When
-        orderEventHandler.handleOrderStatusChangedEvent(payload, "OrderStatusChanged", "Order", "aggregate-202",
-                "event-202");
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
         // Then
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        verify(reservationService).updateReservationStates(expectedRequests);
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should ignore null order status")
-    public void handleOrderStatusChangedEvent_NullStatus_IgnoresEvent() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should ignore PENDING order status")
+    public void handleOrderStatusChangedEvents_PendingStatus_IgnoresEvent() throws Exception {
         // Given
-        final var payload = createPayloadJson(new OrderStatusChangedEvent("ORDER-404", null));
+        final var records = List.of(record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-202", "PENDING"))));
 
         // When
-        orderEventHandler.handleOrderStatusChangedEvent(payload, "OrderStatusChanged", "Order", "aggregate-404",
-                "event-404");
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
         // Then
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        verify(reservationService, never()).updateReservationStates(anyList());
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should throw InvalidKafkaEventException when payload parsing fails")
-    public void handleOrderStatusChangedEvent_InvalidPayload_ThrowsInvalidKafkaEventException() {
+    @DisplayName("`handleOrderStatusChangedEvents()` should ignore null order status")
+    public void handleOrderStatusChangedEvents_NullStatus_IgnoresEvent() throws Exception {
         // Given
-        final var invalidPayload = "invalid-json";
+        final var records = List.of(record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-404", null))));
 
-        // When & Then
-        assertThrows(InvalidKafkaEventException.class,
-                () -> orderEventHandler.handleOrderStatusChangedEvent(invalidPayload,
-                        "OrderStatusChanged", "Order", "aggregate-505", "event-505"));
+        // When
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        // Then
+        verify(reservationService, never()).updateReservationStates(anyList());
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should throw InvalidKafkaEventException when payload structure is invalid")
-    public void handleOrderStatusChangedEvent_InvalidPayloadStructure_ThrowsInvalidKafkaEventException()
-            throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should skip records whose payload cannot be parsed")
+    public void handleOrderStatusChangedEvents_InvalidPayloads_SkipsRecords() {
         // Given
-        final var invalidPayload = "{\"invalid\": \"structure\"}";
+        final var records = List.of(
+                record(0, "invalid-json"),
+                record(1, "{\"invalid\": \"structure\"}"),
+                record(2, "{\"payload\": \"invalid-json\"}"),
+                record(3, "{\"payload\": null}"),
+                record(4, "{\"payload\": \"\"}"));
 
-        // When & Then
-        assertThrows(InvalidKafkaEventException.class,
-                () -> orderEventHandler.handleOrderStatusChangedEvent(invalidPayload,
-                        "OrderStatusChanged", "Order", "aggregate-606", "event-606"));
+        // When
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        // Then
+        verify(reservationService, never()).updateReservationStates(anyList());
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should throw InvalidKafkaEventException when inner payload is invalid JSON")
-    public void handleOrderStatusChangedEvent_InvalidInnerPayload_ThrowsInvalidKafkaEventException() throws Exception {
+    @DisplayName("`handleOrderStatusChangedEvents()` should apply the updates one by one when the batch fails")
+    public void handleOrderStatusChangedEvents_BatchFails_AppliesOneByOne() throws Exception {
         // Given
-        final var invalidInnerPayload = "{\"payload\": \"invalid-json\"}";
+        final var records = List.of(
+                record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-1", "FULFILLED"))),
+                record(1, createPayloadJson(new OrderStatusChangedEvent("ORDER-2", "CANCELLED"))));
+        when(reservationService.updateReservationStates(anyList())).thenThrow(new InternalServerException());
 
-        // When & Then
-        assertThrows(InvalidKafkaEventException.class,
-                () -> orderEventHandler.handleOrderStatusChangedEvent(invalidInnerPayload,
-                        "OrderStatusChanged", "Order", "aggregate-707", "event-707"));
+        // When
+        orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment);
 
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        // Then
+        verify(reservationService).updateReservationState(
+                new ReservationStateUpdateRequest("ORDER-1", ReservationState.FULFILLED));
+        verify(reservationService).updateReservationState(
+                new ReservationStateUpdateRequest("ORDER-2", ReservationState.CANCELLED));
+        verify(acknowledgment).acknowledge();
     }
 
     @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should handle null payload field")
-    public void handleOrderStatusChangedEvent_NullPayloadField_ThrowsInvalidKafkaEventException() {
+    @DisplayName("`handleOrderStatusChangedEvents()` should apply the records before a failing one and report only that record")
+    public void handleOrderStatusChangedEvents_OneRecordFails_ReportsFailedRecordIndex() throws Exception {
         // Given
-        final var payloadWithNullPayload = "{\"payload\": null}";
+        final var records = List.of(
+                record(0, createPayloadJson(new OrderStatusChangedEvent("ORDER-1", "FULFILLED"))),
+                record(1, createPayloadJson(new OrderStatusChangedEvent("ORDER-2", "PENDING"))),
+                record(2, createPayloadJson(new OrderStatusChangedEvent("ORDER-3", "FULFILLED"))),
+                record(3, createPayloadJson(new OrderStatusChangedEvent("ORDER-4", "CANCELLED"))));
+        final var failingRequest = new ReservationStateUpdateRequest("ORDER-3", ReservationState.FULFILLED);
+        when(reservationService.updateReservationStates(anyList())).thenThrow(new InternalServerException());
+        when(reservationService.updateReservationState(failingRequest)).thenThrow(new InternalServerException());
 
-        // When & Then
-        assertThrows(InvalidKafkaEventException.class,
-                () -> orderEventHandler.handleOrderStatusChangedEvent(payloadWithNullPayload,
-                        "OrderStatusChanged", "Order", "aggregate-null-payload", "event-null-payload"));
-
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+        // When
+        final var exception = assertThrows(BatchListenerFailedException.class,
+                () -> orderEventHandler.handleOrderStatusChangedEvents(records, acknowledgment));
+
+        // Then: ORDER-1 is applied, and the container retries from ORDER-3, redelivering ORDER-4 after it
+        assertEquals(2, exception.getIndex());
+        assertInstanceOf(InternalServerException.class, exception.getCause());
+        verify(reservationService).updateReservationState(
+                new ReservationStateUpdateRequest("ORDER-1", ReservationState.FULFILLED));
+        verify(reservationService, never()).updateReservationState(
+                new ReservationStateUpdateRequest("ORDER-4", ReservationState.CANCELLED));
+        verify(acknowledgment, never()).acknowledge();
     }
 
-    @Test
-    @DisplayName("`handleOrderStatusChangedEvent()` should handle empty payload field")
-    public void handleOrderStatusChangedEvent_EmptyPayloadField_ThrowsInvalidKafkaEventException() {
-        // Given
-        final var payloadWithEmptyPayload = "{\"payload\": \"\"}";
-
-        // When & Then
-        assertThrows(InvalidKafkaEventException.class,
-                () -> orderEventHandler.handleOrderStatusChangedEvent(payloadWithEmptyPayload,
-                        "OrderStatusChanged", "Order", "aggregate-empty-payload", "event-empty-payload"));
-
-        verify(reservationService, never()).updateReservationState(any(ReservationStateUpdateRequest.class));
+    private ConsumerRecord<String, String> record(long offset, String payload) {
+        final var record = new ConsumerRecord<String, String>("outbox.event.Order", 0, offset, "key", payload);
+        record.headers().add("eventId", ("event-" + offset).getBytes(StandardCharsets.UTF_8));
+        record.headers().add("eventType", "OrderStatusChangedEvent".getBytes(StandardCharsets.UTF_8));
+        return record;
     }
 
     private String createPayloadJson(OrderStatusChangedEvent event) throws JsonProcessingException {
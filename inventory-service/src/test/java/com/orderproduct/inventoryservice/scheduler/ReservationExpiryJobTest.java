@@ -0,0 +1,96 @@
+package com.orderproduct.inventoryservice.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.entity.Reservation;
+import com.orderproduct.inventoryservice.service.reservation.ReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReservationExpiryJobTest {
+
+        private final ReservationService reservationService = mock(ReservationService.class);
+        private final TimeProvider timeProvider = mock(TimeProvider.class);
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final ReservationExpiryJob job = new ReservationExpiryJob(reservationService, timeProvider,
+                        meterRegistry, Duration.ofMinutes(30), 2, 3);
+
+        private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        private final LocalDateTime cutoff = now.minusMinutes(30);
+
+        @BeforeEach
+        void setUp() {
+                when(timeProvider.getCurrentTimestamp()).thenReturn(now);
+        }
+
+        @Test
+        @DisplayName("`expireStaleReservations()` should expire batches until a partial batch is returned")
+        public void expireStaleReservations_PartialLastBatch_StopsAndCounts()
+                        throws InternalServerException, DuplicateReservationException {
+                // Given
+                when(reservationService.expireStaleReservations(cutoff, 2))
+                                .thenReturn(reservations(2))
+                                .thenReturn(reservations(1));
+
+                // When
+                int result = job.expireStaleReservations();
+
+                // Then
+                assertEquals(3, result);
+                verify(reservationService, times(2)).expireStaleReservations(cutoff, 2);
+                assertEquals(3.0, meterRegistry.counter("inventory.reservation.expired").count());
+        }
+
+        @Test
+        @DisplayName("`expireStaleReservations()` should stop after max batches per run")
+        public void expireStaleReservations_Backlog_StopsAtMaxBatches()
+                        throws InternalServerException, DuplicateReservationException {
+                // Given
+                when(reservationService.expireStaleReservations(cutoff, 2)).thenReturn(reservations(2));
+
+                // When
+                int result = job.expireStaleReservations();
+
+                // Then
+                assertEquals(6, result);
+                verify(reservationService, times(3)).expireStaleReservations(cutoff, 2);
+        }
+
+        @Test
+        @DisplayName("`expire()` should record sweep latency and swallow InternalServerException")
+        public void expire_InternalServerException_RecordsSweep()
+                        throws InternalServerException, DuplicateReservationException {
+                // Given
+                when(reservationService.expireStaleReservations(any(), anyInt()))
+                                .thenThrow(new InternalServerException());
+
+                // When
+                job.expire();
+
+                // Then
+                assertEquals(1, meterRegistry.timer("inventory.reservation.expiry.sweep").count());
+                assertEquals(0.0, meterRegistry.counter("inventory.reservation.expired").count());
+        }
+
+        private List<Reservation> reservations(int count) {
+                return Collections.nCopies(count, new Reservation());
+        }
+}
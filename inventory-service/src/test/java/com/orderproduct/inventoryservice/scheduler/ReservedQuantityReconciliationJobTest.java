@@ -0,0 +1,78 @@
+package com.orderproduct.inventoryservice.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.service.inventory.ReservedQuantityReconciliationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReservedQuantityReconciliationJobTest {
+
+        private final ReservedQuantityReconciliationService reconciliationService = mock(
+                        ReservedQuantityReconciliationService.class);
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final ReservedQuantityReconciliationJob job = new ReservedQuantityReconciliationJob(
+                        reconciliationService, meterRegistry, 2);
+
+        @Test
+        @DisplayName("`reconcileAll()` should page through all SKUs and repair the drifted ones")
+        public void reconcileAll_MultiplePages_RepairsDriftedSkus() throws InternalServerException {
+                // Given
+                final var firstPage = List.of(new ItemStockLevel("sku-a", 10, 1), new ItemStockLevel("sku-b", 10, 2));
+                final var secondPage = List.of(new ItemStockLevel("sku-c", 10, 3));
+                when(reconciliationService.stockLevelsAfter("", 2)).thenReturn(firstPage);
+                when(reconciliationService.stockLevelsAfter("sku-b", 2)).thenReturn(secondPage);
+                when(reconciliationService.findDriftedSkuCodes(firstPage)).thenReturn(List.of("sku-b"));
+                when(reconciliationService.findDriftedSkuCodes(secondPage)).thenReturn(List.of("sku-c"));
+                when(reconciliationService.repair("sku-b")).thenReturn(true);
+                // Settled by the time the row was locked
+                when(reconciliationService.repair("sku-c")).thenReturn(false);
+
+                // When
+                int result = job.reconcileAll();
+
+                // Then
+                assertEquals(1, result);
+                assertEquals(1.0, meterRegistry.counter("inventory.reservation.reconciliation.repaired").count());
+                verify(reconciliationService, never()).repair("sku-a");
+        }
+
+        @Test
+        @DisplayName("`reconcileAll()` should stop after an empty first page")
+        public void reconcileAll_NoInventory_ReturnsZero() throws InternalServerException {
+                // Given
+                when(reconciliationService.stockLevelsAfter("", 2)).thenReturn(List.of());
+
+                // When
+                int result = job.reconcileAll();
+
+                // Then
+                assertEquals(0, result);
+                verify(reconciliationService, never()).repair(anyString());
+        }
+
+        @Test
+        @DisplayName("`reconcile()` should swallow InternalServerException so the next run is still scheduled")
+        public void reconcile_InternalServerException_DoesNotPropagate() throws InternalServerException {
+                // Given
+                when(reconciliationService.stockLevelsAfter("", 2)).thenThrow(new InternalServerException());
+
+                // When
+                job.reconcile();
+
+                // Then
+                verify(reconciliationService, never()).repair(anyString());
+        }
+}
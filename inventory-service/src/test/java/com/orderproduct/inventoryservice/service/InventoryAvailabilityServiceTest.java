@@ -3,51 +3,51 @@ package com.orderproduct.inventoryservice.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.orderproduct.inventoryservice.cache.AvailabilityCache;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
-import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
-import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
 import com.orderproduct.inventoryservice.service.inventory.ItemOnHandService;
-import com.orderproduct.inventoryservice.service.reservation.ReservationService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class InventoryAvailabilityServiceTest {
 
         private final ItemOnHandService itemOnHandService = mock(ItemOnHandService.class);
-        private final ReservationService reservationService = mock(ReservationService.class);
+        private final AvailabilityCache availabilityCache = new AvailabilityCache(true, Duration.ofMinutes(1), 100,
+                        new SimpleMeterRegistry());
         private final InventoryAvailabilityService inventoryAvailabilityService = new InventoryAvailabilityService(
-                        itemOnHandService, reservationService);
+                        itemOnHandService, availabilityCache, 2);
 
         @Test
         @DisplayName("`getAvailableInventory()` should return available inventory for given skuCodes")
         public void getAvailableInventory_ValidSkuCodes_ReturnsAvailableInventory() throws InternalServerException {
                 // Given
                 final var skuCodes = List.of("skuCode1", "skuCode2", "skuCode3");
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15),
-                                new ItemOnHandQuantity("skuCode2", 20),
-                                new ItemOnHandQuantity("skuCode3", 0));
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 3),
-                                new ReservedItemQuantity("skuCode2", 5));
+                final var stockLevels = List.of(
+                                new ItemStockLevel("skuCode1", 15, 3),
+                                new ItemStockLevel("skuCode2", 20, 5),
+                                new ItemStockLevel("skuCode3", 0, 0));
 
                 final var expectedResponses = List.of(
                                 new AvailableInventoryResponse("skuCode1", 12), // 15 - 3 = 12
                                 new AvailableInventoryResponse("skuCode2", 15), // 20 - 5 = 15
                                 new AvailableInventoryResponse("skuCode3", 0)); // 0 - 0 = 0
 
-                when(itemOnHandService.itemAvailabilities(skuCodes))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(skuCodes))
-                                .thenReturn(reservedQuantities);
+                when(itemOnHandService.stockLevels(skuCodes)).thenReturn(stockLevels);
 
                 // When
                 List<AvailableInventoryResponse> result = inventoryAvailabilityService.getAvailableInventory(skuCodes);
@@ -62,10 +62,7 @@ public class InventoryAvailabilityServiceTest {
                 // Given
                 final var skuCodes = List.<String>of();
 
-                when(itemOnHandService.itemAvailabilities(skuCodes))
-                                .thenReturn(List.of());
-                when(reservationService.findPendingReservedQuantities(skuCodes))
-                                .thenReturn(List.of());
+                when(itemOnHandService.stockLevels(skuCodes)).thenReturn(List.of());
 
                 // When
                 List<AvailableInventoryResponse> result = inventoryAvailabilityService.getAvailableInventory(skuCodes);
@@ -76,11 +73,12 @@ public class InventoryAvailabilityServiceTest {
 
         @Test
         @DisplayName("`getAvailableInventory()` should throw InternalServerException when ItemOnHandService throws error")
-        public void getAvailableInventory_ItemOnHandServiceError_ThrowsInternalServerException() {
+        public void getAvailableInventory_ItemOnHandServiceError_ThrowsInternalServerException()
+                        throws InternalServerException {
                 // Given
                 final var skuCodes = List.of("skuCode1", "skuCode2");
 
-                when(itemOnHandService.itemAvailabilities(skuCodes))
+                when(itemOnHandService.stockLevels(skuCodes))
                                 .thenThrow(new InternalServerException());
 
                 // Then
@@ -89,23 +87,17 @@ public class InventoryAvailabilityServiceTest {
         }
 
         @Test
-        @DisplayName("`getAvailableInventory()` should handle when no reserved quantities exist")
-        public void getAvailableInventory_NoReservedQuantities_ReturnsFullOnHandQuantities()
-                        throws InternalServerException {
+        @DisplayName("`getAvailableInventory()` should return 0 for SKUs without inventory")
+        public void getAvailableInventory_UnknownSku_ReturnsZero() throws InternalServerException {
                 // Given
-                final var skuCodes = List.of("skuCode1", "skuCode2");
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15),
-                                new ItemOnHandQuantity("skuCode2", 20));
+                final var skuCodes = List.of("skuCode1", "unknownSku");
 
-                when(itemOnHandService.itemAvailabilities(skuCodes))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(skuCodes))
-                                .thenReturn(List.of());
+                when(itemOnHandService.stockLevels(skuCodes))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode1", 15, 0)));
 
                 final var expectedResponses = List.of(
                                 new AvailableInventoryResponse("skuCode1", 15), // 15 - 0 = 15
-                                new AvailableInventoryResponse("skuCode2", 20)); // 20 - 0 = 20
+                                new AvailableInventoryResponse("unknownSku", 0)); // No inventory row
 
                 // When
                 List<AvailableInventoryResponse> result = inventoryAvailabilityService.getAvailableInventory(skuCodes);
@@ -119,22 +111,15 @@ public class InventoryAvailabilityServiceTest {
         public void getAvailableInventory_ZeroQuantities_HandlesCorrectly() throws InternalServerException {
                 // Given
                 final var skuCodes = List.of("skuCode1", "skuCode2");
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 0),
-                                new ItemOnHandQuantity("skuCode2", 5));
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 0),
-                                new ReservedItemQuantity("skuCode2", 10)); // More reserved than on hand
+                final var stockLevels = List.of(
+                                new ItemStockLevel("skuCode1", 0, 0),
+                                new ItemStockLevel("skuCode2", 5, 10)); // More reserved than on hand
 
                 final var expectedResponses = List.of(
                                 new AvailableInventoryResponse("skuCode1", 0), // 0 - 0 = 0
                                 new AvailableInventoryResponse("skuCode2", 0)); // 5 - 10 = 0 (minimum 0)
 
-                when(itemOnHandService.itemAvailabilities(skuCodes))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(skuCodes))
-                                .thenReturn(reservedQuantities);
+                when(itemOnHandService.stockLevels(skuCodes)).thenReturn(stockLevels);
 
                 // When
                 List<AvailableInventoryResponse> result = inventoryAvailabilityService.getAvailableInventory(skuCodes);
@@ -142,4 +127,113 @@ public class InventoryAvailabilityServiceTest {
                 // Then
                 assertEquals(expectedResponses, result);
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("`streamAvailableInventory()` should read distinct skuCodes in chunks, one query per chunk")
+        public void streamAvailableInventory_ManySkuCodes_ReturnsOneListPerChunk() throws InternalServerException {
+                // Given
+                final var skuCodes = List.of("skuCode1", "skuCode2", "skuCode1", "skuCode3", "skuCode4", "skuCode5");
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2")))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode1", 15, 3)));
+                when(itemOnHandService.stockLevels(List.of("skuCode3", "skuCode4")))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode3", 4, 0),
+                                                new ItemStockLevel("skuCode4", 2, 5)));
+                when(itemOnHandService.stockLevels(List.of("skuCode5"))).thenReturn(List.of());
+
+                // When
+                List<List<AvailableInventoryResponse>> result = inventoryAvailabilityService
+                                .streamAvailableInventory(skuCodes).toList();
+
+                // Then
+                assertEquals(List.of(
+                                List.of(new AvailableInventoryResponse("skuCode1", 12),
+                                                new AvailableInventoryResponse("skuCode2", 0)),
+                                List.of(new AvailableInventoryResponse("skuCode3", 4),
+                                                new AvailableInventoryResponse("skuCode4", 0)),
+                                List.of(new AvailableInventoryResponse("skuCode5", 0))),
+                                result);
+        }
+
+        @Test
+        @DisplayName("`streamAvailableInventory()` should not query a chunk before the stream reaches it")
+        public void streamAvailableInventory_FirstChunkOnly_QueriesFirstChunkOnly() throws InternalServerException {
+                // Given
+                final var skuCodes = List.of("skuCode1", "skuCode2", "skuCode3");
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2"))).thenReturn(List.of());
+
+                // When
+                inventoryAvailabilityService.streamAvailableInventory(skuCodes).findFirst();
+
+                // Then
+                verify(itemOnHandService).stockLevels(List.of("skuCode1", "skuCode2"));
+                verify(itemOnHandService, never()).stockLevels(List.of("skuCode3"));
+        }
+
+        @Test
+        @DisplayName("`streamAvailableInventory()` should return no chunks for empty skuCodes")
+        public void streamAvailableInventory_EmptySkuCodes_ReturnsNoChunks() throws InternalServerException {
+                // When
+                List<List<AvailableInventoryResponse>> result = inventoryAvailabilityService
+                                .streamAvailableInventory(List.of()).toList();
+
+                // Then
+                assertTrue(result.isEmpty());
+                verify(itemOnHandService, never()).stockLevels(anyList());
+        }
+
+        @Test
+        @DisplayName("`getAvailableInventory()` should serve cached skuCodes and query only the others")
+        public void getAvailableInventory_PartlyCached_QueriesUncachedSkuCodesOnly() throws InternalServerException {
+                // Given
+                when(itemOnHandService.stockLevels(List.of("skuCode1")))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode1", 15, 3)));
+                when(itemOnHandService.stockLevels(List.of("skuCode2")))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode2", 20, 5)));
+                inventoryAvailabilityService.getAvailableInventory(List.of("skuCode1"));
+
+                // When
+                List<AvailableInventoryResponse> result = inventoryAvailabilityService
+                                .getAvailableInventory(List.of("skuCode1", "skuCode2"));
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("skuCode1", 12),
+                                new AvailableInventoryResponse("skuCode2", 15)), result);
+                verify(itemOnHandService, times(1)).stockLevels(List.of("skuCode1"));
+                verify(itemOnHandService, times(1)).stockLevels(List.of("skuCode2"));
+        }
+
+        @Test
+        @DisplayName("`getAvailableInventory()` should cache SKUs without inventory as unavailable")
+        public void getAvailableInventory_UnknownSkuTwice_QueriesOnce() throws InternalServerException {
+                // Given
+                when(itemOnHandService.stockLevels(List.of("unknownSku"))).thenReturn(List.of());
+                inventoryAvailabilityService.getAvailableInventory(List.of("unknownSku"));
+
+                // When
+                List<AvailableInventoryResponse> result = inventoryAvailabilityService
+                                .getAvailableInventory(List.of("unknownSku"));
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("unknownSku", 0)), result);
+                verify(itemOnHandService, times(1)).stockLevels(List.of("unknownSku"));
+        }
+
+        @Test
+        @DisplayName("`getAvailableInventory()` should read an invalidated SKU from the database again")
+        public void getAvailableInventory_InvalidatedSku_QueriesAgain() throws InternalServerException {
+                // Given
+                when(itemOnHandService.stockLevels(List.of("skuCode1")))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode1", 15, 3)))
+                                .thenReturn(List.of(new ItemStockLevel("skuCode1", 15, 5)));
+                inventoryAvailabilityService.getAvailableInventory(List.of("skuCode1"));
+                availabilityCache.invalidate(List.of("skuCode1"));
+
+                // When
+                List<AvailableInventoryResponse> result = inventoryAvailabilityService
+                                .getAvailableInventory(List.of("skuCode1"));
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("skuCode1", 10)), result);
+                verify(itemOnHandService, times(2)).stockLevels(List.of("skuCode1"));
+        }
+}
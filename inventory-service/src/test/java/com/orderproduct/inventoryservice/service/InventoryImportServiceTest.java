@@ -0,0 +1,170 @@
+package com.orderproduct.inventoryservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.dto.response.InventoryImportResponse;
+import com.orderproduct.inventoryservice.dto.response.RejectedStockLevel;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+public class InventoryImportServiceTest {
+
+        private final InventoryManagementService inventoryManagementService = mock(InventoryManagementService.class);
+        private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        private final InventoryImportService inventoryImportService = new InventoryImportService(
+                        inventoryManagementService, new ObjectMapper(), validator, 2, 10);
+
+        @Test
+        @DisplayName("`importCsv()` should upsert valid rows in chunks and reject invalid rows")
+        public void importCsv_MixedRows_UpsertsInChunksAndRejectsInvalidRows() throws InternalServerException {
+                // Given
+                final var body = """
+                                warehouse,quantity,skuCode
+                                WH-1,10,SKU-1
+                                WH-1,-1,SKU-2
+                                WH-1,abc,SKU-3
+                                WH-1,5,SKU#4
+
+                                WH-1,7,SKU-5
+                                WH-1,0,SKU-6
+                                """;
+
+                // When
+                InventoryImportResponse response = inventoryImportService.importCsv(stream(body));
+
+                // Then
+                assertEquals(new InventoryImportResponse(6, 3, 3, List.of(
+                                new RejectedStockLevel(3, "SKU-2", "Quantity must be non-negative."),
+                                new RejectedStockLevel(4, null, InventoryImportService.MALFORMED_ROW_MSG),
+                                new RejectedStockLevel(5, "SKU#4",
+                                                "SKU code can only contain alphanumeric characters, hyphens, and underscores."))),
+                                response);
+                InOrder inOrder = inOrder(inventoryManagementService);
+                inOrder.verify(inventoryManagementService).upsertStockLevels(Map.of("SKU-1", 10, "SKU-5", 7));
+                inOrder.verify(inventoryManagementService).upsertStockLevels(Map.of("SKU-6", 0));
+        }
+
+        @Test
+        @DisplayName("`importCsv()` should read quoted fields")
+        public void importCsv_QuotedFields_UpsertsRow() throws InternalServerException {
+                // Given
+                final var body = """
+                                skuCode,description,quantity
+                                "SKU-1","Phone, 128GB",4
+                                """;
+
+                // When
+                InventoryImportResponse response = inventoryImportService.importCsv(stream(body));
+
+                // Then
+                assertEquals(new InventoryImportResponse(1, 1, 0, List.of()), response);
+                verify(inventoryManagementService).upsertStockLevels(Map.of("SKU-1", 4));
+        }
+
+        @Test
+        @DisplayName("`importCsv()` should throw IllegalArgumentException when the header has no quantity column")
+        public void importCsv_HeaderWithoutQuantity_ThrowsIllegalArgumentException() {
+                // Given
+                final var body = """
+                                skuCode,onHand
+                                SKU-1,10
+                                """;
+
+                // Then
+                assertThrows(IllegalArgumentException.class, () -> inventoryImportService.importCsv(stream(body)));
+                verify(inventoryManagementService, never()).upsertStockLevels(anyMap());
+        }
+
+        @Test
+        @DisplayName("`importCsv()` should return an empty summary for an empty body")
+        public void importCsv_EmptyBody_ReturnsEmptySummary() throws InternalServerException {
+                // When
+                InventoryImportResponse response = inventoryImportService.importCsv(stream(""));
+
+                // Then
+                assertEquals(new InventoryImportResponse(0, 0, 0, List.of()), response);
+                verify(inventoryManagementService, never()).upsertStockLevels(anyMap());
+        }
+
+        @Test
+        @DisplayName("`importNdjson()` should upsert valid lines and reject malformed and invalid ones")
+        public void importNdjson_MixedLines_UpsertsValidLinesAndRejectsOthers() throws InternalServerException {
+                // Given
+                final var body = """
+                                {"skuCode":"SKU-1","quantity":10}
+                                {"skuCode":"SKU-2"
+                                {"skuCode":"","quantity":3}
+                                {"skuCode":"SKU-3"}
+                                {"skuCode":"SKU-1","quantity":12}
+                                """;
+
+                // When
+                InventoryImportResponse response = inventoryImportService.importNdjson(stream(body));
+
+                // Then
+                assertEquals(new InventoryImportResponse(5, 2, 3, List.of(
+                                new RejectedStockLevel(2, null, InventoryImportService.MALFORMED_ROW_MSG),
+                                new RejectedStockLevel(3, "", "SKU code cannot be blank."),
+                                new RejectedStockLevel(4, "SKU-3", "Quantity is required."))),
+                                response);
+                // The repeated SKU keeps its last quantity within the chunk
+                verify(inventoryManagementService).upsertStockLevels(Map.of("SKU-1", 12));
+        }
+
+        @Test
+        @DisplayName("`importNdjson()` should count every rejected row but list at most max-rejected-rows of them")
+        public void importNdjson_ManyRejectedRows_CapsRejectedRowList() throws InternalServerException {
+                // Given
+                final var body = "{\"skuCode\":\"SKU-1\",\"quantity\":-1}\n".repeat(15);
+
+                // When
+                InventoryImportResponse response = inventoryImportService.importNdjson(stream(body));
+
+                // Then
+                assertEquals(15, response.rejected());
+                assertEquals(10, response.rejectedRows().size());
+                verify(inventoryManagementService, never()).upsertStockLevels(anyMap());
+        }
+
+        @Test
+        @DisplayName("`importNdjson()` should stop and throw InternalServerException when a chunk cannot be written")
+        public void importNdjson_ChunkFails_ThrowsInternalServerException() {
+                // Given
+                final var body = """
+                                {"skuCode":"SKU-1","quantity":1}
+                                {"skuCode":"SKU-2","quantity":2}
+                                {"skuCode":"SKU-3","quantity":3}
+                                {"skuCode":"SKU-4","quantity":4}
+                                """;
+                doThrow(new InternalServerException())
+                                .when(inventoryManagementService).upsertStockLevels(Map.of("SKU-1", 1, "SKU-2", 2));
+
+                // Then
+                assertThrows(InternalServerException.class, () -> inventoryImportService.importNdjson(stream(body)));
+                verify(inventoryManagementService, never()).upsertStockLevels(Map.of("SKU-3", 3, "SKU-4", 4));
+        }
+
+        private static InputStream stream(String body) {
+                return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+}
@@ -8,6 +8,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -158,4 +160,31 @@ public class InventoryManagementServiceTest {
                 // Then
                 assertThrows(InternalServerException.class, () -> inventoryManagementService.deleteInventory(skuCode));
         }
-}
\ No newline at end of file
+
+        @Test
+        @DisplayName("`upsertStockLevels()` should pass the chunk to item on hand service")
+        public void upsertStockLevels_ValidChunk_UpsertsOnHandQuantities() throws InternalServerException {
+                // Given
+                final var onHandQuantities = Map.of("skuCode1", 10, "skuCode2", 0);
+
+                // When
+                inventoryManagementService.upsertStockLevels(onHandQuantities);
+
+                // Then
+                verify(itemOnHandService).upsertOnHandQuantities(onHandQuantities);
+        }
+
+        @Test
+        @DisplayName("`upsertStockLevels()` should throw InternalServerException when item on hand service throws it")
+        public void upsertStockLevels_ItemOnHandServiceError_ThrowsInternalServerException() {
+                // Given
+                final var onHandQuantities = Map.of("skuCode1", 10);
+
+                doThrow(new InternalServerException())
+                                .when(itemOnHandService).upsertOnHandQuantities(onHandQuantities);
+
+                // Then
+                assertThrows(InternalServerException.class,
+                                () -> inventoryManagementService.upsertStockLevels(onHandQuantities));
+        }
+}
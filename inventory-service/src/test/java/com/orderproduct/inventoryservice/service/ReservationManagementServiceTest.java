@@ -6,10 +6,12 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,8 +19,7 @@ import org.junit.jupiter.api.Test;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
 import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
-import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
-import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateRequest;
@@ -28,14 +29,16 @@ import com.orderproduct.inventoryservice.dto.response.ReservationStateUpdateResp
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.service.inventory.ItemOnHandService;
+import com.orderproduct.inventoryservice.service.reservation.ReservationCoalescer;
 import com.orderproduct.inventoryservice.service.reservation.ReservationService;
 
 public class ReservationManagementServiceTest {
 
         private final ItemOnHandService itemOnHandService = mock(ItemOnHandService.class);
         private final ReservationService reservationService = mock(ReservationService.class);
+        private final ReservationCoalescer reservationCoalescer = mock(ReservationCoalescer.class);
         private final ReservationManagementService reservationManagementService = new ReservationManagementService(
-                        itemOnHandService, reservationService);
+                        itemOnHandService, reservationService, reservationCoalescer);
 
         @Test
         @DisplayName("`reserveProductsIfAvailable()` should successfully reserve products when sufficient items are available")
@@ -48,13 +51,10 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 10)); // requesting 10
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15), // 15 on hand
-                                new ItemOnHandQuantity("skuCode2", 20)); // 20 on hand
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 3), // 3 reserved
-                                new ReservedItemQuantity("skuCode2", 5)); // 5 reserved
+                // Stock levels after this order's reservation was applied
+                final var stockLevels = List.of(
+                                new ItemStockLevel("skuCode1", 15, 8), // 3 reserved before + 5
+                                new ItemStockLevel("skuCode2", 20, 15)); // 5 reserved before + 10
 
                 final var expectedResponses = List.of(
                                 // 15 - 3 - 5 = 7 available after reservation
@@ -62,10 +62,7 @@ public class ReservationManagementServiceTest {
                                 // 20 - 5 - 10 = 5 available after reservation
                                 new AvailableInventoryResponse("skuCode2", 5));
 
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2"))).thenReturn(stockLevels);
 
                 // When
                 List<AvailableInventoryResponse> result = reservationManagementService
@@ -77,112 +74,92 @@ public class ReservationManagementServiceTest {
         }
 
         @Test
-        @DisplayName("`reserveProductsIfAvailable()` should throw NotEnoughItemException when insufficient item is available")
-        public void reserveProductsIfAvailable_InsufficientItem_ThrowsNotEnoughItemExceptionn() {
+        @DisplayName("`reserveProductsIfAvailable()` should return 0 available for SKUs without inventory")
+        public void reserveProductsIfAvailable_UnknownSku_ReturnsZeroAvailable()
+                        throws NotEnoughItemException, InternalServerException {
                 // Given
-                final var orderNumber = "ORDER-001";
-                final var itemRequests = List.of(
-                                new ItemReservationRequest("skuCode1", 10), // requesting 10
-                                new ItemReservationRequest("skuCode2", 20)); // requesting 20
-                final var request = new OrderReservationRequest(orderNumber, itemRequests);
+                final var request = new OrderReservationRequest("ORDER-001",
+                                List.of(new ItemReservationRequest("unknownSku", 0)));
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 8), // only 8 on hand
-                                new ItemOnHandQuantity("skuCode2", 15)); // only 15 on hand
+                when(itemOnHandService.stockLevels(List.of("unknownSku"))).thenReturn(List.of());
 
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 2), // 2 reserved
-                                new ReservedItemQuantity("skuCode2", 3)); // 3 reserved
-
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
+                // When
+                List<AvailableInventoryResponse> result = reservationManagementService
+                                .reserveProductsIfAvailable(request);
 
                 // Then
-                assertThatThrownBy(() -> reservationManagementService.reserveProductsIfAvailable(request))
-                                .isInstanceOf(NotEnoughItemException.class)
-                                .satisfies(exception -> {
-                                        NotEnoughItemException notEnoughItemException = (NotEnoughItemException) exception;
-                                        List<ItemAvailability> unavailableProducts = notEnoughItemException
-                                                        .getUnavailableProducts();
-                                        assertEquals(2, unavailableProducts.size());
-
-                                        // Check first unavailable product
-                                        ItemAvailability first = unavailableProducts.get(0);
-                                        assertEquals("skuCode1", first.skuCode());
-                                        assertEquals(10, first.requestedQuantity());
-                                        assertEquals(6, first.availableQuantity()); // 8 - 2 = 6
-
-                                        // Check second unavailable product
-                                        ItemAvailability second = unavailableProducts.get(1);
-                                        assertEquals("skuCode2", second.skuCode());
-                                        assertEquals(20, second.requestedQuantity());
-                                        assertEquals(12, second.availableQuantity()); // 15 - 3 = 12
-                                });
+                assertEquals(List.of(new AvailableInventoryResponse("unknownSku", 0)), result);
         }
 
         @Test
-        @DisplayName("`reserveProductsIfAvailable()` should throw NotEnoughItemException when some products have insufficient item")
-        public void reserveProductsIfAvailable_PartialInsufficientItem_ThrowsNotEnoughItemException() {
+        @DisplayName("`reserveProductsIfAvailable()` should reserve through the coalescer when coalescing is enabled")
+        public void reserveProductsIfAvailable_CoalescingEnabled_ReservesThroughCoalescer()
+                        throws NotEnoughItemException, InternalServerException {
                 // Given
-                final var orderNumber = "ORDER-001";
-                final var itemRequests = List.of(
-                                new ItemReservationRequest("skuCode1", 5), // requesting 5 (sufficient)
-                                new ItemReservationRequest("skuCode2", 20)); // requesting 20 (insufficient)
-                final var request = new OrderReservationRequest(orderNumber, itemRequests);
+                final var request = new OrderReservationRequest("ORDER-001",
+                                List.of(new ItemReservationRequest("skuCode1", 5)));
+                final var expectedResponses = List.of(new AvailableInventoryResponse("skuCode1", 7));
+
+                when(reservationCoalescer.isEnabled()).thenReturn(true);
+                when(reservationCoalescer.reserveProducts(request)).thenReturn(expectedResponses);
+
+                // When
+                List<AvailableInventoryResponse> result = reservationManagementService
+                                .reserveProductsIfAvailable(request);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15), // 15 on hand
-                                new ItemOnHandQuantity("skuCode2", 15)); // 15 on hand
+                // Then
+                assertEquals(expectedResponses, result);
+                verifyNoInteractions(reservationService, itemOnHandService);
+        }
 
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 3), // 3 reserved
-                                new ReservedItemQuantity("skuCode2", 3)); // 3 reserved
+        @Test
+        @DisplayName("`reserveProductsBatch()` should reserve all orders through the coalescer")
+        public void reserveProductsBatch_MultipleOrders_SubmitsThemTogether() throws Exception {
+                // Given
+                final var requests = List.of(
+                                new OrderReservationRequest("ORDER-001", List.of(new ItemReservationRequest("skuCode1", 1))),
+                                new OrderReservationRequest("ORDER-002", List.of(new ItemReservationRequest("skuCode1", 2))));
+                final List<CompletableFuture<List<AvailableInventoryResponse>>> expectedResults = List.of(
+                                CompletableFuture.completedFuture(List.of(new AvailableInventoryResponse("skuCode1", 4))),
+                                CompletableFuture.completedFuture(List.of(new AvailableInventoryResponse("skuCode1", 2))));
+                when(reservationCoalescer.submitAll(requests)).thenReturn(expectedResults);
 
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
+                // When
+                final var results = reservationManagementService.reserveProductsBatch(requests);
 
                 // Then
-                assertThatThrownBy(() -> reservationManagementService.reserveProductsIfAvailable(request))
-                                .isInstanceOf(NotEnoughItemException.class)
-                                .satisfies(exception -> {
-                                        NotEnoughItemException notEnoughItemException = (NotEnoughItemException) exception;
-                                        List<ItemAvailability> unavailableProducts = notEnoughItemException
-                                                        .getUnavailableProducts();
-                                        assertEquals(1, unavailableProducts.size());
-
-                                        // Check the unavailable product
-                                        ItemAvailability unavailable = unavailableProducts.get(0);
-                                        assertEquals("skuCode2", unavailable.skuCode());
-                                        assertEquals(20, unavailable.requestedQuantity());
-                                        assertEquals(12, unavailable.availableQuantity()); // 15 - 3 = 12
-                                });
+                assertEquals(expectedResults, results);
+                verifyNoInteractions(reservationService, itemOnHandService);
         }
 
         @Test
-        @DisplayName("`reserveProductsIfAvailable()` should throw InternalServerException when ItemOnHandService throws error while getting available inventory")
-        public void reserveProductsIfAvailable_ItemOnHandServiceError_ThrowsInternalServerException() {
+        @DisplayName("`reserveProductsIfAvailable()` should throw NotEnoughItemException when insufficient item is available")
+        public void reserveProductsIfAvailable_InsufficientItem_ThrowsNotEnoughItemExceptionn() {
                 // Given
                 final var orderNumber = "ORDER-001";
                 final var itemRequests = List.of(
-                                new ItemReservationRequest("skuCode1", 5),
-                                new ItemReservationRequest("skuCode2", 10));
+                                new ItemReservationRequest("skuCode1", 10), // requesting 10
+                                new ItemReservationRequest("skuCode2", 20)); // requesting 20
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenThrow(new InternalServerException());
+                final var unavailableItems = List.of(
+                                new ItemAvailability("skuCode1", 10, 6),
+                                new ItemAvailability("skuCode2", 20, 12));
+
+                doThrow(new NotEnoughItemException(unavailableItems)).when(reservationService)
+                                .reserveProducts(request);
 
                 // Then
-                assertThrows(InternalServerException.class,
-                                () -> reservationManagementService.reserveProductsIfAvailable(request));
+                assertThatThrownBy(() -> reservationManagementService.reserveProductsIfAvailable(request))
+                                .isInstanceOf(NotEnoughItemException.class)
+                                .satisfies(exception -> assertEquals(unavailableItems,
+                                                ((NotEnoughItemException) exception).getUnavailableProducts()));
+                verifyNoInteractions(itemOnHandService);
         }
 
         @Test
-        @DisplayName("`reserveProductsIfAvailable()` should throw InternalServerException when ReservationService throws error while getting reservations")
-        public void reserveProductsIfAvailable_ReservationServiceFindPendingReservationError_ThrowsInternalServerException() {
+        @DisplayName("`reserveProductsIfAvailable()` should throw InternalServerException when ItemOnHandService throws error while getting available inventory")
+        public void reserveProductsIfAvailable_ItemOnHandServiceError_ThrowsInternalServerException() {
                 // Given
                 final var orderNumber = "ORDER-001";
                 final var itemRequests = List.of(
@@ -190,13 +167,7 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 10));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15),
-                                new ItemOnHandQuantity("skuCode2", 20));
-
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2")))
                                 .thenThrow(new InternalServerException());
 
                 // Then
@@ -214,18 +185,6 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 10));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15),
-                                new ItemOnHandQuantity("skuCode2", 20));
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 3),
-                                new ReservedItemQuantity("skuCode2", 5));
-
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
                 doThrow(new InternalServerException()).when(reservationService).reserveProducts(request);
 
                 // Then
@@ -243,18 +202,6 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 10));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 15),
-                                new ItemOnHandQuantity("skuCode2", 20));
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 3),
-                                new ReservedItemQuantity("skuCode2", 5));
-
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
                 doThrow(new OrderReservationNotAllowedException(orderNumber)).when(reservationService)
                                 .reserveProducts(request);
 
@@ -274,13 +221,9 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 10)); // requesting 10
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 0), // 0 on hand
-                                new ItemOnHandQuantity("skuCode2", 10)); // 10 on hand
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 0), // 0 reserved
-                                new ReservedItemQuantity("skuCode2", 0)); // 0 reserved
+                final var stockLevels = List.of(
+                                new ItemStockLevel("skuCode1", 0, 0), // 0 on hand
+                                new ItemStockLevel("skuCode2", 10, 10)); // 10 on hand, 10 now reserved
 
                 final var expectedResponses = List.of(
                                 // 0 - 0 = 0 available after reservation
@@ -288,10 +231,7 @@ public class ReservationManagementServiceTest {
                                 // 10 - 10 = 0 available after
                                 new AvailableInventoryResponse("skuCode2", 0));
 
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2"))).thenReturn(stockLevels);
 
                 // When
                 List<AvailableInventoryResponse> result = reservationManagementService
@@ -313,22 +253,15 @@ public class ReservationManagementServiceTest {
                                 new ItemReservationRequest("skuCode2", 0));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                final var itemOnHandQuantities = List.of(
-                                new ItemOnHandQuantity("skuCode1", 10), // 10 on hand
-                                new ItemOnHandQuantity("skuCode2", 20)); // 20 on hand
-
-                final var reservedQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 5), // 5 reserved
-                                new ReservedItemQuantity("skuCode2", 10)); // 10 reserved
+                final var stockLevels = List.of(
+                                new ItemStockLevel("skuCode1", 10, 5), // 10 on hand, 5 reserved
+                                new ItemStockLevel("skuCode2", 20, 10)); // 20 on hand, 10 reserved
 
                 final var expectedResponses = List.of(
                                 new AvailableInventoryResponse("skuCode1", 5), // 10 - 5 = 5 available
                                 new AvailableInventoryResponse("skuCode2", 10)); // 20 - 10 = 10 available
 
-                when(itemOnHandService.itemAvailabilities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(itemOnHandQuantities);
-                when(reservationService.findPendingReservedQuantities(List.of("skuCode1", "skuCode2")))
-                                .thenReturn(reservedQuantities);
+                when(itemOnHandService.stockLevels(List.of("skuCode1", "skuCode2"))).thenReturn(stockLevels);
 
                 // When
                 List<AvailableInventoryResponse> result = reservationManagementService
@@ -0,0 +1,225 @@
+package com.orderproduct.inventoryservice.service.inventory;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
+import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.repository.InventoryRepositoryWrapper;
+
+public class InventoryAllocationServiceTest {
+
+    private final InventoryRepositoryWrapper inventoryRepository = mock(InventoryRepositoryWrapper.class);
+    private final AvailabilityCacheInvalidator availabilityCacheInvalidator = mock(AvailabilityCacheInvalidator.class);
+    private final InventoryAllocationService inventoryAllocationService = new InventoryAllocationService(
+            inventoryRepository, availabilityCacheInvalidator);
+
+    @Test
+    @DisplayName("`allocate()` should reserve SKUs in sorted order")
+    public void allocate_MultipleSkus_ReservesInSortedOrder() throws InternalServerException {
+        // Given
+        final var allocations = List.of(
+                new ReservationAllocation("sku-c", 3, 0),
+                new ReservationAllocation("sku-a", 1, 0),
+                new ReservationAllocation("sku-b", 2, 0));
+        when(inventoryRepository.reserveQuantityIfAvailable(anyString(), anyInt())).thenReturn(1);
+
+        // When
+        inventoryAllocationService.allocate(allocations);
+
+        // Then
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).reserveQuantityIfAvailable("sku-a", 1);
+        inOrder.verify(inventoryRepository).reserveQuantityIfAvailable("sku-b", 2);
+        inOrder.verify(inventoryRepository).reserveQuantityIfAvailable("sku-c", 3);
+    }
+
+    @Test
+    @DisplayName("`allocate()` should only reserve the difference to what the order already holds")
+    public void allocate_ExistingReservations_AppliesDeltas() throws InternalServerException {
+        // Given
+        final var allocations = List.of(
+                new ReservationAllocation("sku-increase", 15, 5),
+                new ReservationAllocation("sku-same", 4, 4),
+                new ReservationAllocation("sku-decrease", 2, 6),
+                new ReservationAllocation("sku-removed", 0, 3));
+        when(inventoryRepository.reserveQuantityIfAvailable("sku-increase", 10)).thenReturn(1);
+
+        // When
+        inventoryAllocationService.allocate(allocations);
+
+        // Then
+        verify(inventoryRepository).reserveQuantityIfAvailable("sku-increase", 10);
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-decrease", -4);
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-removed", -3);
+        verify(inventoryRepository, never()).reserveQuantityIfAvailable("sku-same", 0);
+        verify(inventoryRepository, never()).adjustReservedQuantityBySkuCode("sku-same", 0);
+        verify(availabilityCacheInvalidator)
+                .invalidateAfterCommit(List.of("sku-increase", "sku-decrease", "sku-removed"));
+    }
+
+    @Test
+    @DisplayName("`allocate()` should throw NotEnoughItemException listing every SKU that could not be reserved")
+    public void allocate_InsufficientItems_ThrowsNotEnoughItemException() throws InternalServerException {
+        // Given
+        final var allocations = List.of(
+                new ReservationAllocation("sku-2", 20, 5),
+                new ReservationAllocation("sku-1", 5, 0),
+                new ReservationAllocation("sku-missing", 1, 0));
+        when(inventoryRepository.reserveQuantityIfAvailable("sku-1", 5)).thenReturn(1);
+        when(inventoryRepository.reserveQuantityIfAvailable("sku-2", 15)).thenReturn(0);
+        when(inventoryRepository.reserveQuantityIfAvailable("sku-missing", 1)).thenReturn(0);
+        when(inventoryRepository.findStockLevelsBySkuCodeIn(List.of("sku-2", "sku-missing")))
+                .thenReturn(List.of(new ItemStockLevel("sku-2", 15, 12)));
+
+        // When & Then
+        assertThatThrownBy(() -> inventoryAllocationService.allocate(allocations))
+                .isInstanceOf(NotEnoughItemException.class)
+                .satisfies(exception -> assertEquals(
+                        List.of(
+                                // 15 on hand - 12 reserved + 5 already held by this order
+                                new ItemAvailability("sku-2", 20, 8),
+                                new ItemAvailability("sku-missing", 1, 0)),
+                        ((NotEnoughItemException) exception).getUnavailableProducts()));
+        verify(availabilityCacheInvalidator, never()).invalidateAfterCommit(anyList());
+    }
+
+    @Test
+    @DisplayName("`allocateTogether()` should lock the batch's SKUs once and write the net change per SKU")
+    public void allocateTogether_MultipleOrders_WritesNetChangePerSku() throws InternalServerException {
+        // Given
+        final var allocationsPerOrder = List.of(
+                List.of(new ReservationAllocation("sku-b", 2, 0), new ReservationAllocation("sku-a", 1, 0)),
+                List.of(new ReservationAllocation("sku-a", 3, 0)),
+                List.of(new ReservationAllocation("sku-b", 0, 4)));
+        when(inventoryRepository.findBySkuCodeInForUpdate(List.of("sku-a", "sku-b"))).thenReturn(List.of(
+                inventory("sku-a", 10, 2),
+                inventory("sku-b", 10, 4)));
+
+        // When
+        BatchAllocation result = inventoryAllocationService.allocateTogether(allocationsPerOrder);
+
+        // Then
+        assertEquals(Map.of(), result.rejectedOrders());
+        assertEquals(Map.of(
+                "sku-a", new ItemStockLevel("sku-a", 10, 6),
+                "sku-b", new ItemStockLevel("sku-b", 10, 2)), result.stockLevels());
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-a", 4);
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-b", -2);
+        verify(inventoryRepository, never()).reserveQuantityIfAvailable(anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("`allocateTogether()` should reject only the orders that no longer fit, in batch order")
+    public void allocateTogether_HotSkuRunsOut_RejectsLaterOrdersOnly() throws InternalServerException {
+        // Given
+        final var allocationsPerOrder = List.of(
+                List.of(new ReservationAllocation("hot-sku", 3, 0)),
+                List.of(new ReservationAllocation("hot-sku", 2, 0), new ReservationAllocation("other-sku", 1, 0)),
+                List.of(new ReservationAllocation("other-sku", 5, 0)),
+                List.of(new ReservationAllocation("missing-sku", 1, 0)));
+        when(inventoryRepository.findBySkuCodeInForUpdate(List.of("hot-sku", "missing-sku", "other-sku")))
+                .thenReturn(List.of(
+                        inventory("hot-sku", 4, 0),
+                        inventory("other-sku", 5, 0)));
+
+        // When
+        BatchAllocation result = inventoryAllocationService.allocateTogether(allocationsPerOrder);
+
+        // Then
+        assertEquals(List.of(new ItemAvailability("hot-sku", 2, 1)),
+                result.rejectedOrders().get(1).getUnavailableProducts());
+        assertEquals(List.of(new ItemAvailability("missing-sku", 1, 0)),
+                result.rejectedOrders().get(3).getUnavailableProducts());
+        assertEquals(2, result.rejectedOrders().size());
+        // The rejected second order does not hold on to other-sku, so the third order gets all of it
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("hot-sku", 3);
+        verify(inventoryRepository).adjustReservedQuantityBySkuCode("other-sku", 5);
+        verify(availabilityCacheInvalidator).invalidateAfterCommit(argThat(skuCodes -> skuCodes.size() == 2
+                && skuCodes.containsAll(List.of("hot-sku", "other-sku"))));
+    }
+
+    @Test
+    @DisplayName("`allocateTogether()` should not query inventory when the batch has no SKUs")
+    public void allocateTogether_NoSkus_DoesNotQuery() throws InternalServerException {
+        // When
+        BatchAllocation result = inventoryAllocationService.allocateTogether(List.of(List.of()));
+
+        // Then
+        assertEquals(Map.of(), result.rejectedOrders());
+        verify(inventoryRepository, never()).findBySkuCodeInForUpdate(anyList());
+    }
+
+    @Test
+    @DisplayName("`adjustReservedQuantities()` should adjust non-zero changes in sorted order")
+    public void adjustReservedQuantities_MultipleSkus_AdjustsInSortedOrder() throws InternalServerException {
+        // When
+        inventoryAllocationService.adjustReservedQuantities(Map.of("sku-b", -2, "sku-a", 4, "sku-c", 0));
+
+        // Then
+        InOrder inOrder = inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-a", 4);
+        inOrder.verify(inventoryRepository).adjustReservedQuantityBySkuCode("sku-b", -2);
+        verify(inventoryRepository, never()).adjustReservedQuantityBySkuCode("sku-c", 0);
+        verify(availabilityCacheInvalidator).invalidateAfterCommit(argThat(skuCodes -> skuCodes.size() == 2
+                && skuCodes.containsAll(List.of("sku-a", "sku-b"))));
+    }
+
+    @Test
+    @DisplayName("`adjustReservedQuantities()` should clear a reserved quantity that would drop below zero")
+    public void adjustReservedQuantities_ReleaseExceedsReserved_ClearsReservedQuantity() throws InternalServerException {
+        // Given
+        when(inventoryRepository.adjustReservedQuantityBySkuCode("sku-drifted", -5)).thenReturn(0);
+        when(inventoryRepository.adjustReservedQuantityBySkuCode("sku-ok", -2)).thenReturn(1);
+        when(inventoryRepository.clearReservedQuantityBySkuCode("sku-drifted")).thenReturn(1);
+
+        // When
+        inventoryAllocationService.adjustReservedQuantities(Map.of("sku-drifted", -5, "sku-ok", -2));
+
+        // Then
+        verify(inventoryRepository).clearReservedQuantityBySkuCode("sku-drifted");
+        verify(inventoryRepository, never()).clearReservedQuantityBySkuCode("sku-ok");
+    }
+
+    @Test
+    @DisplayName("`adjustReservedQuantities()` should not clear anything when an increase finds no SKU")
+    public void adjustReservedQuantities_IncreaseForMissingSku_DoesNotClear() throws InternalServerException {
+        // Given
+        when(inventoryRepository.adjustReservedQuantityBySkuCode("sku-missing", 3)).thenReturn(0);
+
+        // When
+        inventoryAllocationService.adjustReservedQuantities(Map.of("sku-missing", 3));
+
+        // Then
+        verify(inventoryRepository, never()).clearReservedQuantityBySkuCode(anyString());
+    }
+
+    private static Inventory inventory(String skuCode, int onHandQuantity, int reservedQuantity) {
+        return Inventory.builder()
+                .skuCode(skuCode)
+                .onHandQuantity(onHandQuantity)
+                .reservedQuantity(reservedQuantity)
+                .build();
+    }
+}
@@ -2,18 +2,21 @@ package com.orderproduct.inventoryservice.service.inventory;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatNoException;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.orderproduct.inventoryservice.common.exception.InsufficientQuantityException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
-import com.orderproduct.inventoryservice.common.exception.NotFoundException;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 
@@ -29,33 +32,51 @@ public class InventoryDeductionServiceTest {
         // Given
         final var reservation = createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED);
         final var fulfilledReservations = List.of(reservation);
+        when(itemOnHandService.deductInventoryQuantities(Map.of("SKU-001", 5))).thenReturn(List.of());
 
         // When & Then
         assertThatNoException()
                 .isThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations));
 
-        verify(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
+        verify(itemOnHandService).deductInventoryQuantities(Map.of("SKU-001", 5));
     }
 
     @Test
-    @DisplayName("`deductInventoryForFulfilledOrder()` should handle mixed scenarios with some NotFoundException and some success")
+    @DisplayName("`deductInventoryForFulfilledOrder()` should deduct all reservations in one call, summed per SKU")
+    public void deductInventoryForFulfilledOrder_MultipleReservations_DeductsOncePerSku() throws Exception {
+        // Given
+        final var fulfilledReservations = List.of(
+                createReservation("ORDER-123", "SKU-003", 10, ReservationState.FULFILLED),
+                createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED),
+                createReservation("ORDER-123", "SKU-003", 2, ReservationState.FULFILLED));
+        final var expectedDeductions = Map.of("SKU-001", 5, "SKU-003", 12);
+        when(itemOnHandService.deductInventoryQuantities(expectedDeductions)).thenReturn(List.of());
+
+        // When & Then
+        assertThatNoException()
+                .isThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations));
+
+        verify(itemOnHandService).deductInventoryQuantities(expectedDeductions);
+    }
+
+    @Test
+    @DisplayName("`deductInventoryForFulfilledOrder()` should handle mixed scenarios with some missing SKUs and some success")
     public void deductInventoryForFulfilledOrder_MixedScenarios_Succeeds() throws Exception {
         // Given
         final var reservation1 = createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED);
         final var reservation2 = createReservation("ORDER-123", "NON-EXISTENT-SKU", 3, ReservationState.FULFILLED);
         final var reservation3 = createReservation("ORDER-123", "SKU-003", 10, ReservationState.FULFILLED);
         final var fulfilledReservations = List.of(reservation1, reservation2, reservation3);
+        final var expectedDeductions = Map.of("SKU-001", 5, "NON-EXISTENT-SKU", 3, "SKU-003", 10);
 
-        doThrow(new NotFoundException())
-                .when(itemOnHandService).deductInventoryQuantity("NON-EXISTENT-SKU", 3);
+        when(itemOnHandService.deductInventoryQuantities(expectedDeductions))
+                .thenReturn(List.of("NON-EXISTENT-SKU"));
 
         // When & Then
         assertThatNoException()
                 .isThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations));
 
-        verify(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
-        verify(itemOnHandService).deductInventoryQuantity("NON-EXISTENT-SKU", 3);
-        verify(itemOnHandService).deductInventoryQuantity("SKU-003", 10);
+        verify(itemOnHandService).deductInventoryQuantities(expectedDeductions);
     }
 
     @Test
@@ -67,23 +88,8 @@ public class InventoryDeductionServiceTest {
         // When & Then
         assertThatNoException()
                 .isThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations));
-    }
-
-    @Test
-    @DisplayName("`deductInventoryForFulfilledOrder()` should continue processing when inventory not found")
-    public void deductInventoryForFulfilledOrder_InventoryNotFound_ContinuesProcessing() throws Exception {
-        // Given
-        final var reservation = createReservation("ORDER-123", "NON-EXISTENT-SKU", 5, ReservationState.FULFILLED);
-        final var fulfilledReservations = List.of(reservation);
-
-        doThrow(new NotFoundException())
-                .when(itemOnHandService).deductInventoryQuantity("NON-EXISTENT-SKU", 5);
-
-        // When & Then
-        assertThatNoException()
-                .isThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations));
 
-        verify(itemOnHandService).deductInventoryQuantity("NON-EXISTENT-SKU", 5);
+        verify(itemOnHandService, never()).deductInventoryQuantities(anyMap());
     }
 
     @Test
@@ -94,34 +100,56 @@ public class InventoryDeductionServiceTest {
         final var reservation = createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED);
         final var fulfilledReservations = List.of(reservation);
 
-        doThrow(new InternalServerException())
-                .when(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
+        when(itemOnHandService.deductInventoryQuantities(Map.of("SKU-001", 5)))
+                .thenThrow(new InternalServerException());
 
         // When & Then
         assertThatThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations))
                 .isInstanceOf(InternalServerException.class);
-
-        verify(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
     }
 
     @Test
-    @DisplayName("`deductInventoryForFulfilledOrder()` should stop processing when first reservation throws InternalServerException")
-    public void deductInventoryForFulfilledOrder_FirstReservationInternalServerError_StopsProcessing()
+    @DisplayName("`deductInventoryForFulfilledOrder()` should throw InsufficientQuantityException when any SKU has too little on hand")
+    public void deductInventoryForFulfilledOrder_InsufficientQuantity_ThrowsInsufficientQuantityException()
             throws Exception {
         // Given
-        final var reservation1 = createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED);
-        final var reservation2 = createReservation("ORDER-123", "SKU-002", 3, ReservationState.FULFILLED);
-        final var fulfilledReservations = List.of(reservation1, reservation2);
+        final var fulfilledReservations = List.of(
+                createReservation("ORDER-123", "SKU-001", 5, ReservationState.FULFILLED),
+                createReservation("ORDER-123", "SKU-002", 3, ReservationState.FULFILLED));
 
-        doThrow(new InternalServerException())
-                .when(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
+        when(itemOnHandService.deductInventoryQuantities(Map.of("SKU-001", 5, "SKU-002", 3)))
+                .thenThrow(new InsufficientQuantityException(List.of("SKU-002")));
 
         // When & Then
         assertThatThrownBy(() -> inventoryDeductionService.deductInventoryForFulfilledOrder(fulfilledReservations))
-                .isInstanceOf(InternalServerException.class);
+                .isInstanceOf(InsufficientQuantityException.class);
+    }
+
+    @Test
+    @DisplayName("`deductInventoryQuantities()` should deduct all SKUs in one call, skipping unknown SKUs")
+    public void deductInventoryQuantities_MultipleSkus_DeductsInOneCall() throws Exception {
+        // Given
+        final var deductionQuantities = Map.of("SKU-003", 10, "NON-EXISTENT-SKU", 3, "SKU-001", 5);
+        when(itemOnHandService.deductInventoryQuantities(deductionQuantities))
+                .thenReturn(List.of("NON-EXISTENT-SKU"));
+
+        // When & Then
+        assertThatNoException()
+                .isThrownBy(() -> inventoryDeductionService.deductInventoryQuantities(deductionQuantities));
 
-        verify(itemOnHandService).deductInventoryQuantity("SKU-001", 5);
-        // Note: The second reservation should not be processed due to early exception
+        verify(itemOnHandService).deductInventoryQuantities(deductionQuantities);
+    }
+
+    @Test
+    @DisplayName("`deductInventoryQuantities()` should rethrow InternalServerException")
+    public void deductInventoryQuantities_InternalServerError_ThrowsInternalServerException() throws Exception {
+        // Given
+        when(itemOnHandService.deductInventoryQuantities(Map.of("SKU-001", 5)))
+                .thenThrow(new InternalServerException());
+
+        // When & Then
+        assertThatThrownBy(() -> inventoryDeductionService.deductInventoryQuantities(Map.of("SKU-001", 5)))
+                .isInstanceOf(InternalServerException.class);
     }
 
     private Reservation createReservation(String orderNumber, String skuCode, int reservedQuantity,
@@ -6,13 +6,16 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
@@ -23,11 +26,13 @@ import org.springframework.dao.DataIntegrityViolationException;
 
 import com.orderproduct.inventoryservice.common.exception.DuplicateSkuCodeException;
 import com.orderproduct.inventoryservice.common.exception.InsufficientQuantityException;
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
 import com.orderproduct.inventoryservice.common.exception.NegativeQuantityException;
 import com.orderproduct.inventoryservice.common.exception.NotFoundException;
 import com.orderproduct.inventoryservice.domain.ItemOnHandQuantity;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
 import com.orderproduct.inventoryservice.dto.response.CreateInventoryResponse;
 import com.orderproduct.inventoryservice.dto.response.UpdateInventoryResponse;
 import com.orderproduct.inventoryservice.entity.Inventory;
@@ -42,8 +47,11 @@ public class ItemOnHandServiceTest {
         private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
         private final InventoryRepositoryWrapper inventoryRepositoryWrapper = new InventoryRepositoryWrapper(
                         inventoryRepository, inventoryExceptionHandler);
+        private final AvailabilityCacheInvalidator availabilityCacheInvalidator = mock(
+                        AvailabilityCacheInvalidator.class);
 
-        private final ItemOnHandService itemOnHandService = new ItemOnHandService(inventoryRepositoryWrapper);
+        private final ItemOnHandService itemOnHandService = new ItemOnHandService(inventoryRepositoryWrapper,
+                        availabilityCacheInvalidator);
 
         @Test
         @DisplayName("`itemAvailabilities()` should return `List<ItemOnHandQuantity>` for passed skuCodes with their respective quantities")
@@ -51,9 +59,9 @@ public class ItemOnHandServiceTest {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2", "skuCode3", "skuCode4");
                 final var matchingInventories = List.of(
-                                new Inventory(1L, "skuCode1", 10),
-                                new Inventory(2L, "skuCode2", 0),
-                                new Inventory(4L, "skuCode4", 15));
+                                new Inventory(1L, "skuCode1", 10, 0),
+                                new Inventory(2L, "skuCode2", 0, 0),
+                                new Inventory(4L, "skuCode4", 15, 0));
                 when(inventoryRepository.findBySkuCodeIn(skuCodeList)).thenReturn(matchingInventories);
                 final var expectedStatus = List.of(
                                 new ItemOnHandQuantity("skuCode1", 10),
@@ -190,6 +198,7 @@ public class ItemOnHandServiceTest {
                 // Then
                 assertThat(response.skuCode()).isEqualTo("SKU-123");
                 assertThat(response.quantity()).isEqualTo(50);
+                verify(availabilityCacheInvalidator).invalidateAfterCommit(List.of("SKU-123"));
         }
 
         @Test
@@ -212,6 +221,7 @@ public class ItemOnHandServiceTest {
                 // Then
                 assertThatThrownBy(() -> itemOnHandService.updateInventory("NON-EXISTENT", 50))
                                 .isInstanceOf(NotFoundException.class);
+                verify(availabilityCacheInvalidator, never()).invalidateAfterCommit(anyList());
         }
 
         @Test
@@ -260,6 +270,7 @@ public class ItemOnHandServiceTest {
                 // When & Then
                 assertThatNoException()
                                 .isThrownBy(() -> itemOnHandService.deleteInventory("SKU-123"));
+                verify(availabilityCacheInvalidator).invalidateAfterCommit(List.of("SKU-123"));
         }
 
         @Test
@@ -311,76 +322,91 @@ public class ItemOnHandServiceTest {
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should succeed when inventory exists and deduction is valid")
-        void deductInventoryQuantity_ValidSkuCodeAndQuantity_Succeeds() throws Exception {
+        @DisplayName("`upsertOnHandQuantities()` should upsert all SKUs in one batch")
+        void upsertOnHandQuantities_ValidQuantities_UpsertsInOneBatch() throws Exception {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 5)).thenReturn(1);
+                final var onHandQuantities = Map.of("SKU-123", 5, "SKU-456", 0);
 
                 // When
-                itemOnHandService.deductInventoryQuantity("SKU-123", 5);
+                itemOnHandService.upsertOnHandQuantities(onHandQuantities);
 
                 // Then
-                verify(inventoryRepository).deductQuantityBySkuCode("SKU-123", 5);
+                verify(inventoryRepository).upsertOnHandQuantities(onHandQuantities);
+                verify(availabilityCacheInvalidator).invalidateAfterCommit(onHandQuantities.keySet());
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should succeed when deducting zero quantity")
-        void deductInventoryQuantity_ZeroQuantity_Succeeds() throws Exception {
+        @DisplayName("`upsertOnHandQuantities()` should throw InternalServerException when the batch fails")
+        void upsertOnHandQuantities_DataAccessException_ThrowsInternalServerException() {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 0)).thenReturn(1);
-
-                // When
-                itemOnHandService.deductInventoryQuantity("SKU-123", 0);
+                final var onHandQuantities = Map.of("SKU-123", 5);
+                doThrow(new DataAccessResourceFailureException("Database connection failed"))
+                                .when(inventoryRepository).upsertOnHandQuantities(onHandQuantities);
 
                 // Then
-                verify(inventoryRepository).deductQuantityBySkuCode("SKU-123", 0);
+                assertThrows(InternalServerException.class,
+                                () -> itemOnHandService.upsertOnHandQuantities(onHandQuantities));
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should throw NotFoundException when inventory does not exist")
-        void deductInventoryQuantity_NonExistentSkuCode_ThrowsNotFoundException() {
+        @DisplayName("`deductInventoryQuantities()` should deduct all SKUs in one batch")
+        void deductInventoryQuantities_AllSkusAvailable_ReturnsNoMissingSkus() throws Exception {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("NON-EXISTENT", 5)).thenReturn(0);
+                final var deductionQuantities = Map.of("SKU-123", 5, "SKU-456", 2);
+                when(inventoryRepository.deductQuantitiesIfAvailable(deductionQuantities)).thenReturn(List.of());
+
+                // When
+                List<String> missingSkuCodes = itemOnHandService.deductInventoryQuantities(deductionQuantities);
 
                 // Then
-                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantity("NON-EXISTENT", 5))
-                                .isInstanceOf(NotFoundException.class);
+                assertThat(missingSkuCodes).isEqualTo(List.of());
+                verify(inventoryRepository, never()).findStockLevelsBySkuCodeIn(anyList());
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should throw InternalServerException when repository throws DataAccessException")
-        void deductInventoryQuantity_DatabaseError_ThrowsInternalServerException() {
+        @DisplayName("`deductInventoryQuantities()` should return SKUs that have no inventory")
+        void deductInventoryQuantities_NonExistentSkuCode_ReturnsMissingSkus() throws Exception {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 5))
-                                .thenThrow(new DataAccessException("Database connection failed") {
-                                });
+                final var deductionQuantities = Map.of("SKU-123", 5, "NON-EXISTENT", 2);
+                when(inventoryRepository.deductQuantitiesIfAvailable(deductionQuantities))
+                                .thenReturn(List.of("NON-EXISTENT"));
+                when(inventoryRepository.findStockLevelsBySkuCodeIn(List.of("NON-EXISTENT"))).thenReturn(List.of());
+
+                // When
+                List<String> missingSkuCodes = itemOnHandService.deductInventoryQuantities(deductionQuantities);
 
                 // Then
-                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantity("SKU-123", 5))
-                                .isInstanceOf(InternalServerException.class);
+                assertThat(missingSkuCodes).isEqualTo(List.of("NON-EXISTENT"));
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should throw InternalServerException when repository throws PersistenceException")
-        void deductInventoryQuantity_PersistenceException_ThrowsInternalServerException() {
+        @DisplayName("`deductInventoryQuantities()` should throw InsufficientQuantityException listing SKUs with too little on hand")
+        void deductInventoryQuantities_InsufficientQuantity_ThrowsInsufficientQuantityException() throws Exception {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 5))
-                                .thenThrow(new PersistenceException("Constraint violation"));
+                final var deductionQuantities = Map.of("SKU-123", 100, "SKU-456", 50, "NON-EXISTENT", 2);
+                when(inventoryRepository.deductQuantitiesIfAvailable(deductionQuantities))
+                                .thenReturn(List.of("NON-EXISTENT", "SKU-123", "SKU-456"));
+                when(inventoryRepository.findStockLevelsBySkuCodeIn(List.of("NON-EXISTENT", "SKU-123", "SKU-456")))
+                                .thenReturn(List.of(new ItemStockLevel("SKU-123", 10, 0),
+                                                new ItemStockLevel("SKU-456", 40, 0)));
 
                 // Then
-                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantity("SKU-123", 5))
-                                .isInstanceOf(InternalServerException.class);
+                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantities(deductionQuantities))
+                                .isInstanceOf(InsufficientQuantityException.class)
+                                .satisfies(exception -> assertEquals(List.of("SKU-123", "SKU-456"),
+                                                ((InsufficientQuantityException) exception).getSkuCodes()));
         }
 
         @Test
-        @DisplayName("`deductInventoryQuantity()` should throw InternalServerException when repository throws Exception")
-        void deductInventoryQuantity_GenericException_ThrowsInternalServerException() {
+        @DisplayName("`deductInventoryQuantities()` should throw InternalServerException when repository throws DataAccessException")
+        void deductInventoryQuantities_DatabaseError_ThrowsInternalServerException() {
                 // Given
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 5))
-                                .thenThrow(new RuntimeException("Unexpected error"));
+                when(inventoryRepository.deductQuantitiesIfAvailable(Map.of("SKU-123", 5)))
+                                .thenThrow(new DataAccessException("Database connection failed") {
+                                });
 
                 // Then
-                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantity("SKU-123", 5))
+                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantities(Map.of("SKU-123", 5)))
                                 .isInstanceOf(InternalServerException.class);
         }
 
@@ -399,19 +425,4 @@ public class ItemOnHandServiceTest {
                                 .isInstanceOf(NegativeQuantityException.class);
         }
 
-        @Test
-        @DisplayName("`deductInventoryQuantity()` should throw InsufficientQuantityException when repository throws ConstraintViolationException")
-        void deductInventoryQuantity_ConstraintViolation_ThrowsInsufficientQuantityException() {
-                // Given
-                DataAccessException dataAccessException = new DataIntegrityViolationException("Constraint violation",
-                                new ConstraintViolationException("on_hand_quantity cannot be negative", null,
-                                                "inventory"));
-                when(inventoryRepository.deductQuantityBySkuCode("SKU-123", 100))
-                                .thenThrow(dataAccessException);
-
-                // Then
-                assertThatThrownBy(() -> itemOnHandService.deductInventoryQuantity("SKU-123", 100))
-                                .isInstanceOf(InsufficientQuantityException.class);
-        }
-
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.orderproduct.inventoryservice.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.cache.AvailabilityCacheInvalidator;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
+import com.orderproduct.inventoryservice.entity.Inventory;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.InventoryRepositoryWrapper;
+import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+
+public class ReservedQuantityReconciliationServiceTest {
+
+    private final InventoryRepositoryWrapper inventoryRepository = mock(InventoryRepositoryWrapper.class);
+    private final ReservationRepositoryWrapper reservationRepository = mock(ReservationRepositoryWrapper.class);
+    private final AvailabilityCacheInvalidator availabilityCacheInvalidator = mock(AvailabilityCacheInvalidator.class);
+    private final ReservedQuantityReconciliationService reconciliationService = new ReservedQuantityReconciliationService(
+            inventoryRepository, reservationRepository, availabilityCacheInvalidator);
+
+    @Test
+    @DisplayName("`findDriftedSkuCodes()` should return SKUs whose reserved quantity differs from pending reservations")
+    public void findDriftedSkuCodes_MixedSkus_ReturnsDriftedSkus() throws InternalServerException {
+        // Given
+        final var stockLevels = List.of(
+                new ItemStockLevel("sku-in-sync", 10, 4),
+                new ItemStockLevel("sku-too-high", 10, 6),
+                new ItemStockLevel("sku-no-pending", 10, 2),
+                new ItemStockLevel("sku-idle", 10, 0));
+        when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(
+                List.of("sku-in-sync", "sku-too-high", "sku-no-pending", "sku-idle"), ReservationState.PENDING))
+                .thenReturn(List.of(
+                        new ReservedItemQuantity("sku-in-sync", 4),
+                        new ReservedItemQuantity("sku-too-high", 5)));
+
+        // When
+        List<String> result = reconciliationService.findDriftedSkuCodes(stockLevels);
+
+        // Then
+        assertEquals(List.of("sku-too-high", "sku-no-pending"), result);
+    }
+
+    @Test
+    @DisplayName("`findDriftedSkuCodes()` should not query reservations for an empty page")
+    public void findDriftedSkuCodes_EmptyPage_ReturnsEmptyList() throws InternalServerException {
+        // When
+        List<String> result = reconciliationService.findDriftedSkuCodes(List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(reservationRepository, never()).sumReservedQuantitiesBySkuCodeInAndStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("`repair()` should set the reserved quantity to the pending sum when it has drifted")
+    public void repair_Drifted_SetsReservedQuantity() throws InternalServerException {
+        // Given
+        final var inventory = new Inventory(1L, "sku-1", 10, 7);
+        when(inventoryRepository.findBySkuCodeForUpdate("sku-1")).thenReturn(Optional.of(inventory));
+        when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(List.of("sku-1"),
+                ReservationState.PENDING))
+                .thenReturn(List.of(new ReservedItemQuantity("sku-1", 3)));
+
+        // When
+        boolean result = reconciliationService.repair("sku-1");
+
+        // Then
+        assertTrue(result);
+        assertEquals(3, inventory.getReservedQuantity());
+        verify(availabilityCacheInvalidator).invalidateAfterCommit(List.of("sku-1"));
+    }
+
+    @Test
+    @DisplayName("`repair()` should leave the reserved quantity untouched when it matches once locked")
+    public void repair_InSyncOnceLocked_ReturnsFalse() throws InternalServerException {
+        // Given
+        final var inventory = new Inventory(1L, "sku-1", 10, 0);
+        when(inventoryRepository.findBySkuCodeForUpdate("sku-1")).thenReturn(Optional.of(inventory));
+        when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(List.of("sku-1"),
+                ReservationState.PENDING))
+                .thenReturn(List.of());
+
+        // When
+        boolean result = reconciliationService.repair("sku-1");
+
+        // Then
+        assertFalse(result);
+        assertEquals(0, inventory.getReservedQuantity());
+        verify(availabilityCacheInvalidator, never()).invalidateAfterCommit(any());
+    }
+
+    @Test
+    @DisplayName("`repair()` should return false when the SKU no longer exists")
+    public void repair_UnknownSku_ReturnsFalse() throws InternalServerException {
+        // Given
+        when(inventoryRepository.findBySkuCodeForUpdate("sku-1")).thenReturn(Optional.empty());
+
+        // When
+        boolean result = reconciliationService.repair("sku-1");
+
+        // Then
+        assertFalse(result);
+        verify(reservationRepository, never()).sumReservedQuantitiesBySkuCodeInAndStatus(any(), any());
+    }
+}
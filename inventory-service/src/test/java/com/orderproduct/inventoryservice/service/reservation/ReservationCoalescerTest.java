@@ -0,0 +1,174 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
+import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.dto.response.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ReservationCoalescerTest {
+
+        // Long enough that every request submitted by a test lands in the same batch
+        private static final Duration MAX_WAIT = Duration.ofMillis(200);
+
+        private final ReservationService reservationService = mock(ReservationService.class);
+        private ReservationCoalescer reservationCoalescer;
+
+        @AfterEach
+        void tearDown() {
+                reservationCoalescer.close();
+        }
+
+        @Test
+        @DisplayName("`submit()` should reserve concurrent requests in one batch and complete each with its own result")
+        public void submit_ConcurrentRequests_ReservesThemTogether() throws Exception {
+                // Given
+                reservationCoalescer = coalescer(true, 10);
+                final var accepted = request("ORDER-001", "hotSku", 2);
+                final var rejected = request("ORDER-002", "hotSku", 5);
+                final var notEnoughItems = new NotEnoughItemException(List.of(new ItemAvailability("hotSku", 5, 1)));
+                when(reservationService.reserveProductsTogether(List.of(accepted, rejected)))
+                                .thenReturn(new BatchReservation(Map.of(1, notEnoughItems),
+                                                Map.of("hotSku", new ItemStockLevel("hotSku", 3, 2))));
+
+                // When
+                final var acceptedResult = reservationCoalescer.submit(accepted);
+                final var rejectedResult = reservationCoalescer.submit(rejected);
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("hotSku", 1)),
+                                acceptedResult.get(5, TimeUnit.SECONDS));
+                assertThatThrownBy(() -> rejectedResult.get(5, TimeUnit.SECONDS))
+                                .isInstanceOf(ExecutionException.class)
+                                .hasCauseReference(notEnoughItems);
+                verify(reservationService, times(1)).reserveProductsTogether(anyList());
+        }
+
+        @Test
+        @DisplayName("`submit()` should put a second request for the same order in the next batch")
+        public void submit_SameOrderTwice_ReservesInSeparateBatches() throws Exception {
+                // Given
+                reservationCoalescer = coalescer(true, 10);
+                final var first = request("ORDER-001", "skuCode1", 1);
+                final var second = request("ORDER-001", "skuCode1", 2);
+                when(reservationService.reserveProductsTogether(anyList()))
+                                .thenReturn(new BatchReservation(Map.of(), Map.of()));
+
+                // When
+                reservationCoalescer.submit(first);
+                reservationCoalescer.submit(second).get(5, TimeUnit.SECONDS);
+
+                // Then
+                verify(reservationService).reserveProductsTogether(List.of(first));
+                verify(reservationService).reserveProductsTogether(List.of(second));
+        }
+
+        @Test
+        @DisplayName("`submit()` should retry the requests of a failed batch one by one")
+        public void submit_BatchFails_RetriesRequestsIndividually() throws Exception {
+                // Given
+                reservationCoalescer = coalescer(true, 10);
+                final var healthy = request("ORDER-001", "skuCode1", 1);
+                final var failing = request("ORDER-002", "skuCode2", 1);
+                final var failure = new InternalServerException();
+                when(reservationService.reserveProductsTogether(List.of(healthy, failing))).thenThrow(failure);
+                when(reservationService.reserveProductsTogether(List.of(healthy)))
+                                .thenReturn(new BatchReservation(Map.of(),
+                                                Map.of("skuCode1", new ItemStockLevel("skuCode1", 5, 1))));
+                when(reservationService.reserveProductsTogether(List.of(failing))).thenThrow(failure);
+
+                // When
+                final var healthyResult = reservationCoalescer.submit(healthy);
+                final var failingResult = reservationCoalescer.submit(failing);
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("skuCode1", 4)),
+                                healthyResult.get(5, TimeUnit.SECONDS));
+                assertThatThrownBy(() -> failingResult.get(5, TimeUnit.SECONDS))
+                                .isInstanceOf(ExecutionException.class)
+                                .hasCauseReference(failure);
+        }
+
+        @Test
+        @DisplayName("`reserveProducts()` should rethrow the request's own exception")
+        public void reserveProducts_Rejected_RethrowsException() {
+                // Given
+                reservationCoalescer = coalescer(true, 10);
+                final var request = request("ORDER-001", "hotSku", 5);
+                final var notEnoughItems = new NotEnoughItemException(List.of(new ItemAvailability("hotSku", 5, 0)));
+                when(reservationService.reserveProductsTogether(List.of(request)))
+                                .thenReturn(new BatchReservation(Map.of(0, notEnoughItems), Map.of()));
+
+                // When & Then
+                assertThatThrownBy(() -> reservationCoalescer.reserveProducts(request)).isSameAs(notEnoughItems);
+        }
+
+        @Test
+        @DisplayName("`submit()` should reserve on the caller's thread when coalescing is disabled")
+        public void submit_Disabled_ReservesImmediately() throws Exception {
+                // Given
+                reservationCoalescer = coalescer(false, 10);
+                final var request = request("ORDER-001", "unknownSku", 1);
+                when(reservationService.reserveProductsTogether(List.of(request)))
+                                .thenReturn(new BatchReservation(Map.of(), Map.of()));
+
+                // When
+                final var result = reservationCoalescer.submit(request);
+
+                // Then
+                assertEquals(List.of(new AvailableInventoryResponse("unknownSku", 0)), result.getNow(null));
+        }
+
+        @Test
+        @DisplayName("`submitAll()` should reserve in as few batches as order numbers allow when coalescing is disabled")
+        public void submitAll_Disabled_ReservesInDistinctOrderBatches() {
+                // Given
+                reservationCoalescer = coalescer(false, 10);
+                final var first = request("ORDER-001", "skuCode1", 1);
+                final var other = request("ORDER-002", "skuCode1", 1);
+                final var resubmitted = request("ORDER-001", "skuCode1", 2);
+                when(reservationService.reserveProductsTogether(anyList()))
+                                .thenReturn(new BatchReservation(Map.of(), Map.of()));
+
+                // When
+                final var results = reservationCoalescer.submitAll(List.of(first, other, resubmitted));
+
+                // Then
+                assertEquals(3, results.size());
+                results.forEach(result -> assertEquals(List.of(new AvailableInventoryResponse("skuCode1", 0)),
+                                result.getNow(null)));
+                verify(reservationService).reserveProductsTogether(List.of(first, other));
+                verify(reservationService).reserveProductsTogether(List.of(resubmitted));
+        }
+
+        private ReservationCoalescer coalescer(boolean enabled, int maxBatchSize) {
+                return new ReservationCoalescer(enabled, MAX_WAIT, maxBatchSize, 100, 1, reservationService,
+                                new SimpleMeterRegistry());
+        }
+
+        private static OrderReservationRequest request(String orderNumber, String skuCode, int quantity) {
+                return new OrderReservationRequest(orderNumber, List.of(new ItemReservationRequest(skuCode, quantity)));
+        }
+}
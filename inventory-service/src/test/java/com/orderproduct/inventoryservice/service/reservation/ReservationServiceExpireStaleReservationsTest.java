@@ -0,0 +1,127 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.PageRequest;
+
+import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
+import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.entity.Reservation;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.ReservationRepository;
+import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
+import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
+
+public class ReservationServiceExpireStaleReservationsTest {
+
+        private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
+        private final ReservationRepositoryWrapper reservationRepositoryWrapper = new ReservationRepositoryWrapper(
+                        reservationRepository, inventoryExceptionHandler);
+        private final TimeProvider timeProvider = mock(TimeProvider.class);
+        private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
+
+        private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
+                        reservationRepositoryWrapper);
+        private final ReservationOrchestrator reservationBuilder = new ReservationOrchestrator(
+                        reservationRepositoryWrapper,
+                        timeProvider);
+        private final ReservationStateManager reservationStateManager = new ReservationStateManager(
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
+
+        private final ReservationService reservationService = new ReservationService(
+                        reservationRepositoryWrapper, reservedQuantityService, reservationBuilder,
+                        reservationStateManager, inventoryAllocationService);
+
+        private final LocalDateTime cutoff = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+        @Test
+        @DisplayName("`expireStaleReservations()` should expire claimed reservations and release their reserved quantities")
+        public void expireStaleReservations_StaleReservations_ExpiresAndReleases()
+                        throws InternalServerException, DuplicateReservationException {
+                // Given
+                final var staleReservations = List.of(
+                                pendingReservation(1L, "ORDER-001", "skuCode1", 5),
+                                pendingReservation(2L, "ORDER-002", "skuCode1", 3),
+                                pendingReservation(3L, "ORDER-002", "skuCode2", 4));
+                final var expectedReservations = staleReservations.stream()
+                                .map(reservation -> reservation.toBuilder().status(ReservationState.EXPIRED).build())
+                                .toList();
+
+                when(reservationRepository.claimByStatusAndReservedAtBefore(ReservationState.PENDING, cutoff,
+                                PageRequest.of(0, 10)))
+                                .thenReturn(staleReservations);
+                when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
+
+                // When
+                List<Reservation> result = reservationService.expireStaleReservations(cutoff, 10);
+
+                // Then
+                assertEquals(expectedReservations, result);
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of("skuCode1", -8, "skuCode2", -4));
+                verifyNoInteractions(inventoryDeductionService);
+        }
+
+        @Test
+        @DisplayName("`expireStaleReservations()` should do nothing when no stale reservations can be claimed")
+        public void expireStaleReservations_NothingToClaim_ReturnsEmptyList()
+                        throws InternalServerException, DuplicateReservationException {
+                // Given
+                when(reservationRepository.claimByStatusAndReservedAtBefore(eq(ReservationState.PENDING), eq(cutoff),
+                                any()))
+                                .thenReturn(List.of());
+
+                // When
+                List<Reservation> result = reservationService.expireStaleReservations(cutoff, 10);
+
+                // Then
+                assertTrue(result.isEmpty());
+                verify(reservationRepository, never()).saveAll(anyList());
+                verifyNoInteractions(inventoryAllocationService);
+        }
+
+        @Test
+        @DisplayName("`expireStaleReservations()` should throw InternalServerException when claiming fails")
+        public void expireStaleReservations_DataAccessException_ThrowsInternalServerException() {
+                // Given
+                when(reservationRepository.claimByStatusAndReservedAtBefore(eq(ReservationState.PENDING), eq(cutoff),
+                                any()))
+                                .thenThrow(new DataAccessResourceFailureException("Database connection failed"));
+
+                // When & Then
+                assertThrows(InternalServerException.class,
+                                () -> reservationService.expireStaleReservations(cutoff, 10));
+        }
+
+        private Reservation pendingReservation(Long id, String orderNumber, String skuCode, int quantity) {
+                return Reservation.builder()
+                                .id(id)
+                                .orderNumber(orderNumber)
+                                .skuCode(skuCode)
+                                .reservedQuantity(quantity)
+                                .reservedAt(cutoff.minusHours(1))
+                                .status(ReservationState.PENDING)
+                                .build();
+        }
+}
@@ -6,7 +6,6 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
@@ -17,10 +16,10 @@ import com.orderproduct.inventoryservice.common.exception.InternalServerExceptio
 import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
 import com.orderproduct.inventoryservice.common.util.TimeProvider;
 import com.orderproduct.inventoryservice.domain.ReservedItemQuantity;
-import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.repository.ReservationRepository;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
 import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
 
 import jakarta.persistence.PersistenceException;
@@ -33,6 +32,7 @@ public class ReservationServiceFindPendingReservationsTest {
                         reservationRepository, inventoryExceptionHandler);
         private final TimeProvider timeProvider = mock(TimeProvider.class);
         private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
 
         private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
                         reservationRepositoryWrapper);
@@ -40,51 +40,24 @@ public class ReservationServiceFindPendingReservationsTest {
                         reservationRepositoryWrapper,
                         timeProvider);
         private final ReservationStateManager reservationStateManager = new ReservationStateManager(
-                        reservationRepositoryWrapper, inventoryDeductionService);
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
 
         private final ReservationService reservationService = new ReservationService(reservationRepositoryWrapper,
-                        reservedQuantityService, reservationBuilder, reservationStateManager);
+                        reservedQuantityService, reservationBuilder, reservationStateManager,
+                        inventoryAllocationService);
 
         @Test
-        @DisplayName("`findPendingReservedQuantities()` should return `List<ReservedItemQuantity>` for passed skuCodes")
+        @DisplayName("`findPendingReservedQuantities()` should return summed `List<ReservedItemQuantity>` for passed skuCodes")
         public void findPendingReservedQuantitiesTest() throws InternalServerException {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2", "skuCode3");
-                final var currentTime = LocalDateTime.now();
-                final var matchingReservations = List.of(
-                                Reservation.builder()
-                                                .id(1L)
-                                                .orderNumber("ORDER-001")
-                                                .skuCode("skuCode1")
-                                                .reservedQuantity(5)
-                                                .reservedAt(currentTime)
-                                                .status(ReservationState.PENDING)
-                                                .build(),
-                                Reservation.builder()
-                                                .id(2L)
-                                                .orderNumber("ORDER-002")
-                                                .skuCode("skuCode1")
-                                                .reservedQuantity(3)
-                                                .reservedAt(currentTime)
-                                                .status(ReservationState.PENDING)
-                                                .build(),
-                                Reservation.builder()
-                                                .id(3L)
-                                                .orderNumber("ORDER-003")
-                                                .skuCode("skuCode2")
-                                                .reservedQuantity(10)
-                                                .reservedAt(currentTime)
-                                                .status(ReservationState.PENDING)
-                                                .build());
-
-                // Expected: Individual ReservedItemQuantity objects for each reservation
+                // Expected: One summed ReservedItemQuantity per SKU with pending reservations
                 final var expectedReservedItemQuantities = List.of(
-                                new ReservedItemQuantity("skuCode1", 5),
-                                new ReservedItemQuantity("skuCode1", 3),
+                                new ReservedItemQuantity("skuCode1", 8),
                                 new ReservedItemQuantity("skuCode2", 10));
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
-                                .thenReturn(matchingReservations);
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                                .thenReturn(expectedReservedItemQuantities);
 
                 // When
                 List<ReservedItemQuantity> result = reservationService.findPendingReservedQuantities(skuCodeList);
@@ -100,7 +73,7 @@ public class ReservationServiceFindPendingReservationsTest {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2");
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
                                 .thenReturn(List.of());
 
                 // When
@@ -116,7 +89,7 @@ public class ReservationServiceFindPendingReservationsTest {
                 // Given
                 final var skuCodeList = List.<String>of();
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
                                 .thenReturn(List.of());
 
                 // When
@@ -132,7 +105,7 @@ public class ReservationServiceFindPendingReservationsTest {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2");
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
                                 .thenThrow(new DataAccessResourceFailureException("Database connection failed"));
 
                 // When & Then
@@ -146,7 +119,7 @@ public class ReservationServiceFindPendingReservationsTest {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2");
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
                                 .thenThrow(new PersistenceException("Database constraint violation"));
 
                 // When & Then
@@ -160,7 +133,7 @@ public class ReservationServiceFindPendingReservationsTest {
                 // Given
                 final var skuCodeList = List.of("skuCode1", "skuCode2");
 
-                when(reservationRepository.findBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
+                when(reservationRepository.sumReservedQuantitiesBySkuCodeInAndStatus(skuCodeList, ReservationState.PENDING))
                                 .thenThrow(new RuntimeException("Unexpected error"));
 
                 // When & Then
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,14 +27,18 @@ import org.springframework.dao.DataIntegrityViolationException;
 import com.orderproduct.inventoryservice.common.exception.DuplicateReservationException;
 import com.orderproduct.inventoryservice.common.exception.InternalServerException;
 import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
 import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
 import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
 import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
 import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
 import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.repository.ReservationRepository;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
 import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
 
 import jakarta.persistence.PersistenceException;
@@ -46,6 +51,7 @@ public class ReservationServiceReserveProductsTest {
                         reservationRepository, inventoryExceptionHandler);
         private final TimeProvider timeProvider = mock(TimeProvider.class);
         private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
 
         private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
                         reservationRepositoryWrapper);
@@ -53,11 +59,11 @@ public class ReservationServiceReserveProductsTest {
                         reservationRepositoryWrapper,
                         timeProvider);
         private final ReservationStateManager reservationStateManager = new ReservationStateManager(
-                        reservationRepositoryWrapper, inventoryDeductionService);
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
 
         private final ReservationService reservationService = new ReservationService(
                         reservationRepositoryWrapper, reservedQuantityService, reservationBuilder,
-                        reservationStateManager);
+                        reservationStateManager, inventoryAllocationService);
 
         @Test
         @DisplayName("`reserveProducts()` should create new reservations when no existing reservations exist")
@@ -86,7 +92,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(List.of());
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(List.of());
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(anyList())).thenReturn(expectedReservations);
 
@@ -135,7 +141,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(anyList())).thenReturn(expectedUpdatedReservations);
@@ -194,7 +200,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(anyList())).thenReturn(expectedReservations);
@@ -206,6 +212,30 @@ public class ReservationServiceReserveProductsTest {
                 assertEquals(expectedReservations, result);
                 verify(reservationRepository).deleteByOrderNumberAndSkuCodeIn(eq(orderNumber),
                                 eq(List.of("skuCode2")));
+                verify(inventoryAllocationService).allocate(List.of(
+                                new ReservationAllocation("skuCode1", 15, 5),
+                                new ReservationAllocation("skuCode3", 20, 0),
+                                new ReservationAllocation("skuCode2", 0, 3)));
+        }
+
+        @Test
+        @DisplayName("`reserveProducts()` should not save reservations when inventory allocation fails")
+        public void reserveProducts_AllocationFails_ThrowsNotEnoughItemException() throws InternalServerException {
+                // Given
+                final var orderNumber = "ORDER-001";
+                final var request = new OrderReservationRequest(orderNumber,
+                                List.of(new ItemReservationRequest("skuCode1", 15)));
+                final var unavailableItems = List.of(new ItemAvailability("skuCode1", 15, 4));
+
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(List.of());
+                when(timeProvider.getCurrentTimestamp()).thenReturn(LocalDateTime.now());
+                doThrow(new NotEnoughItemException(unavailableItems)).when(inventoryAllocationService)
+                                .allocate(List.of(new ReservationAllocation("skuCode1", 15, 0)));
+
+                // When & Then
+                assertThatThrownBy(() -> reservationService.reserveProducts(request))
+                                .isInstanceOf(NotEnoughItemException.class);
+                verify(reservationRepository, never()).saveAll(anyList());
         }
 
         @Test
@@ -238,7 +268,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(anyList())).thenReturn(expectedReservations);
@@ -270,7 +300,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(state)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
 
                 // Then
@@ -311,7 +341,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.CANCELLED)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
 
                 // Then
@@ -327,7 +357,7 @@ public class ReservationServiceReserveProductsTest {
                 final var itemRequests = List.of(new ItemReservationRequest("skuCode1", 5));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new DataAccessException("Database connection failed") {
                                 });
 
@@ -344,7 +374,7 @@ public class ReservationServiceReserveProductsTest {
                 final var itemRequests = List.of(new ItemReservationRequest("skuCode1", 5));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new PersistenceException("Database constraint violation"));
 
                 // Then
@@ -360,7 +390,7 @@ public class ReservationServiceReserveProductsTest {
                 final var itemRequests = List.of(new ItemReservationRequest("skuCode1", 5));
                 final var request = new OrderReservationRequest(orderNumber, itemRequests);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new RuntimeException("Unexpected error"));
 
                 // Then
@@ -385,7 +415,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(List.of()); // there is no existing reservation
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(reservationsToSave))
@@ -414,7 +444,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(List.of());
                 when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
                 when(reservationRepository.saveAll(reservationsToSave))
@@ -444,7 +474,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 doThrow(new DataAccessException("Database connection failed") {
                 }).when(reservationRepository).deleteByOrderNumberAndSkuCodeIn(anyString(), anyList());
@@ -472,7 +502,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 doThrow(new PersistenceException("Database constraint violation"))
                                 .when(reservationRepository)
@@ -501,7 +531,7 @@ public class ReservationServiceReserveProductsTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(existingReservations);
                 doThrow(new RuntimeException("Unexpected error"))
                                 .when(reservationRepository)
@@ -520,7 +550,7 @@ public class ReservationServiceReserveProductsTest {
                 OrderReservationRequest request = new OrderReservationRequest(orderNumber,
                                 List.of(new ItemReservationRequest("skuCode1", 5)));
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenReturn(List.of());
                 when(reservationRepository.saveAll(anyList()))
                                 .thenThrow(new DataIntegrityViolationException("Constraint violation",
@@ -0,0 +1,146 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
+import com.orderproduct.inventoryservice.common.exception.NotEnoughItemException;
+import com.orderproduct.inventoryservice.common.exception.OrderReservationNotAllowedException;
+import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.domain.ItemStockLevel;
+import com.orderproduct.inventoryservice.domain.ReservationAllocation;
+import com.orderproduct.inventoryservice.dto.request.ItemReservationRequest;
+import com.orderproduct.inventoryservice.dto.request.OrderReservationRequest;
+import com.orderproduct.inventoryservice.dto.response.ItemAvailability;
+import com.orderproduct.inventoryservice.entity.Reservation;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.ReservationRepository;
+import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.BatchAllocation;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
+import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
+
+public class ReservationServiceReserveProductsTogetherTest {
+
+        private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
+        private final ReservationRepositoryWrapper reservationRepositoryWrapper = new ReservationRepositoryWrapper(
+                        reservationRepository, inventoryExceptionHandler);
+        private final TimeProvider timeProvider = mock(TimeProvider.class);
+        private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
+
+        private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
+                        reservationRepositoryWrapper);
+        private final ReservationOrchestrator reservationBuilder = new ReservationOrchestrator(
+                        reservationRepositoryWrapper,
+                        timeProvider);
+        private final ReservationStateManager reservationStateManager = new ReservationStateManager(
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
+
+        private final ReservationService reservationService = new ReservationService(
+                        reservationRepositoryWrapper, reservedQuantityService, reservationBuilder,
+                        reservationStateManager, inventoryAllocationService);
+
+        @Test
+        @DisplayName("`reserveProductsTogether()` should allocate all orders at once and save the accepted ones in one call")
+        public void reserveProductsTogether_SomeOrdersRejected_SavesAcceptedOrdersOnly() throws InternalServerException {
+                // Given
+                final var currentTime = LocalDateTime.now();
+                final var accepted = new OrderReservationRequest("ORDER-001",
+                                List.of(new ItemReservationRequest("hotSku", 2)));
+                final var rejected = new OrderReservationRequest("ORDER-002",
+                                List.of(new ItemReservationRequest("hotSku", 5)));
+                final var notEnoughItems = new NotEnoughItemException(
+                                List.of(new ItemAvailability("hotSku", 5, 1)));
+                final var stockLevels = Map.of("hotSku", new ItemStockLevel("hotSku", 3, 2));
+
+                when(reservationRepository.findByOrderNumberForUpdate(anyString())).thenReturn(List.of());
+                when(timeProvider.getCurrentTimestamp()).thenReturn(currentTime);
+                when(inventoryAllocationService.allocateTogether(List.of(
+                                List.of(new ReservationAllocation("hotSku", 2, 0)),
+                                List.of(new ReservationAllocation("hotSku", 5, 0)))))
+                                .thenReturn(new BatchAllocation(Map.of(1, notEnoughItems), stockLevels));
+
+                // When
+                BatchReservation result = reservationService.reserveProductsTogether(List.of(accepted, rejected));
+
+                // Then
+                assertEquals(Map.of(1, notEnoughItems), result.rejectedRequests());
+                assertEquals(stockLevels, result.stockLevels());
+                verify(reservationRepository).saveAll(List.of(Reservation.builder()
+                                .orderNumber("ORDER-001")
+                                .skuCode("hotSku")
+                                .reservedQuantity(2)
+                                .reservedAt(currentTime)
+                                .status(ReservationState.PENDING)
+                                .build()));
+        }
+
+        @Test
+        @DisplayName("`reserveProductsTogether()` should reject an order that is no longer PENDING without allocating it")
+        public void reserveProductsTogether_OrderNotPending_RejectsItWithoutAllocating() throws InternalServerException {
+                // Given
+                final var request = new OrderReservationRequest("ORDER-001",
+                                List.of(new ItemReservationRequest("skuCode1", 2)));
+                when(reservationRepository.findByOrderNumberForUpdate("ORDER-001")).thenReturn(List.of(
+                                Reservation.builder()
+                                                .orderNumber("ORDER-001")
+                                                .skuCode("skuCode1")
+                                                .reservedQuantity(2)
+                                                .status(ReservationState.FULFILLED)
+                                                .build()));
+                when(inventoryAllocationService.allocateTogether(List.of()))
+                                .thenReturn(new BatchAllocation(Map.of(), Map.of()));
+
+                // When
+                BatchReservation result = reservationService.reserveProductsTogether(List.of(request));
+
+                // Then
+                assertInstanceOf(OrderReservationNotAllowedException.class, result.rejectedRequests().get(0));
+                verify(inventoryAllocationService).allocateTogether(List.of());
+                verify(reservationRepository).saveAll(List.of());
+        }
+
+        @Test
+        @DisplayName("`reserveProductsTogether()` should only delete dropped SKUs of accepted orders")
+        public void reserveProductsTogether_RejectedOrderDroppedSku_KeepsItsReservation() throws InternalServerException {
+                // Given
+                final var existingReservation = Reservation.builder()
+                                .orderNumber("ORDER-001")
+                                .skuCode("droppedSku")
+                                .reservedQuantity(1)
+                                .status(ReservationState.PENDING)
+                                .build();
+                final var request = new OrderReservationRequest("ORDER-001",
+                                List.of(new ItemReservationRequest("hotSku", 5)));
+                when(reservationRepository.findByOrderNumberForUpdate("ORDER-001"))
+                                .thenReturn(List.of(existingReservation));
+                when(timeProvider.getCurrentTimestamp()).thenReturn(LocalDateTime.now());
+                when(inventoryAllocationService.allocateTogether(anyList())).thenReturn(new BatchAllocation(
+                                Map.of(0, new NotEnoughItemException(List.of(new ItemAvailability("hotSku", 5, 0)))),
+                                Map.of()));
+
+                // When
+                BatchReservation result = reservationService.reserveProductsTogether(List.of(request));
+
+                // Then
+                assertInstanceOf(NotEnoughItemException.class, result.rejectedRequests().get(0));
+                verify(reservationRepository, never()).deleteByOrderNumberAndSkuCodeIn(anyString(), anyList());
+                verify(reservationRepository).saveAll(List.of());
+        }
+}
@@ -12,6 +12,7 @@ import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.DisplayName;
@@ -28,6 +29,7 @@ import com.orderproduct.inventoryservice.entity.Reservation;
 import com.orderproduct.inventoryservice.entity.ReservationState;
 import com.orderproduct.inventoryservice.repository.ReservationRepository;
 import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
 import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
 
 import jakarta.persistence.PersistenceException;
@@ -40,6 +42,7 @@ public class ReservationServiceUpdateReservationStateTest {
                         reservationRepository, inventoryExceptionHandler);
         private final TimeProvider timeProvider = mock(TimeProvider.class);
         private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
 
         private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
                         reservationRepositoryWrapper);
@@ -47,11 +50,11 @@ public class ReservationServiceUpdateReservationStateTest {
                         reservationRepositoryWrapper,
                         timeProvider);
         private final ReservationStateManager reservationStateManager = new ReservationStateManager(
-                        reservationRepositoryWrapper, inventoryDeductionService);
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
 
         private final ReservationService reservationService = new ReservationService(
                         reservationRepositoryWrapper, reservedQuantityService, reservationBuilder,
-                        reservationStateManager);
+                        reservationStateManager, inventoryAllocationService);
 
         private Reservation copy(Reservation reservation, ReservationState newState) {
                 return reservation.toBuilder()
@@ -90,7 +93,7 @@ public class ReservationServiceUpdateReservationStateTest {
                                 .map(reservation -> copy(reservation, newState))
                                 .toList();
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(existingReservations);
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(existingReservations);
                 when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
 
                 // When
@@ -99,6 +102,7 @@ public class ReservationServiceUpdateReservationStateTest {
                 // Then
                 assertEquals(expectedReservations, result);
                 verify(inventoryDeductionService).deductInventoryForFulfilledOrder(expectedReservations);
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of("skuCode1", -5, "skuCode2", -10));
         }
 
         @Test
@@ -124,7 +128,7 @@ public class ReservationServiceUpdateReservationStateTest {
                                 .map(reservation -> copy(reservation, newState))
                                 .toList();
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(existingReservations);
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(existingReservations);
                 when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
 
                 // When
@@ -133,6 +137,38 @@ public class ReservationServiceUpdateReservationStateTest {
                 // Then
                 assertEquals(expectedReservations, result);
                 verifyNoInteractions(inventoryDeductionService);
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of("skuCode1", -5));
+        }
+
+        @Test
+        @DisplayName("`updateReservationState()` should not release reserved quantity for reservations that were not PENDING")
+        public void updateReservationState_NonPendingReservations_DoesNotReleaseReservedQuantity()
+                        throws InternalServerException {
+                // Given
+                final var orderNumber = "ORDER-001";
+                final var request = new ReservationStateUpdateRequest(orderNumber, ReservationState.CANCELLED);
+
+                final var existingReservations = List.of(
+                                Reservation.builder()
+                                                .id(1L)
+                                                .orderNumber(orderNumber)
+                                                .skuCode("skuCode1")
+                                                .reservedQuantity(5)
+                                                .reservedAt(LocalDateTime.now().minusHours(1))
+                                                .status(ReservationState.FULFILLED)
+                                                .build());
+                final var expectedReservations = existingReservations.stream()
+                                .map(reservation -> copy(reservation, ReservationState.CANCELLED))
+                                .toList();
+
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(existingReservations);
+                when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
+
+                // When
+                reservationService.updateReservationState(request);
+
+                // Then
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of());
         }
 
         @Test
@@ -145,7 +181,7 @@ public class ReservationServiceUpdateReservationStateTest {
 
                 final var expectedReservations = List.<Reservation>of();
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(List.of());
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(List.of());
                 when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
 
                 // When
@@ -164,7 +200,7 @@ public class ReservationServiceUpdateReservationStateTest {
                 final var newState = ReservationState.CANCELLED;
                 final var request = new ReservationStateUpdateRequest(orderNumber, newState);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new DataAccessException("Database connection failed") {
                                 });
 
@@ -182,7 +218,7 @@ public class ReservationServiceUpdateReservationStateTest {
                 final var newState = ReservationState.CANCELLED;
                 final var request = new ReservationStateUpdateRequest(orderNumber, newState);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new PersistenceException("Database constraint violation"));
 
                 // When & Then
@@ -199,7 +235,7 @@ public class ReservationServiceUpdateReservationStateTest {
                 final var newState = ReservationState.CANCELLED;
                 final var request = new ReservationStateUpdateRequest(orderNumber, newState);
 
-                when(reservationRepository.findByOrderNumber(orderNumber))
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber))
                                 .thenThrow(new RuntimeException("Unexpected error"));
 
                 // When & Then
@@ -232,7 +268,7 @@ public class ReservationServiceUpdateReservationStateTest {
                                 .map(reservation -> copy(reservation, newState))
                                 .toList();
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(existingReservations);
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(existingReservations);
                 when(reservationRepository.saveAll(expectedReservations)).thenReturn(expectedReservations);
                 doThrow(new InternalServerException())
                                 .when(inventoryDeductionService).deductInventoryForFulfilledOrder(expectedReservations);
@@ -260,7 +296,7 @@ public class ReservationServiceUpdateReservationStateTest {
                                                 .status(ReservationState.PENDING)
                                                 .build());
 
-                when(reservationRepository.findByOrderNumber(orderNumber)).thenReturn(existingReservations);
+                when(reservationRepository.findByOrderNumberForUpdate(orderNumber)).thenReturn(existingReservations);
                 when(reservationRepository.saveAll(anyList()))
                                 .thenThrow(new DataIntegrityViolationException("Constraint violation",
                                                 new ConstraintViolationException("Duplicate reservation", null,
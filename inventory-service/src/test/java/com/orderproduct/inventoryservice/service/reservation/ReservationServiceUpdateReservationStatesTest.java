@@ -0,0 +1,126 @@
+package com.orderproduct.inventoryservice.service.reservation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.inventoryservice.common.exception.InternalServerException;
+import com.orderproduct.inventoryservice.common.exception.InventoryExceptionHandler;
+import com.orderproduct.inventoryservice.common.util.TimeProvider;
+import com.orderproduct.inventoryservice.dto.request.ReservationStateUpdateRequest;
+import com.orderproduct.inventoryservice.entity.Reservation;
+import com.orderproduct.inventoryservice.entity.ReservationState;
+import com.orderproduct.inventoryservice.repository.ReservationRepository;
+import com.orderproduct.inventoryservice.repository.ReservationRepositoryWrapper;
+import com.orderproduct.inventoryservice.service.inventory.InventoryAllocationService;
+import com.orderproduct.inventoryservice.service.inventory.InventoryDeductionService;
+
+public class ReservationServiceUpdateReservationStatesTest {
+
+        private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+        private final InventoryExceptionHandler inventoryExceptionHandler = new InventoryExceptionHandler();
+        private final ReservationRepositoryWrapper reservationRepositoryWrapper = new ReservationRepositoryWrapper(
+                        reservationRepository, inventoryExceptionHandler);
+        private final TimeProvider timeProvider = mock(TimeProvider.class);
+        private final InventoryDeductionService inventoryDeductionService = mock(InventoryDeductionService.class);
+        private final InventoryAllocationService inventoryAllocationService = mock(InventoryAllocationService.class);
+
+        private final ReservedQuantityService reservedQuantityService = new ReservedQuantityService(
+                        reservationRepositoryWrapper);
+        private final ReservationOrchestrator reservationBuilder = new ReservationOrchestrator(
+                        reservationRepositoryWrapper,
+                        timeProvider);
+        private final ReservationStateManager reservationStateManager = new ReservationStateManager(
+                        reservationRepositoryWrapper, inventoryDeductionService, inventoryAllocationService);
+
+        private final ReservationService reservationService = new ReservationService(
+                        reservationRepositoryWrapper, reservedQuantityService, reservationBuilder,
+                        reservationStateManager, inventoryAllocationService);
+
+        @Test
+        @DisplayName("`updateReservationStates()` should load all orders in one query and sum quantity changes per SKU")
+        public void updateReservationStates_MultipleOrders_AppliesInOneBatch() throws InternalServerException {
+                // Given
+                final var requests = List.of(
+                                new ReservationStateUpdateRequest("ORDER-2", ReservationState.FULFILLED),
+                                new ReservationStateUpdateRequest("ORDER-1", ReservationState.FULFILLED),
+                                new ReservationStateUpdateRequest("ORDER-3", ReservationState.CANCELLED),
+                                new ReservationStateUpdateRequest("ORDER-UNKNOWN", ReservationState.CANCELLED));
+                final var existingReservations = List.of(
+                                pendingReservation(1L, "ORDER-1", "skuCode1", 5),
+                                pendingReservation(2L, "ORDER-1", "skuCode2", 2),
+                                pendingReservation(3L, "ORDER-2", "skuCode1", 3),
+                                pendingReservation(4L, "ORDER-3", "skuCode2", 4));
+                when(reservationRepository.findByOrderNumberInForUpdate(
+                                List.of("ORDER-1", "ORDER-2", "ORDER-3", "ORDER-UNKNOWN")))
+                                .thenReturn(existingReservations);
+                when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // When
+                List<Reservation> result = reservationService.updateReservationStates(requests);
+
+                // Then
+                assertEquals(4, result.size());
+                assertEquals(List.of(ReservationState.FULFILLED, ReservationState.FULFILLED,
+                                ReservationState.FULFILLED, ReservationState.CANCELLED),
+                                result.stream().map(Reservation::getStatus).toList());
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of("skuCode1", -8, "skuCode2", -6));
+                verify(inventoryDeductionService).deductInventoryQuantities(Map.of("skuCode1", 8, "skuCode2", 2));
+        }
+
+        @Test
+        @DisplayName("`updateReservationStates()` should apply repeated updates for an order in request order")
+        public void updateReservationStates_SameOrderTwice_AppliesInOrder() throws InternalServerException {
+                // Given
+                final var requests = List.of(
+                                new ReservationStateUpdateRequest("ORDER-1", ReservationState.CANCELLED),
+                                new ReservationStateUpdateRequest("ORDER-1", ReservationState.FULFILLED));
+                when(reservationRepository.findByOrderNumberInForUpdate(List.of("ORDER-1")))
+                                .thenReturn(List.of(pendingReservation(1L, "ORDER-1", "skuCode1", 5)));
+                when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+                // When
+                List<Reservation> result = reservationService.updateReservationStates(requests);
+
+                // Then
+                assertEquals(ReservationState.FULFILLED, result.get(0).getStatus());
+                // Released once by the cancel; the later transition is non-PENDING to non-PENDING
+                verify(inventoryAllocationService).adjustReservedQuantities(Map.of("skuCode1", -5));
+                verify(inventoryDeductionService).deductInventoryQuantities(Map.of("skuCode1", 5));
+        }
+
+        @Test
+        @DisplayName("`updateReservationStates()` should do nothing for an empty batch")
+        public void updateReservationStates_EmptyBatch_ReturnsEmptyList() throws InternalServerException {
+                // When
+                List<Reservation> result = reservationService.updateReservationStates(List.of());
+
+                // Then
+                assertTrue(result.isEmpty());
+                verify(reservationRepository, never()).findByOrderNumberInForUpdate(anyList());
+                verifyNoInteractions(inventoryAllocationService, inventoryDeductionService);
+        }
+
+        private Reservation pendingReservation(Long id, String orderNumber, String skuCode, int quantity) {
+                return Reservation.builder()
+                                .id(id)
+                                .orderNumber(orderNumber)
+                                .skuCode(skuCode)
+                                .reservedQuantity(quantity)
+                                .reservedAt(LocalDateTime.now())
+                                .status(ReservationState.PENDING)
+                                .build();
+        }
+}
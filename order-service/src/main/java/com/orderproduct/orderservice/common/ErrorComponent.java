@@ -10,6 +10,10 @@ public class ErrorComponent {
 
     public static final String ORDER_RESERVATION_NOT_ALLOWED_ERROR_CODE = "ORDER_RESERVATION_NOT_ALLOWED";
 
+    public static final String SERVICE_UNAVAILABLE_ERROR_CODE = "SERVICE_UNAVAILABLE";
+
+    public static final String IDEMPOTENCY_KEY_REUSED_ERROR_CODE = "IDEMPOTENCY_KEY_REUSED";
+
     public static final String somethingWentWrongMsg = "Sorry, something went wrong.";
 
     public static final String badRequestMsg = "This is an incorrect request-body.";
@@ -18,4 +22,8 @@ public class ErrorComponent {
 
     public static final String orderReservationNotAllowedMsg = "Reservation is not allowed for this order, as the order is not in pending state.";
 
+    public static final String serviceUnavailableMsg = "The service is currently overloaded. Please retry later.";
+
+    public static final String idempotencyKeyReusedMsg = "This Idempotency-Key was already used for a different order request.";
+
 }
@@ -0,0 +1,13 @@
+package com.orderproduct.orderservice.common;
+
+import org.springframework.http.HttpStatus;
+
+public class IdempotencyKeyReusedException extends ApiException {
+
+    public IdempotencyKeyReusedException() {
+        super(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ErrorComponent.IDEMPOTENCY_KEY_REUSED_ERROR_CODE,
+                ErrorComponent.idempotencyKeyReusedMsg);
+    }
+}
@@ -0,0 +1,13 @@
+package com.orderproduct.orderservice.common;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException {
+
+    public ServiceUnavailableException() {
+        super(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ErrorComponent.SERVICE_UNAVAILABLE_ERROR_CODE,
+                ErrorComponent.serviceUnavailableMsg);
+    }
+}
@@ -1,5 +1,8 @@
 package com.orderproduct.orderservice.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
@@ -7,9 +10,12 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
 
 import com.orderproduct.inventoryservice.grpc.ReservationServiceGrpc;
+import com.orderproduct.orderservice.service.AdaptiveConcurrencyLimiter;
+import com.orderproduct.orderservice.service.InventoryReservationBatcher;
 import com.orderproduct.orderservice.service.InventoryReservationGrpcClientService;
 import com.orderproduct.orderservice.service.InventoryReservationHttpService;
 import com.orderproduct.orderservice.service.InventoryReservationService;
+import com.orderproduct.orderservice.service.ReservationHedger;
 
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.client.inject.GrpcClient;
@@ -22,16 +28,66 @@ public class InventoryReservationConfig {
     @ConditionalOnProperty(name = "inventory.reservation.use-grpc", havingValue = "false", matchIfMissing = true)
     public InventoryReservationService httpInventoryReservationService(
             WebClient.Builder webClientBuilder,
-            @Value("${inventory.api.base-url}") String inventoryApiBaseUrl) {
+            @Value("${inventory.api.base-url}") String inventoryApiBaseUrl,
+            ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+            ObjectProvider<ReservationHedger> reservationHedger) {
         log.info("Configuring HTTP-based inventory reservation service");
-        return new InventoryReservationHttpService(webClientBuilder, inventoryApiBaseUrl);
+        return new InventoryReservationHttpService(webClientBuilder, inventoryApiBaseUrl,
+                concurrencyLimiter.getIfAvailable(),
+                reservationHedger.getIfAvailable());
     }
 
     @Bean
     @ConditionalOnProperty(name = "inventory.reservation.use-grpc", havingValue = "true")
     public InventoryReservationService grpcInventoryReservationService(
-            @GrpcClient("inventory-reservation") ReservationServiceGrpc.ReservationServiceBlockingStub reservationServiceStub) {
-        log.info("Configuring gRPC-based inventory reservation service");
-        return new InventoryReservationGrpcClientService(reservationServiceStub);
+            @GrpcClient("inventory-reservation") ReservationServiceGrpc.ReservationServiceBlockingStub reservationServiceStub,
+            @GrpcClient("inventory-reservation") ReservationServiceGrpc.ReservationServiceFutureStub reservationServiceFutureStub,
+            @Value("${inventory.reservation.grpc.async:false}") boolean async,
+            @Value("${inventory.reservation.grpc.deadline:2500ms}") Duration deadline,
+            ObjectProvider<InventoryReservationBatcher> reservationBatcher,
+            ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+            ObjectProvider<ReservationHedger> reservationHedger) {
+        log.info("Configuring gRPC-based inventory reservation service - async: {}, deadline: {}", async, deadline);
+        return new InventoryReservationGrpcClientService(
+                reservationServiceStub,
+                async ? reservationServiceFutureStub : null,
+                deadline.isZero() ? null : deadline,
+                reservationBatcher.getIfAvailable(),
+                concurrencyLimiter.getIfAvailable(),
+                reservationHedger.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.reservation.grpc.batching.enabled", havingValue = "true")
+    public InventoryReservationBatcher inventoryReservationBatcher(
+            @GrpcClient("inventory-reservation") ReservationServiceGrpc.ReservationServiceFutureStub reservationServiceFutureStub,
+            @Value("${inventory.reservation.grpc.batching.window:5ms}") Duration window,
+            @Value("${inventory.reservation.grpc.batching.max-batch-size:100}") int maxBatchSize,
+            @Value("${inventory.reservation.grpc.deadline:2500ms}") Duration deadline) {
+        return new InventoryReservationBatcher(reservationServiceFutureStub, window, maxBatchSize,
+                deadline.isZero() ? null : deadline);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.reservation.limiter.enabled", havingValue = "true")
+    public AdaptiveConcurrencyLimiter inventoryReservationConcurrencyLimiter(
+            @Value("${inventory.reservation.limiter.initial-limit:20}") int initialLimit,
+            @Value("${inventory.reservation.limiter.min-limit:4}") int minLimit,
+            @Value("${inventory.reservation.limiter.max-limit:200}") int maxLimit,
+            @Value("${inventory.reservation.limiter.rtt-tolerance:1.5}") double rttTolerance,
+            @Value("${inventory.reservation.limiter.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${inventory.reservation.limiter.smoothing:0.2}") double smoothing) {
+        return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, rttTolerance, backoffRatio,
+                smoothing);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "inventory.reservation.hedging.enabled", havingValue = "true")
+    public ReservationHedger inventoryReservationHedger(
+            @Value("${inventory.reservation.hedging.percentile:0.95}") double percentile,
+            @Value("${inventory.reservation.hedging.initial-delay:50ms}") Duration initialDelay,
+            @Value("${inventory.reservation.hedging.min-delay:5ms}") Duration minDelay,
+            @Value("${inventory.reservation.hedging.budget-ratio:0.05}") double budgetRatio) {
+        return new ReservationHedger(percentile, initialDelay, minDelay, budgetRatio);
     }
 }
@@ -0,0 +1,30 @@
+package com.orderproduct.orderservice.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orderproduct.orderservice.service.OrderIdGenerator;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class OrderIdGeneratorConfig {
+
+    // The node ID is read from the Eureka instance metadata, so the registry shows which instance owns which ID.
+    @Bean
+    public OrderIdGenerator orderIdGenerator(
+            @Value("${order.id.strategy:uuid-v7}") String strategy,
+            @Value("${eureka.instance.metadata-map.node-id:-1}") int nodeId) {
+        OrderIdGenerator.Strategy parsedStrategy = OrderIdGenerator.Strategy.valueOf(
+                strategy.trim().replace('-', '_').toUpperCase());
+        if (parsedStrategy == OrderIdGenerator.Strategy.TSID && nodeId < 0) {
+            nodeId = ThreadLocalRandom.current().nextInt(1024);
+            log.warn("No eureka.instance.metadata-map.node-id set for TSID order IDs, using random node ID {}", nodeId);
+        }
+        return new OrderIdGenerator(parsedStrategy, nodeId);
+    }
+}
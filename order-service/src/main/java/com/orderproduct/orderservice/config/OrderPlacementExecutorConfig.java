@@ -0,0 +1,22 @@
+package com.orderproduct.orderservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.orderproduct.orderservice.service.OrderPlacementExecutor;
+
+@Configuration
+public class OrderPlacementExecutorConfig {
+
+    @Bean
+    public OrderPlacementExecutor orderPlacementExecutor(
+            @Value("${order.placement.executor.mode:platform}") String mode,
+            @Value("${order.placement.executor.max-concurrency:10}") int maxConcurrency,
+            @Value("${order.placement.executor.queue-capacity:100}") int queueCapacity) {
+        return new OrderPlacementExecutor(
+                OrderPlacementExecutor.Mode.valueOf(mode.trim().toUpperCase()),
+                maxConcurrency,
+                queueCapacity);
+    }
+}
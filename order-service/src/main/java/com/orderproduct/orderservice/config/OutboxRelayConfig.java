@@ -0,0 +1,31 @@
+package com.orderproduct.orderservice.config;
+
+import java.util.Map;
+
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+@Configuration
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelayConfig {
+
+    /**
+     * Producer for the outbox relay. It uses the {@code spring.kafka.*} producer
+     * settings, but sends keys and payloads as plain strings (as Debezium's
+     * EventRouter does) instead of through the configured JSON serializer.
+     */
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles) {
+        Map<String, Object> producerProperties = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerProperties, new StringSerializer(), new StringSerializer()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.orderproduct.orderservice.controller;
+
+import java.util.Map;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Copies the {@code Idempotency-Key} header into the GraphQL context, where the
+ * {@code placeOrder} mutation reads it. The key covers the whole request, so
+ * send one {@code placeOrder} per request when using it.
+ */
+@Component
+public class IdempotencyKeyGraphQlInterceptor implements WebGraphQlInterceptor {
+
+    public static final String IDEMPOTENCY_KEY_CONTEXT_KEY = "idempotencyKey";
+
+    @Override
+    public Mono<WebGraphQlResponse> intercept(WebGraphQlRequest request, Chain chain) {
+        String idempotencyKey = request.getHeaders().getFirst(OrderController.IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey != null) {
+            request.configureExecutionInput((executionInput, builder) -> builder
+                    .graphQLContext(Map.of(IDEMPOTENCY_KEY_CONTEXT_KEY, idempotencyKey))
+                    .build());
+        }
+        return chain.next(request);
+    }
+}
@@ -5,6 +5,7 @@ import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,6 +30,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class OrderController {
 
+        // A retried request with the same key gets the order placed by the first one
+        public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
         private final OrderService orderService;
 
         public OrderController(OrderService orderService) {
@@ -49,16 +53,27 @@ public class OrderController {
                                         + ErrorComponent.inventoryNotInStockMsg, content = {
                                                         @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
                                         }),
+                        @ApiResponse(responseCode = "422", description = "errorCode:"
+                                        + ErrorComponent.IDEMPOTENCY_KEY_REUSED_ERROR_CODE + " errorMessage:"
+                                        + ErrorComponent.idempotencyKeyReusedMsg, content = {
+                                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                                        }),
                         @ApiResponse(responseCode = "500", description = "errorCode:"
                                         + ErrorComponent.SOMETHING_WENT_WRONG_ERROR_CODE + " errorMessage:"
                                         + ErrorComponent.somethingWentWrongMsg, content = {
                                                         @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
+                                        }),
+                        @ApiResponse(responseCode = "503", description = "errorCode:"
+                                        + ErrorComponent.SERVICE_UNAVAILABLE_ERROR_CODE + " errorMessage:"
+                                        + ErrorComponent.serviceUnavailableMsg, content = {
+                                                        @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorBody.class))
                                         })
         })
         @PostMapping
         @ResponseStatus(HttpStatus.CREATED)
         public CompletableFuture<SavedOrder> placeOrder(
-                        @RequestBody OrderRequest orderRequest)
+                        @RequestBody OrderRequest orderRequest,
+                        @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey)
                         throws BadRequestException, InternalServerException, InventoryNotInStockException {
                 log.info("POST:/api/order");
                 if (orderRequest == null
@@ -67,6 +82,6 @@ public class OrderController {
                         log.debug("Bad request: Invalid order request received. Order request: {}", orderRequest);
                         throw new BadRequestException();
                 }
-                return orderService.placeOrder(orderRequest);
+                return orderService.placeOrder(orderRequest, idempotencyKey);
         }
 }
@@ -1,13 +1,16 @@
 package com.orderproduct.orderservice.controller;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
-
-import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import java.util.stream.Collectors;
 
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.ContextValue;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
@@ -35,7 +38,9 @@ public class OrderGraphQLController {
     }
 
     @MutationMapping
-    public CompletableFuture<SavedOrder> placeOrder(@Argument PlaceOrderInput input) {
+    public CompletableFuture<SavedOrder> placeOrder(@Argument PlaceOrderInput input,
+            @ContextValue(name = IdempotencyKeyGraphQlInterceptor.IDEMPOTENCY_KEY_CONTEXT_KEY, required = false)
+            String idempotencyKey) {
         log.info("GraphQL mutation: placeOrder");
         if (input == null || input.orderLineItems() == null || input.orderLineItems().isEmpty()) {
             throw new BadRequestException();
@@ -44,15 +49,21 @@ public class OrderGraphQLController {
                 input.orderLineItems().stream()
                         .map(item -> new OrderLineItemsDto(item.skuCode(), item.price(), item.quantity()))
                         .toList());
-        return orderService.placeOrder(orderRequest);
+        return orderService.placeOrder(orderRequest, idempotencyKey);
     }
 
     // Resolves lineItems on PlacedOrder — Spring calls this only when lineItems is in the query.
-    // The source SavedOrder carries the orderNumber needed to load the line items from the DB.
-    @SchemaMapping(typeName = "PlacedOrder", field = "lineItems")
-    public List<SavedOrderLineItem> lineItems(SavedOrder savedOrder) {
-        log.info("Resolving lineItems for order: {}", savedOrder.orderNumber());
-        return orderService.getLineItemsByOrderNumber(savedOrder.orderNumber());
+    // Batched through a DataLoader: every PlacedOrder in the response is resolved with one query.
+    @BatchMapping(typeName = "PlacedOrder", field = "lineItems")
+    public Map<SavedOrder, List<SavedOrderLineItem>> lineItems(List<SavedOrder> savedOrders) {
+        log.info("Resolving lineItems for {} orders", savedOrders.size());
+        Map<String, List<SavedOrderLineItem>> lineItemsByOrderNumber = orderService.getLineItemsByOrderNumbers(
+                savedOrders.stream().map(SavedOrder::orderNumber).collect(Collectors.toSet()));
+        Map<SavedOrder, List<SavedOrderLineItem>> result = new LinkedHashMap<>();
+        for (SavedOrder savedOrder : savedOrders) {
+            result.put(savedOrder, lineItemsByOrderNumber.getOrDefault(savedOrder.orderNumber(), List.of()));
+        }
+        return result;
     }
 
     // Federation: the router calls _service { sdl } at startup to discover this subgraph's schema.
@@ -62,29 +73,33 @@ public class OrderGraphQLController {
     }
 
     // Federation: the router calls _entities with a list of representations (e.g. [{__typename:"PlacedOrder", orderNumber:"ORD-001"}])
-    // to hydrate order stubs referenced by other subgraphs. We resolve each by its key field.
-    @SuppressWarnings("unchecked")
+    // to hydrate order stubs referenced by other subgraphs. All PlacedOrder keys are resolved with one query;
+    // results keep the order of the representations, with null for unknown types and missing orders.
     @QueryMapping(name = "_entities")
     public List<Object> entities(DataFetchingEnvironment env) {
         List<Map<String, Object>> representations = env.getArgument("representations");
         if (representations == null) return List.of();
         log.info("GraphQL query: _entities — resolving {} representations", representations.size());
+        List<String> orderNumbers = representations.stream()
+                .map(this::placedOrderNumber)
+                .toList();
+        Map<String, SavedOrder> ordersByOrderNumber = orderService.getOrdersByOrderNumbers(
+                orderNumbers.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
         List<Object> results = new ArrayList<>(representations.size());
-        for (Map<String, Object> representation : representations) {
-            if ("PlacedOrder".equals(representation.get("__typename"))) {
-                String orderNumber = (String) representation.get("orderNumber");
-                if (orderNumber != null) {
-                    results.add(orderService.getOrderByOrderNumber(orderNumber).orElse(null));
-                } else {
-                    results.add(null);
-                }
-            } else {
-                results.add(null);
-            }
+        for (String orderNumber : orderNumbers) {
+            results.add(orderNumber == null ? null : ordersByOrderNumber.get(orderNumber));
         }
         return results;
     }
 
+    private String placedOrderNumber(Map<String, Object> representation) {
+        if ("PlacedOrder".equals(representation.get("__typename"))
+                && representation.get("orderNumber") instanceof String orderNumber) {
+            return orderNumber;
+        }
+        return null;
+    }
+
     // The SDL advertised to the router — read from schema.graphqls (the single source of truth).
     // Excludes federation built-ins (_entities, _service, _Entity, _Service, _Any) which live in
     // federation.graphqls and are loaded by Spring at runtime but must not be sent to the router.
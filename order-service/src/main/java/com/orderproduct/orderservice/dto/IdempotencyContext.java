@@ -0,0 +1,5 @@
+package com.orderproduct.orderservice.dto;
+
+public record IdempotencyContext(String key, String requestHash) {
+
+}
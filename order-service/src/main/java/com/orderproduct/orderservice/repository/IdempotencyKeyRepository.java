@@ -0,0 +1,22 @@
+package com.orderproduct.orderservice.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.orderproduct.orderservice.entity.IdempotencyKey;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    /**
+     * Deletes at most {@code limit} keys created before {@code createdBefore},
+     * oldest first.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_key WHERE created_at < :createdBefore ORDER BY created_at LIMIT :limit",
+            nativeQuery = true)
+    int deleteCreatedBefore(@Param("createdBefore") long createdBefore, @Param("limit") int limit);
+}
@@ -1,6 +1,7 @@
 package com.orderproduct.orderservice.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -10,8 +11,8 @@ import com.orderproduct.orderservice.entity.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
-    Optional<Order> findByOrderNumber(String orderNumber);
+    List<Order> findByOrderNumberIn(Collection<String> orderNumbers);
 
-    @Query("SELECT o FROM Order o JOIN FETCH o.orderLineItemsList WHERE o.orderNumber = :orderNumber")
-    Optional<Order> findByOrderNumberWithLineItems(@Param("orderNumber") String orderNumber);
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderLineItemsList WHERE o.orderNumber IN :orderNumbers")
+    List<Order> findByOrderNumberInWithLineItems(@Param("orderNumbers") Collection<String> orderNumbers);
 }
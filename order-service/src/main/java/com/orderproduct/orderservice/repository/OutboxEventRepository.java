@@ -1,10 +1,60 @@
 package com.orderproduct.orderservice.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.orderproduct.orderservice.entity.OutboxEvent;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Locks the oldest unprocessed events. Rows already locked by another relay
+     * instance are skipped ({@code FOR UPDATE SKIP LOCKED}) instead of waited on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OutboxEvent o WHERE o.processedAt IS NULL ORDER BY o.id")
+    List<OutboxEvent> claimUnprocessed(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.processedAt = :processedAt WHERE o.id IN :ids")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("processedAt") Long processedAt);
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o WHERE o.processedAt IS NULL")
+    Optional<Long> findOldestUnprocessedCreatedAt();
+
+    /**
+     * Deletes at most {@code limit} events created before {@code createdBefore},
+     * oldest first. Unprocessed events are only deleted when
+     * {@code includeUnprocessed} is set, e.g. when Debezium relays the events and
+     * never sets {@code processedat}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event WHERE createdat < :createdBefore "
+            + "AND (processedat IS NOT NULL OR :includeUnprocessed) ORDER BY id LIMIT :limit", nativeQuery = true)
+    int deleteCreatedBefore(@Param("createdBefore") long createdBefore,
+            @Param("includeUnprocessed") boolean includeUnprocessed,
+            @Param("limit") int limit);
+
+    // Estimates from InnoDB statistics; MySQL caches them for information_schema_stats_expiry seconds
+    @Query(value = "SELECT COALESCE(table_rows, 0) FROM information_schema.tables "
+            + "WHERE table_schema = DATABASE() AND table_name = 'outbox_event'", nativeQuery = true)
+    Optional<Long> estimateRowCount();
+
+    @Query(value = "SELECT COALESCE(data_length + index_length, 0) FROM information_schema.tables "
+            + "WHERE table_schema = DATABASE() AND table_name = 'outbox_event'", nativeQuery = true)
+    Optional<Long> estimateSizeInBytes();
+}
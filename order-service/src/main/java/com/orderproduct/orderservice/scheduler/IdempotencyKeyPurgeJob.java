@@ -0,0 +1,64 @@
+package com.orderproduct.orderservice.scheduler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.service.OrderIdempotencyService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes {@code idempotency_key} rows older than {@code order.idempotency.ttl},
+ * one chunk per transaction.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyPurgeJob {
+
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Counter purgedCounter;
+
+    public IdempotencyKeyPurgeJob(OrderIdempotencyService orderIdempotencyService,
+            MeterRegistry meterRegistry,
+            @Value("${order.idempotency.purge.chunk-size:1000}") int chunkSize,
+            @Value("${order.idempotency.purge.max-chunks-per-run:100}") int maxChunksPerRun) {
+        this.orderIdempotencyService = orderIdempotencyService;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.purgedCounter = Counter.builder("order.idempotency.purge.deleted")
+                .description("Expired idempotency keys deleted by the purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${order.idempotency.purge.interval:PT1H}",
+            fixedDelayString = "${order.idempotency.purge.interval:PT1H}")
+    public void purge() {
+        try {
+            int purged = purgeExpiredKeys();
+            if (purged > 0) {
+                log.info("Purged {} expired idempotency keys", purged);
+            }
+        } catch (InternalServerException e) {
+            log.error("Idempotency key purge failed, will retry on the next run");
+        }
+    }
+
+    int purgeExpiredKeys() throws InternalServerException {
+        int purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int chunkPurged = orderIdempotencyService.purgeExpiredChunk(chunkSize);
+            purged += chunkPurged;
+            purgedCounter.increment(chunkPurged);
+            if (chunkPurged < chunkSize) {
+                break;
+            }
+        }
+        return purged;
+    }
+}
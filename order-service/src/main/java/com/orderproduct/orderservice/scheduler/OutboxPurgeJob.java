@@ -0,0 +1,124 @@
+package com.orderproduct.orderservice.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.service.OrderDataGenerator;
+import com.orderproduct.orderservice.service.OutboxRetentionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes {@code outbox_event} rows older than
+ * {@code order.outbox.retention.period}.
+ * <p>
+ * When the in-process relay is enabled only processed events are deleted.
+ * Otherwise Debezium relays the events and never sets {@code processedat}, so
+ * events are deleted by age alone; keep the retention period well above the
+ * connector's worst expected lag.
+ * <p>
+ * Chunks are deleted one transaction at a time with a pause in between, and a
+ * run stops after {@code max-chunks-per-run} chunks, which keeps replication
+ * lag down while a large backlog is worked off over several runs.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "order.outbox.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPurgeJob {
+
+    private final OutboxRetentionService outboxRetentionService;
+    private final OrderDataGenerator orderDataGenerator;
+    private final Duration retentionPeriod;
+    private final boolean includeUnprocessed;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration pauseBetweenChunks;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
+    private final AtomicLong tableRows = new AtomicLong();
+    private final AtomicLong tableBytes = new AtomicLong();
+
+    public OutboxPurgeJob(OutboxRetentionService outboxRetentionService,
+            OrderDataGenerator orderDataGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${order.outbox.retention.period:P7D}") Duration retentionPeriod,
+            @Value("${order.outbox.relay.enabled:false}") boolean relayEnabled,
+            @Value("${order.outbox.retention.chunk-size:1000}") int chunkSize,
+            @Value("${order.outbox.retention.max-chunks-per-run:100}") int maxChunksPerRun,
+            @Value("${order.outbox.retention.pause-between-chunks:PT0.2S}") Duration pauseBetweenChunks) {
+        this.outboxRetentionService = outboxRetentionService;
+        this.orderDataGenerator = orderDataGenerator;
+        this.retentionPeriod = retentionPeriod;
+        this.includeUnprocessed = !relayEnabled;
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pauseBetweenChunks = pauseBetweenChunks;
+        this.purgedCounter = Counter.builder("order.outbox.purge.deleted")
+                .description("Outbox events deleted by the retention purge")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("order.outbox.purge.run")
+                .description("Duration of one outbox retention purge run")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.table.rows", tableRows, AtomicLong::get)
+                .description("Estimated rows in outbox_event after the last purge run")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.table.size", tableBytes, AtomicLong::get)
+                .description("Estimated data and index size of outbox_event after the last purge run")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${order.outbox.retention.interval:PT1H}",
+            fixedDelayString = "${order.outbox.retention.interval:PT1H}")
+    public void purge() {
+        Timer.Sample sample = Timer.start();
+        try {
+            int purged = purgeExpiredEvents();
+            if (purged > 0) {
+                log.info("Purged {} outbox events older than {}", purged, retentionPeriod);
+            }
+        } catch (InternalServerException e) {
+            log.error("Outbox purge failed, will retry on the next run");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Outbox purge interrupted");
+        } finally {
+            sample.stop(purgeTimer);
+        }
+        updateTableSize();
+    }
+
+    int purgeExpiredEvents() throws InternalServerException, InterruptedException {
+        long createdBefore = orderDataGenerator.getCurrentTimestamp() - retentionPeriod.toMillis();
+        int purged = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            int chunkPurged = outboxRetentionService.purgeChunk(createdBefore, includeUnprocessed, chunkSize);
+            purged += chunkPurged;
+            purgedCounter.increment(chunkPurged);
+            if (chunkPurged < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseBetweenChunks.toMillis());
+        }
+        return purged;
+    }
+
+    private void updateTableSize() {
+        try {
+            tableRows.set(outboxRetentionService.estimateRowCount());
+            tableBytes.set(outboxRetentionService.estimateSizeInBytes());
+        } catch (Exception e) {
+            log.warn("Could not read outbox_event table size. Error: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.orderproduct.orderservice.scheduler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.entity.OutboxEvent;
+import com.orderproduct.orderservice.service.OrderDataGenerator;
+import com.orderproduct.orderservice.service.OutboxRelayService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Polls {@code outbox_event} and relays unprocessed rows to Kafka when
+ * {@code order.outbox.relay.enabled=true}. Use it instead of the Debezium
+ * outbox connector, not alongside it, or every event is published twice.
+ * <p>
+ * Each batch is its own transaction, and a run stops after
+ * {@code max-batches-per-run} full batches so the scheduler thread is released
+ * regularly. Batches claim rows with SKIP LOCKED, so several instances can
+ * relay at the same time.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelayJob {
+
+    private final OutboxRelayService outboxRelayService;
+    private final OrderDataGenerator orderDataGenerator;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter publishedCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer relayLagTimer;
+    private final AtomicLong pendingAgeMillis = new AtomicLong();
+
+    public OutboxRelayJob(OutboxRelayService outboxRelayService,
+            OrderDataGenerator orderDataGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${order.outbox.relay.batch-size:100}") int batchSize,
+            @Value("${order.outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.outboxRelayService = outboxRelayService;
+        this.orderDataGenerator = orderDataGenerator;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.publishedCounter = Counter.builder("order.outbox.relay.published")
+                .description("Outbox events published to Kafka by the relay")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("order.outbox.relay.batch.size")
+                .description("Outbox events published per relay batch")
+                .register(meterRegistry);
+        this.relayLagTimer = Timer.builder("order.outbox.relay.lag")
+                .description("Time from an outbox event being written to it being published")
+                .register(meterRegistry);
+        Gauge.builder("order.outbox.relay.pending.age", pendingAgeMillis, AtomicLong::get)
+                .description("Age of the oldest unprocessed outbox event after the last relay run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay.interval:PT1S}")
+    public void relay() {
+        try {
+            int published = relayPendingEvents();
+            if (published > 0) {
+                log.debug("Relayed {} outbox events", published);
+            }
+        } catch (InternalServerException e) {
+            log.error("Outbox relay run failed, will retry on the next run");
+        }
+        updatePendingAge();
+    }
+
+    int relayPendingEvents() throws InternalServerException {
+        int published = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<OutboxEvent> events = outboxRelayService.relayBatch(batchSize);
+            record(events);
+            published += events.size();
+            if (events.size() < batchSize) {
+                break;
+            }
+        }
+        return published;
+    }
+
+    private void record(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        publishedCounter.increment(events.size());
+        batchSizeSummary.record(events.size());
+        for (OutboxEvent event : events) {
+            long lagMillis = Math.max(event.getProcessedAt() - event.getCreatedAt(), 0);
+            relayLagTimer.record(lagMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void updatePendingAge() {
+        try {
+            long now = orderDataGenerator.getCurrentTimestamp();
+            pendingAgeMillis.set(outboxRelayService.oldestUnprocessedCreatedAt()
+                    .map(createdAt -> Math.max(now - createdAt, 0))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Could not read the oldest unprocessed outbox event. Error: {}", e.getMessage());
+        }
+    }
+}
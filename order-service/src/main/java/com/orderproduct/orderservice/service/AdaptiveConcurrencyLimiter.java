@@ -0,0 +1,201 @@
+package com.orderproduct.orderservice.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caps the number of inventory reservation calls in flight at a limit that
+ * follows the observed latency.
+ * <p>
+ * Calls beyond the limit fail at once with {@link ServiceUnavailableException}
+ * instead of queueing up in front of a slow inventory-service. The limit is
+ * adjusted after every call, gradient style:
+ * <ul>
+ * <li>A long-term average of the round trip time is the baseline. When the
+ * recent average rises above {@code rttTolerance} times the baseline, the
+ * limit shrinks in proportion (at most halving); otherwise it grows by about
+ * its square root. Changes are smoothed by {@code smoothing}.</li>
+ * <li>A call that failed with {@link InternalServerException} or timed out
+ * multiplies the limit by {@code backoffRatio}.</li>
+ * <li>The limit only grows while at least half of it is in use, so an idle
+ * client does not talk itself into a limit it never tested.</li>
+ * </ul>
+ * The limit stays between {@code minLimit} and {@code maxLimit}.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "inventory.reservation.limiter";
+    private static final int SHORT_RTT_WINDOW = 10;
+    private static final int LONG_RTT_WINDOW = 600;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double backoffRatio;
+    private final double smoothing;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    // Written under the lock, read without it
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+            double backoffRatio, double smoothing) {
+        this(initialLimit, minLimit, maxLimit, rttTolerance, backoffRatio, smoothing, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+            double backoffRatio, double smoothing, @NonNull LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+        }
+        if (rttTolerance < 1.0) {
+            throw new IllegalArgumentException("rttTolerance must be at least 1.0");
+        }
+        if (backoffRatio <= 0.0 || backoffRatio >= 1.0) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        if (smoothing <= 0.0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("smoothing must be greater than 0 and at most 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.smoothing = smoothing;
+        this.nanoClock = nanoClock;
+        log.info("Inventory reservation limiter configured - initialLimit: {}, minLimit: {}, maxLimit: {}, "
+                + "rttTolerance: {}, backoffRatio: {}, smoothing: {}", initialLimit, minLimit, maxLimit,
+                rttTolerance, backoffRatio, smoothing);
+    }
+
+    /**
+     * Starts {@code call} if a slot is free, otherwise returns a future failed
+     * with {@link ServiceUnavailableException}. The future returned by
+     * {@code call} is returned as is, so cancelling it still cancels the call.
+     */
+    @NonNull
+    public <T> CompletableFuture<T> execute(@NonNull Supplier<CompletableFuture<T>> call) {
+        if (!tryAcquire()) {
+            rejected.incrementAndGet();
+            log.warn("Inventory reservation limiter rejected a call - limit: {}, inFlight: {}", getLimit(),
+                    inFlight.get());
+            return CompletableFuture.failedFuture(new ServiceUnavailableException());
+        }
+        long startedAt = nanoClock.getAsLong();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+        future.whenComplete((result, throwable) -> {
+            int inFlightBefore = inFlight.getAndDecrement();
+            onSample(nanoClock.getAsLong() - startedAt, isDrop(throwable), inFlightBefore);
+        });
+        return future;
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current limit of concurrent inventory reservation calls")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".inflight", inFlight, AtomicInteger::get)
+                .description("Inventory reservation calls in flight")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejected, AtomicLong::get)
+                .description("Inventory reservation calls rejected because the limit was reached")
+                .register(registry);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, boolean dropped, int inFlightBefore) {
+        double newLimit;
+        if (dropped) {
+            newLimit = limit * backoffRatio;
+        } else {
+            // A zero RTT (coarse clock, already completed future) would make the gradient 0/0.
+            rttNanos = Math.max(1, rttNanos);
+            samples++;
+            shortRttNanos = samples == 1 ? rttNanos
+                    : shortRttNanos + (rttNanos - shortRttNanos) / Math.min(samples, SHORT_RTT_WINDOW);
+            longRttNanos = samples == 1 ? rttNanos
+                    : longRttNanos + (rttNanos - longRttNanos) / Math.min(samples, LONG_RTT_WINDOW);
+            // Let the baseline recover quickly once inventory-service is fast again.
+            if (longRttNanos > 2 * shortRttNanos) {
+                longRttNanos *= 0.95;
+            }
+            if (inFlightBefore < limit / 2) {
+                return;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+            double target = limit * gradient + Math.sqrt(limit);
+            newLimit = limit * (1 - smoothing) + target * smoothing;
+        }
+        newLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        if ((int) newLimit != (int) limit) {
+            log.debug("Inventory reservation limit changed from {} to {}", (int) limit, (int) newLimit);
+        }
+        limit = newLimit;
+    }
+
+    private static boolean isDrop(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable instanceof InternalServerException
+                || throwable instanceof CancellationException
+                || throwable instanceof TimeoutException;
+    }
+}
@@ -0,0 +1,183 @@
+package com.orderproduct.orderservice.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.orderproduct.inventoryservice.grpc.OrderReservationResult;
+import com.orderproduct.inventoryservice.grpc.ReservationServiceGrpc;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsBatchRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsBatchResponse;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsResponse;
+
+import io.grpc.Status;
+import io.grpc.protobuf.StatusProto;
+import jakarta.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gathers concurrent reservations into {@code ReserveProductsBatch} calls.
+ * <p>
+ * The first request after a quiet period opens a window of {@code window}; the
+ * batch is sent when the window closes or as soon as it holds
+ * {@code maxBatchSize} requests. Each request's future completes with its own
+ * {@link ReserveProductsResponse}, or fails with the
+ * {@link io.grpc.StatusRuntimeException} that {@code ReserveProducts} would have
+ * failed with, so {@link InventoryReservationGrpcClientService} maps errors the
+ * same way in both modes. If the batch call itself fails, every request in it
+ * fails with that error.
+ */
+@Slf4j
+public class InventoryReservationBatcher implements AutoCloseable {
+
+    private final ReservationServiceGrpc.ReservationServiceFutureStub reservationServiceFutureStub;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    @Nullable
+    private final Duration callDeadline;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("inventory-reservation-batcher").daemon(true).factory());
+
+    private final Object lock = new Object();
+    private List<PendingReservation> pending = new ArrayList<>();
+    // Bumped whenever a batch is taken, so a window timer never sends a later batch early
+    private long batchGeneration;
+
+    public InventoryReservationBatcher(
+            @NonNull ReservationServiceGrpc.ReservationServiceFutureStub reservationServiceFutureStub,
+            @NonNull Duration window, int maxBatchSize, @Nullable Duration callDeadline) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        }
+        this.reservationServiceFutureStub = reservationServiceFutureStub;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.callDeadline = callDeadline;
+        log.info("Inventory reservation batching configured - window: {}, maxBatchSize: {}", window, maxBatchSize);
+    }
+
+    @NonNull
+    public CompletableFuture<ReserveProductsResponse> submit(@NonNull ReserveProductsRequest request) {
+        PendingReservation pendingReservation = new PendingReservation(request, new CompletableFuture<>());
+        List<PendingReservation> fullBatch = null;
+        synchronized (lock) {
+            pending.add(pendingReservation);
+            if (pending.size() == 1) {
+                long generation = batchGeneration;
+                scheduler.schedule(() -> sendWhenWindowCloses(generation), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            }
+        }
+        if (fullBatch != null) {
+            send(fullBatch);
+        }
+        return pendingReservation.result();
+    }
+
+    private void sendWhenWindowCloses(long generation) {
+        List<PendingReservation> batch;
+        synchronized (lock) {
+            if (generation != batchGeneration || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    // Must hold lock
+    private List<PendingReservation> takePending() {
+        List<PendingReservation> batch = pending;
+        pending = new ArrayList<>();
+        batchGeneration++;
+        return batch;
+    }
+
+    private void send(List<PendingReservation> batch) {
+        ReserveProductsBatchRequest batchRequest = ReserveProductsBatchRequest.newBuilder()
+                .addAllOrders(batch.stream().map(PendingReservation::request).toList())
+                .build();
+
+        ListenableFuture<ReserveProductsBatchResponse> call;
+        try {
+            ReservationServiceGrpc.ReservationServiceFutureStub stub = callDeadline == null
+                    ? reservationServiceFutureStub
+                    : reservationServiceFutureStub.withDeadlineAfter(callDeadline.toMillis(), TimeUnit.MILLISECONDS);
+            call = stub.reserveProductsBatch(batchRequest);
+        } catch (Exception e) {
+            log.error("gRPC:ReserveProductsBatch - Unexpected error for {} orders: {}", batch.size(), e.getMessage());
+            batch.forEach(pendingReservation -> pendingReservation.result().completeExceptionally(e));
+            return;
+        }
+        log.debug("gRPC:ReserveProductsBatch - Sent {} orders", batch.size());
+
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(@Nullable ReserveProductsBatchResponse batchResponse) {
+                complete(batch, batchResponse);
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable t) {
+                log.error("gRPC:ReserveProductsBatch - Error for {} orders: {}", batch.size(), t.getMessage());
+                batch.forEach(pendingReservation -> pendingReservation.result().completeExceptionally(t));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void complete(List<PendingReservation> batch, @Nullable ReserveProductsBatchResponse batchResponse) {
+        if (batchResponse == null || batchResponse.getResultsCount() != batch.size()) {
+            log.error("gRPC:ReserveProductsBatch - Expected {} results but received {}", batch.size(),
+                    batchResponse == null ? null : batchResponse.getResultsCount());
+            batch.forEach(pendingReservation -> pendingReservation.result()
+                    .completeExceptionally(Status.INTERNAL.withDescription("Invalid batch response").asRuntimeException()));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<ReserveProductsResponse> result = batch.get(i).result();
+            OrderReservationResult orderResult = batchResponse.getResults(i);
+            if (orderResult.hasReserved()) {
+                result.complete(orderResult.getReserved());
+            } else if (orderResult.hasError()) {
+                result.completeExceptionally(StatusProto.toStatusRuntimeException(orderResult.getError()));
+            } else {
+                result.completeExceptionally(
+                        Status.INTERNAL.withDescription("No result for order").asRuntimeException());
+            }
+        }
+    }
+
+    /**
+     * Sends whatever is still waiting for its window, then stops the window
+     * timer.
+     */
+    @Override
+    public void close() {
+        List<PendingReservation> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        scheduler.shutdownNow();
+    }
+
+    private record PendingReservation(ReserveProductsRequest request,
+            CompletableFuture<ReserveProductsResponse> result) {
+    }
+}
@@ -1,10 +1,16 @@
 package com.orderproduct.orderservice.service;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.protobuf.Any;
 import com.google.rpc.ErrorInfo;
 import com.orderproduct.inventoryservice.grpc.ItemReservationRequest;
@@ -26,17 +32,54 @@ import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.protobuf.StatusProto;
+import io.grpc.stub.AbstractStub;
 import jakarta.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * gRPC implementation of {@link InventoryReservationService}.
+ * <p>
+ * When a {@link ReservationServiceGrpc.ReservationServiceFutureStub} is
+ * supplied, the call is issued asynchronously and the returned future is
+ * completed from the gRPC callback, so no thread is parked while
+ * inventory-service is working. Otherwise the blocking stub is invoked on the
+ * common pool. When {@code callDeadline} is set, every call (blocking or async)
+ * is given that deadline.
+ * <p>
+ * When an {@link InventoryReservationBatcher} is supplied, it takes precedence:
+ * concurrent calls are sent together as one {@code ReserveProductsBatch} RPC,
+ * and each order's result or error is mapped as for a single call.
+ * <p>
+ * When an {@link AdaptiveConcurrencyLimiter} is supplied, every call (including
+ * each retry) must get a slot from it first, whichever of the above is used.
+ * When a {@link ReservationHedger} is supplied, a slow call is sent once more;
+ * with a load-balanced channel the second call usually reaches another
+ * inventory-service instance.
+ */
 @Slf4j
 @AllArgsConstructor
 public class InventoryReservationGrpcClientService implements InventoryReservationService {
 
+    @NonNull
     private final ReservationServiceGrpc.ReservationServiceBlockingStub reservationServiceStub;
 
+    @Nullable
+    private final ReservationServiceGrpc.ReservationServiceFutureStub reservationServiceFutureStub;
+
+    @Nullable
+    private final Duration callDeadline;
+
+    @Nullable
+    private final InventoryReservationBatcher reservationBatcher;
+
+    @Nullable
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Nullable
+    private final ReservationHedger reservationHedger;
+
     @CircuitBreaker(name = "inventory", fallbackMethod = "onReserveOrderFailure")
     @TimeLimiter(name = "inventory")
     @Retry(name = "inventory")
@@ -49,10 +92,38 @@ public class InventoryReservationGrpcClientService implements InventoryReservati
 
         validateOrderReservationRequest(orderReservationRequest);
 
+        if (concurrencyLimiter != null) {
+            return concurrencyLimiter.execute(() -> sendReservationRequest(orderReservationRequest));
+        }
+        return sendReservationRequest(orderReservationRequest);
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> sendReservationRequest(
+            OrderReservationRequest orderReservationRequest) {
+        if (reservationHedger != null) {
+            return reservationHedger.execute(() -> sendReservationAttempt(orderReservationRequest));
+        }
+        return sendReservationAttempt(orderReservationRequest);
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> sendReservationAttempt(
+            OrderReservationRequest orderReservationRequest) {
+        if (reservationBatcher != null) {
+            return reserveOrderBatched(reservationBatcher, orderReservationRequest);
+        }
+        if (reservationServiceFutureStub != null) {
+            return reserveOrderAsync(reservationServiceFutureStub, orderReservationRequest);
+        }
+        return reserveOrderBlocking(orderReservationRequest);
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> reserveOrderBlocking(
+            OrderReservationRequest orderReservationRequest) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 ReserveProductsRequest grpcRequest = convertToGrpcRequest(orderReservationRequest);
-                ReserveProductsResponse grpcResponse = reservationServiceStub.reserveProducts(grpcRequest);
+                ReserveProductsResponse grpcResponse = withDeadline(reservationServiceStub)
+                        .reserveProducts(grpcRequest);
 
                 List<InventoryAvailabilityStatus> result = convertFromGrpcResponse(grpcResponse);
 
@@ -72,6 +143,90 @@ public class InventoryReservationGrpcClientService implements InventoryReservati
         });
     }
 
+    private CompletableFuture<List<InventoryAvailabilityStatus>> reserveOrderAsync(
+            ReservationServiceGrpc.ReservationServiceFutureStub futureStub,
+            OrderReservationRequest orderReservationRequest) {
+        String orderNumber = orderReservationRequest.orderNumber();
+        CompletableFuture<List<InventoryAvailabilityStatus>> result = new CompletableFuture<>();
+
+        ListenableFuture<ReserveProductsResponse> call;
+        try {
+            call = withDeadline(futureStub).reserveProducts(convertToGrpcRequest(orderReservationRequest));
+        } catch (Exception e) {
+            log.error("gRPC:ReserveOrder - Unexpected error for order: {}: {}", orderNumber, e.getMessage());
+            return CompletableFuture.failedFuture(new InternalServerException());
+        }
+
+        Futures.addCallback(call, new FutureCallback<>() {
+            @Override
+            public void onSuccess(@Nullable ReserveProductsResponse grpcResponse) {
+                completeWithResponse(result, grpcResponse, orderNumber);
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable t) {
+                completeWithFailure(result, t, orderNumber);
+            }
+        }, MoreExecutors.directExecutor());
+
+        // Cancel the RPC when the caller gives up, e.g. when the TimeLimiter fires.
+        result.whenComplete((statuses, throwable) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> reserveOrderBatched(
+            InventoryReservationBatcher batcher, OrderReservationRequest orderReservationRequest) {
+        String orderNumber = orderReservationRequest.orderNumber();
+        CompletableFuture<List<InventoryAvailabilityStatus>> result = new CompletableFuture<>();
+        batcher.submit(convertToGrpcRequest(orderReservationRequest)).whenComplete((grpcResponse, throwable) -> {
+            if (throwable == null) {
+                completeWithResponse(result, grpcResponse, orderNumber);
+            } else {
+                completeWithFailure(result, throwable, orderNumber);
+            }
+        });
+        return result;
+    }
+
+    private void completeWithResponse(CompletableFuture<List<InventoryAvailabilityStatus>> result,
+            @Nullable ReserveProductsResponse grpcResponse, String orderNumber) {
+        try {
+            List<InventoryAvailabilityStatus> statuses = convertFromGrpcResponse(grpcResponse);
+            log.info("gRPC:ReserveOrder - Successfully reserved {} items for order: {}",
+                    statuses.size(), orderNumber);
+            result.complete(statuses);
+        } catch (Exception e) {
+            // Mirrors the blocking path, where an invalid response ends up as an internal error.
+            log.error("gRPC:ReserveOrder - Unexpected error for order: {}: {}", orderNumber,
+                    e.getMessage());
+            result.completeExceptionally(new InternalServerException());
+        }
+    }
+
+    private void completeWithFailure(CompletableFuture<List<InventoryAvailabilityStatus>> result,
+            Throwable t, String orderNumber) {
+        if (result.isCancelled()) {
+            // The caller gave up on this call, e.g. the TimeLimiter fired or a hedged call answered first.
+            return;
+        }
+        if (t instanceof StatusRuntimeException e) {
+            log.error("gRPC:ReserveOrder - Error for order: {}: {}", orderNumber, e.getStatus());
+            result.completeExceptionally(handleGrpcException(e, orderNumber));
+        } else {
+            log.error("gRPC:ReserveOrder - Unexpected error for order: {}: {}", orderNumber,
+                    t.getMessage());
+            result.completeExceptionally(new InternalServerException());
+        }
+    }
+
+    private <S extends AbstractStub<S>> S withDeadline(S stub) {
+        return callDeadline == null ? stub : stub.withDeadlineAfter(callDeadline.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
     private void validateOrderReservationRequest(OrderReservationRequest orderReservationRequest) {
         if (orderReservationRequest.itemReservationRequests().isEmpty()) {
             log.warn("Attempted to reserve products with empty item reservation requests for order: {}",
@@ -25,11 +25,19 @@ import com.orderproduct.orderservice.dto.OrderReservationRequest;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import jakarta.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 
+/**
+ * HTTP implementation of {@link InventoryReservationService}. When an
+ * {@link AdaptiveConcurrencyLimiter} is supplied, every call (including each
+ * retry) must get a slot from it first. When a {@link ReservationHedger} is
+ * supplied, a slow call is sent once more through the load-balanced
+ * {@link WebClient}, usually to another inventory-service instance.
+ */
 @Slf4j
 @AllArgsConstructor
 public class InventoryReservationHttpService implements InventoryReservationService {
@@ -39,6 +47,12 @@ public class InventoryReservationHttpService implements InventoryReservationServ
     private final WebClient.Builder webClientBuilder;
     private final String inventoryApiBaseUrl;
 
+    @Nullable
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Nullable
+    private final ReservationHedger reservationHedger;
+
     private URI buildReservationsUri() {
         return UriComponentsBuilder.fromUriString(inventoryApiBaseUrl)
                 .pathSegment(RESERVATIONS_API_PATH)
@@ -73,6 +87,8 @@ public class InventoryReservationHttpService implements InventoryReservationServ
      * (4xx except 429 and 409), as well as for null/empty inventory responses and
      * 409 conflicts without the expected error code.</li>
      * <li>{@code InvalidInputException} is thrown for empty input.</li>
+     * <li>{@code ServiceUnavailableException} is returned without calling
+     * inventory-service when the concurrency limiter is full.</li>
      * <li>Only {@code InternalServerException} participates in circuit breaker and
      * retry logic. {@code InventoryNotInStockException},
      * {@code InvalidInventoryException} and
@@ -93,6 +109,22 @@ public class InventoryReservationHttpService implements InventoryReservationServ
             throws InternalServerException, InvalidInventoryException, InvalidInputException,
             InventoryNotInStockException {
         validateOrderReservationRequest(orderReservationRequest);
+        if (concurrencyLimiter != null) {
+            return concurrencyLimiter.execute(() -> sendReservationRequest(orderReservationRequest));
+        }
+        return sendReservationRequest(orderReservationRequest);
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> sendReservationRequest(
+            OrderReservationRequest orderReservationRequest) {
+        if (reservationHedger != null) {
+            return reservationHedger.execute(() -> postReservation(orderReservationRequest));
+        }
+        return postReservation(orderReservationRequest);
+    }
+
+    private CompletableFuture<List<InventoryAvailabilityStatus>> postReservation(
+            OrderReservationRequest orderReservationRequest) {
         return buildOrderReservationWebClient(orderReservationRequest)
                 .retrieve()
                 .onStatus(this::isServerError,
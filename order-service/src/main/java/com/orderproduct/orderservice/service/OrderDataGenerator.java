@@ -1,27 +1,27 @@
 package com.orderproduct.orderservice.service;
 
 import java.time.Instant;
-import java.util.UUID;
 
 import org.springframework.stereotype.Service;
 
+import lombok.AllArgsConstructor;
+
 @Service
+@AllArgsConstructor
 public class OrderDataGenerator {
 
+    private final OrderIdGenerator orderIdGenerator;
+
     public String getUniqueOrderNumber() {
-        return generateUniqueId();
+        return orderIdGenerator.nextId();
     }
 
     public String getUniqueOutboxEventId() {
-        return generateUniqueId();
+        return orderIdGenerator.nextId();
     }
 
     public Long getCurrentTimestamp() {
         return Instant.now().toEpochMilli();
     }
 
-    private String generateUniqueId() {
-        return UUID.randomUUID().toString();
-    }
-
 }
@@ -0,0 +1,116 @@
+package com.orderproduct.orderservice.service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates order numbers and outbox event IDs.
+ * <p>
+ * Order numbers key {@code orders.order_number}, the inventory reservation
+ * indexes and the Kafka messages, so time-ordered IDs keep their B-tree inserts
+ * at the right edge of the index instead of scattering them.
+ * <ul>
+ * <li>{@link Strategy#UUID_V4}: random UUIDs, as before.</li>
+ * <li>{@link Strategy#UUID_V7}: RFC 9562 version 7 UUIDs, a 48-bit millisecond
+ * timestamp followed by random bits, in the same 36-character format.</li>
+ * <li>{@link Strategy#TSID}: 64-bit time-sorted IDs (42-bit milliseconds since
+ * 2020, 10-bit node ID, 12-bit counter) written as 13 Crockford base32
+ * characters, so text order matches time order. Instances must use distinct
+ * node IDs.</li>
+ * </ul>
+ */
+@Slf4j
+public class OrderIdGenerator {
+
+    public enum Strategy {
+        UUID_V4,
+        UUID_V7,
+        TSID
+    }
+
+    static final int NODE_BITS = 10;
+    static final int COUNTER_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final long TSID_EPOCH_MILLIS = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+
+    private static final int MAX_COUNTER = (1 << COUNTER_BITS) - 1;
+    private static final char[] CROCKFORD_BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final Strategy strategy;
+    private final int nodeId;
+
+    private long lastTsidMillis = -1;
+    private int tsidCounter;
+
+    /**
+     * @param nodeId this instance's TSID node ID, {@code 0} to
+     *               {@value #MAX_NODE_ID}; ignored by the UUID strategies
+     */
+    public OrderIdGenerator(@NonNull Strategy strategy, int nodeId) {
+        if (strategy == Strategy.TSID && (nodeId < 0 || nodeId > MAX_NODE_ID)) {
+            throw new IllegalArgumentException("nodeId must be between 0 and " + MAX_NODE_ID);
+        }
+        this.strategy = strategy;
+        this.nodeId = nodeId;
+        log.info("Order ID generator configured - strategy: {}, nodeId: {}", strategy,
+                strategy == Strategy.TSID ? nodeId : "n/a");
+    }
+
+    @NonNull
+    public String nextId() {
+        return switch (strategy) {
+            case UUID_V4 -> UUID.randomUUID().toString();
+            case UUID_V7 -> nextUuidV7().toString();
+            case TSID -> encodeTsid(nextTsid());
+        };
+    }
+
+    private static UUID nextUuidV7() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (System.currentTimeMillis() << 16)
+                | 0x7000L
+                | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // Never goes backwards: a clock step back keeps counting from the last millisecond.
+    private synchronized long nextTsid() {
+        long millis = Math.max(System.currentTimeMillis() - TSID_EPOCH_MILLIS, lastTsidMillis);
+        if (millis == lastTsidMillis) {
+            if (tsidCounter == MAX_COUNTER) {
+                millis = waitForNextMillis(lastTsidMillis);
+                tsidCounter = 0;
+            } else {
+                tsidCounter++;
+            }
+        } else {
+            tsidCounter = 0;
+        }
+        lastTsidMillis = millis;
+        return (millis << (NODE_BITS + COUNTER_BITS)) | ((long) nodeId << COUNTER_BITS) | tsidCounter;
+    }
+
+    private static long waitForNextMillis(long lastMillis) {
+        long millis;
+        do {
+            Thread.onSpinWait();
+            millis = System.currentTimeMillis() - TSID_EPOCH_MILLIS;
+        } while (millis <= lastMillis);
+        return millis;
+    }
+
+    static String encodeTsid(long tsid) {
+        char[] chars = new char[13];
+        // The first character carries the top 4 bits, each following one 5 bits.
+        for (int i = chars.length - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD_BASE32[(int) (tsid & 0x1F)];
+            tsid >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,258 @@
+package com.orderproduct.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import com.orderproduct.orderservice.common.IdempotencyKeyReusedException;
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
+import com.orderproduct.orderservice.dto.OrderLineItemsDto;
+import com.orderproduct.orderservice.dto.OrderRequest;
+import com.orderproduct.orderservice.dto.SavedOrder;
+import com.orderproduct.orderservice.entity.IdempotencyKey;
+import com.orderproduct.orderservice.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Places at most one order per {@code Idempotency-Key}.
+ * <p>
+ * A replayed key is answered with the stored {@link SavedOrder}, without a call
+ * to inventory-service or a new order: first from a bounded in-memory cache of
+ * recent keys, then from the {@code idempotency_key} table, which
+ * {@link OrderTransactionService} writes in the same transaction as the order.
+ * Concurrent requests with the same key share the first request's result. A
+ * key reused with a different order request fails with
+ * {@link IdempotencyKeyReusedException}. Failed orders are not stored, so the
+ * client can retry them with the same key.
+ * <p>
+ * Keys expire after {@code order.idempotency.ttl}.
+ */
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final String METRIC_PREFIX = "order.idempotency";
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final OrderPlacementExecutor orderPlacementExecutor;
+    private final OrderDataGenerator orderDataGenerator;
+    private final long ttlMillis;
+    // Least recently used first; guarded by itself
+    private final Map<String, StoredOrder> recentOrders;
+    private final ConcurrentMap<String, InFlightOrder> inFlightOrders = new ConcurrentHashMap<>();
+
+    private final Counter cacheReplays;
+    private final Counter databaseReplays;
+    private final Counter coalescedRequests;
+
+    @Autowired
+    public OrderIdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+            OrderPlacementExecutor orderPlacementExecutor,
+            OrderDataGenerator orderDataGenerator,
+            MeterRegistry meterRegistry,
+            @Value("${order.idempotency.ttl:PT24H}") Duration ttl,
+            @Value("${order.idempotency.cache-size:10000}") int cacheSize) {
+        if (cacheSize < 1) {
+            throw new IllegalArgumentException("cacheSize must be at least 1");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.orderPlacementExecutor = orderPlacementExecutor;
+        this.orderDataGenerator = orderDataGenerator;
+        this.ttlMillis = ttl.toMillis();
+        this.recentOrders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredOrder> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.cacheReplays = Counter.builder(METRIC_PREFIX + ".replayed")
+                .tag("source", "cache")
+                .description("Replayed order requests answered with a stored order")
+                .register(meterRegistry);
+        this.databaseReplays = Counter.builder(METRIC_PREFIX + ".replayed")
+                .tag("source", "database")
+                .description("Replayed order requests answered with a stored order")
+                .register(meterRegistry);
+        this.coalescedRequests = Counter.builder(METRIC_PREFIX + ".coalesced")
+                .description("Order requests that waited for an in-flight request with the same key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the order already placed for {@code context.key()}, or waits for
+     * the in-flight request with that key, or places the order with
+     * {@code placeOrder}, which must store {@code context} with the order.
+     */
+    @NonNull
+    public CompletableFuture<SavedOrder> placeOnce(@NonNull IdempotencyContext context,
+            @NonNull Supplier<CompletableFuture<SavedOrder>> placeOrder) {
+        StoredOrder recentOrder = getRecentOrder(context.key());
+        if (recentOrder != null) {
+            cacheReplays.increment();
+            return replay(recentOrder, context);
+        }
+
+        InFlightOrder inFlightOrder = new InFlightOrder(context.requestHash(), new CompletableFuture<>());
+        InFlightOrder existing = inFlightOrders.putIfAbsent(context.key(), inFlightOrder);
+        if (existing != null) {
+            if (!existing.requestHash().equals(context.requestHash())) {
+                return CompletableFuture.failedFuture(new IdempotencyKeyReusedException());
+            }
+            coalescedRequests.increment();
+            return existing.result().copy();
+        }
+
+        CompletableFuture<SavedOrder> result;
+        try {
+            // The lookup blocks on MySQL, so it runs on the order placement executor like the save.
+            result = CompletableFuture.supplyAsync(() -> findStoredOrder(context.key()), orderPlacementExecutor)
+                    .thenCompose(storedOrder -> {
+                        if (storedOrder.isPresent()) {
+                            databaseReplays.increment();
+                            remember(context.key(), storedOrder.get());
+                            return replay(storedOrder.get(), context);
+                        }
+                        return placeOrder.get().thenApply(savedOrder -> {
+                            remember(context.key(), new StoredOrder(context.requestHash(), savedOrder,
+                                    orderDataGenerator.getCurrentTimestamp()));
+                            return savedOrder;
+                        });
+                    });
+        } catch (RejectedExecutionException e) {
+            log.warn("Order placement executor rejected idempotency lookup for key: {}", context.key());
+            result = CompletableFuture.failedFuture(new ServiceUnavailableException());
+        }
+        result.whenComplete((savedOrder, throwable) -> {
+            inFlightOrders.remove(context.key(), inFlightOrder);
+            if (throwable == null) {
+                inFlightOrder.result().complete(savedOrder);
+            } else {
+                inFlightOrder.result().completeExceptionally(
+                        throwable instanceof CompletionException && throwable.getCause() != null
+                                ? throwable.getCause()
+                                : throwable);
+            }
+        });
+        return inFlightOrder.result().copy();
+    }
+
+    /**
+     * Deletes at most {@code limit} expired keys.
+     *
+     * @return the number of keys deleted; fewer than {@code limit} means no
+     *         expired key is left
+     */
+    @Transactional
+    public int purgeExpiredChunk(int limit) throws InternalServerException {
+        long createdBefore = orderDataGenerator.getCurrentTimestamp() - ttlMillis;
+        try {
+            return idempotencyKeyRepository.deleteCreatedBefore(createdBefore, limit);
+        } catch (Exception e) {
+            log.error("Error purging idempotency keys created before {}. Error: {}", createdBefore, e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    /**
+     * SHA-256 of the line items, so a key can only be replayed with the same
+     * order request. Prices are compared by value, e.g. {@code 10} equals
+     * {@code 10.00}.
+     */
+    @NonNull
+    public static String requestHash(@NonNull OrderRequest orderRequest) {
+        StringBuilder canonical = new StringBuilder();
+        for (OrderLineItemsDto item : orderRequest.orderLineItemsList()) {
+            canonical.append(item.skuCode())
+                    .append('|')
+                    .append(item.price() == null ? "" : item.price().stripTrailingZeros().toPlainString())
+                    .append('|')
+                    .append(item.quantity())
+                    .append('\n');
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Optional<StoredOrder> findStoredOrder(String key) {
+        try {
+            Optional<IdempotencyKey> idempotencyKey = idempotencyKeyRepository.findById(key);
+            if (idempotencyKey.isPresent() && isExpired(idempotencyKey.get().getCreatedAt())) {
+                // Not purged yet; delete it so the new order can store the key again.
+                idempotencyKeyRepository.delete(idempotencyKey.get());
+                return Optional.empty();
+            }
+            return idempotencyKey.map(stored -> new StoredOrder(stored.getRequestHash(),
+                    new SavedOrder(stored.getOrderId() + "", stored.getOrderNumber()), stored.getCreatedAt()));
+        } catch (DataAccessException e) {
+            log.error("Error when looking up idempotency key: {}. Error: {}", key, e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    private CompletableFuture<SavedOrder> replay(StoredOrder storedOrder, IdempotencyContext context) {
+        if (!storedOrder.requestHash().equals(context.requestHash())) {
+            log.info("Idempotency key: {} reused for a different order request", context.key());
+            return CompletableFuture.failedFuture(new IdempotencyKeyReusedException());
+        }
+        log.info("Replaying order: {} for idempotency key: {}", storedOrder.savedOrder().orderNumber(), context.key());
+        return CompletableFuture.completedFuture(storedOrder.savedOrder());
+    }
+
+    @Nullable
+    private StoredOrder getRecentOrder(String key) {
+        synchronized (recentOrders) {
+            StoredOrder storedOrder = recentOrders.get(key);
+            if (storedOrder != null && isExpired(storedOrder.createdAt())) {
+                recentOrders.remove(key);
+                return null;
+            }
+            return storedOrder;
+        }
+    }
+
+    private void remember(String key, StoredOrder storedOrder) {
+        synchronized (recentOrders) {
+            recentOrders.put(key, storedOrder);
+        }
+    }
+
+    private boolean isExpired(long createdAt) {
+        return createdAt < orderDataGenerator.getCurrentTimestamp() - ttlMillis;
+    }
+
+    private record StoredOrder(String requestHash, SavedOrder savedOrder, long createdAt) {
+    }
+
+    private record InFlightOrder(String requestHash, CompletableFuture<SavedOrder> result) {
+    }
+}
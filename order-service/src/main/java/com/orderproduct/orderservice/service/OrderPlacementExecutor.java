@@ -0,0 +1,147 @@
+package com.orderproduct.orderservice.service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded executor for the blocking part of order placement (JPA + MySQL).
+ * <p>
+ * At most {@code maxConcurrency} tasks run at once, and at most
+ * {@code queueCapacity} further tasks wait for a slot. Anything beyond that is
+ * rejected with a {@link RejectedExecutionException}, which
+ * {@link OrderService} maps to a 503. {@code maxConcurrency} should not exceed
+ * the Hikari pool size, otherwise the extra threads only wait for a connection.
+ * <ul>
+ * <li>{@link Mode#PLATFORM}: a fixed pool of {@code maxConcurrency} platform
+ * threads.</li>
+ * <li>{@link Mode#VIRTUAL}: one virtual thread per task; a semaphore keeps the
+ * number of tasks touching the database at {@code maxConcurrency}.</li>
+ * </ul>
+ */
+@Slf4j
+public class OrderPlacementExecutor implements Executor, MeterBinder, AutoCloseable {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static final String METRIC_PREFIX = "order.placement.executor";
+
+    private final Mode mode;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final ExecutorService delegate;
+    private final Semaphore admissionPermits;
+    private final Semaphore runningPermits;
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicLong rejectedTasks = new AtomicLong();
+
+    public OrderPlacementExecutor(@NonNull Mode mode, int maxConcurrency, int queueCapacity) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queueCapacity cannot be negative");
+        }
+        this.mode = mode;
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.admissionPermits = new Semaphore(maxConcurrency + queueCapacity);
+        this.runningPermits = new Semaphore(maxConcurrency);
+        this.delegate = switch (mode) {
+            case PLATFORM -> Executors.newFixedThreadPool(maxConcurrency,
+                    Thread.ofPlatform().name("order-placement-", 0).daemon(true).factory());
+            case VIRTUAL -> Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("order-placement-", 0).factory());
+        };
+        log.info("Order placement executor configured - mode: {}, maxConcurrency: {}, queueCapacity: {}",
+                mode, maxConcurrency, queueCapacity);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) throws RejectedExecutionException {
+        if (!admissionPermits.tryAcquire()) {
+            rejectedTasks.incrementAndGet();
+            log.warn("Order placement executor saturated - active: {}, queued: {}", activeTasks.get(),
+                    queuedTasks.get());
+            throw new RejectedExecutionException("Order placement executor is saturated");
+        }
+        queuedTasks.incrementAndGet();
+        try {
+            delegate.execute(() -> runAdmitted(task));
+        } catch (RejectedExecutionException e) {
+            queuedTasks.decrementAndGet();
+            admissionPermits.release();
+            rejectedTasks.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private void runAdmitted(Runnable task) {
+        runningPermits.acquireUninterruptibly();
+        queuedTasks.decrementAndGet();
+        activeTasks.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            runningPermits.release();
+            admissionPermits.release();
+            activeTasks.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".active", activeTasks, AtomicInteger::get)
+                .description("Order placement tasks currently running")
+                .tag("mode", mode.name().toLowerCase())
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", queuedTasks, AtomicInteger::get)
+                .description("Order placement tasks waiting for a free slot")
+                .tag("mode", mode.name().toLowerCase())
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".max.concurrency", () -> maxConcurrency)
+                .description("Maximum number of concurrently running order placement tasks")
+                .tag("mode", mode.name().toLowerCase())
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queue.capacity", () -> queueCapacity)
+                .description("Maximum number of order placement tasks allowed to wait")
+                .tag("mode", mode.name().toLowerCase())
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejectedTasks, AtomicLong::get)
+                .description("Order placement tasks rejected because the executor was saturated")
+                .tag("mode", mode.name().toLowerCase())
+                .register(registry);
+    }
+
+    public int getActiveCount() {
+        return activeTasks.get();
+    }
+
+    public int getQueuedCount() {
+        return queuedTasks.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedTasks.get();
+    }
+
+    @Override
+    public void close() {
+        delegate.shutdown();
+    }
+}
@@ -1,17 +1,23 @@
 package com.orderproduct.orderservice.service;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import com.orderproduct.orderservice.common.BadRequestException;
 import com.orderproduct.orderservice.common.InternalServerException;
 import com.orderproduct.orderservice.common.InvalidInputException;
 import com.orderproduct.orderservice.common.InvalidInventoryException;
 import com.orderproduct.orderservice.common.InventoryNotInStockException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
 import com.orderproduct.orderservice.dto.InventoryAvailabilityStatus;
 import com.orderproduct.orderservice.dto.ItemReservationRequest;
 import com.orderproduct.orderservice.dto.OrderRequest;
@@ -19,6 +25,7 @@ import com.orderproduct.orderservice.dto.OrderReservationRequest;
 import com.orderproduct.orderservice.dto.ProductStub;
 import com.orderproduct.orderservice.dto.SavedOrder;
 import com.orderproduct.orderservice.dto.SavedOrderLineItem;
+import com.orderproduct.orderservice.entity.Order;
 import com.orderproduct.orderservice.repository.OrderRepository;
 
 import io.micrometer.observation.Observation;
@@ -37,18 +44,46 @@ public class OrderService {
     private final ObservationRegistry observationRegistry;
     private final OrderDataGenerator orderDataGenerator;
     private final OrderRepository orderRepository;
+    private final OrderPlacementExecutor orderPlacementExecutor;
+    private final OrderIdempotencyService orderIdempotencyService;
 
     @NonNull
     public CompletableFuture<SavedOrder> placeOrder(
             @NonNull OrderRequest orderRequest) throws InternalServerException, InventoryNotInStockException {
+        return placeNewOrder(orderRequest, null);
+    }
+
+    /**
+     * Places the order at most once per {@code idempotencyKey}; a replay returns
+     * the order placed by the first request. Without a key this is
+     * {@link #placeOrder(OrderRequest)}.
+     */
+    @NonNull
+    public CompletableFuture<SavedOrder> placeOrder(
+            @NonNull OrderRequest orderRequest, @Nullable String idempotencyKey)
+            throws BadRequestException, InternalServerException, InventoryNotInStockException {
+        if (idempotencyKey == null) {
+            return placeOrder(orderRequest);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > OrderIdempotencyService.MAX_KEY_LENGTH) {
+            log.debug("Bad request: Invalid Idempotency-Key of length {}", idempotencyKey.length());
+            throw new BadRequestException();
+        }
+        IdempotencyContext idempotencyContext = new IdempotencyContext(idempotencyKey,
+                OrderIdempotencyService.requestHash(orderRequest));
+        return orderIdempotencyService.placeOnce(idempotencyContext,
+                () -> placeNewOrder(orderRequest, idempotencyContext));
+    }
+
+    private CompletableFuture<SavedOrder> placeNewOrder(OrderRequest orderRequest,
+                                                        @Nullable IdempotencyContext idempotencyContext) {
         String orderNumber = orderDataGenerator.getUniqueOrderNumber();
         return attemptProductReservation(orderNumber, orderRequest).thenCompose(reservationFailed -> {
             if (reservationFailed) {
                 log.info("Inventory not in stock for order request: {}", orderRequest);
                 return CompletableFuture.failedFuture(new InventoryNotInStockException());
             }
-            return CompletableFuture
-                    .supplyAsync(() -> orderTransactionService.saveOrder(orderNumber, orderRequest))
+            return saveOrderAsync(orderNumber, orderRequest, idempotencyContext)
                     .whenComplete((result, throwable) -> {
                         if (throwable != null) {
                             log.error("Order save failed for order: {}", orderNumber, throwable);
@@ -62,6 +97,21 @@ public class OrderService {
         });
     }
 
+    // The blocking JPA save runs on the dedicated order placement executor, never on the common pool.
+    // When that executor is saturated, the order is shed with a 503; the caller still emits the
+    // cancelled event so the reservation made above is released.
+    private CompletableFuture<SavedOrder> saveOrderAsync(String orderNumber, OrderRequest orderRequest,
+                                                         @Nullable IdempotencyContext idempotencyContext) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> orderTransactionService.saveOrder(orderNumber, orderRequest, idempotencyContext),
+                    orderPlacementExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Order placement executor rejected order: {}", orderNumber);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException());
+        }
+    }
+
     private CompletableFuture<Boolean> attemptProductReservation(
             @NonNull String orderNumber,
             @NonNull OrderRequest orderRequest)
@@ -124,29 +174,40 @@ public class OrderService {
                 .orElse(null);
     }
 
-    @Nullable
-    public Optional<SavedOrder> getOrderByOrderNumber(@NonNull String orderNumber) {
+    // Resolves many orders with one query, e.g. for a batch of federation representations.
+    // Order numbers that do not exist are absent from the returned map.
+    @NonNull
+    public Map<String, SavedOrder> getOrdersByOrderNumbers(@NonNull Collection<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Map.of();
+        }
         try {
-            return orderRepository.findByOrderNumber(orderNumber)
-                    .map(order -> new SavedOrder(order.getId() + "", order.getOrderNumber()));
+            return orderRepository.findByOrderNumberIn(orderNumbers).stream()
+                    .collect(Collectors.toMap(Order::getOrderNumber,
+                            order -> new SavedOrder(order.getId() + "", order.getOrderNumber())));
         } catch (DataAccessException e) {
-            log.error("Error when getting order by orderNumber {}: {}", orderNumber, e.getMessage());
+            log.error("Error when getting orders by {} orderNumbers: {}", orderNumbers.size(), e.getMessage());
             throw new InternalServerException();
         }
     }
 
+    // Loads the line items of many orders with one query. Order numbers that do not exist are absent
+    // from the returned map; orders without line items map to an empty list.
     @NonNull
-    public List<SavedOrderLineItem> getLineItemsByOrderNumber(@NonNull String orderNumber) {
+    public Map<String, List<SavedOrderLineItem>> getLineItemsByOrderNumbers(@NonNull Collection<String> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Map.of();
+        }
         try {
-            return orderRepository.findByOrderNumberWithLineItems(orderNumber)
-                    .map(order -> order.getOrderLineItemsList().stream()
-                            .map(item -> new SavedOrderLineItem(
-                                    item.getSkuCode(), item.getPrice(), item.getQuantity(),
-                                    new ProductStub(item.getSkuCode())))
-                            .toList())
-                    .orElse(List.of());
+            return orderRepository.findByOrderNumberInWithLineItems(orderNumbers).stream()
+                    .collect(Collectors.toMap(Order::getOrderNumber,
+                            order -> order.getOrderLineItemsList().stream()
+                                    .map(item -> new SavedOrderLineItem(
+                                            item.getSkuCode(), item.getPrice(), item.getQuantity(),
+                                            new ProductStub(item.getSkuCode())))
+                                    .toList()));
         } catch (DataAccessException e) {
-            log.error("Error when getting line items for orderNumber {}: {}", orderNumber, e.getMessage());
+            log.error("Error when getting line items for {} orderNumbers: {}", orderNumbers.size(), e.getMessage());
             throw new InternalServerException();
         }
     }
@@ -2,18 +2,22 @@ package com.orderproduct.orderservice.service;
 
 import java.util.List;
 
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
 import com.orderproduct.orderservice.dto.OrderLineItemsDto;
 import com.orderproduct.orderservice.dto.OrderRequest;
 import com.orderproduct.orderservice.dto.ReservationState;
 import com.orderproduct.orderservice.dto.SavedOrder;
+import com.orderproduct.orderservice.entity.IdempotencyKey;
 import com.orderproduct.orderservice.entity.Order;
 import com.orderproduct.orderservice.entity.OrderLineItems;
 import com.orderproduct.orderservice.entity.OutboxEvent;
 import com.orderproduct.orderservice.event.OrderStatusChangedEvent;
+import com.orderproduct.orderservice.repository.IdempotencyKeyRepository;
 import com.orderproduct.orderservice.repository.OrderRepository;
 import com.orderproduct.orderservice.repository.OutboxEventRepository;
 
@@ -30,16 +34,24 @@ class OrderTransactionService {
     private final OrderDataGenerator orderDataGenerator;
     private final OrderRepository orderRepository;
     private final OutboxEventRepository outboxEventRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
     private final ObjectMapper objectMapper;
 
-    // TODO: Implement thread pool for order placement.
-
+    /**
+     * Saves the order and its outbox event and, when the request carried an
+     * {@code Idempotency-Key}, the key, all in one transaction.
+     */
     @Transactional
-    SavedOrder saveOrder(@NonNull String orderNumber, @NonNull OrderRequest orderRequest)
+    SavedOrder saveOrder(@NonNull String orderNumber, @NonNull OrderRequest orderRequest,
+                         @Nullable IdempotencyContext idempotencyContext)
             throws InternalServerException {
         Order order = buildOrder(orderNumber, orderRequest);
         SavedOrder savedOrder = persistOrder(order);
         saveOrderPlacedEventToOutbox(savedOrder);
+        if (idempotencyContext != null) {
+            saveIdempotencyKey(idempotencyContext, savedOrder);
+        }
+        flush(orderNumber);
         return savedOrder;
     }
 
@@ -75,6 +87,34 @@ class OrderTransactionService {
         }
     }
 
+    // IDs come from the pooled table generator, so nothing is inserted until here: the order, its line items and the
+    // outbox event go out together as JDBC batches, and insert failures still surface as InternalServerException.
+    private void flush(String orderNumber) throws InternalServerException {
+        try {
+            orderRepository.flush();
+        } catch (Exception e) {
+            log.error("Error flushing order with order number: {}. Error: {}", orderNumber, e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    private void saveIdempotencyKey(IdempotencyContext idempotencyContext, SavedOrder savedOrder)
+            throws InternalServerException {
+        try {
+            idempotencyKeyRepository.save(IdempotencyKey.builder()
+                    .idempotencyKey(idempotencyContext.key())
+                    .requestHash(idempotencyContext.requestHash())
+                    .orderId(Long.valueOf(savedOrder.orderId()))
+                    .orderNumber(savedOrder.orderNumber())
+                    .createdAt(orderDataGenerator.getCurrentTimestamp())
+                    .build());
+        } catch (Exception e) {
+            log.error("Error saving idempotency key for order: {}. Error: {}", savedOrder.orderNumber(),
+                    e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
     private void saveOrderPlacedEventToOutbox(SavedOrder savedOrder) throws InternalServerException {
         OrderStatusChangedEvent event = new OrderStatusChangedEvent(savedOrder.orderNumber(),
                 ReservationState.FULFILLED.name());
@@ -0,0 +1,148 @@
+package com.orderproduct.orderservice.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.entity.OutboxEvent;
+import com.orderproduct.orderservice.repository.OutboxEventRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes {@link OutboxEvent} rows to Kafka in-process, as an alternative to
+ * the Debezium outbox connector.
+ * <p>
+ * Records match what the connector's EventRouter produces: topic
+ * {@code outbox.event.<aggregatetype>}, key {@code aggregateid}, the payload in
+ * a Kafka Connect JSON envelope, and the {@code id}, {@code eventId},
+ * {@code eventType}, {@code aggregateType} and {@code aggregateId} headers.
+ * Delivery is at-least-once: a batch is only marked processed after Kafka has
+ * acknowledged every record in it.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "order.outbox.relay.enabled", havingValue = "true")
+public class OutboxRelayService {
+
+    static final String TOPIC_PREFIX = "outbox.event.";
+
+    // Schema Kafka Connect's JsonConverter writes for Debezium's JSON column type
+    private static final Map<String, Object> PAYLOAD_SCHEMA = Map.of(
+            "type", "string",
+            "optional", false,
+            "name", "io.debezium.data.Json",
+            "version", 1);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> outboxKafkaTemplate;
+    private final OrderDataGenerator orderDataGenerator;
+    private final ObjectMapper objectMapper;
+    private final Duration sendTimeout;
+
+    public OutboxRelayService(OutboxEventRepository outboxEventRepository,
+            @Qualifier("outboxKafkaTemplate") KafkaTemplate<String, String> outboxKafkaTemplate,
+            OrderDataGenerator orderDataGenerator,
+            ObjectMapper objectMapper,
+            @Value("${order.outbox.relay.send-timeout:PT10S}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxKafkaTemplate = outboxKafkaTemplate;
+        this.orderDataGenerator = orderDataGenerator;
+        this.objectMapper = objectMapper;
+        this.sendTimeout = sendTimeout;
+    }
+
+    /**
+     * Claims up to {@code batchSize} unprocessed events, publishes them and marks
+     * them processed, all while holding the row locks.
+     *
+     * @return the events that were published
+     * @throws InternalServerException if any record could not be published; the
+     *                                 batch is rolled back and retried later
+     */
+    @Transactional
+    public List<OutboxEvent> relayBatch(int batchSize) throws InternalServerException {
+        List<OutboxEvent> events = outboxEventRepository.claimUnprocessed(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return events;
+        }
+        log.debug("Relaying {} outbox events", events.size());
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            sends.add(outboxKafkaTemplate.send(toProducerRecord(event)));
+        }
+        awaitAll(sends, events.size());
+
+        Long processedAt = orderDataGenerator.getCurrentTimestamp();
+        outboxEventRepository.markProcessed(events.stream().map(OutboxEvent::getId).toList(), processedAt);
+        events.forEach(event -> event.setProcessedAt(processedAt));
+        log.debug("Relayed {} outbox events", events.size());
+        return events;
+    }
+
+    public Optional<Long> oldestUnprocessedCreatedAt() {
+        return outboxEventRepository.findOldestUnprocessedCreatedAt();
+    }
+
+    ProducerRecord<String, String> toProducerRecord(OutboxEvent event) throws InternalServerException {
+        ProducerRecord<String, String> record = new ProducerRecord<>(
+                TOPIC_PREFIX + event.getAggregateType(), event.getAggregateId(), toEnvelope(event));
+        addHeader(record, "id", String.valueOf(event.getId()));
+        addHeader(record, "eventId", event.getEventId());
+        addHeader(record, "eventType", event.getEventType());
+        addHeader(record, "aggregateType", event.getAggregateType());
+        addHeader(record, "aggregateId", event.getAggregateId());
+        return record;
+    }
+
+    private String toEnvelope(OutboxEvent event) throws InternalServerException {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("schema", PAYLOAD_SCHEMA);
+        envelope.put("payload", event.getPayload());
+        try {
+            return objectMapper.writeValueAsString(envelope);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing outbox event {}. Error: {}", event.getEventId(), e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    private void addHeader(ProducerRecord<String, String> record, String key, String value) {
+        record.headers().add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitAll(List<CompletableFuture<SendResult<String, String>>> sends, int batchSize)
+            throws InternalServerException {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while publishing {} outbox events", batchSize);
+            throw new InternalServerException();
+        } catch (Exception e) {
+            log.error("Error publishing {} outbox events. Error: {}", batchSize, e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+}
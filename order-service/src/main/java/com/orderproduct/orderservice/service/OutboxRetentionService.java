@@ -0,0 +1,47 @@
+package com.orderproduct.orderservice.service;
+
+import org.springframework.stereotype.Service;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.repository.OutboxEventRepository;
+
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deletes old {@code outbox_event} rows in small chunks, each in its own
+ * transaction, so a purge never holds long locks or writes one huge binlog
+ * event for replicas and the Debezium connector to catch up on.
+ */
+@Service
+@Slf4j
+@AllArgsConstructor
+public class OutboxRetentionService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    /**
+     * @return the number of events deleted; fewer than {@code limit} means
+     *         nothing older is left to purge
+     */
+    @Transactional
+    public int purgeChunk(long createdBefore, boolean includeUnprocessed, int limit) throws InternalServerException {
+        try {
+            int deleted = outboxEventRepository.deleteCreatedBefore(createdBefore, includeUnprocessed, limit);
+            log.debug("Purged {} outbox events created before {}", deleted, createdBefore);
+            return deleted;
+        } catch (Exception e) {
+            log.error("Error purging outbox events created before {}. Error: {}", createdBefore, e.getMessage());
+            throw new InternalServerException();
+        }
+    }
+
+    public long estimateRowCount() {
+        return outboxEventRepository.estimateRowCount().orElse(0L);
+    }
+
+    public long estimateSizeInBytes() {
+        return outboxEventRepository.estimateSizeInBytes().orElse(0L);
+    }
+}
@@ -0,0 +1,306 @@
+package com.orderproduct.orderservice.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hedges inventory reservation calls: when a call has not answered after the
+ * recent {@code percentile} latency, the same call is sent once more, and
+ * whichever answers first wins. The other one is cancelled.
+ * <p>
+ * Reservation is idempotent per order number (inventory-service updates the
+ * order's PENDING rows on a repeat), so both calls may reach inventory-service.
+ * With client-side load balancing the second call goes to the next instance,
+ * which sidesteps a replica that is slow at the moment.
+ * <ul>
+ * <li>The delay is the {@code percentile} of the last {@value #LATENCY_WINDOW}
+ * call latencies, and {@code initialDelay} until {@value #MIN_SAMPLES} have
+ * been seen. It is never below {@code minDelay}.</li>
+ * <li>Extra load is capped by a token budget: every call earns
+ * {@code budgetRatio} tokens, up to {@value #MAX_TOKENS}, and every hedge
+ * spends one. With {@code 0.05} at most about 5% of calls are hedged.</li>
+ * <li>An {@link InternalServerException} from one call waits for the other
+ * call if it is in flight, and fails at once otherwise. Any other answer,
+ * including a business error such as not enough stock, wins at once.</li>
+ * </ul>
+ */
+@Slf4j
+public class ReservationHedger implements MeterBinder, AutoCloseable {
+
+    static final int LATENCY_WINDOW = 1000;
+    static final int MIN_SAMPLES = 100;
+    static final double MAX_TOKENS = 10;
+
+    private static final String METRIC_PREFIX = "inventory.reservation.hedging";
+    private static final int DELAY_REFRESH_SAMPLES = 100;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final double budgetRatio;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+
+    // Guarded by this
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int nextLatency;
+    private long samplesSinceRefresh;
+    private double tokens;
+
+    private volatile long delayNanos;
+
+    public ReservationHedger(double percentile, @NonNull Duration initialDelay, @NonNull Duration minDelay,
+            double budgetRatio) {
+        this(percentile, initialDelay, minDelay, budgetRatio, System::nanoTime,
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("inventory-reservation-hedger").daemon(true).factory()));
+    }
+
+    ReservationHedger(double percentile, @NonNull Duration initialDelay, @NonNull Duration minDelay,
+            double budgetRatio, @NonNull LongSupplier nanoClock, @NonNull ScheduledExecutorService scheduler) {
+        if (percentile <= 0.0 || percentile >= 1.0) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        if (budgetRatio <= 0.0 || budgetRatio > 1.0) {
+            throw new IllegalArgumentException("budgetRatio must be greater than 0 and at most 1");
+        }
+        if (minDelay.isNegative() || initialDelay.compareTo(minDelay) < 0) {
+            throw new IllegalArgumentException("Delays must satisfy 0 <= minDelay <= initialDelay");
+        }
+        this.percentile = percentile;
+        this.minDelayNanos = minDelay.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.nanoClock = nanoClock;
+        this.scheduler = scheduler;
+        this.delayNanos = initialDelay.toNanos();
+        log.info("Inventory reservation hedging configured - percentile: {}, initialDelay: {}, minDelay: {}, "
+                + "budgetRatio: {}", percentile, initialDelay, minDelay, budgetRatio);
+    }
+
+    /**
+     * Starts {@code call}, and starts it once more if it has not answered
+     * after the hedging delay and the budget allows. Cancelling the returned
+     * future cancels both calls.
+     */
+    @NonNull
+    public <T> CompletableFuture<T> execute(@NonNull Supplier<CompletableFuture<T>> call) {
+        depositToken();
+        HedgedCall<T> hedgedCall = new HedgedCall<>(call);
+        hedgedCall.start();
+        return hedgedCall.result;
+    }
+
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    public long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    public long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.get();
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".delay", this, hedger -> hedger.delayNanos / 1e6)
+                .description("Current delay before an inventory reservation call is hedged")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".sent", hedgesSent, AtomicLong::get)
+                .description("Hedged inventory reservation calls sent")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".won", hedgesWon, AtomicLong::get)
+                .description("Hedged inventory reservation calls that answered first")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".budget.exhausted", budgetExhausted, AtomicLong::get)
+                .description("Inventory reservation calls not hedged because the hedging budget was spent")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized void depositToken() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    private synchronized boolean withdrawToken() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        latencies[nextLatency] = latencyNanos;
+        nextLatency = (nextLatency + 1) % LATENCY_WINDOW;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_WINDOW);
+        samplesSinceRefresh++;
+        if (latencyCount >= MIN_SAMPLES && samplesSinceRefresh >= DELAY_REFRESH_SAMPLES) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long percentileNanos = sorted[(int) Math.ceil(percentile * latencyCount) - 1];
+            delayNanos = Math.max(minDelayNanos, percentileNanos);
+            samplesSinceRefresh = 0;
+        }
+    }
+
+    private static boolean isServerError(Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable instanceof InternalServerException;
+    }
+
+    private final class HedgedCall<T> {
+
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        // Guarded by this
+        private CompletableFuture<T> primary;
+        @Nullable
+        private CompletableFuture<T> hedge;
+        @Nullable
+        private ScheduledFuture<?> hedgeTimer;
+        private int inFlight;
+        private boolean decided;
+
+        private HedgedCall(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+
+        private void start() {
+            long startedAt = nanoClock.getAsLong();
+            CompletableFuture<T> attempt = call.get();
+            synchronized (this) {
+                primary = attempt;
+                inFlight = 1;
+            }
+            attempt.whenComplete((value, throwable) -> onAttemptComplete(attempt, startedAt, value, throwable));
+            if (!attempt.isDone()) {
+                scheduleHedge();
+            }
+            // Cancelling the result (e.g. the TimeLimiter firing) cancels every attempt.
+            result.whenComplete((value, throwable) -> cancelAttempts());
+        }
+
+        private void scheduleHedge() {
+            ScheduledFuture<?> timer = scheduler.schedule(this::sendHedge, delayNanos, TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                hedgeTimer = timer;
+            }
+            if (result.isDone()) {
+                timer.cancel(false);
+            }
+        }
+
+        private void sendHedge() {
+            if (result.isDone()) {
+                return;
+            }
+            if (!withdrawToken()) {
+                budgetExhausted.incrementAndGet();
+                return;
+            }
+            long startedAt = nanoClock.getAsLong();
+            CompletableFuture<T> attempt;
+            try {
+                attempt = call.get();
+            } catch (RuntimeException e) {
+                log.warn("Hedged inventory reservation call could not be started: {}", e.getMessage());
+                return;
+            }
+            synchronized (this) {
+                if (decided || result.isDone()) {
+                    attempt.cancel(true);
+                    return;
+                }
+                hedge = attempt;
+                inFlight++;
+            }
+            hedgesSent.incrementAndGet();
+            attempt.whenComplete((value, throwable) -> onAttemptComplete(attempt, startedAt, value, throwable));
+        }
+
+        private void onAttemptComplete(CompletableFuture<T> attempt, long startedAt, T value, Throwable throwable) {
+            if (attempt.isCancelled()) {
+                return;
+            }
+            boolean serverError = throwable != null && isServerError(throwable);
+            if (!serverError) {
+                recordLatency(nanoClock.getAsLong() - startedAt);
+            }
+            synchronized (this) {
+                inFlight--;
+                if (decided || result.isDone() || (serverError && inFlight > 0)) {
+                    // Either answered already, or the other call may still answer.
+                    return;
+                }
+                decided = true;
+                if (attempt == hedge) {
+                    hedgesWon.incrementAndGet();
+                }
+            }
+            if (throwable == null) {
+                result.complete(value);
+            } else {
+                result.completeExceptionally(throwable instanceof CompletionException && throwable.getCause() != null
+                        ? throwable.getCause()
+                        : throwable);
+            }
+        }
+
+        private void cancelAttempts() {
+            CompletableFuture<T> primaryAttempt;
+            CompletableFuture<T> hedgeAttempt;
+            ScheduledFuture<?> timer;
+            synchronized (this) {
+                primaryAttempt = primary;
+                hedgeAttempt = hedge;
+                timer = hedgeTimer;
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (primaryAttempt != null && !primaryAttempt.isDone()) {
+                primaryAttempt.cancel(true);
+            }
+            if (hedgeAttempt != null && !hedgeAttempt.isDone()) {
+                hedgeAttempt.cancel(true);
+            }
+        }
+    }
+}
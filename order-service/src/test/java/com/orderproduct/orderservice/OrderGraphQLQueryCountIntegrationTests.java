@@ -0,0 +1,162 @@
+package com.orderproduct.orderservice;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.cloud.contract.stubrunner.spring.StubRunnerProperties.StubsMode.LOCAL;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.stubrunner.spring.AutoConfigureStubRunner;
+import org.springframework.graphql.test.tester.HttpGraphQlTester;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.orderproduct.orderservice.entity.Order;
+import com.orderproduct.orderservice.entity.OrderLineItems;
+import com.orderproduct.orderservice.repository.OrderRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+@AutoConfigureHttpGraphQlTester
+@AutoConfigureStubRunner(stubsMode = LOCAL, ids = "com.orderproduct:inventory-service:0.0.1-SNAPSHOT:stubs:9091")
+@EmbeddedKafka(topics = { "notification.topic" })
+class OrderGraphQLQueryCountIntegrationTests {
+
+        private static final int ORDERS = 100;
+        private static final int LINE_ITEMS_PER_ORDER = 3;
+
+        @Container
+        static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+        @Autowired
+        private OrderRepository orderRepository;
+
+        @Autowired
+        private HttpGraphQlTester graphQlTester;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @DynamicPropertySource
+        static void configureTestProperties(DynamicPropertyRegistry registry) {
+                registry.add("spring.datasource.url", mySQLContainer::getJdbcUrl);
+                registry.add("spring.datasource.username", mySQLContainer::getUsername);
+                registry.add("spring.datasource.password", mySQLContainer::getPassword);
+                registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+                registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        }
+
+        @BeforeEach
+        void seedOrders() {
+                List<Order> orders = IntStream.range(0, ORDERS)
+                                .mapToObj(i -> createOrder("ORDER-" + i))
+                                .toList();
+                orderRepository.saveAll(orders);
+        }
+
+        @AfterEach
+        void cleanup() {
+                orderRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("_entities with lineItems should issue one query for the orders and one for their line items")
+        void entitiesQuery_ManyOrdersWithLineItems_UsesTwoStatements() {
+                // Given
+                String representations = IntStream.range(0, ORDERS)
+                                .mapToObj(i -> "{__typename: \"PlacedOrder\", orderNumber: \"ORDER-" + i + "\"}")
+                                .collect(Collectors.joining(", "));
+                Statistics statistics = statistics();
+
+                // When
+                graphQlTester.document("""
+                                query {
+                                    _entities(representations: [%s]) {
+                                        ... on PlacedOrder {
+                                            orderNumber
+                                            lineItems {
+                                                skuCode
+                                                quantity
+                                            }
+                                        }
+                                    }
+                                }
+                                """.formatted(representations))
+                                .execute()
+                                .path("_entities").entityList(Object.class).hasSize(ORDERS)
+                                .path("_entities[%d].lineItems".formatted(ORDERS - 1)).entityList(Object.class)
+                                .hasSize(LINE_ITEMS_PER_ORDER);
+
+                // Then
+                assertEquals(2, statistics.getPrepareStatementCount());
+        }
+
+        @Test
+        @DisplayName("_entities should resolve every PlacedOrder key, including misses, with a single query")
+        void entitiesQuery_ManyRepresentationsWithMisses_UsesOneStatement() {
+                // Given
+                Statistics statistics = statistics();
+
+                // When
+                graphQlTester.document("""
+                                query {
+                                    _entities(representations: [
+                                        {__typename: "PlacedOrder", orderNumber: "ORDER-1"},
+                                        {__typename: "PlacedOrder", orderNumber: "UNKNOWN"},
+                                        {__typename: "PlacedOrder", orderNumber: "ORDER-2"}
+                                    ]) {
+                                        ... on PlacedOrder {
+                                            orderNumber
+                                        }
+                                    }
+                                }
+                                """)
+                                .execute()
+                                .path("_entities[0].orderNumber").entity(String.class).isEqualTo("ORDER-1")
+                                .path("_entities[1]").valueIsNull()
+                                .path("_entities[2].orderNumber").entity(String.class).isEqualTo("ORDER-2");
+
+                // Then
+                assertEquals(1, statistics.getPrepareStatementCount());
+        }
+
+        private Statistics statistics() {
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                statistics.clear();
+                return statistics;
+        }
+
+        private static Order createOrder(String orderNumber) {
+                Order order = Order.builder().orderNumber(orderNumber).build();
+                List<OrderLineItems> lineItems = new ArrayList<>();
+                for (int i = 0; i < LINE_ITEMS_PER_ORDER; i++) {
+                        lineItems.add(OrderLineItems.builder()
+                                        .skuCode("sku-" + i)
+                                        .price(BigDecimal.valueOf(10 + i))
+                                        .quantity(i + 1)
+                                        .order(order)
+                                        .build());
+                }
+                order.setOrderLineItemsList(lineItems);
+                return order;
+        }
+}
@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.orderservice.common.IdempotencyKeyReusedException;
 import com.orderproduct.orderservice.common.InternalServerException;
 import com.orderproduct.orderservice.common.InventoryNotInStockException;
 import com.orderproduct.orderservice.dto.OrderRequest;
@@ -52,7 +53,7 @@ class OrderControllerTest {
         // Given
         OrderRequest orderRequest = objectMapper.readValue(TEST_CONTENT, OrderRequest.class);
         SavedOrder savedOrder = new SavedOrder("orderId", "orderNumber");
-        when(orderService.placeOrder(orderRequest))
+        when(orderService.placeOrder(orderRequest, null))
                 .thenReturn(CompletableFuture.completedFuture(savedOrder));
 
         // When & Then
@@ -72,7 +73,7 @@ class OrderControllerTest {
     void placeOrder_InternalError_Returns500() throws Exception {
         // Given
         OrderRequest orderRequest = objectMapper.readValue(TEST_CONTENT, OrderRequest.class);
-        when(orderService.placeOrder(orderRequest))
+        when(orderService.placeOrder(orderRequest, null))
                 .thenReturn(CompletableFuture.failedFuture(new InternalServerException()));
 
         // When & Then
@@ -91,7 +92,7 @@ class OrderControllerTest {
     void placeOrder_OutOfStock_Returns409() throws Exception {
         // Given
         OrderRequest orderRequest = objectMapper.readValue(TEST_CONTENT, OrderRequest.class);
-        when(orderService.placeOrder(orderRequest))
+        when(orderService.placeOrder(orderRequest, null))
                 .thenReturn(CompletableFuture.failedFuture(new InventoryNotInStockException()));
 
         // When & Then
@@ -122,4 +123,45 @@ class OrderControllerTest {
                 .expectBody()
                 .jsonPath("$.errorCode").isEqualTo("BAD_REQUEST");
     }
+
+    @Test
+    @DisplayName("should pass the Idempotency-Key header to OrderService")
+    void placeOrder_WithIdempotencyKey_PassesKeyToOrderService() throws Exception {
+        // Given
+        OrderRequest orderRequest = objectMapper.readValue(TEST_CONTENT, OrderRequest.class);
+        SavedOrder savedOrder = new SavedOrder("orderId", "orderNumber");
+        when(orderService.placeOrder(orderRequest, "key-1"))
+                .thenReturn(CompletableFuture.completedFuture(savedOrder));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/order")
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TEST_CONTENT)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.orderNumber").isEqualTo("orderNumber");
+    }
+
+    @Test
+    @DisplayName("should return 422 when POST /api/order reuses an Idempotency-Key with a different request")
+    void placeOrder_IdempotencyKeyReused_Returns422() throws Exception {
+        // Given
+        OrderRequest orderRequest = objectMapper.readValue(TEST_CONTENT, OrderRequest.class);
+        when(orderService.placeOrder(orderRequest, "key-1"))
+                .thenReturn(CompletableFuture.failedFuture(new IdempotencyKeyReusedException()));
+
+        // When & Then
+        webTestClient.post()
+                .uri("/api/order")
+                .header(OrderController.IDEMPOTENCY_KEY_HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(TEST_CONTENT)
+                .exchange()
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("IDEMPOTENCY_KEY_REUSED");
+    }
 }
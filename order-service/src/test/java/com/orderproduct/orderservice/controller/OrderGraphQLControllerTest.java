@@ -2,13 +2,15 @@ package com.orderproduct.orderservice.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 import com.orderproduct.orderservice.dto.ProductStub;
@@ -74,7 +76,7 @@ class OrderGraphQLControllerTest {
         SavedOrder savedOrder = new SavedOrder("order-id-1", "ORD-001");
         OrderRequest expectedRequest = new OrderRequest(
                 List.of(new OrderLineItemsDto("SKU-1", BigDecimal.valueOf(1200), 2)));
-        when(orderService.placeOrder(expectedRequest))
+        when(orderService.placeOrder(expectedRequest, null))
                 .thenReturn(CompletableFuture.completedFuture(savedOrder));
 
         graphQlTester.document(PLACE_ORDER_MUTATION)
@@ -106,7 +108,7 @@ class OrderGraphQLControllerTest {
     @Test
     @DisplayName("should return ValidationError with INVENTORY_NOT_IN_STOCK when service throws InventoryNotInStockException")
     void placeOrder_inventoryNotInStock_returnsValidationError() {
-        when(orderService.placeOrder(any()))
+        when(orderService.placeOrder(any(), isNull()))
                 .thenReturn(CompletableFuture.failedFuture(new InventoryNotInStockException()));
 
         graphQlTester.document(PLACE_ORDER_MUTATION)
@@ -123,7 +125,7 @@ class OrderGraphQLControllerTest {
     @Test
     @DisplayName("should return DataFetchingException with INTERNAL_SERVER_ERROR when service throws InternalServerException")
     void placeOrder_serviceThrows_returnsInternalServerError() {
-        when(orderService.placeOrder(any()))
+        when(orderService.placeOrder(any(), isNull()))
                 .thenReturn(CompletableFuture.failedFuture(new InternalServerException()));
 
         graphQlTester.document(PLACE_ORDER_MUTATION)
@@ -164,7 +166,7 @@ class OrderGraphQLControllerTest {
     @DisplayName("should return PlacedOrder when _entities is called with a PlacedOrder representation and order exists")
     void entitiesQuery_placedOrderRepresentation_returnsPlacedOrder() {
         SavedOrder savedOrder = new SavedOrder("1", "ORD-001");
-        when(orderService.getOrderByOrderNumber("ORD-001")).thenReturn(Optional.of(savedOrder));
+        when(orderService.getOrdersByOrderNumbers(Set.of("ORD-001"))).thenReturn(Map.of("ORD-001", savedOrder));
 
         graphQlTester.document("""
                         query {
@@ -184,7 +186,7 @@ class OrderGraphQLControllerTest {
     @Test
     @DisplayName("should return null when _entities is called with a PlacedOrder representation but order does not exist")
     void entitiesQuery_orderNotFound_returnsNull() {
-        when(orderService.getOrderByOrderNumber("UNKNOWN")).thenReturn(Optional.empty());
+        when(orderService.getOrdersByOrderNumbers(Set.of("UNKNOWN"))).thenReturn(Map.of());
 
         graphQlTester.document("""
                         query {
@@ -200,11 +202,11 @@ class OrderGraphQLControllerTest {
     }
 
     @Test
-    @DisplayName("should resolve multiple representations independently, returning each PlacedOrder or null")
-    void entitiesQuery_multipleRepresentations_resolvesEachIndependently() {
+    @DisplayName("should resolve multiple representations with one lookup, returning each PlacedOrder or null in order")
+    void entitiesQuery_multipleRepresentations_resolvesInOneLookup() {
         SavedOrder savedOrder = new SavedOrder("1", "ORD-001");
-        when(orderService.getOrderByOrderNumber("ORD-001")).thenReturn(Optional.of(savedOrder));
-        when(orderService.getOrderByOrderNumber("UNKNOWN")).thenReturn(Optional.empty());
+        when(orderService.getOrdersByOrderNumbers(Set.of("ORD-001", "UNKNOWN")))
+                .thenReturn(Map.of("ORD-001", savedOrder));
 
         graphQlTester.document("""
                         query {
@@ -227,7 +229,7 @@ class OrderGraphQLControllerTest {
     @Test
     @DisplayName("should return DataFetchingException with INTERNAL_SERVER_ERROR when _entities query and service throws InternalServerException")
     void entitiesQuery_serviceThrows_returnsInternalServerError() {
-        when(orderService.getOrderByOrderNumber("ORD-001")).thenThrow(new InternalServerException());
+        when(orderService.getOrdersByOrderNumbers(Set.of("ORD-001"))).thenThrow(new InternalServerException());
 
         graphQlTester.document("""
                         query {
@@ -248,15 +250,15 @@ class OrderGraphQLControllerTest {
                 });
     }
 
-    // lineItems field resolver (@SchemaMapping on PlacedOrder.lineItems)
+    // lineItems field resolver (@BatchMapping on PlacedOrder.lineItems)
 
     @Test
     @DisplayName("should return lineItems with product stubs when placeOrder mutation includes lineItems")
     void placeOrder_withLineItems_returnsLineItemsWithProductStub() {
         SavedOrder savedOrder = new SavedOrder("1", "ORD-001");
-        when(orderService.placeOrder(any())).thenReturn(CompletableFuture.completedFuture(savedOrder));
-        when(orderService.getLineItemsByOrderNumber("ORD-001")).thenReturn(List.of(
-                new SavedOrderLineItem("samsung-s10", BigDecimal.valueOf(100), 1, new ProductStub("samsung-s10"))));
+        when(orderService.placeOrder(any(), isNull())).thenReturn(CompletableFuture.completedFuture(savedOrder));
+        when(orderService.getLineItemsByOrderNumbers(Set.of("ORD-001"))).thenReturn(Map.of("ORD-001", List.of(
+                new SavedOrderLineItem("samsung-s10", BigDecimal.valueOf(100), 1, new ProductStub("samsung-s10")))));
 
         graphQlTester.document("""
                         mutation {
@@ -287,8 +289,8 @@ class OrderGraphQLControllerTest {
     @DisplayName("should return empty lineItems list when order has no line items")
     void placeOrder_orderWithNoLineItems_returnsEmptyLineItemsList() {
         SavedOrder savedOrder = new SavedOrder("1", "ORD-001");
-        when(orderService.placeOrder(any())).thenReturn(CompletableFuture.completedFuture(savedOrder));
-        when(orderService.getLineItemsByOrderNumber("ORD-001")).thenReturn(List.of());
+        when(orderService.placeOrder(any(), isNull())).thenReturn(CompletableFuture.completedFuture(savedOrder));
+        when(orderService.getLineItemsByOrderNumbers(Set.of("ORD-001"))).thenReturn(Map.of());
 
         graphQlTester.document("""
                         mutation {
@@ -309,8 +311,8 @@ class OrderGraphQLControllerTest {
     @DisplayName("should return DataFetchingException when lineItems resolver throws InternalServerException")
     void placeOrder_lineItemsServiceThrows_returnsInternalServerError() {
         SavedOrder savedOrder = new SavedOrder("1", "ORD-001");
-        when(orderService.placeOrder(any())).thenReturn(CompletableFuture.completedFuture(savedOrder));
-        when(orderService.getLineItemsByOrderNumber("ORD-001")).thenThrow(new InternalServerException());
+        when(orderService.placeOrder(any(), isNull())).thenReturn(CompletableFuture.completedFuture(savedOrder));
+        when(orderService.getLineItemsByOrderNumbers(Set.of("ORD-001"))).thenThrow(new InternalServerException());
 
         graphQlTester.document("""
                         mutation {
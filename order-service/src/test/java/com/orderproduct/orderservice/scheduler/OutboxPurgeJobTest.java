@@ -0,0 +1,104 @@
+package com.orderproduct.orderservice.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.service.OrderDataGenerator;
+import com.orderproduct.orderservice.service.OutboxRetentionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OutboxPurgeJobTest {
+
+        private static final long NOW = Duration.ofDays(30).toMillis();
+        private static final long CUTOFF = NOW - Duration.ofDays(7).toMillis();
+
+        private final OutboxRetentionService outboxRetentionService = mock(OutboxRetentionService.class);
+        private final OrderDataGenerator orderDataGenerator = mock(OrderDataGenerator.class);
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        @BeforeEach
+        void setUp() {
+                when(orderDataGenerator.getCurrentTimestamp()).thenReturn(NOW);
+        }
+
+        @Test
+        @DisplayName("`purgeExpiredEvents()` deletes chunks until a partial chunk is returned")
+        public void purgeExpiredEvents_PartialLastChunk_StopsAndCounts() throws Exception {
+                // Given
+                OutboxPurgeJob job = job(false);
+                when(outboxRetentionService.purgeChunk(CUTOFF, true, 2))
+                                .thenReturn(2)
+                                .thenReturn(1);
+
+                // When
+                int result = job.purgeExpiredEvents();
+
+                // Then
+                assertEquals(3, result);
+                verify(outboxRetentionService, times(2)).purgeChunk(CUTOFF, true, 2);
+                assertEquals(3.0, meterRegistry.counter("order.outbox.purge.deleted").count());
+        }
+
+        @Test
+        @DisplayName("`purgeExpiredEvents()` stops after maxChunksPerRun full chunks")
+        public void purgeExpiredEvents_FullChunks_StopsAtMaxChunksPerRun() throws Exception {
+                // Given
+                OutboxPurgeJob job = job(false);
+                when(outboxRetentionService.purgeChunk(CUTOFF, true, 2)).thenReturn(2);
+
+                // When
+                int result = job.purgeExpiredEvents();
+
+                // Then
+                assertEquals(6, result);
+                verify(outboxRetentionService, times(3)).purgeChunk(CUTOFF, true, 2);
+        }
+
+        @Test
+        @DisplayName("`purgeExpiredEvents()` only deletes processed events when the in-process relay is enabled")
+        public void purgeExpiredEvents_RelayEnabled_KeepsUnprocessedEvents() throws Exception {
+                // Given
+                OutboxPurgeJob job = job(true);
+                when(outboxRetentionService.purgeChunk(CUTOFF, false, 2)).thenReturn(0);
+
+                // When
+                int result = job.purgeExpiredEvents();
+
+                // Then
+                assertEquals(0, result);
+                verify(outboxRetentionService).purgeChunk(CUTOFF, false, 2);
+        }
+
+        @Test
+        @DisplayName("`purge()` reports the table size, even when the purge fails")
+        public void purge_PurgeFails_StillUpdatesTableSize() throws Exception {
+                // Given
+                OutboxPurgeJob job = job(false);
+                when(outboxRetentionService.purgeChunk(CUTOFF, true, 2)).thenThrow(new InternalServerException());
+                when(outboxRetentionService.estimateRowCount()).thenReturn(1_500L);
+                when(outboxRetentionService.estimateSizeInBytes()).thenReturn(4_096L);
+
+                // When
+                job.purge();
+
+                // Then
+                assertEquals(1_500.0, meterRegistry.get("order.outbox.table.rows").gauge().value());
+                assertEquals(4_096.0, meterRegistry.get("order.outbox.table.size").gauge().value());
+        }
+
+        private OutboxPurgeJob job(boolean relayEnabled) {
+                return new OutboxPurgeJob(outboxRetentionService, orderDataGenerator, meterRegistry,
+                                Duration.ofDays(7), relayEnabled, 2, 3, Duration.ZERO);
+        }
+}
@@ -0,0 +1,90 @@
+package com.orderproduct.orderservice.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.entity.OutboxEvent;
+import com.orderproduct.orderservice.service.OrderDataGenerator;
+import com.orderproduct.orderservice.service.OutboxRelayService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OutboxRelayJobTest {
+
+        private final OutboxRelayService outboxRelayService = mock(OutboxRelayService.class);
+        private final OrderDataGenerator orderDataGenerator = mock(OrderDataGenerator.class);
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final OutboxRelayJob job = new OutboxRelayJob(outboxRelayService, orderDataGenerator, meterRegistry,
+                        2, 3);
+
+        @Test
+        @DisplayName("`relayPendingEvents()` relays batches until a partial batch is returned")
+        public void relayPendingEvents_PartialLastBatch_StopsAndRecordsMetrics() throws InternalServerException {
+                // Given
+                when(outboxRelayService.relayBatch(2))
+                                .thenReturn(relayedEvents(2))
+                                .thenReturn(relayedEvents(1));
+
+                // When
+                int result = job.relayPendingEvents();
+
+                // Then
+                assertEquals(3, result);
+                verify(outboxRelayService, times(2)).relayBatch(2);
+                assertEquals(3.0, meterRegistry.counter("order.outbox.relay.published").count());
+                assertEquals(2, meterRegistry.summary("order.outbox.relay.batch.size").count());
+                assertEquals(3, meterRegistry.timer("order.outbox.relay.lag").count());
+                assertEquals(500.0, meterRegistry.timer("order.outbox.relay.lag").max(TimeUnit.MILLISECONDS));
+        }
+
+        @Test
+        @DisplayName("`relayPendingEvents()` stops after maxBatchesPerRun full batches")
+        public void relayPendingEvents_FullBatches_StopsAtMaxBatchesPerRun() throws InternalServerException {
+                // Given
+                when(outboxRelayService.relayBatch(2)).thenAnswer(invocation -> relayedEvents(2));
+
+                // When
+                int result = job.relayPendingEvents();
+
+                // Then
+                assertEquals(6, result);
+                verify(outboxRelayService, times(3)).relayBatch(2);
+        }
+
+        @Test
+        @DisplayName("`relay()` reports the age of the oldest unprocessed event, even when the run fails")
+        public void relay_RunFails_StillUpdatesPendingAge() throws InternalServerException {
+                // Given
+                when(outboxRelayService.relayBatch(2)).thenThrow(new InternalServerException());
+                when(orderDataGenerator.getCurrentTimestamp()).thenReturn(10_000L);
+                when(outboxRelayService.oldestUnprocessedCreatedAt()).thenReturn(Optional.of(4_000L));
+
+                // When
+                job.relay();
+
+                // Then
+                assertEquals(6_000.0, meterRegistry.get("order.outbox.relay.pending.age").gauge().value());
+        }
+
+        private List<OutboxEvent> relayedEvents(int count) {
+                return LongStream.range(0, count)
+                                .mapToObj(id -> OutboxEvent.builder()
+                                                .id(id)
+                                                .createdAt(1_000L)
+                                                .processedAt(1_000L + 250 * (id + 1))
+                                                .build())
+                                .toList();
+        }
+}
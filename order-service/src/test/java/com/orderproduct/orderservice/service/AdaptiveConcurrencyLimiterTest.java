@@ -0,0 +1,211 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.common.InventoryNotInStockException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+        private final AtomicLong nanoTime = new AtomicLong();
+
+        private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+                return new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, 1.5, 0.5, 1.0, nanoTime::get);
+        }
+
+        @Test
+        @DisplayName("execute should reject calls beyond the limit without starting them")
+        void executeShouldRejectCallsBeyondLimit() {
+                // Given
+                var limiter = limiter(2, 1, 10);
+                AtomicInteger started = new AtomicInteger();
+
+                // When
+                limiter.execute(() -> pending(started));
+                limiter.execute(() -> pending(started));
+                var rejected = limiter.execute(() -> pending(started));
+
+                // Then
+                ExecutionException executionException = assertThrows(ExecutionException.class, rejected::get);
+                assertInstanceOf(ServiceUnavailableException.class, executionException.getCause());
+                assertEquals(2, started.get());
+                assertEquals(2, limiter.getInFlight());
+                assertEquals(1, limiter.getRejectedCount());
+        }
+
+        @Test
+        @DisplayName("execute should free the slot when the call completes")
+        void executeShouldFreeSlotWhenCallCompletes() throws Exception {
+                // Given
+                var limiter = limiter(1, 1, 10);
+                CompletableFuture<String> first = new CompletableFuture<>();
+                limiter.execute(() -> first);
+
+                // When
+                first.complete("done");
+                var second = limiter.execute(() -> CompletableFuture.completedFuture("second"));
+
+                // Then
+                assertEquals("second", second.get());
+                assertEquals(0, limiter.getInFlight());
+        }
+
+        @Test
+        @DisplayName("execute should return the call's own future, so cancelling it cancels the call")
+        void executeShouldReturnCallFuture() {
+                // Given
+                var limiter = limiter(1, 1, 10);
+                CompletableFuture<String> call = new CompletableFuture<>();
+
+                // When
+                var result = limiter.execute(() -> call);
+                result.cancel(true);
+
+                // Then
+                assertTrue(call.isCancelled());
+                assertEquals(0, limiter.getInFlight());
+        }
+
+        @Test
+        @DisplayName("the limit should grow while latency is steady and the limit is in use")
+        void limitShouldGrowWhileLatencyIsSteady() {
+                // Given
+                var limiter = limiter(4, 1, 100);
+
+                // When
+                for (int round = 0; round < 5; round++) {
+                        runRound(limiter, limiter.getLimit(), 10_000_000L, null);
+                }
+
+                // Then
+                assertTrue(limiter.getLimit() > 4, "limit: " + limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("the limit should stay usable when calls complete within the clock's resolution")
+        void limitShouldStayUsableWithZeroRtt() {
+                // Given
+                var limiter = limiter(4, 1, 100);
+
+                // When
+                for (int round = 0; round < 5; round++) {
+                        runRound(limiter, limiter.getLimit(), 0L, null);
+                }
+
+                // Then
+                assertTrue(limiter.getLimit() >= 4, "limit: " + limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("the limit should not grow while most of it is unused")
+        void limitShouldNotGrowWhileUnused() {
+                // Given
+                var limiter = limiter(20, 1, 100);
+
+                // When
+                for (int i = 0; i < 50; i++) {
+                        runRound(limiter, 1, 10_000_000L, null);
+                }
+
+                // Then
+                assertEquals(20, limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("the limit should shrink when latency rises well above its long-term average")
+        void limitShouldShrinkWhenLatencyRises() {
+                // Given
+                var limiter = limiter(20, 1, 100);
+                for (int round = 0; round < 30; round++) {
+                        runRound(limiter, limiter.getLimit(), 10_000_000L, null);
+                }
+                int limitBeforeSlowdown = limiter.getLimit();
+
+                // When
+                for (int round = 0; round < 5; round++) {
+                        runRound(limiter, limiter.getLimit(), 100_000_000L, null);
+                }
+
+                // Then
+                assertTrue(limiter.getLimit() < limitBeforeSlowdown,
+                                "limit: " + limiter.getLimit() + ", before: " + limitBeforeSlowdown);
+        }
+
+        @Test
+        @DisplayName("the limit should back off on server errors but not on business errors, and stay above the minimum")
+        void limitShouldBackOffOnServerErrorsOnly() {
+                // Given
+                var limiter = limiter(16, 2, 100);
+
+                // When
+                runRound(limiter, 1, 10_000_000L, new InventoryNotInStockException());
+                int limitAfterBusinessError = limiter.getLimit();
+                runRound(limiter, 1, 10_000_000L, new InternalServerException());
+                int limitAfterServerError = limiter.getLimit();
+                for (int i = 0; i < 10; i++) {
+                        runRound(limiter, 1, 10_000_000L, new InternalServerException());
+                }
+
+                // Then
+                assertEquals(16, limitAfterBusinessError);
+                assertEquals(8, limitAfterServerError);
+                assertEquals(2, limiter.getLimit());
+        }
+
+        @Test
+        @DisplayName("bindTo should publish the limit, in-flight calls and rejections")
+        void bindToShouldPublishMetrics() {
+                // Given
+                var limiter = limiter(1, 1, 10);
+                var registry = new SimpleMeterRegistry();
+                limiter.bindTo(registry);
+
+                // When
+                limiter.execute(CompletableFuture::new);
+                limiter.execute(CompletableFuture::new);
+
+                // Then
+                assertEquals(1.0, registry.get("inventory.reservation.limiter.limit").gauge().value());
+                assertEquals(1.0, registry.get("inventory.reservation.limiter.inflight").gauge().value());
+                assertEquals(1.0, registry.get("inventory.reservation.limiter.rejected").functionCounter().count());
+        }
+
+        // Starts `calls` calls at once, advances the clock by `latencyNanos` and completes them all.
+        private void runRound(AdaptiveConcurrencyLimiter limiter, int calls, long latencyNanos, Throwable failure) {
+                List<CompletableFuture<String>> futures = new ArrayList<>();
+                for (int i = 0; i < calls; i++) {
+                        CompletableFuture<String> future = new CompletableFuture<>();
+                        futures.add(future);
+                        limiter.execute(() -> future);
+                }
+                nanoTime.addAndGet(latencyNanos);
+                for (CompletableFuture<String> future : futures) {
+                        if (failure == null) {
+                                future.complete("reserved");
+                        } else {
+                                future.completeExceptionally(failure);
+                        }
+                }
+        }
+
+        private static CompletableFuture<String> pending(AtomicInteger started) {
+                started.incrementAndGet();
+                return new CompletableFuture<>();
+        }
+}
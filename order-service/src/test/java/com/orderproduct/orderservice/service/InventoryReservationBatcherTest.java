@@ -0,0 +1,155 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import com.orderproduct.inventoryservice.grpc.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.grpc.OrderReservationResult;
+import com.orderproduct.inventoryservice.grpc.ReservationServiceGrpc;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsBatchRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsBatchResponse;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsResponse;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+public class InventoryReservationBatcherTest {
+
+        private final ReservationServiceGrpc.ReservationServiceFutureStub futureStub = mock(
+                        ReservationServiceGrpc.ReservationServiceFutureStub.class);
+
+        private InventoryReservationBatcher batcher;
+
+        @AfterEach
+        void tearDown() {
+                batcher.close();
+        }
+
+        @Test
+        @DisplayName("submit should send a full batch at once and complete each request with its own result")
+        void submitShouldSendFullBatchAndCompleteEachRequest() throws Exception {
+                // Given
+                batcher = new InventoryReservationBatcher(futureStub, Duration.ofMinutes(1), 2, null);
+                final var first = request("ORDER-001");
+                final var second = request("ORDER-002");
+                final var reserved = ReserveProductsResponse.newBuilder()
+                                .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                .setSkuCode("sku1")
+                                                .setAvailableQuantity(3)
+                                                .build())
+                                .build();
+                final var notEnoughItems = com.google.rpc.Status.newBuilder()
+                                .setCode(Status.Code.RESOURCE_EXHAUSTED.value())
+                                .setMessage("Not enough stock")
+                                .build();
+                SettableFuture<ReserveProductsBatchResponse> call = SettableFuture.create();
+                when(futureStub.reserveProductsBatch(ReserveProductsBatchRequest.newBuilder()
+                                .addOrders(first)
+                                .addOrders(second)
+                                .build())).thenReturn(call);
+
+                // When
+                var firstResult = batcher.submit(first);
+                var secondResult = batcher.submit(second);
+                boolean doneBeforeResponse = firstResult.isDone();
+                call.set(ReserveProductsBatchResponse.newBuilder()
+                                .addResults(OrderReservationResult.newBuilder()
+                                                .setOrderNumber("ORDER-001")
+                                                .setReserved(reserved))
+                                .addResults(OrderReservationResult.newBuilder()
+                                                .setOrderNumber("ORDER-002")
+                                                .setError(notEnoughItems))
+                                .build());
+
+                // Then
+                assertFalse(doneBeforeResponse);
+                assertEquals(reserved, firstResult.get());
+                ExecutionException executionException = assertThrows(ExecutionException.class, secondResult::get);
+                StatusRuntimeException cause = assertInstanceOf(StatusRuntimeException.class,
+                                executionException.getCause());
+                assertEquals(Status.Code.RESOURCE_EXHAUSTED, cause.getStatus().getCode());
+        }
+
+        @Test
+        @DisplayName("submit should send a partial batch when its window closes")
+        void submitShouldSendPartialBatchWhenWindowCloses() throws Exception {
+                // Given
+                batcher = new InventoryReservationBatcher(futureStub, Duration.ofMillis(10), 100, null);
+                final var request = request("ORDER-001");
+                final var batchRequest = ReserveProductsBatchRequest.newBuilder().addOrders(request).build();
+                when(futureStub.reserveProductsBatch(batchRequest)).thenReturn(Futures.immediateFuture(
+                                ReserveProductsBatchResponse.newBuilder()
+                                                .addResults(OrderReservationResult.newBuilder()
+                                                                .setOrderNumber("ORDER-001")
+                                                                .setReserved(ReserveProductsResponse.getDefaultInstance()))
+                                                .build()));
+
+                // When
+                var result = batcher.submit(request);
+
+                // Then
+                assertEquals(ReserveProductsResponse.getDefaultInstance(), result.get(5, TimeUnit.SECONDS));
+                verify(futureStub, timeout(5000)).reserveProductsBatch(batchRequest);
+        }
+
+        @Test
+        @DisplayName("submit should fail every request in the batch when the batch call fails")
+        void submitShouldFailEveryRequestWhenBatchCallFails() {
+                // Given
+                batcher = new InventoryReservationBatcher(futureStub, Duration.ofMinutes(1), 2, null);
+                when(futureStub.reserveProductsBatch(any())).thenReturn(Futures.immediateFailedFuture(
+                                Status.UNAVAILABLE.asRuntimeException()));
+
+                // When
+                var firstResult = batcher.submit(request("ORDER-001"));
+                var secondResult = batcher.submit(request("ORDER-002"));
+
+                // Then
+                for (var result : List.of(firstResult, secondResult)) {
+                        ExecutionException executionException = assertThrows(ExecutionException.class, result::get);
+                        assertInstanceOf(StatusRuntimeException.class, executionException.getCause());
+                }
+        }
+
+        @Test
+        @DisplayName("submit should apply the configured deadline to the batch call")
+        void submitShouldApplyDeadlineToBatchCall() {
+                // Given
+                var deadlineStub = mock(ReservationServiceGrpc.ReservationServiceFutureStub.class);
+                when(futureStub.withDeadlineAfter(2500, TimeUnit.MILLISECONDS)).thenReturn(deadlineStub);
+                when(deadlineStub.reserveProductsBatch(any())).thenReturn(SettableFuture.create());
+                batcher = new InventoryReservationBatcher(futureStub, Duration.ofMinutes(1), 1,
+                                Duration.ofMillis(2500));
+
+                // When
+                batcher.submit(request("ORDER-001"));
+
+                // Then
+                verify(deadlineStub).reserveProductsBatch(any());
+        }
+
+        private static ReserveProductsRequest request(String orderNumber) {
+                return ReserveProductsRequest.newBuilder()
+                                .setOrderNumber(orderNumber)
+                                .build();
+        }
+}
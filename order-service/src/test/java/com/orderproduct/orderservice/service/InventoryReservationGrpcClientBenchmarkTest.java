@@ -0,0 +1,142 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.orderproduct.inventoryservice.grpc.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.grpc.ReservationServiceGrpc;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsResponse;
+import com.orderproduct.orderservice.dto.ItemReservationRequest;
+import com.orderproduct.orderservice.dto.OrderReservationRequest;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Compares sustained orders/sec and live thread count for the blocking and
+ * async gRPC reservation paths against an in-process server that answers after
+ * a fixed latency. Run with {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InventoryReservationGrpcClientBenchmarkTest {
+
+        private static final long SERVER_LATENCY_MS = 50;
+        private static final int ORDERS = 2_000;
+        private static final int IN_FLIGHT = 200;
+
+        private final ScheduledExecutorService serverScheduler = Executors.newScheduledThreadPool(2);
+        private Server server;
+        private ManagedChannel channel;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                String serverName = InProcessServerBuilder.generateName();
+                server = InProcessServerBuilder.forName(serverName)
+                                .addService(new DelayedReservationService())
+                                .build()
+                                .start();
+                channel = InProcessChannelBuilder.forName(serverName).build();
+        }
+
+        @AfterEach
+        void tearDown() throws InterruptedException {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+                server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+                serverScheduler.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("`reserveOrder()` blocking vs async: orders/sec and thread count")
+        void reserveOrder_BlockingVsAsync() throws Exception {
+                var blocking = new InventoryReservationGrpcClientService(
+                                ReservationServiceGrpc.newBlockingStub(channel),
+                                null, null, null, null, null);
+                var async = new InventoryReservationGrpcClientService(
+                                ReservationServiceGrpc.newBlockingStub(channel),
+                                ReservationServiceGrpc.newFutureStub(channel),
+                                null, null, null, null);
+
+                // Warm up both paths before measuring.
+                run(blocking, 200);
+                run(async, 200);
+
+                Result blockingResult = run(blocking, ORDERS);
+                Result asyncResult = run(async, ORDERS);
+
+                System.out.printf("gRPC reservation benchmark (%d orders, %d in flight, %d ms server latency)%n",
+                                ORDERS, IN_FLIGHT, SERVER_LATENCY_MS);
+                System.out.printf("  blocking: %8.1f orders/sec, peak threads %d%n",
+                                blockingResult.ordersPerSecond(), blockingResult.peakThreads());
+                System.out.printf("  async:    %8.1f orders/sec, peak threads %d%n",
+                                asyncResult.ordersPerSecond(), asyncResult.peakThreads());
+
+                assertEquals(ORDERS, blockingResult.completed());
+                assertEquals(ORDERS, asyncResult.completed());
+        }
+
+        private Result run(InventoryReservationGrpcClientService service, int orders) throws Exception {
+                ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+                threads.resetPeakThreadCount();
+                Semaphore inFlight = new Semaphore(IN_FLIGHT);
+                AtomicInteger completed = new AtomicInteger();
+                List<CompletableFuture<?>> futures = new ArrayList<>(orders);
+
+                long start = System.nanoTime();
+                for (int i = 0; i < orders; i++) {
+                        inFlight.acquire();
+                        var request = new OrderReservationRequest("ORDER-" + i,
+                                        List.of(new ItemReservationRequest("sku1", 1)));
+                        futures.add(service.reserveOrder(request).whenComplete((statuses, throwable) -> {
+                                if (throwable == null) {
+                                        completed.incrementAndGet();
+                                }
+                                inFlight.release();
+                        }));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+                long elapsedNanos = System.nanoTime() - start;
+
+                return new Result(completed.get(), orders * 1e9 / elapsedNanos, threads.getPeakThreadCount());
+        }
+
+        private record Result(int completed, double ordersPerSecond, int peakThreads) {
+        }
+
+        // Responds from a scheduler so the server side never parks a thread for the simulated latency.
+        private class DelayedReservationService extends ReservationServiceGrpc.ReservationServiceImplBase {
+
+                @Override
+                public void reserveProducts(ReserveProductsRequest request,
+                                StreamObserver<ReserveProductsResponse> responseObserver) {
+                        serverScheduler.schedule(() -> {
+                                responseObserver.onNext(ReserveProductsResponse.newBuilder()
+                                                .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                                .setSkuCode("sku1")
+                                                                .setAvailableQuantity(100)
+                                                                .build())
+                                                .build());
+                                responseObserver.onCompleted();
+                        }, SERVER_LATENCY_MS, TimeUnit.MILLISECONDS);
+                }
+        }
+}
@@ -1,15 +1,25 @@
 package com.orderproduct.orderservice.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -18,6 +28,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.protobuf.Any;
 import com.google.rpc.ErrorInfo;
 import com.orderproduct.inventoryservice.grpc.AvailableInventoryResponse;
@@ -29,6 +41,7 @@ import com.orderproduct.orderservice.common.InvalidInputException;
 import com.orderproduct.orderservice.common.InvalidInventoryException;
 import com.orderproduct.orderservice.common.InventoryNotInStockException;
 import com.orderproduct.orderservice.common.OrderReservationNotAllowedException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
 import com.orderproduct.orderservice.dto.InventoryAvailabilityStatus;
 import com.orderproduct.orderservice.dto.OrderReservationRequest;
 
@@ -467,6 +480,293 @@ public class InventoryReservationGrpcClientServiceTest {
                 }
         }
 
+        @Nested
+        @DisplayName("Async Operations")
+        class AsyncOperations {
+
+                private final ReservationServiceGrpc.ReservationServiceFutureStub futureStub = mock(
+                                ReservationServiceGrpc.ReservationServiceFutureStub.class);
+
+                private final OrderReservationRequest orderReservationRequest = new OrderReservationRequest(
+                                "ORDER-123",
+                                List.of(new com.orderproduct.orderservice.dto.ItemReservationRequest("sku1", 5)));
+
+                private InventoryReservationGrpcClientService asyncClientService;
+
+                @BeforeEach
+                void setUp() {
+                        asyncClientService = new InventoryReservationGrpcClientService(reservationServiceStub, futureStub,
+                                        null, null, null, null);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should complete from the gRPC callback without using the blocking stub")
+                void reserveOrderShouldCompleteFromGrpcCallback() throws Exception {
+                        // Given
+                        SettableFuture<ReserveProductsResponse> call = SettableFuture.create();
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest))).thenReturn(call);
+
+                        // When
+                        var future = asyncClientService.reserveOrder(orderReservationRequest);
+                        boolean doneBeforeResponse = future.isDone();
+                        call.set(ReserveProductsResponse.newBuilder()
+                                        .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                        .setSkuCode("sku1")
+                                                        .setAvailableQuantity(10)
+                                                        .build())
+                                        .build());
+
+                        // Then
+                        assertFalse(doneBeforeResponse);
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 10)), future.get());
+                        verifyNoInteractions(reservationServiceStub);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should throw InternalServerException when async gRPC returns empty response")
+                void reserveOrderShouldThrowInternalServerExceptionWhenAsyncResponseEmpty() {
+                        // Given
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(Futures.immediateFuture(ReserveProductsResponse.newBuilder().build()));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> asyncClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(InternalServerException.class, executionException.getCause());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should map async FAILED_PRECONDITION with ORDER_RESERVATION_NOT_ALLOWED to OrderReservationNotAllowedException")
+                void reserveOrderShouldMapAsyncFailedPreconditionToOrderReservationNotAllowedException() {
+                        // Given
+                        com.google.rpc.Status status = com.google.rpc.Status.newBuilder()
+                                        .setCode(Status.Code.FAILED_PRECONDITION.value())
+                                        .setMessage("Cannot create reservations for order with non Pending states")
+                                        .addDetails(Any.pack(ErrorInfo.newBuilder()
+                                                        .setReason("ORDER_RESERVATION_NOT_ALLOWED")
+                                                        .build()))
+                                        .build();
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(Futures.immediateFailedFuture(
+                                                        StatusProto.toStatusRuntimeException(status)));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> asyncClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(OrderReservationNotAllowedException.class, executionException.getCause());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should map async RESOURCE_EXHAUSTED with NOT_ENOUGH_ITEM_ERROR_CODE to InventoryNotInStockException")
+                void reserveOrderShouldMapAsyncResourceExhaustedToInventoryNotInStockException() {
+                        // Given
+                        com.google.rpc.Status status = com.google.rpc.Status.newBuilder()
+                                        .setCode(Status.Code.RESOURCE_EXHAUSTED.value())
+                                        .setMessage("Not enough stock")
+                                        .addDetails(Any.pack(ErrorInfo.newBuilder()
+                                                        .setReason("NOT_ENOUGH_ITEM_ERROR_CODE")
+                                                        .putMetadata("unavailable_products", "sku1")
+                                                        .build()))
+                                        .build();
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(Futures.immediateFailedFuture(
+                                                        StatusProto.toStatusRuntimeException(status)));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> asyncClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(InventoryNotInStockException.class, executionException.getCause());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should map async DEADLINE_EXCEEDED to InvalidInventoryException")
+                void reserveOrderShouldMapAsyncDeadlineExceededToInvalidInventoryException() {
+                        // Given
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(Futures.immediateFailedFuture(
+                                                        Status.DEADLINE_EXCEEDED.asRuntimeException()));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> asyncClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(InvalidInventoryException.class, executionException.getCause());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should cancel the gRPC call when the returned future is cancelled")
+                void reserveOrderShouldCancelGrpcCallWhenFutureCancelled() {
+                        // Given
+                        SettableFuture<ReserveProductsResponse> call = SettableFuture.create();
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest))).thenReturn(call);
+
+                        // When
+                        asyncClientService.reserveOrder(orderReservationRequest).cancel(true);
+
+                        // Then
+                        assertTrue(call.isCancelled());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should apply the configured deadline to the future stub")
+                void reserveOrderShouldApplyDeadlineToFutureStub() {
+                        // Given
+                        var deadlineStub = mock(ReservationServiceGrpc.ReservationServiceFutureStub.class);
+                        when(futureStub.withDeadlineAfter(2500, TimeUnit.MILLISECONDS)).thenReturn(deadlineStub);
+                        when(deadlineStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(SettableFuture.create());
+                        var service = new InventoryReservationGrpcClientService(
+                                        reservationServiceStub, futureStub, Duration.ofMillis(2500), null, null, null);
+
+                        // When
+                        service.reserveOrder(orderReservationRequest);
+
+                        // Then
+                        verify(deadlineStub).reserveProducts(toGrpcRequest(orderReservationRequest));
+                }
+        }
+
+        @Nested
+        @DisplayName("Batched Operations")
+        class BatchedOperations {
+
+                private final InventoryReservationBatcher batcher = mock(InventoryReservationBatcher.class);
+
+                private final OrderReservationRequest orderReservationRequest = new OrderReservationRequest(
+                                "ORDER-123",
+                                List.of(new com.orderproduct.orderservice.dto.ItemReservationRequest("sku1", 5)));
+
+                private InventoryReservationGrpcClientService batchedClientService;
+
+                @BeforeEach
+                void setUp() {
+                        batchedClientService = new InventoryReservationGrpcClientService(reservationServiceStub, null,
+                                        null, batcher, null, null);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should complete with the order's result from the batcher")
+                void reserveOrderShouldCompleteFromBatcher() throws Exception {
+                        // Given
+                        CompletableFuture<ReserveProductsResponse> batched = new CompletableFuture<>();
+                        when(batcher.submit(toGrpcRequest(orderReservationRequest))).thenReturn(batched);
+
+                        // When
+                        var future = batchedClientService.reserveOrder(orderReservationRequest);
+                        boolean doneBeforeResponse = future.isDone();
+                        batched.complete(ReserveProductsResponse.newBuilder()
+                                        .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                        .setSkuCode("sku1")
+                                                        .setAvailableQuantity(10)
+                                                        .build())
+                                        .build());
+
+                        // Then
+                        assertFalse(doneBeforeResponse);
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 10)), future.get());
+                        verifyNoInteractions(reservationServiceStub);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should map a per-order RESOURCE_EXHAUSTED error to InventoryNotInStockException")
+                void reserveOrderShouldMapBatchedResourceExhaustedToInventoryNotInStockException() {
+                        // Given
+                        com.google.rpc.Status status = com.google.rpc.Status.newBuilder()
+                                        .setCode(Status.Code.RESOURCE_EXHAUSTED.value())
+                                        .setMessage("Not enough stock")
+                                        .addDetails(Any.pack(ErrorInfo.newBuilder()
+                                                        .setReason("NOT_ENOUGH_ITEM_ERROR_CODE")
+                                                        .putMetadata("unavailable_products", "sku1")
+                                                        .build()))
+                                        .build();
+                        when(batcher.submit(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(CompletableFuture.failedFuture(
+                                                        StatusProto.toStatusRuntimeException(status)));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> batchedClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(InventoryNotInStockException.class, executionException.getCause());
+                }
+        }
+
+        @Nested
+        @DisplayName("Concurrency Limit")
+        class ConcurrencyLimit {
+
+                private final ReservationServiceGrpc.ReservationServiceFutureStub futureStub = mock(
+                                ReservationServiceGrpc.ReservationServiceFutureStub.class);
+
+                private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 10,
+                                1.5, 0.9, 0.2);
+
+                private final OrderReservationRequest orderReservationRequest = new OrderReservationRequest(
+                                "ORDER-123",
+                                List.of(new com.orderproduct.orderservice.dto.ItemReservationRequest("sku1", 5)));
+
+                private InventoryReservationGrpcClientService limitedClientService;
+
+                @BeforeEach
+                void setUp() {
+                        limitedClientService = new InventoryReservationGrpcClientService(reservationServiceStub,
+                                        futureStub, null, null, concurrencyLimiter, null);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should fail with ServiceUnavailableException without calling inventory-service when the limit is reached")
+                void reserveOrderShouldRejectWhenLimitReached() {
+                        // Given
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(SettableFuture.create());
+                        limitedClientService.reserveOrder(orderReservationRequest);
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> limitedClientService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(ServiceUnavailableException.class, executionException.getCause());
+                        verify(futureStub, times(1)).reserveProducts(toGrpcRequest(orderReservationRequest));
+                        assertEquals(1, concurrencyLimiter.getRejectedCount());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should free its slot when the gRPC call completes")
+                void reserveOrderShouldFreeSlotWhenCallCompletes() throws Exception {
+                        // Given
+                        when(futureStub.reserveProducts(toGrpcRequest(orderReservationRequest)))
+                                        .thenReturn(Futures.immediateFuture(ReserveProductsResponse.newBuilder()
+                                                        .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                                        .setSkuCode("sku1")
+                                                                        .setAvailableQuantity(10)
+                                                                        .build())
+                                                        .build()));
+
+                        // When
+                        limitedClientService.reserveOrder(orderReservationRequest).get();
+                        var second = limitedClientService.reserveOrder(orderReservationRequest).get();
+
+                        // Then
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 10)), second);
+                        assertEquals(0, concurrencyLimiter.getInFlight());
+                }
+        }
+
         private ReserveProductsRequest toGrpcRequest(OrderReservationRequest request) {
                 ReserveProductsRequest.Builder builder = ReserveProductsRequest.newBuilder()
                                 .setOrderNumber(request.orderNumber());
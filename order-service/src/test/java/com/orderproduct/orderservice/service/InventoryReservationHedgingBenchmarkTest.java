@@ -0,0 +1,171 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.orderproduct.inventoryservice.grpc.AvailableInventoryResponse;
+import com.orderproduct.inventoryservice.grpc.ReservationServiceGrpc;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsRequest;
+import com.orderproduct.inventoryservice.grpc.ReserveProductsResponse;
+import com.orderproduct.orderservice.dto.ItemReservationRequest;
+import com.orderproduct.orderservice.dto.OrderReservationRequest;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Compares reservation latency percentiles with and without hedging against
+ * an in-process server standing in for a replica set with one slow replica:
+ * most calls answer after {@value #FAST_LATENCY_MS} ms, but a
+ * {@value #SLOW_CALL_RATIO} share of calls stall for
+ * {@value #SLOW_LATENCY_MS} ms. Each call, hedges included, is an independent
+ * draw, as it would be on another instance. Run with
+ * {@code -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InventoryReservationHedgingBenchmarkTest {
+
+        private static final long FAST_LATENCY_MS = 10;
+        private static final long SLOW_LATENCY_MS = 300;
+        private static final double SLOW_CALL_RATIO = 0.03;
+        private static final double BUDGET_RATIO = 0.05;
+        private static final int ORDERS = 5_000;
+        private static final int WARMUP_ORDERS = 500;
+        private static final int IN_FLIGHT = 20;
+
+        private final ScheduledExecutorService serverScheduler = Executors.newScheduledThreadPool(2);
+        private Server server;
+        private ManagedChannel channel;
+
+        @BeforeEach
+        void setUp() throws Exception {
+                String serverName = InProcessServerBuilder.generateName();
+                server = InProcessServerBuilder.forName(serverName)
+                                .addService(new SlowReplicaReservationService())
+                                .build()
+                                .start();
+                channel = InProcessChannelBuilder.forName(serverName).build();
+        }
+
+        @AfterEach
+        void tearDown() throws InterruptedException {
+                channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+                server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+                serverScheduler.shutdownNow();
+        }
+
+        @Test
+        @DisplayName("`reserveOrder()` with and without hedging: p50, p99 and extra calls")
+        void reserveOrder_WithAndWithoutHedging() throws Exception {
+                var plain = new InventoryReservationGrpcClientService(
+                                ReservationServiceGrpc.newBlockingStub(channel),
+                                ReservationServiceGrpc.newFutureStub(channel),
+                                null, null, null, null);
+                try (var hedger = new ReservationHedger(0.95, Duration.ofMillis(50), Duration.ofMillis(5),
+                                BUDGET_RATIO)) {
+                        var hedged = new InventoryReservationGrpcClientService(
+                                        ReservationServiceGrpc.newBlockingStub(channel),
+                                        ReservationServiceGrpc.newFutureStub(channel),
+                                        null, null, null, hedger);
+
+                        // Warm up both paths; this also gives the hedger its latency samples.
+                        run(plain, WARMUP_ORDERS);
+                        run(hedged, WARMUP_ORDERS);
+                        long hedgesBefore = hedger.getHedgesSent();
+
+                        Result plainResult = run(plain, ORDERS);
+                        Result hedgedResult = run(hedged, ORDERS);
+                        long hedges = hedger.getHedgesSent() - hedgesBefore;
+
+                        System.out.printf("Hedging benchmark (%d orders, %d in flight, %d ms calls, %.0f%% stall %d ms)%n",
+                                        ORDERS, IN_FLIGHT, FAST_LATENCY_MS, SLOW_CALL_RATIO * 100, SLOW_LATENCY_MS);
+                        System.out.printf("  %-8s %10s %10s %12s%n", "client", "p50 (ms)", "p99 (ms)", "extra calls");
+                        System.out.printf("  %-8s %10.1f %10.1f %12s%n", "plain", plainResult.percentile(0.50),
+                                        plainResult.percentile(0.99), "0");
+                        System.out.printf("  %-8s %10.1f %10.1f %11.1f%%%n", "hedged", hedgedResult.percentile(0.50),
+                                        hedgedResult.percentile(0.99), hedges * 100.0 / ORDERS);
+                        System.out.printf("  hedging delay: %d ms%n", hedger.getDelay().toMillis());
+
+                        assertEquals(ORDERS, plainResult.completed());
+                        assertEquals(ORDERS, hedgedResult.completed());
+                        // The token bucket allows a small burst on top of the budget.
+                        assertTrue(hedges <= ORDERS * BUDGET_RATIO + ReservationHedger.MAX_TOKENS,
+                                        "hedges: " + hedges);
+                }
+        }
+
+        private Result run(InventoryReservationGrpcClientService service, int orders) throws Exception {
+                Semaphore inFlight = new Semaphore(IN_FLIGHT);
+                AtomicInteger completed = new AtomicInteger();
+                long[] latencies = new long[orders];
+                List<CompletableFuture<?>> futures = new ArrayList<>(orders);
+
+                for (int i = 0; i < orders; i++) {
+                        inFlight.acquire();
+                        int order = i;
+                        var request = new OrderReservationRequest("ORDER-" + i,
+                                        List.of(new ItemReservationRequest("sku1", 1)));
+                        long startedAt = System.nanoTime();
+                        futures.add(service.reserveOrder(request).whenComplete((statuses, throwable) -> {
+                                latencies[order] = System.nanoTime() - startedAt;
+                                if (throwable == null) {
+                                        completed.incrementAndGet();
+                                }
+                                inFlight.release();
+                        }));
+                }
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+                return new Result(completed.get(), latencies);
+        }
+
+        private record Result(int completed, long[] latencies) {
+
+                double percentile(double percentile) {
+                        long[] sorted = latencies.clone();
+                        Arrays.sort(sorted);
+                        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+                }
+        }
+
+        // Responds from a scheduler so the server side never parks a thread for the simulated latency.
+        private class SlowReplicaReservationService extends ReservationServiceGrpc.ReservationServiceImplBase {
+
+                @Override
+                public void reserveProducts(ReserveProductsRequest request,
+                                StreamObserver<ReserveProductsResponse> responseObserver) {
+                        long latencyMs = ThreadLocalRandom.current().nextDouble() < SLOW_CALL_RATIO
+                                        ? SLOW_LATENCY_MS
+                                        : FAST_LATENCY_MS;
+                        serverScheduler.schedule(() -> {
+                                responseObserver.onNext(ReserveProductsResponse.newBuilder()
+                                                .addAvailableInventory(AvailableInventoryResponse.newBuilder()
+                                                                .setSkuCode("sku1")
+                                                                .setAvailableQuantity(100)
+                                                                .build())
+                                                .build());
+                                responseObserver.onCompleted();
+                        }, latencyMs, TimeUnit.MILLISECONDS);
+                }
+        }
+}
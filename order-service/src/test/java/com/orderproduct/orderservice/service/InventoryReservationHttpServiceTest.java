@@ -4,11 +4,19 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,6 +32,7 @@ import com.orderproduct.orderservice.common.InvalidInputException;
 import com.orderproduct.orderservice.common.InvalidInventoryException;
 import com.orderproduct.orderservice.common.InventoryNotInStockException;
 import com.orderproduct.orderservice.common.OrderReservationNotAllowedException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
 import com.orderproduct.orderservice.dto.InventoryAvailabilityStatus;
 import com.orderproduct.orderservice.dto.ItemReservationRequest;
 import com.orderproduct.orderservice.dto.OrderReservationRequest;
@@ -33,6 +42,7 @@ import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 
 public class InventoryReservationHttpServiceTest {
 
@@ -47,7 +57,8 @@ public class InventoryReservationHttpServiceTest {
 
                 inventoryReservationHttpService = new InventoryReservationHttpService(
                                 WebClient.builder(),
-                                mockWebServer.url("/").toString());
+                                mockWebServer.url("/").toString(),
+                                null, null);
         }
 
         @AfterEach
@@ -421,6 +432,192 @@ public class InventoryReservationHttpServiceTest {
                 }
         }
 
+        @Nested
+        @DisplayName("Concurrency Limit")
+        class ConcurrencyLimit {
+
+                private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 10,
+                                1.5, 0.9, 0.2);
+
+                private final OrderReservationRequest orderReservationRequest = new OrderReservationRequest(
+                                "ORDER-123",
+                                List.of(new ItemReservationRequest("sku1", 5)));
+
+                private InventoryReservationHttpService limitedHttpService;
+
+                @BeforeEach
+                void setUp() {
+                        limitedHttpService = new InventoryReservationHttpService(
+                                        WebClient.builder(),
+                                        mockWebServer.url("/").toString(),
+                                        concurrencyLimiter, null);
+                }
+
+                @Test
+                @DisplayName("reserveOrder should fail with ServiceUnavailableException without calling inventory-service when the limit is reached")
+                void reserveOrderShouldRejectWhenLimitReached() throws Exception {
+                        // Given
+                        mockWebServer.enqueue(availabilityResponse(10).setHeadersDelay(500, TimeUnit.MILLISECONDS));
+                        var first = limitedHttpService.reserveOrder(orderReservationRequest);
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> limitedHttpService.reserveOrder(orderReservationRequest).get());
+
+                        // Then
+                        assertInstanceOf(ServiceUnavailableException.class, executionException.getCause());
+                        assertEquals(1, concurrencyLimiter.getRejectedCount());
+                        first.get(5, TimeUnit.SECONDS);
+                        assertEquals(1, mockWebServer.getRequestCount());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should free its slot when the request succeeds")
+                void reserveOrderShouldFreeSlotOnSuccess() throws Exception {
+                        // Given
+                        mockWebServer.enqueue(availabilityResponse(10));
+                        mockWebServer.enqueue(availabilityResponse(5));
+
+                        // When
+                        limitedHttpService.reserveOrder(orderReservationRequest).get();
+                        awaitNoCallInFlight();
+                        var second = limitedHttpService.reserveOrder(orderReservationRequest).get();
+
+                        // Then
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 5)), second);
+                        assertEquals(0, concurrencyLimiter.getInFlight());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should free its slot when the request fails")
+                void reserveOrderShouldFreeSlotOnError() throws Exception {
+                        // Given
+                        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+                        mockWebServer.enqueue(availabilityResponse(5));
+
+                        // When
+                        ExecutionException executionException = assertThrows(
+                                        ExecutionException.class,
+                                        () -> limitedHttpService.reserveOrder(orderReservationRequest).get());
+                        awaitNoCallInFlight();
+                        var second = limitedHttpService.reserveOrder(orderReservationRequest).get();
+
+                        // Then
+                        assertInstanceOf(InternalServerException.class, executionException.getCause());
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 5)), second);
+                        assertEquals(0, concurrencyLimiter.getInFlight());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should free its slot when the TimeLimiter times the request out")
+                void reserveOrderShouldFreeSlotWhenTimeLimiterTimesOut() throws Exception {
+                        // Given
+                        mockWebServer.enqueue(availabilityResponse(10).setHeadersDelay(500, TimeUnit.MILLISECONDS));
+                        var timeLimiter = io.github.resilience4j.timelimiter.TimeLimiter.of(Duration.ofMillis(50));
+                        var scheduler = Executors.newSingleThreadScheduledExecutor();
+                        AtomicReference<CompletableFuture<List<InventoryAvailabilityStatus>>> call = new AtomicReference<>();
+
+                        // When
+                        try {
+                                ExecutionException executionException = assertThrows(
+                                                ExecutionException.class,
+                                                () -> timeLimiter.executeCompletionStage(scheduler, () -> {
+                                                        call.set(limitedHttpService.reserveOrder(orderReservationRequest));
+                                                        return call.get();
+                                                }).toCompletableFuture().get(5, TimeUnit.SECONDS));
+
+                                // Then: the TimeLimiter fails the call's own future, which frees the slot
+                                assertInstanceOf(TimeoutException.class, executionException.getCause());
+                        } finally {
+                                scheduler.shutdownNow();
+                        }
+                        assertTrue(call.get().isCompletedExceptionally());
+                        awaitNoCallInFlight();
+                        assertEquals(0, concurrencyLimiter.getInFlight());
+                }
+
+                @Test
+                @DisplayName("reserveOrder should free its slot when the caller cancels the request")
+                void reserveOrderShouldFreeSlotWhenCancelled() throws Exception {
+                        // Given
+                        mockWebServer.enqueue(availabilityResponse(10).setHeadersDelay(500, TimeUnit.MILLISECONDS));
+                        var call = limitedHttpService.reserveOrder(orderReservationRequest);
+
+                        // When
+                        call.cancel(true);
+
+                        // Then
+                        assertEquals(0, concurrencyLimiter.getInFlight());
+                }
+
+                // The slot is freed by a completion callback that can run just after a waiting caller wakes up.
+                private void awaitNoCallInFlight() throws InterruptedException {
+                        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                        while (concurrencyLimiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+                                Thread.sleep(5);
+                        }
+                }
+        }
+
+        @Nested
+        @DisplayName("Hedging")
+        class Hedging {
+
+                private final OrderReservationRequest orderReservationRequest = new OrderReservationRequest(
+                                "ORDER-123",
+                                List.of(new ItemReservationRequest("sku1", 5)));
+
+                private final CountDownLatch cancelledExchange = new CountDownLatch(1);
+
+                // A budget ratio of 1.0 lets every call be hedged.
+                private final ReservationHedger reservationHedger = new ReservationHedger(0.95,
+                                Duration.ofMillis(200), Duration.ofMillis(5), 1.0);
+
+                private InventoryReservationHttpService hedgedHttpService;
+
+                @BeforeEach
+                void setUp() {
+                        // Records whether an exchange is cancelled once its caller gives up on it.
+                        WebClient.Builder webClientBuilder = WebClient.builder()
+                                        .filter((request, next) -> next.exchange(request)
+                                                        .doOnCancel(cancelledExchange::countDown));
+                        hedgedHttpService = new InventoryReservationHttpService(
+                                        webClientBuilder,
+                                        mockWebServer.url("/").toString(),
+                                        null, reservationHedger);
+                }
+
+                @AfterEach
+                void closeHedger() {
+                        reservationHedger.close();
+                }
+
+                @Test
+                @DisplayName("reserveOrder should send a second POST when the first is slow, take the first answer and cancel the other exchange")
+                void reserveOrderShouldHedgeSlowPost() throws Exception {
+                        // Given: a warm connection pool, so the first POST reaches the server well before the hedge
+                        mockWebServer.enqueue(availabilityResponse(5));
+                        inventoryReservationHttpService.reserveOrder(orderReservationRequest).get();
+                        mockWebServer.takeRequest();
+                        mockWebServer.enqueue(availabilityResponse(1).setHeadersDelay(1, TimeUnit.SECONDS));
+                        mockWebServer.enqueue(availabilityResponse(10));
+
+                        // When
+                        var statuses = hedgedHttpService.reserveOrder(orderReservationRequest).get(5, TimeUnit.SECONDS);
+
+                        // Then
+                        assertEquals(List.of(new InventoryAvailabilityStatus("sku1", 10)), statuses);
+                        assertEquals(1, reservationHedger.getHedgesSent());
+                        assertEquals(1, reservationHedger.getHedgesWon());
+                        RecordedRequest first = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+                        RecordedRequest second = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+                        assertEquals(first.getBody().readUtf8(), second.getBody().readUtf8());
+                        assertTrue(cancelledExchange.await(1, TimeUnit.SECONDS),
+                                        "the slow exchange should be cancelled");
+                }
+        }
+
         @Nested
         @DisplayName("Resilience4j Configuration")
         class Resilience4jConfiguration {
@@ -456,4 +653,11 @@ public class InventoryReservationHttpServiceTest {
                         assertInstanceOf(InternalServerException.class, exception.getCause());
                 }
         }
-}
\ No newline at end of file
+
+        private MockResponse availabilityResponse(int availableQuantity) throws JsonProcessingException {
+                return new MockResponse()
+                                .setBody(objectMapper.writeValueAsString(
+                                                List.of(new InventoryAvailabilityStatus("sku1", availableQuantity))))
+                                .addHeader("Content-Type", "application/json");
+        }
+}
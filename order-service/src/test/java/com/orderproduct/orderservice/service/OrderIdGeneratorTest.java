@@ -0,0 +1,72 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OrderIdGeneratorTest {
+
+        @Test
+        @DisplayName("`nextId()` with UUID_V7 should return version 7 UUIDs carrying the current time")
+        public void nextId_UuidV7_ReturnsTimeOrderedUuids() {
+                // Given
+                final var generator = new OrderIdGenerator(OrderIdGenerator.Strategy.UUID_V7, 0);
+                final long before = System.currentTimeMillis();
+
+                // When
+                final UUID uuid = UUID.fromString(generator.nextId());
+
+                // Then
+                final long timestamp = uuid.getMostSignificantBits() >>> 16;
+                assertEquals(7, uuid.version());
+                assertEquals(2, uuid.variant());
+                assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis());
+        }
+
+        @Test
+        @DisplayName("`nextId()` with TSID should return strictly increasing 13-character IDs carrying the node ID")
+        public void nextId_Tsid_ReturnsIncreasingIdsWithNodeId() {
+                // Given
+                final var generator = new OrderIdGenerator(OrderIdGenerator.Strategy.TSID, 42);
+
+                // When & Then
+                String previous = generator.nextId();
+                for (int i = 0; i < 10_000; i++) {
+                        final String next = generator.nextId();
+                        assertEquals(13, next.length());
+                        assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+                        previous = next;
+                }
+                final long tsid = decode(previous);
+                assertEquals(42, (tsid >>> OrderIdGenerator.COUNTER_BITS) & OrderIdGenerator.MAX_NODE_ID);
+        }
+
+        @Test
+        @DisplayName("`encodeTsid()` should write fixed-width Crockford base32")
+        public void encodeTsid_ReturnsFixedWidthCrockfordBase32() {
+                assertEquals("0000000000000", OrderIdGenerator.encodeTsid(0));
+                assertEquals("000000000000Z", OrderIdGenerator.encodeTsid(31));
+                assertEquals("FZZZZZZZZZZZZ", OrderIdGenerator.encodeTsid(-1L));
+        }
+
+        @Test
+        @DisplayName("TSID should reject a node ID that does not fit in 10 bits")
+        public void constructor_TsidNodeIdOutOfRange_Throws() {
+                assertThrows(IllegalArgumentException.class,
+                                () -> new OrderIdGenerator(OrderIdGenerator.Strategy.TSID, 1024));
+        }
+
+        private static long decode(String tsid) {
+                final String alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+                long value = 0;
+                for (char c : tsid.toCharArray()) {
+                        value = (value << 5) | alphabet.indexOf(c);
+                }
+                return value;
+        }
+}
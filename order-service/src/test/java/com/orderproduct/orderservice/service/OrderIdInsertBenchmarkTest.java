@@ -0,0 +1,151 @@
+package com.orderproduct.orderservice.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Compares insert throughput and index size of {@code orders} (order_db) and
+ * {@code inventory_reservation} (inventory_db) for each
+ * {@link OrderIdGenerator.Strategy}, against MySQL with a buffer pool far
+ * smaller than the indexes. Run with {@code -Dbenchmark=true}; the number of
+ * orders can be set with {@code -Dbenchmark.orders}.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class OrderIdInsertBenchmarkTest {
+
+        private static final int ORDERS = Integer.getInteger("benchmark.orders", 300_000);
+        private static final int SKUS_PER_ORDER = 3;
+        private static final int ORDERS_PER_COMMIT = 500;
+
+        @Container
+        static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+                        .withCommand("--innodb-buffer-pool-size=32M");
+
+        @Test
+        @DisplayName("Insert throughput of orders and reservations by order ID strategy")
+        void insert_ByOrderIdStrategy() throws Exception {
+                System.out.printf("Order ID insert benchmark (%d orders, %d reservations each, 32M buffer pool)%n",
+                                ORDERS, SKUS_PER_ORDER);
+                System.out.printf("  %-8s %16s %16s %18s%n", "strategy", "orders/sec", "reservations/sec",
+                                "reservation MB");
+
+                try (Connection connection = DriverManager.getConnection(
+                                mySQLContainer.getJdbcUrl() + "?rewriteBatchedStatements=true",
+                                mySQLContainer.getUsername(), mySQLContainer.getPassword())) {
+                        for (OrderIdGenerator.Strategy strategy : OrderIdGenerator.Strategy.values()) {
+                                createTables(connection);
+                                OrderIdGenerator generator = new OrderIdGenerator(strategy, 1);
+                                String[] orderNumbers = new String[ORDERS];
+                                for (int i = 0; i < ORDERS; i++) {
+                                        orderNumbers[i] = generator.nextId();
+                                }
+
+                                double ordersPerSecond = insertOrders(connection, orderNumbers);
+                                double reservationsPerSecond = insertReservations(connection, orderNumbers);
+
+                                System.out.printf("  %-8s %16.0f %16.0f %18.1f%n", strategy, ordersPerSecond,
+                                                reservationsPerSecond,
+                                                tableSizeBytes(connection, "inventory_reservation") / 1e6);
+                        }
+                }
+        }
+
+        private static void createTables(Connection connection) throws SQLException {
+                try (Statement statement = connection.createStatement()) {
+                        statement.execute("DROP TABLE IF EXISTS orders");
+                        statement.execute("DROP TABLE IF EXISTS inventory_reservation");
+                        statement.execute("""
+                                        CREATE TABLE orders (
+                                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                            order_number VARCHAR(255) NOT NULL UNIQUE
+                                        )""");
+                        statement.execute("""
+                                        CREATE TABLE inventory_reservation (
+                                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                                            order_number VARCHAR(255) NOT NULL,
+                                            sku_code VARCHAR(255) NOT NULL,
+                                            reserved_quantity INT NOT NULL,
+                                            reserved_at DATETIME NOT NULL,
+                                            status VARCHAR(50) NOT NULL,
+                                            UNIQUE KEY uk_order_sku (order_number, sku_code),
+                                            INDEX idx_sku_code_status (sku_code, status),
+                                            INDEX idx_order_number (order_number),
+                                            INDEX idx_order_sku (order_number, sku_code),
+                                            INDEX idx_status_reserved_at (status, reserved_at)
+                                        )""");
+                }
+        }
+
+        private static double insertOrders(Connection connection, String[] orderNumbers) throws SQLException {
+                connection.setAutoCommit(false);
+                long startedAt = System.nanoTime();
+                try (PreparedStatement insert = connection
+                                .prepareStatement("INSERT INTO orders (order_number) VALUES (?)")) {
+                        for (int i = 0; i < orderNumbers.length; i++) {
+                                insert.setString(1, orderNumbers[i]);
+                                insert.addBatch();
+                                if ((i + 1) % ORDERS_PER_COMMIT == 0 || i == orderNumbers.length - 1) {
+                                        insert.executeBatch();
+                                        connection.commit();
+                                }
+                        }
+                }
+                long elapsedNanos = System.nanoTime() - startedAt;
+                connection.setAutoCommit(true);
+                return orderNumbers.length * 1e9 / elapsedNanos;
+        }
+
+        private static double insertReservations(Connection connection, String[] orderNumbers) throws SQLException {
+                connection.setAutoCommit(false);
+                Timestamp reservedAt = Timestamp.valueOf(LocalDateTime.now());
+                long startedAt = System.nanoTime();
+                try (PreparedStatement insert = connection.prepareStatement("""
+                                INSERT INTO inventory_reservation
+                                    (order_number, sku_code, reserved_quantity, reserved_at, status)
+                                VALUES (?, ?, 1, ?, 'PENDING')""")) {
+                        for (int i = 0; i < orderNumbers.length; i++) {
+                                for (int sku = 0; sku < SKUS_PER_ORDER; sku++) {
+                                        insert.setString(1, orderNumbers[i]);
+                                        insert.setString(2, "sku-" + (i + sku) % 1000);
+                                        insert.setTimestamp(3, reservedAt);
+                                        insert.addBatch();
+                                }
+                                if ((i + 1) % ORDERS_PER_COMMIT == 0 || i == orderNumbers.length - 1) {
+                                        insert.executeBatch();
+                                        connection.commit();
+                                }
+                        }
+                }
+                long elapsedNanos = System.nanoTime() - startedAt;
+                connection.setAutoCommit(true);
+                return orderNumbers.length * SKUS_PER_ORDER * 1e9 / elapsedNanos;
+        }
+
+        private static long tableSizeBytes(Connection connection, String table) throws SQLException {
+                try (Statement statement = connection.createStatement()) {
+                        statement.execute("ANALYZE TABLE " + table);
+                        try (ResultSet resultSet = statement.executeQuery(
+                                        "SELECT data_length + index_length FROM information_schema.tables "
+                                                        + "WHERE table_schema = DATABASE() AND table_name = '"
+                                                        + table + "'")) {
+                                resultSet.next();
+                                return resultSet.getLong(1);
+                        }
+                }
+        }
+}
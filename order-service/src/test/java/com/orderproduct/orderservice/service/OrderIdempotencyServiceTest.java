@@ -0,0 +1,234 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.orderservice.common.IdempotencyKeyReusedException;
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
+import com.orderproduct.orderservice.dto.OrderLineItemsDto;
+import com.orderproduct.orderservice.dto.OrderRequest;
+import com.orderproduct.orderservice.dto.SavedOrder;
+import com.orderproduct.orderservice.entity.IdempotencyKey;
+import com.orderproduct.orderservice.repository.IdempotencyKeyRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OrderIdempotencyServiceTest {
+
+        private static final long NOW = 1_000_000_000L;
+
+        private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+        private final OrderDataGenerator orderDataGenerator = mock(OrderDataGenerator.class);
+        private final OrderPlacementExecutor orderPlacementExecutor = new OrderPlacementExecutor(
+                        OrderPlacementExecutor.Mode.PLATFORM, 2, 2);
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        private final OrderIdempotencyService orderIdempotencyService = new OrderIdempotencyService(
+                        idempotencyKeyRepository,
+                        orderPlacementExecutor,
+                        orderDataGenerator,
+                        meterRegistry,
+                        Duration.ofHours(24),
+                        100);
+
+        private final OrderRequest orderRequest = new OrderRequest(List.of(
+                        new OrderLineItemsDto("skuCode1", BigDecimal.valueOf(1000), 10)));
+        private final IdempotencyContext context = new IdempotencyContext("key-1",
+                        OrderIdempotencyService.requestHash(orderRequest));
+        private final SavedOrder savedOrder = new SavedOrder("1", "ORDER-001");
+
+        @BeforeEach
+        void setUp() {
+                when(orderDataGenerator.getCurrentTimestamp()).thenReturn(NOW);
+                when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.empty());
+        }
+
+        @AfterEach
+        void tearDown() {
+                orderPlacementExecutor.close();
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` places the order once and replays it from the cache for the same key")
+        void placeOnce_ReplaysFromCache_WhenKeyWasUsedBefore() throws Exception {
+                // Given
+                AtomicInteger placements = new AtomicInteger();
+                Supplier<CompletableFuture<SavedOrder>> placeOrder = () -> {
+                        placements.incrementAndGet();
+                        return CompletableFuture.completedFuture(savedOrder);
+                };
+
+                // When
+                SavedOrder first = orderIdempotencyService.placeOnce(context, placeOrder).get(5, TimeUnit.SECONDS);
+                SavedOrder replayed = orderIdempotencyService.placeOnce(context, placeOrder).get(5, TimeUnit.SECONDS);
+
+                // Then
+                assertEquals(savedOrder, first);
+                assertEquals(savedOrder, replayed);
+                assertEquals(1, placements.get());
+                verify(idempotencyKeyRepository, times(1)).findById("key-1");
+                assertEquals(1.0, meterRegistry.get("order.idempotency.replayed").tag("source", "cache")
+                                .counter().count());
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` replays the order stored in the database without placing a new one")
+        void placeOnce_ReplaysFromDatabase_WhenKeyIsStored() throws Exception {
+                // Given
+                when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(storedKey(context.requestHash(),
+                                NOW - Duration.ofHours(1).toMillis())));
+
+                // When
+                SavedOrder replayed = orderIdempotencyService.placeOnce(context, this::failIfCalled)
+                                .get(5, TimeUnit.SECONDS);
+
+                // Then
+                assertEquals(new SavedOrder("7", "ORDER-007"), replayed);
+                assertEquals(1.0, meterRegistry.get("order.idempotency.replayed").tag("source", "database")
+                                .counter().count());
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` fails with IdempotencyKeyReusedException when the key was used for a different request")
+        void placeOnce_ThrowsIdempotencyKeyReusedException_WhenRequestHashDiffers() {
+                // Given
+                when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(storedKey("other-hash",
+                                NOW - Duration.ofHours(1).toMillis())));
+
+                // When
+                ExecutionException executionException = assertThrows(ExecutionException.class,
+                                () -> orderIdempotencyService.placeOnce(context, this::failIfCalled)
+                                                .get(5, TimeUnit.SECONDS));
+
+                // Then
+                assertInstanceOf(IdempotencyKeyReusedException.class, executionException.getCause());
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` deletes an expired stored key and places the order again")
+        void placeOnce_PlacesOrder_WhenStoredKeyExpired() throws Exception {
+                // Given
+                IdempotencyKey expired = storedKey(context.requestHash(), NOW - Duration.ofHours(25).toMillis());
+                when(idempotencyKeyRepository.findById("key-1")).thenReturn(Optional.of(expired));
+
+                // When
+                SavedOrder result = orderIdempotencyService
+                                .placeOnce(context, () -> CompletableFuture.completedFuture(savedOrder))
+                                .get(5, TimeUnit.SECONDS);
+
+                // Then
+                assertEquals(savedOrder, result);
+                verify(idempotencyKeyRepository).delete(expired);
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` lets concurrent requests with the same key share the in-flight order")
+        void placeOnce_SharesInFlightOrder_ForConcurrentRequests() throws Exception {
+                // Given
+                CompletableFuture<SavedOrder> inFlight = new CompletableFuture<>();
+                AtomicInteger placements = new AtomicInteger();
+                Supplier<CompletableFuture<SavedOrder>> placeOrder = () -> {
+                        placements.incrementAndGet();
+                        return inFlight;
+                };
+
+                // When
+                CompletableFuture<SavedOrder> first = orderIdempotencyService.placeOnce(context, placeOrder);
+                CompletableFuture<SavedOrder> second = orderIdempotencyService.placeOnce(context, placeOrder);
+                CompletableFuture<SavedOrder> reused = orderIdempotencyService.placeOnce(
+                                new IdempotencyContext("key-1", "other-hash"), placeOrder);
+                inFlight.complete(savedOrder);
+
+                // Then
+                assertEquals(savedOrder, first.get(5, TimeUnit.SECONDS));
+                assertEquals(savedOrder, second.get(5, TimeUnit.SECONDS));
+                ExecutionException executionException = assertThrows(ExecutionException.class,
+                                () -> reused.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IdempotencyKeyReusedException.class, executionException.getCause());
+                assertEquals(1, placements.get());
+                assertEquals(1.0, meterRegistry.get("order.idempotency.coalesced").counter().count());
+        }
+
+        @Test
+        @DisplayName("`placeOnce()` does not remember a failed order, so it can be retried with the same key")
+        void placeOnce_DoesNotRememberFailedOrder() throws Exception {
+                // Given
+                CompletableFuture<SavedOrder> failed = CompletableFuture.failedFuture(new InternalServerException());
+
+                // When
+                ExecutionException executionException = assertThrows(ExecutionException.class,
+                                () -> orderIdempotencyService.placeOnce(context, () -> failed)
+                                                .get(5, TimeUnit.SECONDS));
+                SavedOrder retried = orderIdempotencyService
+                                .placeOnce(context, () -> CompletableFuture.completedFuture(savedOrder))
+                                .get(5, TimeUnit.SECONDS);
+
+                // Then
+                assertInstanceOf(InternalServerException.class, executionException.getCause());
+                assertEquals(savedOrder, retried);
+                verify(idempotencyKeyRepository, times(2)).findById("key-1");
+        }
+
+        @Test
+        @DisplayName("`purgeExpiredChunk()` deletes keys created before the TTL")
+        void purgeExpiredChunk_DeletesKeysCreatedBeforeTtl() {
+                // Given
+                long createdBefore = NOW - Duration.ofHours(24).toMillis();
+                when(idempotencyKeyRepository.deleteCreatedBefore(createdBefore, 1000)).thenReturn(3);
+
+                // When
+                int purged = orderIdempotencyService.purgeExpiredChunk(1000);
+
+                // Then
+                assertEquals(3, purged);
+        }
+
+        @Test
+        @DisplayName("`requestHash()` ignores trailing zeros in prices and differs for different line items")
+        void requestHash_ComparesPricesByValue() {
+                OrderRequest samePrice = new OrderRequest(List.of(
+                                new OrderLineItemsDto("skuCode1", new BigDecimal("1000.00"), 10)));
+                OrderRequest otherQuantity = new OrderRequest(List.of(
+                                new OrderLineItemsDto("skuCode1", BigDecimal.valueOf(1000), 11)));
+
+                assertEquals(context.requestHash(), OrderIdempotencyService.requestHash(samePrice));
+                assertEquals(64, context.requestHash().length());
+                assertNotEquals(context.requestHash(), OrderIdempotencyService.requestHash(otherQuantity));
+        }
+
+        private CompletableFuture<SavedOrder> failIfCalled() {
+                throw new AssertionError("Order should not be placed");
+        }
+
+        private static IdempotencyKey storedKey(String requestHash, long createdAt) {
+                return IdempotencyKey.builder()
+                                .idempotencyKey("key-1")
+                                .requestHash(requestHash)
+                                .orderId(7L)
+                                .orderNumber("ORDER-007")
+                                .createdAt(createdAt)
+                                .build();
+        }
+}
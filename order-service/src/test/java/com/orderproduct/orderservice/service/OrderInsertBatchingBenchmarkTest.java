@@ -0,0 +1,131 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.contract.stubrunner.spring.StubRunnerProperties.StubsMode.LOCAL;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.stubrunner.spring.AutoConfigureStubRunner;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.orderproduct.orderservice.dto.OrderLineItemsDto;
+import com.orderproduct.orderservice.dto.OrderRequest;
+import com.orderproduct.orderservice.repository.OrderRepository;
+import com.orderproduct.orderservice.repository.OutboxEventRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Measures {@code saveOrder} latency and JDBC statements per order against
+ * order size, with batched inserts, against MySQL. With IDENTITY IDs every
+ * order took one INSERT per line item plus two. Run with
+ * {@code -Dbenchmark=true}.
+ */
+@SpringBootTest
+@Testcontainers
+@AutoConfigureStubRunner(stubsMode = LOCAL, ids = "com.orderproduct:inventory-service:0.0.1-SNAPSHOT:stubs:9091")
+@EmbeddedKafka(topics = { "notification.topic" })
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderInsertBatchingBenchmarkTest {
+
+        private static final int[] LINE_ITEMS_PER_ORDER = { 1, 10, 50, 200 };
+        private static final int ORDERS = 200;
+        private static final int WARMUP_ORDERS = 50;
+
+        @Container
+        static final MySQLContainer<?> mySQLContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"));
+
+        @Autowired
+        private OrderTransactionService orderTransactionService;
+
+        @Autowired
+        private OrderRepository orderRepository;
+
+        @Autowired
+        private OutboxEventRepository outboxEventRepository;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @DynamicPropertySource
+        static void configureTestProperties(DynamicPropertyRegistry registry) {
+                registry.add("spring.datasource.url",
+                                () -> mySQLContainer.getJdbcUrl() + "?rewriteBatchedStatements=true");
+                registry.add("spring.datasource.username", mySQLContainer::getUsername);
+                registry.add("spring.datasource.password", mySQLContainer::getPassword);
+                registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+                registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+                registry.add("spring.jpa.show-sql", () -> "false");
+        }
+
+        @AfterEach
+        void cleanup() {
+                orderRepository.deleteAll();
+                outboxEventRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("`saveOrder()` latency and statements per order against order size")
+        void saveOrder_LatencyByOrderSize() {
+                Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+                System.out.printf("Order insert benchmark (%d orders per size, MySQL)%n", ORDERS);
+                System.out.printf("  %6s %12s %12s %14s %14s%n", "lines", "p50 (ms)", "p95 (ms)", "statements",
+                                "identity (was)");
+
+                for (int lines : LINE_ITEMS_PER_ORDER) {
+                        OrderRequest orderRequest = orderRequest(lines);
+                        // Warm up, which also reserves the first ID blocks.
+                        save("warmup-" + lines, WARMUP_ORDERS, orderRequest);
+
+                        statistics.clear();
+                        long[] latencies = save("bench-" + lines, ORDERS, orderRequest);
+                        double statementsPerOrder = (double) statistics.getPrepareStatementCount() / ORDERS;
+
+                        System.out.printf("  %6d %12.2f %12.2f %14.1f %14d%n", lines, percentile(latencies, 0.50),
+                                        percentile(latencies, 0.95), statementsPerOrder, lines + 2);
+
+                        // Order, line items and outbox event go out as a few batches, not one INSERT per line
+                        assertTrue(statementsPerOrder < 10, "statements per order: " + statementsPerOrder);
+                }
+        }
+
+        private long[] save(String orderNumberPrefix, int orders, OrderRequest orderRequest) {
+                long[] latencies = new long[orders];
+                for (int i = 0; i < orders; i++) {
+                        long startedAt = System.nanoTime();
+                        orderTransactionService.saveOrder(orderNumberPrefix + "-" + i, orderRequest, null);
+                        latencies[i] = System.nanoTime() - startedAt;
+                }
+                return latencies;
+        }
+
+        private static double percentile(long[] latencies, double percentile) {
+                long[] sorted = latencies.clone();
+                Arrays.sort(sorted);
+                return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+        }
+
+        private static OrderRequest orderRequest(int lines) {
+                List<OrderLineItemsDto> lineItems = IntStream.range(0, lines)
+                                .mapToObj(i -> new OrderLineItemsDto("sku-" + i, BigDecimal.valueOf(10 + i), i + 1))
+                                .toList();
+                return new OrderRequest(lineItems);
+        }
+}
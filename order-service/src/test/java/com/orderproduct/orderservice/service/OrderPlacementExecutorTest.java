@@ -0,0 +1,124 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class OrderPlacementExecutorTest {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private OrderPlacementExecutor executor;
+
+        @AfterEach
+        void tearDown() {
+                release.countDown();
+                if (executor != null) {
+                        executor.close();
+                }
+        }
+
+        @ParameterizedTest
+        @EnumSource(OrderPlacementExecutor.Mode.class)
+        @DisplayName("`execute()` runs tasks up to maxConcurrency, queues up to queueCapacity and rejects the rest")
+        void execute_RejectsTasks_WhenRunningAndQueuedSlotsAreFull(OrderPlacementExecutor.Mode mode)
+                        throws InterruptedException {
+                // Given
+                executor = new OrderPlacementExecutor(mode, 2, 1);
+                CountDownLatch started = new CountDownLatch(2);
+
+                // When
+                for (int i = 0; i < 3; i++) {
+                        executor.execute(() -> {
+                                started.countDown();
+                                awaitRelease();
+                        });
+                }
+
+                // Then
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                assertEquals(2, executor.getActiveCount());
+                assertEquals(1, executor.getQueuedCount());
+                assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+                }));
+                assertEquals(1, executor.getRejectedCount());
+        }
+
+        @ParameterizedTest
+        @EnumSource(OrderPlacementExecutor.Mode.class)
+        @DisplayName("`execute()` accepts tasks again once running tasks complete")
+        void execute_AcceptsTasks_AfterRunningTasksComplete(OrderPlacementExecutor.Mode mode)
+                        throws InterruptedException {
+                // Given
+                executor = new OrderPlacementExecutor(mode, 1, 0);
+                CountDownLatch firstDone = new CountDownLatch(1);
+                executor.execute(() -> {
+                        awaitRelease();
+                        firstDone.countDown();
+                });
+                assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+                }));
+
+                // When
+                release.countDown();
+                assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+                CountDownLatch secondDone = new CountDownLatch(1);
+                awaitSlot();
+                executor.execute(secondDone::countDown);
+
+                // Then
+                assertTrue(secondDone.await(5, TimeUnit.SECONDS));
+        }
+
+        @ParameterizedTest
+        @EnumSource(OrderPlacementExecutor.Mode.class)
+        @DisplayName("`bindTo()` publishes active, queued and rejected metrics")
+        void bindTo_PublishesExecutorMetrics(OrderPlacementExecutor.Mode mode) throws InterruptedException {
+                // Given
+                executor = new OrderPlacementExecutor(mode, 1, 0);
+                SimpleMeterRegistry registry = new SimpleMeterRegistry();
+                executor.bindTo(registry);
+                CountDownLatch started = new CountDownLatch(1);
+
+                // When
+                executor.execute(() -> {
+                        started.countDown();
+                        awaitRelease();
+                });
+                assertTrue(started.await(5, TimeUnit.SECONDS));
+                assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {
+                }));
+
+                // Then
+                assertEquals(1.0, registry.get("order.placement.executor.active").gauge().value());
+                assertEquals(0.0, registry.get("order.placement.executor.queued").gauge().value());
+                assertEquals(1.0, registry.get("order.placement.executor.rejected").functionCounter().count());
+        }
+
+        private void awaitRelease() {
+                try {
+                        release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                }
+        }
+
+        // Slots are freed in a finally block right after the task body, so wait for the active count to drop.
+        private void awaitSlot() throws InterruptedException {
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                }
+        }
+}
@@ -14,9 +14,11 @@ import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
@@ -24,10 +26,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.orderproduct.orderservice.common.BadRequestException;
 import com.orderproduct.orderservice.common.InternalServerException;
 import com.orderproduct.orderservice.common.InvalidInputException;
 import com.orderproduct.orderservice.common.InvalidInventoryException;
 import com.orderproduct.orderservice.common.InventoryNotInStockException;
+import com.orderproduct.orderservice.common.ServiceUnavailableException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
 import com.orderproduct.orderservice.dto.InventoryAvailabilityStatus;
 import com.orderproduct.orderservice.dto.ItemReservationRequest;
 import com.orderproduct.orderservice.dto.OrderLineItemsDto;
@@ -53,12 +58,19 @@ public class OrderServiceTest {
 
         private final OrderRepository orderRepository = mock(OrderRepository.class);
 
+        private final OrderPlacementExecutor orderPlacementExecutor = new OrderPlacementExecutor(
+                        OrderPlacementExecutor.Mode.PLATFORM, 2, 2);
+
+        private final OrderIdempotencyService orderIdempotencyService = mock(OrderIdempotencyService.class);
+
         private final OrderService orderService = new OrderService(
                         orderTransactionService,
                         inventoryReservationService,
                         observationRegistry,
                         orderDataGenerator,
-                        orderRepository);
+                        orderRepository,
+                        orderPlacementExecutor,
+                        orderIdempotencyService);
 
         private final String orderNumber = "ThisIsUniqueOrderNumber";
 
@@ -93,13 +105,13 @@ public class OrderServiceTest {
                                                                 new InventoryAvailabilityStatus("skuCode2", 25))));
 
                 final SavedOrder expectedSavedOrder = new SavedOrder("1", orderNumber);
-                when(orderTransactionService.saveOrder(orderNumber, orderRequest)).thenReturn(expectedSavedOrder);
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null)).thenReturn(expectedSavedOrder);
 
                 // Call method to test
                 final var savedOrder = orderService.placeOrder(orderRequest).get();
 
                 // Assert value
-                verify(orderTransactionService).saveOrder(orderNumber, orderRequest);
+                verify(orderTransactionService).saveOrder(orderNumber, orderRequest, null);
                 assertEquals(orderNumber, savedOrder.orderNumber());
                 assertEquals("1", savedOrder.orderId());
         }
@@ -177,7 +189,7 @@ public class OrderServiceTest {
                                                 CompletableFuture.completedFuture(List.of(
                                                                 new InventoryAvailabilityStatus("skuCode1", 10),
                                                                 new InventoryAvailabilityStatus("skuCode2", 20))));
-                when(orderTransactionService.saveOrder(orderNumber, orderRequest))
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null))
                                 .thenThrow(new InternalServerException());
 
                 // Assert
@@ -195,7 +207,7 @@ public class OrderServiceTest {
                                                                 new InventoryAvailabilityStatus("skuCode1", 10),
                                                                 new InventoryAvailabilityStatus("skuCode2", 20))));
                 InternalServerException expectedException = new InternalServerException();
-                when(orderTransactionService.saveOrder(orderNumber, orderRequest))
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null))
                                 .thenThrow(expectedException);
 
                 // When
@@ -217,13 +229,13 @@ public class OrderServiceTest {
                                                                 new InventoryAvailabilityStatus("skuCode1", 10),
                                                                 new InventoryAvailabilityStatus("skuCode2", 20))));
                 final SavedOrder expectedSavedOrder = new SavedOrder("1", orderNumber);
-                when(orderTransactionService.saveOrder(orderNumber, orderRequest)).thenReturn(expectedSavedOrder);
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null)).thenReturn(expectedSavedOrder);
 
                 // When
                 final var savedOrder = orderService.placeOrder(orderRequest).get();
 
                 // Then
-                verify(orderTransactionService).saveOrder(orderNumber, orderRequest);
+                verify(orderTransactionService).saveOrder(orderNumber, orderRequest, null);
                 verify(orderTransactionService, never()).saveOrderCancelledEvent(eq(orderNumber), eq(orderRequest),
                                 any(Throwable.class));
                 assertEquals(orderNumber, savedOrder.orderNumber());
@@ -240,7 +252,7 @@ public class OrderServiceTest {
                                                                 new InventoryAvailabilityStatus("skuCode1", 10),
                                                                 new InventoryAvailabilityStatus("skuCode2", 20))));
                 InternalServerException orderSaveException = new InternalServerException();
-                when(orderTransactionService.saveOrder(orderNumber, orderRequest))
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null))
                                 .thenThrow(orderSaveException);
                 doThrow(new InternalServerException())
                                 .when(orderTransactionService)
@@ -252,6 +264,39 @@ public class OrderServiceTest {
                                 any(Throwable.class));
         }
 
+        @Test
+        @DisplayName("`placeOrder()` fails with ServiceUnavailableException and saves cancelled event when the order placement executor is saturated")
+        public void placeOrder_ThrowsServiceUnavailableException_WhenOrderPlacementExecutorRejects()
+                        throws InternalServerException {
+                // Given
+                when(inventoryReservationService.reserveOrder(orderReservationRequest))
+                                .thenReturn(
+                                                CompletableFuture.completedFuture(List.of(
+                                                                new InventoryAvailabilityStatus("skuCode1", 10),
+                                                                new InventoryAvailabilityStatus("skuCode2", 20))));
+                OrderPlacementExecutor saturatedExecutor = mock(OrderPlacementExecutor.class);
+                doThrow(new RejectedExecutionException()).when(saturatedExecutor).execute(any(Runnable.class));
+                OrderService orderServiceWithSaturatedExecutor = new OrderService(
+                                orderTransactionService,
+                                inventoryReservationService,
+                                observationRegistry,
+                                orderDataGenerator,
+                                orderRepository,
+                                saturatedExecutor,
+                                orderIdempotencyService);
+
+                // When
+                ExecutionException executionException = assertThrows(
+                                ExecutionException.class,
+                                () -> orderServiceWithSaturatedExecutor.placeOrder(orderRequest).get());
+
+                // Then
+                assertEquals(ServiceUnavailableException.class, executionException.getCause().getClass());
+                verify(orderTransactionService, never()).saveOrder(orderNumber, orderRequest, null);
+                verify(orderTransactionService).saveOrderCancelledEvent(eq(orderNumber), eq(orderRequest),
+                                any(Throwable.class));
+        }
+
         @Test
         @DisplayName("`placeOrder()` throws InventoryNotInStockException when any item has zero available quantity")
         public void placeOrder_ThrowsInventoryNotInStockException_WhenAnyItemHasZeroAvailableQuantity()
@@ -268,6 +313,65 @@ public class OrderServiceTest {
                 assertInventoryNotInStockExceptionIsThrown();
         }
 
+        @Test
+        @DisplayName("`placeOrder()` with an Idempotency-Key places the order through OrderIdempotencyService and saves the key with it")
+        public void placeOrder_WithIdempotencyKey_PlacesOrderThroughOrderIdempotencyService()
+                        throws InternalServerException, ExecutionException, InterruptedException {
+                // Given
+                when(inventoryReservationService.reserveOrder(orderReservationRequest))
+                                .thenReturn(
+                                                CompletableFuture.completedFuture(List.of(
+                                                                new InventoryAvailabilityStatus("skuCode1", 10),
+                                                                new InventoryAvailabilityStatus("skuCode2", 20))));
+                final IdempotencyContext expectedContext = new IdempotencyContext("key-1",
+                                OrderIdempotencyService.requestHash(orderRequest));
+                final SavedOrder expectedSavedOrder = new SavedOrder("1", orderNumber);
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, expectedContext))
+                                .thenReturn(expectedSavedOrder);
+                when(orderIdempotencyService.placeOnce(eq(expectedContext), any()))
+                                .thenAnswer(invocation -> invocation
+                                                .<Supplier<CompletableFuture<SavedOrder>>>getArgument(1).get());
+
+                // When
+                final var savedOrder = orderService.placeOrder(orderRequest, "key-1").get();
+
+                // Then
+                assertEquals(expectedSavedOrder, savedOrder);
+                verify(orderTransactionService).saveOrder(orderNumber, orderRequest, expectedContext);
+        }
+
+        @Test
+        @DisplayName("`placeOrder()` without an Idempotency-Key does not use OrderIdempotencyService")
+        public void placeOrder_WithoutIdempotencyKey_DoesNotUseOrderIdempotencyService()
+                        throws InternalServerException, ExecutionException, InterruptedException {
+                // Given
+                when(inventoryReservationService.reserveOrder(orderReservationRequest))
+                                .thenReturn(
+                                                CompletableFuture.completedFuture(List.of(
+                                                                new InventoryAvailabilityStatus("skuCode1", 10),
+                                                                new InventoryAvailabilityStatus("skuCode2", 20))));
+                final SavedOrder expectedSavedOrder = new SavedOrder("1", orderNumber);
+                when(orderTransactionService.saveOrder(orderNumber, orderRequest, null)).thenReturn(expectedSavedOrder);
+
+                // When
+                final var savedOrder = orderService.placeOrder(orderRequest, null).get();
+
+                // Then
+                assertEquals(expectedSavedOrder, savedOrder);
+                verify(orderIdempotencyService, never()).placeOnce(any(), any());
+        }
+
+        @Test
+        @DisplayName("`placeOrder()` throws BadRequestException for a blank or too long Idempotency-Key")
+        public void placeOrder_ThrowsBadRequestException_WhenIdempotencyKeyIsInvalid() {
+                assertThrows(BadRequestException.class, () -> orderService.placeOrder(orderRequest, " "));
+                assertThrows(BadRequestException.class,
+                                () -> orderService.placeOrder(orderRequest,
+                                                "k".repeat(OrderIdempotencyService.MAX_KEY_LENGTH + 1)));
+                verify(orderIdempotencyService, never()).placeOnce(any(), any());
+                verify(inventoryReservationService, never()).reserveOrder(any());
+        }
+
         private void assertInventoryNotInStockExceptionIsThrown() {
                 ExecutionException executionException = assertThrows(
                                 ExecutionException.class,
@@ -304,77 +408,72 @@ public class OrderServiceTest {
                 assertEquals(InvalidInputException.class, cause.getClass());
         }
 
-        // getOrderByOrderNumber tests
+        // getOrdersByOrderNumbers tests
 
         @Test
-        @DisplayName("`getOrderByOrderNumber()` returns SavedOrder when order exists")
-        public void getOrderByOrderNumber_ReturnsSavedOrder_WhenOrderExists() {
-                Order order = new Order(1L, "ORD-001", List.of());
-                when(orderRepository.findByOrderNumber("ORD-001")).thenReturn(Optional.of(order));
-
-                Optional<SavedOrder> result = orderService.getOrderByOrderNumber("ORD-001");
-
-                assertTrue(result.isPresent());
-                assertEquals("1", result.get().orderId());
-                assertEquals("ORD-001", result.get().orderNumber());
+        @DisplayName("`getOrdersByOrderNumbers()` returns SavedOrders keyed by order number, omitting unknown orders")
+        public void getOrdersByOrderNumbers_ReturnsExistingOrders() {
+                List<String> orderNumbers = List.of("ORD-001", "ORD-002", "UNKNOWN");
+                when(orderRepository.findByOrderNumberIn(orderNumbers)).thenReturn(List.of(
+                                new Order(1L, "ORD-001", List.of()),
+                                new Order(2L, "ORD-002", List.of())));
+
+                Map<String, SavedOrder> result = orderService.getOrdersByOrderNumbers(orderNumbers);
+
+                assertEquals(Map.of(
+                                "ORD-001", new SavedOrder("1", "ORD-001"),
+                                "ORD-002", new SavedOrder("2", "ORD-002")), result);
         }
 
         @Test
-        @DisplayName("`getOrderByOrderNumber()` returns empty Optional when order does not exist")
-        public void getOrderByOrderNumber_ReturnsEmpty_WhenOrderNotFound() {
-                when(orderRepository.findByOrderNumber("UNKNOWN")).thenReturn(Optional.empty());
-
-                Optional<SavedOrder> result = orderService.getOrderByOrderNumber("UNKNOWN");
+        @DisplayName("`getOrdersByOrderNumbers()` does not query the repository for an empty batch")
+        public void getOrdersByOrderNumbers_ReturnsEmptyMap_WhenNoOrderNumbers() {
+                Map<String, SavedOrder> result = orderService.getOrdersByOrderNumbers(List.of());
 
                 assertTrue(result.isEmpty());
+                verify(orderRepository, never()).findByOrderNumberIn(any());
         }
 
         @Test
-        @DisplayName("`getOrderByOrderNumber()` throws InternalServerException when repository throws DataAccessException")
-        public void getOrderByOrderNumber_ThrowsInternalServerException_WhenRepositoryThrows() {
-                when(orderRepository.findByOrderNumber("ORD-001"))
+        @DisplayName("`getOrdersByOrderNumbers()` throws InternalServerException when repository throws DataAccessException")
+        public void getOrdersByOrderNumbers_ThrowsInternalServerException_WhenRepositoryThrows() {
+                when(orderRepository.findByOrderNumberIn(List.of("ORD-001")))
                                 .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("DB error"));
 
                 assertThrows(InternalServerException.class,
-                                () -> orderService.getOrderByOrderNumber("ORD-001"));
+                                () -> orderService.getOrdersByOrderNumbers(List.of("ORD-001")));
         }
 
-        // getLineItemsByOrderNumber tests
+        // getLineItemsByOrderNumbers tests
 
         @Test
-        @DisplayName("`getLineItemsByOrderNumber()` returns SavedOrderLineItems with ProductStubs when order exists")
-        public void getLineItemsByOrderNumber_ReturnsLineItems_WhenOrderExists() {
+        @DisplayName("`getLineItemsByOrderNumbers()` returns SavedOrderLineItems with ProductStubs per order")
+        public void getLineItemsByOrderNumbers_ReturnsLineItemsPerOrder() {
+                List<String> orderNumbers = List.of("ORD-001", "ORD-002", "UNKNOWN");
                 OrderLineItems lineItem = new OrderLineItems(1L, "samsung-s10", BigDecimal.valueOf(100), 2, null);
-                Order order = new Order(1L, "ORD-001", List.of(lineItem));
-                when(orderRepository.findByOrderNumberWithLineItems("ORD-001")).thenReturn(Optional.of(order));
-
-                List<SavedOrderLineItem> result = orderService.getLineItemsByOrderNumber("ORD-001");
-
-                assertFalse(result.isEmpty());
-                assertEquals(1, result.size());
-                assertEquals("samsung-s10", result.get(0).skuCode());
-                assertEquals(BigDecimal.valueOf(100), result.get(0).price());
-                assertEquals(2, result.get(0).quantity());
-                assertEquals("samsung-s10", result.get(0).product().skuCode());
-        }
-
-        @Test
-        @DisplayName("`getLineItemsByOrderNumber()` returns empty list when order does not exist")
-        public void getLineItemsByOrderNumber_ReturnsEmptyList_WhenOrderNotFound() {
-                when(orderRepository.findByOrderNumberWithLineItems("UNKNOWN")).thenReturn(Optional.empty());
-
-                List<SavedOrderLineItem> result = orderService.getLineItemsByOrderNumber("UNKNOWN");
-
-                assertTrue(result.isEmpty());
+                when(orderRepository.findByOrderNumberInWithLineItems(orderNumbers)).thenReturn(List.of(
+                                new Order(1L, "ORD-001", List.of(lineItem)),
+                                new Order(2L, "ORD-002", List.of())));
+
+                Map<String, List<SavedOrderLineItem>> result = orderService.getLineItemsByOrderNumbers(orderNumbers);
+
+                assertEquals(2, result.size());
+                assertTrue(result.get("ORD-002").isEmpty());
+                List<SavedOrderLineItem> lineItems = result.get("ORD-001");
+                assertEquals(1, lineItems.size());
+                assertEquals("samsung-s10", lineItems.get(0).skuCode());
+                assertEquals(BigDecimal.valueOf(100), lineItems.get(0).price());
+                assertEquals(2, lineItems.get(0).quantity());
+                assertEquals("samsung-s10", lineItems.get(0).product().skuCode());
         }
 
         @Test
-        @DisplayName("`getLineItemsByOrderNumber()` throws InternalServerException when repository throws DataAccessException")
-        public void getLineItemsByOrderNumber_ThrowsInternalServerException_WhenRepositoryThrows() {
-                when(orderRepository.findByOrderNumberWithLineItems("ORD-001"))
+        @DisplayName("`getLineItemsByOrderNumbers()` throws InternalServerException when repository throws DataAccessException")
+        public void getLineItemsByOrderNumbers_ThrowsInternalServerException_WhenRepositoryThrows() {
+                when(orderRepository.findByOrderNumberInWithLineItems(List.of("ORD-001")))
                                 .thenThrow(new org.springframework.dao.DataAccessResourceFailureException("DB error"));
 
                 assertThrows(InternalServerException.class,
-                                () -> orderService.getLineItemsByOrderNumber("ORD-001"));
+                                () -> orderService.getLineItemsByOrderNumbers(List.of("ORD-001")));
         }
 }
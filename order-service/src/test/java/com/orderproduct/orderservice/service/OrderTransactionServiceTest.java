@@ -4,7 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,19 +16,23 @@ import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.dao.DataAccessException;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.dto.IdempotencyContext;
 import com.orderproduct.orderservice.dto.OrderLineItemsDto;
 import com.orderproduct.orderservice.dto.OrderRequest;
 import com.orderproduct.orderservice.dto.SavedOrder;
+import com.orderproduct.orderservice.entity.IdempotencyKey;
 import com.orderproduct.orderservice.entity.Order;
 import com.orderproduct.orderservice.entity.OrderLineItems;
 import com.orderproduct.orderservice.entity.OutboxEvent;
 import com.orderproduct.orderservice.event.OrderStatusChangedEvent;
 import com.orderproduct.orderservice.dto.ReservationState;
+import com.orderproduct.orderservice.repository.IdempotencyKeyRepository;
 import com.orderproduct.orderservice.repository.OrderRepository;
 import com.orderproduct.orderservice.repository.OutboxEventRepository;
 
@@ -35,12 +41,14 @@ public class OrderTransactionServiceTest {
         private final OrderDataGenerator orderDataGenerator = mock(OrderDataGenerator.class);
         private final OrderRepository orderRepository = mock(OrderRepository.class);
         private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+        private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
         private final ObjectMapper objectMapper = new ObjectMapper();
 
         private final OrderTransactionService orderTransactionService = new OrderTransactionService(
                         orderDataGenerator,
                         orderRepository,
                         outboxEventRepository,
+                        idempotencyKeyRepository,
                         objectMapper);
 
         private final String orderNumber = "TEST-ORDER-123";
@@ -78,7 +86,7 @@ public class OrderTransactionServiceTest {
 
                 // When
                 SavedOrder result = orderTransactionService.saveOrder(orderNumber,
-                                orderRequest);
+                                orderRequest, null);
 
                 // Then
                 assertNotNull(result);
@@ -96,7 +104,7 @@ public class OrderTransactionServiceTest {
 
                 // Act & Assert
                 assertThrows(InternalServerException.class,
-                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest));
+                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest, null));
         }
 
         @Test
@@ -114,7 +122,84 @@ public class OrderTransactionServiceTest {
 
                 // Act & Assert
                 assertThrows(InternalServerException.class,
-                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest));
+                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest, null));
+        }
+
+        @Test
+        @DisplayName("`saveOrder()` throws InternalServerException when flushing the batched inserts fails")
+        public void saveOrder_ThrowsInternalServerException_WhenFlushFails() {
+                // Arrange
+                Order savedOrder = Order.builder()
+                                .id(1L)
+                                .orderNumber(orderNumber)
+                                .build();
+                when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+                doThrow(mock(DataAccessException.class)).when(orderRepository).flush();
+
+                // Act & Assert
+                assertThrows(InternalServerException.class,
+                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest, null));
+        }
+
+        @Test
+        @DisplayName("`saveOrder()` saves the idempotency key with the order when a context is given")
+        public void saveOrder_SavesIdempotencyKey_WhenContextIsGiven() throws Exception {
+                // Given
+                Order savedOrder = Order.builder()
+                                .id(1L)
+                                .orderNumber(orderNumber)
+                                .build();
+                when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+                when(orderDataGenerator.getCurrentTimestamp()).thenReturn(1000L);
+                IdempotencyContext idempotencyContext = new IdempotencyContext("key-1", "hash-1");
+
+                // When
+                orderTransactionService.saveOrder(orderNumber, orderRequest, idempotencyContext);
+
+                // Then
+                ArgumentCaptor<IdempotencyKey> captor = ArgumentCaptor.forClass(IdempotencyKey.class);
+                verify(idempotencyKeyRepository).save(captor.capture());
+                IdempotencyKey idempotencyKey = captor.getValue();
+                assertEquals("key-1", idempotencyKey.getIdempotencyKey());
+                assertEquals("hash-1", idempotencyKey.getRequestHash());
+                assertEquals(1L, idempotencyKey.getOrderId());
+                assertEquals(orderNumber, idempotencyKey.getOrderNumber());
+                assertEquals(1000L, idempotencyKey.getCreatedAt());
+        }
+
+        @Test
+        @DisplayName("`saveOrder()` does not save an idempotency key without a context")
+        public void saveOrder_DoesNotSaveIdempotencyKey_WithoutContext() {
+                // Given
+                Order savedOrder = Order.builder()
+                                .id(1L)
+                                .orderNumber(orderNumber)
+                                .build();
+                when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+
+                // When
+                orderTransactionService.saveOrder(orderNumber, orderRequest, null);
+
+                // Then
+                verify(idempotencyKeyRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("`saveOrder()` throws InternalServerException when the idempotency key save fails")
+        public void saveOrder_ThrowsInternalServerException_WhenIdempotencyKeySaveFails() {
+                // Given
+                Order savedOrder = Order.builder()
+                                .id(1L)
+                                .orderNumber(orderNumber)
+                                .build();
+                when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+                when(idempotencyKeyRepository.save(any(IdempotencyKey.class)))
+                                .thenThrow(mock(DataAccessException.class));
+
+                // When & Then
+                assertThrows(InternalServerException.class,
+                                () -> orderTransactionService.saveOrder(orderNumber, orderRequest,
+                                                new IdempotencyContext("key-1", "hash-1")));
         }
 
         @Test
@@ -0,0 +1,140 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.entity.OutboxEvent;
+import com.orderproduct.orderservice.repository.OutboxEventRepository;
+
+public class OutboxRelayServiceTest {
+
+        private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+        @SuppressWarnings("unchecked")
+        private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        private final OrderDataGenerator orderDataGenerator = mock(OrderDataGenerator.class);
+        private final ObjectMapper objectMapper = new ObjectMapper();
+
+        private final OutboxRelayService outboxRelayService = new OutboxRelayService(
+                        outboxEventRepository,
+                        kafkaTemplate,
+                        orderDataGenerator,
+                        objectMapper,
+                        Duration.ofSeconds(1));
+
+        @Test
+        @DisplayName("`relayBatch()` publishes claimed events and marks them processed")
+        @SuppressWarnings("unchecked")
+        public void relayBatch_PublishesAndMarksProcessed() throws Exception {
+                // Given
+                List<OutboxEvent> events = List.of(outboxEvent(1L, "ORDER-1"), outboxEvent(2L, "ORDER-2"));
+                when(outboxEventRepository.claimUnprocessed(PageRequest.of(0, 10))).thenReturn(events);
+                when(kafkaTemplate.send(any(ProducerRecord.class)))
+                                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+                when(orderDataGenerator.getCurrentTimestamp()).thenReturn(5000L);
+
+                // When
+                List<OutboxEvent> relayed = outboxRelayService.relayBatch(10);
+
+                // Then
+                assertEquals(events, relayed);
+                assertTrue(relayed.stream().allMatch(event -> event.getProcessedAt() == 5000L));
+                ArgumentCaptor<ProducerRecord<String, String>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+                verify(kafkaTemplate, times(2)).send(recordCaptor.capture());
+                assertEquals(List.of("ORDER-1", "ORDER-2"),
+                                recordCaptor.getAllValues().stream().map(ProducerRecord::key).toList());
+                verify(outboxEventRepository).markProcessed(List.of(1L, 2L), 5000L);
+        }
+
+        @Test
+        @DisplayName("`relayBatch()` does not mark events processed when a send fails")
+        @SuppressWarnings("unchecked")
+        public void relayBatch_SendFails_ThrowsInternalServerException() {
+                // Given
+                when(outboxEventRepository.claimUnprocessed(PageRequest.of(0, 10)))
+                                .thenReturn(List.of(outboxEvent(1L, "ORDER-1")));
+                when(kafkaTemplate.send(any(ProducerRecord.class)))
+                                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+                // When & Then
+                assertThrows(InternalServerException.class, () -> outboxRelayService.relayBatch(10));
+                verify(outboxEventRepository, never()).markProcessed(anyList(), anyLong());
+        }
+
+        @Test
+        @DisplayName("`relayBatch()` does nothing when there are no unprocessed events")
+        @SuppressWarnings("unchecked")
+        public void relayBatch_NoEvents_ReturnsEmptyList() {
+                // Given
+                when(outboxEventRepository.claimUnprocessed(PageRequest.of(0, 10))).thenReturn(List.of());
+
+                // When
+                List<OutboxEvent> relayed = outboxRelayService.relayBatch(10);
+
+                // Then
+                assertTrue(relayed.isEmpty());
+                verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+                verify(outboxEventRepository, never()).markProcessed(anyList(), anyLong());
+        }
+
+        @Test
+        @DisplayName("`toProducerRecord()` uses the topic, key, envelope and headers of Debezium's EventRouter")
+        public void toProducerRecord_MatchesEventRouterFormat() throws Exception {
+                // Given
+                OutboxEvent event = outboxEvent(7L, "ORDER-7");
+
+                // When
+                ProducerRecord<String, String> record = outboxRelayService.toProducerRecord(event);
+
+                // Then
+                assertEquals("outbox.event.Order", record.topic());
+                assertEquals("ORDER-7", record.key());
+                Map<?, ?> envelope = objectMapper.readValue(record.value(), Map.class);
+                assertEquals(event.getPayload(), envelope.get("payload"));
+                assertEquals("7", header(record, "id"));
+                assertEquals("event-7", header(record, "eventId"));
+                assertEquals("OrderStatusChangedEvent", header(record, "eventType"));
+                assertEquals("Order", header(record, "aggregateType"));
+                assertEquals("ORDER-7", header(record, "aggregateId"));
+        }
+
+        private OutboxEvent outboxEvent(Long id, String orderNumber) {
+                return OutboxEvent.builder()
+                                .id(id)
+                                .eventId("event-" + id)
+                                .eventType("OrderStatusChangedEvent")
+                                .aggregateType("Order")
+                                .aggregateId(orderNumber)
+                                .payload("{\"orderNumber\":\"" + orderNumber + "\",\"status\":\"FULFILLED\"}")
+                                .createdAt(1000L)
+                                .build();
+        }
+
+        private String header(ProducerRecord<String, String> record, String key) {
+                return new String(record.headers().lastHeader(key).value(), StandardCharsets.UTF_8);
+        }
+}
@@ -0,0 +1,194 @@
+package com.orderproduct.orderservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.orderproduct.orderservice.common.InternalServerException;
+import com.orderproduct.orderservice.common.InventoryNotInStockException;
+
+public class ReservationHedgerTest {
+
+        private final AtomicLong nanoTime = new AtomicLong();
+        private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+        private final List<Runnable> scheduledHedges = new ArrayList<>();
+        private final List<CompletableFuture<String>> attempts = new ArrayList<>();
+        private final Supplier<CompletableFuture<String>> call = () -> {
+                CompletableFuture<String> attempt = new CompletableFuture<>();
+                attempts.add(attempt);
+                return attempt;
+        };
+
+        @BeforeEach
+        void setUp() {
+                when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+                        scheduledHedges.add(invocation.getArgument(0));
+                        return mock(ScheduledFuture.class);
+                });
+        }
+
+        private ReservationHedger hedger(double budgetRatio) {
+                return new ReservationHedger(0.95, Duration.ofMillis(50), Duration.ofMillis(5), budgetRatio,
+                                nanoTime::get, scheduler);
+        }
+
+        @Test
+        @DisplayName("execute should take the hedge's answer when it arrives first and cancel the first call")
+        void executeShouldTakeHedgeWhenItAnswersFirst() throws Exception {
+                // Given
+                var hedger = hedger(1.0);
+
+                // When
+                var result = hedger.execute(call);
+                scheduledHedges.get(0).run();
+                attempts.get(1).complete("hedge");
+
+                // Then
+                assertEquals("hedge", result.get());
+                assertTrue(attempts.get(0).isCancelled());
+                assertEquals(1, hedger.getHedgesSent());
+                assertEquals(1, hedger.getHedgesWon());
+        }
+
+        @Test
+        @DisplayName("execute should not hedge a call that answered before the delay")
+        void executeShouldNotHedgeCallThatAnswered() throws Exception {
+                // Given
+                var hedger = hedger(1.0);
+
+                // When
+                var result = hedger.execute(call);
+                attempts.get(0).complete("first");
+                scheduledHedges.get(0).run();
+
+                // Then
+                assertEquals("first", result.get());
+                assertEquals(1, attempts.size());
+                assertEquals(0, hedger.getHedgesSent());
+        }
+
+        @Test
+        @DisplayName("execute should not hedge when the budget is spent")
+        void executeShouldNotHedgeWhenBudgetIsSpent() {
+                // Given
+                var hedger = hedger(0.05);
+
+                // When
+                var result = hedger.execute(call);
+                scheduledHedges.get(0).run();
+
+                // Then
+                assertFalse(result.isDone());
+                assertEquals(1, attempts.size());
+                assertEquals(1, hedger.getBudgetExhaustedCount());
+        }
+
+        @Test
+        @DisplayName("execute should wait for the other call when one fails with a server error")
+        void executeShouldWaitForOtherCallOnServerError() throws Exception {
+                // Given
+                var hedger = hedger(1.0);
+
+                // When
+                var result = hedger.execute(call);
+                scheduledHedges.get(0).run();
+                attempts.get(0).completeExceptionally(new InternalServerException());
+                boolean doneAfterServerError = result.isDone();
+                attempts.get(1).complete("hedge");
+
+                // Then
+                assertFalse(doneAfterServerError);
+                assertEquals("hedge", result.get());
+        }
+
+        @Test
+        @DisplayName("execute should fail with the server error when no other call is in flight")
+        void executeShouldFailOnServerErrorWithoutOtherCall() {
+                // Given
+                var hedger = hedger(1.0);
+
+                // When
+                var result = hedger.execute(call);
+                attempts.get(0).completeExceptionally(new InternalServerException());
+                scheduledHedges.get(0).run();
+
+                // Then
+                ExecutionException executionException = assertThrows(ExecutionException.class, result::get);
+                assertInstanceOf(InternalServerException.class, executionException.getCause());
+                assertEquals(1, attempts.size());
+        }
+
+        @Test
+        @DisplayName("execute should take a business error at once and cancel the other call")
+        void executeShouldTakeBusinessErrorAtOnce() {
+                // Given
+                var hedger = hedger(1.0);
+
+                // When
+                var result = hedger.execute(call);
+                scheduledHedges.get(0).run();
+                attempts.get(0).completeExceptionally(new InventoryNotInStockException());
+
+                // Then
+                ExecutionException executionException = assertThrows(ExecutionException.class, result::get);
+                assertInstanceOf(InventoryNotInStockException.class, executionException.getCause());
+                assertTrue(attempts.get(1).isCancelled());
+        }
+
+        @Test
+        @DisplayName("cancelling the result should cancel every call")
+        void cancellingResultShouldCancelEveryCall() {
+                // Given
+                var hedger = hedger(1.0);
+                var result = hedger.execute(call);
+                scheduledHedges.get(0).run();
+
+                // When
+                result.cancel(true);
+
+                // Then
+                assertTrue(attempts.get(0).isCancelled());
+                assertTrue(attempts.get(1).isCancelled());
+        }
+
+        @Test
+        @DisplayName("the delay should follow the configured percentile of recent latencies")
+        void delayShouldFollowPercentileOfRecentLatencies() {
+                // Given
+                var hedger = hedger(1.0);
+                boolean initialDelayBeforeSamples = hedger.getDelay().equals(Duration.ofMillis(50));
+
+                // When: latencies of 1 to 100 ms
+                for (int millis = 1; millis <= ReservationHedger.MIN_SAMPLES; millis++) {
+                        hedger.execute(call);
+                        nanoTime.addAndGet(Duration.ofMillis(millis).toNanos());
+                        attempts.get(attempts.size() - 1).complete("reserved");
+                        nanoTime.set(0);
+                }
+
+                // Then
+                assertTrue(initialDelayBeforeSamples);
+                assertEquals(Duration.ofMillis(95), hedger.getDelay());
+        }
+}
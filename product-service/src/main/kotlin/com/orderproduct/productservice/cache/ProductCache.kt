@@ -0,0 +1,124 @@
+package com.orderproduct.productservice.cache
+
+import com.orderproduct.productservice.dto.ProductResponse
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+
+// Bounded LRU cache of products, looked up by id or skuCode. Entries are stored once by id; skuCode lookups go
+// through an index, so invalidating an id drops both keys. The cache only serves reads while it is active, i.e.
+// while ProductCacheInvalidator has a change stream open that will tell it about writes.
+@Component
+class ProductCache(
+    @Value("\${product.cache.max-size}") private val maxSize: Int,
+    meterRegistry: MeterRegistry
+) {
+
+    private val hits = Counter.builder("product.cache.gets")
+        .tag("result", "hit")
+        .description("Product lookups served from the cache")
+        .register(meterRegistry)
+    private val misses = Counter.builder("product.cache.gets")
+        .tag("result", "miss")
+        .description("Product lookups that had to go to MongoDB")
+        .register(meterRegistry)
+    private val evictions = Counter.builder("product.cache.evictions")
+        .description("Products evicted because the cache reached its maximum size")
+        .register(meterRegistry)
+    private val invalidations = Counter.builder("product.cache.invalidations")
+        .description("Products dropped from the cache because they changed in MongoDB")
+        .register(meterRegistry)
+
+    private val productsById = object : LinkedHashMap<String, ProductResponse>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, ProductResponse>): Boolean {
+            if (size <= maxSize) return false
+            unindexSkuCode(eldest.value)
+            evictions.increment()
+            return true
+        }
+    }
+    private val idsBySkuCode = HashMap<String, String>()
+
+    // Bumped on every invalidation, so a load that raced with a write does not put the stale product back.
+    private var generation = 0L
+
+    @Volatile
+    var active = false
+        private set
+
+    init {
+        Gauge.builder("product.cache.size", this) { it.size().toDouble() }
+            .description("Products currently cached")
+            .register(meterRegistry)
+    }
+
+    @Synchronized
+    fun getByIds(ids: Collection<String>): Map<String, ProductResponse> {
+        if (!active) return emptyMap()
+        return lookup(ids) { productsById[it] }
+    }
+
+    @Synchronized
+    fun getBySkuCodes(skuCodes: Collection<String>): Map<String, ProductResponse> {
+        if (!active) return emptyMap()
+        return lookup(skuCodes) { skuCode -> idsBySkuCode[skuCode]?.let { productsById[it] } }
+    }
+
+    @Synchronized
+    fun currentGeneration(): Long = generation
+
+    @Synchronized
+    fun putAll(products: Collection<ProductResponse>, loadedAtGeneration: Long) {
+        if (!active || loadedAtGeneration != generation) return
+        products.forEach { product ->
+            productsById.remove(product.id)?.let { unindexSkuCode(it) }
+            productsById[product.id] = product
+            product.skuCode?.let { idsBySkuCode[it] = product.id }
+        }
+    }
+
+    @Synchronized
+    fun invalidate(id: String) {
+        generation++
+        productsById.remove(id)?.let {
+            unindexSkuCode(it)
+            invalidations.increment()
+        }
+    }
+
+    @Synchronized
+    fun invalidateAll() {
+        generation++
+        invalidations.increment(productsById.size.toDouble())
+        productsById.clear()
+        idsBySkuCode.clear()
+    }
+
+    @Synchronized
+    fun activate() {
+        invalidateAll()
+        active = true
+    }
+
+    @Synchronized
+    fun deactivate() {
+        active = false
+        invalidateAll()
+    }
+
+    @Synchronized
+    fun size(): Int = productsById.size
+
+    private fun lookup(keys: Collection<String>, find: (String) -> ProductResponse?): Map<String, ProductResponse> {
+        val found = keys.mapNotNull { key -> find(key)?.let { key to it } }.toMap()
+        hits.increment(found.size.toDouble())
+        misses.increment((keys.size - found.size).toDouble())
+        return found
+    }
+
+    private fun unindexSkuCode(product: ProductResponse) {
+        product.skuCode?.let { idsBySkuCode.remove(it, product.id) }
+    }
+}
@@ -0,0 +1,75 @@
+package com.orderproduct.productservice.cache
+
+import com.orderproduct.productservice.entity.Product
+import org.slf4j.LoggerFactory
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
+import org.springframework.context.SmartLifecycle
+import org.springframework.data.mongodb.core.ChangeStreamEvent
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.stereotype.Component
+import reactor.core.Disposable
+import reactor.core.publisher.Flux
+import reactor.util.retry.Retry
+import java.time.Duration
+import java.time.Instant
+
+// Watches the product collection through a MongoDB change stream (requires a replica set) and drops changed
+// products from ProductCache, so every replica stops serving a product shortly after it is written.
+// The cache is only active while the stream is open; on errors it is cleared and the stream reopened with backoff.
+@Component
+@ConditionalOnProperty(name = ["product.cache.enabled"], havingValue = "true")
+class ProductCacheInvalidator(
+    private val mongoTemplate: ReactiveMongoTemplate,
+    private val productCache: ProductCache
+) : SmartLifecycle {
+
+    companion object {
+        // The stream starts slightly in the past, so writes made while it is being opened are not missed.
+        // Replaying a few extra events only causes redundant invalidations.
+        private val START_MARGIN = Duration.ofSeconds(5)
+        private val MIN_BACKOFF = Duration.ofSeconds(1)
+        private val MAX_BACKOFF = Duration.ofSeconds(30)
+    }
+
+    private val log = LoggerFactory.getLogger(ProductCacheInvalidator::class.java)
+
+    @Volatile
+    private var subscription: Disposable? = null
+
+    override fun start() {
+        subscription = Flux.defer { watchProducts() }
+            .repeat()
+            .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF).maxBackoff(MAX_BACKOFF))
+            .subscribe()
+    }
+
+    override fun stop() {
+        subscription?.dispose()
+        subscription = null
+    }
+
+    override fun isRunning(): Boolean = subscription?.isDisposed == false
+
+    private fun watchProducts(): Flux<ChangeStreamEvent<Product>> {
+        val startAt = Instant.now().minus(START_MARGIN)
+        productCache.activate()
+        log.info("Watching product changes from {} to invalidate the product cache", startAt)
+        return mongoTemplate.changeStream(Product::class.java)
+            .watchCollection(Product::class.java)
+            .resumeAt(startAt)
+            .listen()
+            .doOnNext { invalidate(it) }
+            .doOnError { e -> log.warn("Product change stream failed, product cache disabled: {}", e.message) }
+            .doFinally { productCache.deactivate() }
+    }
+
+    private fun invalidate(event: ChangeStreamEvent<Product>) {
+        val id = event.raw?.documentKey?.get("_id")
+        when {
+            id == null -> productCache.invalidateAll()
+            id.isObjectId -> productCache.invalidate(id.asObjectId().value.toHexString())
+            id.isString -> productCache.invalidate(id.asString().value)
+            else -> productCache.invalidateAll()
+        }
+    }
+}
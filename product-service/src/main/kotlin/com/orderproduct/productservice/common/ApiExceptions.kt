@@ -5,8 +5,10 @@ import org.springframework.http.HttpStatusCode
 
 const val SOMETHING_WENT_WRONG_ERROR_CODE = "SOMETHING_WENT_WRONG"
 const val BAD_REQUEST_ERROR_CODE = "BAD_REQUEST"
+const val DUPLICATE_SKU_CODE_ERROR_CODE = "DUPLICATE_SKU_CODE"
 const val SOMETHING_WENT_WRONG_MSG = "Sorry, something went wrong."
 const val BAD_REQUEST_MSG = "This is an incorrect request-body"
+const val DUPLICATE_SKU_CODE_MSG = "Product with this SKU code already exists."
 
 sealed class ApiException(
     val httpStatus: HttpStatusCode,
@@ -20,6 +22,12 @@ class BadRequestException : ApiException(
     errorMessage = BAD_REQUEST_MSG
 )
 
+class DuplicateSkuCodeException : ApiException(
+    httpStatus = HttpStatus.CONFLICT,
+    errorCode = DUPLICATE_SKU_CODE_ERROR_CODE,
+    errorMessage = DUPLICATE_SKU_CODE_MSG
+)
+
 class InternalServerException : ApiException(
     httpStatus = HttpStatus.INTERNAL_SERVER_ERROR,
     errorCode = SOMETHING_WENT_WRONG_ERROR_CODE,
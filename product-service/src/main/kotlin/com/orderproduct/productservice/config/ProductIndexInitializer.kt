@@ -0,0 +1,32 @@
+package com.orderproduct.productservice.config
+
+import com.orderproduct.productservice.entity.Product
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.InitializingBean
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver
+import org.springframework.stereotype.Component
+import java.time.Duration
+
+// Ensures the indexes declared with @Indexed on Product exist before the service starts taking requests.
+// Spring Data does not create them by default (auto-index-creation is off), and without the skuCode index every
+// federation lookup by skuCode is a collection scan. Startup fails if an index cannot be built, e.g. because the
+// collection already holds duplicate skuCodes that must be cleaned up first.
+@Component
+class ProductIndexInitializer(private val mongoTemplate: ReactiveMongoTemplate) : InitializingBean {
+
+    companion object {
+        private val INDEX_TIMEOUT = Duration.ofMinutes(5)
+    }
+
+    private val log = LoggerFactory.getLogger(ProductIndexInitializer::class.java)
+
+    override fun afterPropertiesSet() {
+        val resolver = MongoPersistentEntityIndexResolver(mongoTemplate.converter.mappingContext)
+        val indexOps = mongoTemplate.indexOps(Product::class.java)
+        resolver.resolveIndexFor(Product::class.java).forEach { index ->
+            val name = indexOps.ensureIndex(index).block(INDEX_TIMEOUT)
+            log.info("Ensured index {} on the product collection", name)
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.orderproduct.productservice.controller
 
 import com.orderproduct.productservice.common.BAD_REQUEST_MSG
 import com.orderproduct.productservice.common.BadRequestException
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
+import com.orderproduct.productservice.common.DuplicateSkuCodeException
 import com.orderproduct.productservice.common.InternalServerException
 import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_MSG
 import graphql.ErrorType
@@ -22,6 +24,12 @@ class GraphQLExceptionHandler : DataFetcherExceptionResolverAdapter() {
                 .extensions(mapOf("code" to "BAD_USER_INPUT"))
                 .build()
 
+            is DuplicateSkuCodeException -> GraphqlErrorBuilder.newError(env)
+                .errorType(ErrorType.ValidationError)
+                .message(DUPLICATE_SKU_CODE_MSG)
+                .extensions(mapOf("code" to "BAD_USER_INPUT"))
+                .build()
+
             is InternalServerException -> GraphqlErrorBuilder.newError(env)
                 .errorType(ErrorType.DataFetchingException)
                 .message(SOMETHING_WENT_WRONG_MSG)
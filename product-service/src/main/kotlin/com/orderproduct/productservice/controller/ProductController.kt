@@ -3,20 +3,26 @@ package com.orderproduct.productservice.controller
 import com.orderproduct.productservice.common.BAD_REQUEST_ERROR_CODE
 import com.orderproduct.productservice.common.BAD_REQUEST_MSG
 import com.orderproduct.productservice.common.BadRequestException
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_ERROR_CODE
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
 import com.orderproduct.productservice.common.ErrorBody
 import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_ERROR_CODE
 import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_MSG
+import com.orderproduct.productservice.dto.ProductImportResult
 import com.orderproduct.productservice.dto.ProductRequest
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.dto.SavedProduct
+import com.orderproduct.productservice.service.ProductImportService
 import com.orderproduct.productservice.service.ProductService
 import io.swagger.v3.oas.annotations.media.ArraySchema
 import io.swagger.v3.oas.annotations.media.Content
 import io.swagger.v3.oas.annotations.media.Schema
 import io.swagger.v3.oas.annotations.responses.ApiResponse
 import io.swagger.v3.oas.annotations.responses.ApiResponses
+import kotlinx.coroutines.flow.Flow
 import org.slf4j.LoggerFactory
 import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
 import org.springframework.web.bind.annotation.GetMapping
 import org.springframework.web.bind.annotation.PostMapping
 import org.springframework.web.bind.annotation.RequestBody
@@ -26,7 +32,10 @@ import org.springframework.web.bind.annotation.RestController
 
 @RestController
 @RequestMapping("/api/products")
-class ProductController(private val productService: ProductService) {
+class ProductController(
+    private val productService: ProductService,
+    private val productImportService: ProductImportService
+) {
 
     private val log = LoggerFactory.getLogger(ProductController::class.java)
 
@@ -43,6 +52,11 @@ class ProductController(private val productService: ProductService) {
                 description = "errorCode:$BAD_REQUEST_ERROR_CODE errorMessage:$BAD_REQUEST_MSG",
                 content = [Content(mediaType = "application/json", schema = Schema(implementation = ErrorBody::class))]
             ),
+            ApiResponse(
+                responseCode = "409",
+                description = "errorCode:$DUPLICATE_SKU_CODE_ERROR_CODE errorMessage:$DUPLICATE_SKU_CODE_MSG",
+                content = [Content(mediaType = "application/json", schema = Schema(implementation = ErrorBody::class))]
+            ),
             ApiResponse(
                 responseCode = "500",
                 description = "errorCode:$SOMETHING_WENT_WRONG_ERROR_CODE errorMessage:$SOMETHING_WENT_WRONG_MSG",
@@ -59,16 +73,24 @@ class ProductController(private val productService: ProductService) {
         return productService.createProduct(name, description, price, skuCode)
     }
 
-    @GetMapping
+    // Streams products as they are read from MongoDB: a JSON array for application/json, or one product per line
+    // for application/x-ndjson. Nothing is collected in memory, so the response size is not bounded by the heap.
+    @GetMapping(produces = [MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE])
     @ResponseStatus(HttpStatus.OK)
     @ApiResponses(
         value = [
             ApiResponse(
                 responseCode = "200", description = "OK",
-                content = [Content(
-                    mediaType = "application/json",
-                    array = ArraySchema(schema = Schema(implementation = ProductResponse::class))
-                )]
+                content = [
+                    Content(
+                        mediaType = "application/json",
+                        array = ArraySchema(schema = Schema(implementation = ProductResponse::class))
+                    ),
+                    Content(
+                        mediaType = "application/x-ndjson",
+                        schema = Schema(implementation = ProductResponse::class)
+                    )
+                ]
             ),
             ApiResponse(
                 responseCode = "500",
@@ -77,8 +99,32 @@ class ProductController(private val productService: ProductService) {
             )
         ]
     )
-    suspend fun getAllProducts(): List<ProductResponse> {
+    fun getAllProducts(): Flow<ProductResponse> {
         log.info("GET:/api/products")
-        return productService.getAllProducts()
+        return productService.streamAllProducts()
+    }
+
+    // Bulk import: accepts a JSON array or newline-delimited JSON and streams back one ProductImportResult per chunk,
+    // listing the records of that chunk that were rejected.
+    @PostMapping(
+        "/bulk",
+        consumes = [MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE],
+        produces = [MediaType.APPLICATION_NDJSON_VALUE]
+    )
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponses(
+        value = [
+            ApiResponse(
+                responseCode = "200", description = "OK",
+                content = [Content(
+                    mediaType = "application/x-ndjson",
+                    schema = Schema(implementation = ProductImportResult::class)
+                )]
+            )
+        ]
+    )
+    fun importProducts(@RequestBody productRequests: Flow<ProductRequest>): Flow<ProductImportResult> {
+        log.info("POST:/api/products/bulk")
+        return productImportService.importProducts(productRequests)
     }
 }
@@ -3,10 +3,14 @@ package com.orderproduct.productservice.controller
 import com.orderproduct.productservice.common.BadRequestException
 import com.orderproduct.productservice.dto.CreateProductInput
 import com.orderproduct.productservice.dto.FederationServiceSdl
-import com.orderproduct.productservice.dto.ProductResponse
+import com.orderproduct.productservice.dto.ProductConnection
 import com.orderproduct.productservice.dto.SavedProduct
 import com.orderproduct.productservice.service.ProductService
+import com.orderproduct.productservice.service.ProductService.Companion.MAX_PAGE_SIZE
 import graphql.schema.DataFetchingEnvironment
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import org.bson.types.ObjectId
 import org.slf4j.LoggerFactory
 import org.springframework.graphql.data.method.annotation.Argument
 import org.springframework.graphql.data.method.annotation.MutationMapping
@@ -19,9 +23,11 @@ class ProductGraphQLController(private val productService: ProductService) {
     private val log = LoggerFactory.getLogger(ProductGraphQLController::class.java)
 
     @QueryMapping
-    suspend fun products(): List<ProductResponse> {
-        log.info("GraphQL query: products")
-        return productService.getAllProducts()
+    suspend fun products(@Argument first: Int, @Argument after: String?): ProductConnection {
+        log.info("GraphQL query: products(first: {}, after: {})", first, after)
+        if (first !in 1..MAX_PAGE_SIZE) throw BadRequestException()
+        if (after != null && !ObjectId.isValid(after)) throw BadRequestException()
+        return productService.getProductsPage(first, after)
     }
 
     @MutationMapping
@@ -43,30 +49,41 @@ class ProductGraphQLController(private val productService: ProductService) {
     fun service(): FederationServiceSdl = FederationServiceSdl(subgraphSdl)
 
     // Federation: the router calls _entities with a list of representations (e.g. [{__typename:"Product", id:"123"}])
-    // to hydrate entity stubs referenced by other subgraphs. We resolve each by its key field.
+    // to hydrate entity stubs referenced by other subgraphs. Representations are grouped by key field and each group
+    // is resolved with one $in query; results are returned in representation order, with null for misses.
     @QueryMapping(name = "_entities")
     suspend fun entities(env: DataFetchingEnvironment): List<Any?> {
         val representations = env.getArgument<List<Map<String, Any>>>("representations") ?: emptyList()
         log.info("GraphQL query: _entities — resolving {} representations", representations.size)
-        return representations.map { representation ->
-            when (representation["__typename"]) {
-                "Product" -> when {
-                    representation.containsKey("id") -> {
-                        val id = representation["id"] as? String ?: return@map null
-                        productService.getProductById(id)
-                    }
-
-                    representation.containsKey("skuCode") -> {
-                        val skuCode = representation["skuCode"] as? String ?: return@map null
-                        productService.getProductBySkuCode(skuCode)
-                    }
-
-                    else -> null
-                }
-
-                else -> null
+        val keys = representations.map { it.toProductKey() }
+        val ids = keys.filterIsInstance<ProductKey.Id>().map { it.id }.toSet()
+        val skuCodes = keys.filterIsInstance<ProductKey.SkuCode>().map { it.skuCode }.toSet()
+        val (productsById, productsBySkuCode) = coroutineScope {
+            val byId = async { productService.getProductsByIds(ids) }
+            val bySkuCode = async { productService.getProductsBySkuCodes(skuCodes) }
+            byId.await() to bySkuCode.await()
+        }
+        return keys.map { key ->
+            when (key) {
+                is ProductKey.Id -> productsById[key.id]
+                is ProductKey.SkuCode -> productsBySkuCode[key.skuCode]
+                null -> null
             }
         }
     }
 
+    private fun Map<String, Any>.toProductKey(): ProductKey? {
+        if (this["__typename"] != "Product") return null
+        return when {
+            containsKey("id") -> (this["id"] as? String)?.let { ProductKey.Id(it) }
+            containsKey("skuCode") -> (this["skuCode"] as? String)?.let { ProductKey.SkuCode(it) }
+            else -> null
+        }
+    }
+
+    private sealed interface ProductKey {
+        data class Id(val id: String) : ProductKey
+        data class SkuCode(val skuCode: String) : ProductKey
+    }
+
 }
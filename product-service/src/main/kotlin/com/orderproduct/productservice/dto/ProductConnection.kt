@@ -0,0 +1,20 @@
+package com.orderproduct.productservice.dto
+
+// Relay-style connection returned by the `products` query. The cursor is the product id, which is also the
+// keyset the next page starts after.
+data class ProductConnection(
+    val edges: List<ProductEdge>,
+    val pageInfo: PageInfo
+)
+
+data class ProductEdge(
+    val node: ProductResponse,
+    val cursor: String
+)
+
+data class PageInfo(
+    val hasNextPage: Boolean,
+    val hasPreviousPage: Boolean,
+    val startCursor: String?,
+    val endCursor: String?
+)
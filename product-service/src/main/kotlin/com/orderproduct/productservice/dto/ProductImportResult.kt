@@ -0,0 +1,17 @@
+package com.orderproduct.productservice.dto
+
+// One line of the bulk import response, written after each chunk of records has been stored.
+// Indexes refer to the position of the record in the request body, starting at 0.
+data class ProductImportResult(
+    val fromIndex: Int,
+    val received: Int,
+    val inserted: Int,
+    val failures: List<ProductImportFailure>
+)
+
+data class ProductImportFailure(
+    val index: Int,
+    val skuCode: String?,
+    val errorCode: String,
+    val errorMessage: String
+)
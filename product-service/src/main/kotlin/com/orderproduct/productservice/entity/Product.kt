@@ -1,6 +1,7 @@
 package com.orderproduct.productservice.entity
 
 import org.springframework.data.annotation.Id
+import org.springframework.data.mongodb.core.index.Indexed
 import org.springframework.data.mongodb.core.mapping.Document
 import java.math.BigDecimal
 
@@ -10,5 +11,7 @@ data class Product(
     val name: String,
     val description: String,
     val price: BigDecimal,
+    // Sparse, so legacy products stored without a skuCode do not collide with each other.
+    @Indexed(name = "skuCode", unique = true, sparse = true)
     val skuCode: String? = null
 )
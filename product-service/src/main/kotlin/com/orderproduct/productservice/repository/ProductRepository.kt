@@ -1,9 +1,15 @@
 package com.orderproduct.productservice.repository
 
 import com.orderproduct.productservice.entity.Product
+import kotlinx.coroutines.flow.Flow
+import org.springframework.data.domain.Limit
 import org.springframework.data.repository.kotlin.CoroutineCrudRepository
 
 interface ProductRepository : CoroutineCrudRepository<Product, String> {
 
-    suspend fun findFirstBySkuCode(skuCode: String): Product?
+    fun findAllByOrderByIdAsc(limit: Limit): Flow<Product>
+
+    fun findByIdGreaterThanOrderByIdAsc(id: String, limit: Limit): Flow<Product>
+
+    fun findBySkuCodeIn(skuCodes: Collection<String>): Flow<Product>
 }
@@ -0,0 +1,114 @@
+package com.orderproduct.productservice.service
+
+import com.orderproduct.productservice.common.BAD_REQUEST_ERROR_CODE
+import com.orderproduct.productservice.common.BAD_REQUEST_MSG
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_ERROR_CODE
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
+import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_ERROR_CODE
+import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_MSG
+import com.orderproduct.productservice.dto.ProductImportFailure
+import com.orderproduct.productservice.dto.ProductImportResult
+import com.orderproduct.productservice.dto.ProductRequest
+import com.orderproduct.productservice.entity.Product
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.withIndex
+import kotlinx.coroutines.reactor.awaitSingle
+import org.slf4j.LoggerFactory
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.dao.DataAccessException
+import org.springframework.data.mongodb.BulkOperationException
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.stereotype.Service
+
+// Imports products in chunks of unordered bulk inserts. Records are read from the request as they arrive and the
+// next chunk is only read once the previous one is stored, so memory is bounded by the chunk size.
+// A record that is invalid or collides on skuCode fails on its own; the rest of its chunk is still inserted.
+@Service
+class ProductImportService(
+    private val mongoTemplate: ReactiveMongoTemplate,
+    @Value("\${product.import.chunk-size}") private val chunkSize: Int
+) {
+
+    companion object {
+        private const val DUPLICATE_KEY_ERROR = 11000
+    }
+
+    private val log = LoggerFactory.getLogger(ProductImportService::class.java)
+
+    fun importProducts(requests: Flow<ProductRequest>): Flow<ProductImportResult> = flow {
+        val chunk = ArrayList<IndexedValue<ProductRequest>>(chunkSize)
+        requests.withIndex().collect { request ->
+            chunk += request
+            if (chunk.size == chunkSize) {
+                emit(importChunk(chunk))
+                chunk.clear()
+            }
+        }
+        if (chunk.isNotEmpty()) emit(importChunk(chunk))
+    }
+
+    private suspend fun importChunk(chunk: List<IndexedValue<ProductRequest>>): ProductImportResult {
+        val failures = mutableListOf<ProductImportFailure>()
+        val valid = mutableListOf<IndexedValue<Product>>()
+        chunk.forEach { (index, request) ->
+            val product = request.toProductOrNull()
+            if (product == null) {
+                failures += ProductImportFailure(index, request.skuCode, BAD_REQUEST_ERROR_CODE, BAD_REQUEST_MSG)
+            } else {
+                valid += IndexedValue(index, product)
+            }
+        }
+
+        val inserted = if (valid.isEmpty()) 0 else insertUnordered(valid, failures)
+        log.debug("Imported {} of {} products from index {}", inserted, chunk.size, chunk.first().index)
+        return ProductImportResult(
+            fromIndex = chunk.first().index,
+            received = chunk.size,
+            inserted = inserted,
+            failures = failures.sortedBy { it.index }
+        )
+    }
+
+    private suspend fun insertUnordered(
+        products: List<IndexedValue<Product>>,
+        failures: MutableList<ProductImportFailure>
+    ): Int {
+        return try {
+            mongoTemplate.bulkOps(BulkMode.UNORDERED, Product::class.java)
+                .insert(products.map { it.value })
+                .execute()
+                .awaitSingle()
+                .insertedCount
+        } catch (e: BulkOperationException) {
+            // Write errors carry the position within this bulk write; map them back to request indexes.
+            e.errors.forEach { error ->
+                val (index, product) = products[error.index]
+                failures += if (error.code == DUPLICATE_KEY_ERROR) {
+                    ProductImportFailure(index, product.skuCode, DUPLICATE_SKU_CODE_ERROR_CODE, DUPLICATE_SKU_CODE_MSG)
+                } else {
+                    ProductImportFailure(index, product.skuCode, SOMETHING_WENT_WRONG_ERROR_CODE, SOMETHING_WENT_WRONG_MSG)
+                }
+            }
+            e.result.insertedCount
+        } catch (e: DataAccessException) {
+            log.error("Error when importing {} products: {}", products.size, e.message)
+            products.forEach { (index, product) ->
+                failures += ProductImportFailure(
+                    index, product.skuCode, SOMETHING_WENT_WRONG_ERROR_CODE, SOMETHING_WENT_WRONG_MSG
+                )
+            }
+            0
+        }
+    }
+
+    // Same rules as POST /api/products.
+    private fun ProductRequest.toProductOrNull(): Product? {
+        val name = name?.takeIf { it.isNotBlank() } ?: return null
+        val description = description?.takeIf { it.isNotBlank() } ?: return null
+        val price = price ?: return null
+        val skuCode = skuCode?.takeIf { it.isNotBlank() } ?: return null
+        return Product(name = name, description = description, price = price, skuCode = skuCode)
+    }
+}
@@ -1,19 +1,35 @@
 package com.orderproduct.productservice.service
 
+import com.orderproduct.productservice.cache.ProductCache
+import com.orderproduct.productservice.common.DuplicateSkuCodeException
 import com.orderproduct.productservice.common.InternalServerException
+import com.orderproduct.productservice.dto.PageInfo
+import com.orderproduct.productservice.dto.ProductConnection
+import com.orderproduct.productservice.dto.ProductEdge
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.dto.SavedProduct
 import com.orderproduct.productservice.entity.Product
 import com.orderproduct.productservice.repository.ProductRepository
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.catch
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.toList
 import org.slf4j.LoggerFactory
 import org.springframework.dao.DataAccessException
+import org.springframework.dao.DuplicateKeyException
+import org.springframework.data.domain.Limit
 import org.springframework.stereotype.Service
 import java.math.BigDecimal
 
 @Service
-class ProductService(private val productRepository: ProductRepository) {
+class ProductService(
+    private val productRepository: ProductRepository,
+    private val productCache: ProductCache
+) {
+
+    companion object {
+        const val MAX_PAGE_SIZE = 500
+    }
 
     private val log = LoggerFactory.getLogger(ProductService::class.java)
 
@@ -23,35 +39,82 @@ class ProductService(private val productRepository: ProductRepository) {
             val saved = productRepository.save(product)
             log.info("Product {} is saved", saved.id)
             SavedProduct(requireNotNull(saved.id) { "MongoDB must assign an id after save" })
+        } catch (e: DuplicateKeyException) {
+            log.warn("Product with skuCode {} already exists", skuCode)
+            throw DuplicateSkuCodeException()
         } catch (e: DataAccessException) {
             log.error("Error when saving product: {}", e.message)
             throw InternalServerException()
         }
     }
 
-    suspend fun getAllProducts(): List<ProductResponse> {
+    // Streams products straight from the MongoDB cursor, so memory stays bounded however large the catalog is.
+    fun streamAllProducts(): Flow<ProductResponse> =
+        productRepository.findAll()
+            .map { it.toProductResponse() }
+            .catch { e ->
+                if (e !is DataAccessException) throw e
+                log.error("Error when streaming products: {}", e.message)
+                throw InternalServerException()
+            }
+
+    // Keyset pagination on _id: reads one extra product to know whether another page follows.
+    suspend fun getProductsPage(first: Int, after: String?): ProductConnection {
+        val limit = Limit.of(first + 1)
         return try {
-            productRepository.findAll().map { it.toProductResponse() }.toList()
+            val products = if (after == null) {
+                productRepository.findAllByOrderByIdAsc(limit)
+            } else {
+                productRepository.findByIdGreaterThanOrderByIdAsc(after, limit)
+            }.toList()
+            val edges = products.take(first)
+                .map { it.toProductResponse() }
+                .map { ProductEdge(node = it, cursor = it.id) }
+            ProductConnection(
+                edges = edges,
+                pageInfo = PageInfo(
+                    hasNextPage = products.size > first,
+                    hasPreviousPage = after != null,
+                    startCursor = edges.firstOrNull()?.cursor,
+                    endCursor = edges.lastOrNull()?.cursor
+                )
+            )
         } catch (e: DataAccessException) {
-            log.error("Error when getting all products: {}", e.message)
+            log.error("Error when getting products page after {}: {}", after, e.message)
             throw InternalServerException()
         }
     }
 
-    suspend fun getProductById(id: String): ProductResponse? {
+    suspend fun getProductsByIds(ids: Collection<String>): Map<String, ProductResponse> {
+        if (ids.isEmpty()) return emptyMap()
+        val cached = productCache.getByIds(ids)
+        val missing = ids.filterNotTo(LinkedHashSet()) { it in cached }
+        if (missing.isEmpty()) return cached
+        val generation = productCache.currentGeneration()
         return try {
-            productRepository.findById(id)?.toProductResponse()
+            val loaded = productRepository.findAllById(missing).toList()
+                .map { it.toProductResponse() }
+            productCache.putAll(loaded, generation)
+            cached + loaded.associateBy { it.id }
         } catch (e: DataAccessException) {
-            log.error("Error when getting product by id {}: {}", id, e.message)
+            log.error("Error when getting {} products by id: {}", missing.size, e.message)
             throw InternalServerException()
         }
     }
 
-    suspend fun getProductBySkuCode(skuCode: String): ProductResponse? {
+    suspend fun getProductsBySkuCodes(skuCodes: Collection<String>): Map<String, ProductResponse> {
+        if (skuCodes.isEmpty()) return emptyMap()
+        val cached = productCache.getBySkuCodes(skuCodes)
+        val missing = skuCodes.filterNotTo(LinkedHashSet()) { it in cached }
+        if (missing.isEmpty()) return cached
+        val generation = productCache.currentGeneration()
         return try {
-            productRepository.findFirstBySkuCode(skuCode)?.toProductResponse()
+            val loaded = productRepository.findBySkuCodeIn(missing).toList()
+                .map { it.toProductResponse() }
+            productCache.putAll(loaded, generation)
+            cached + loaded.associateBy { requireNotNull(it.skuCode) }
         } catch (e: DataAccessException) {
-            log.error("Error when getting product by skuCode {}: {}", skuCode, e.message)
+            log.error("Error when getting {} products by skuCode: {}", missing.size, e.message)
             throw InternalServerException()
         }
     }
@@ -0,0 +1,73 @@
+package com.orderproduct.productservice
+
+import com.orderproduct.productservice.cache.ProductCache
+import com.orderproduct.productservice.entity.Product
+import com.orderproduct.productservice.repository.ProductRepository
+import com.orderproduct.productservice.service.ProductService
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.test.context.DynamicPropertyRegistry
+import org.springframework.test.context.DynamicPropertySource
+import org.testcontainers.containers.MongoDBContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.math.BigDecimal
+
+@SpringBootTest
+@Testcontainers
+class ProductCacheIntegrationTests {
+
+    companion object {
+        @Container
+        @JvmStatic
+        val mongoDBContainer = MongoDBContainer("mongo:4.4.2")
+
+        @DynamicPropertySource
+        @JvmStatic
+        fun setProperties(registry: DynamicPropertyRegistry) {
+            registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl)
+        }
+    }
+
+    @Autowired
+    lateinit var productRepository: ProductRepository
+
+    @Autowired
+    lateinit var productService: ProductService
+
+    @Autowired
+    lateinit var productCache: ProductCache
+
+    @AfterEach
+    fun cleanup() = runBlocking {
+        productRepository.deleteAll()
+    }
+
+    @Test
+    @DisplayName("should serve a cached product until the change stream reports an update, then reload it")
+    fun getProductsBySkuCodes_ProductUpdated_InvalidatedByChangeStream() = runBlocking<Unit> {
+        assertTrue(productCache.active)
+        val saved = productRepository.save(
+            Product(name = "Before", description = "Description", price = BigDecimal.ONE, skuCode = "sku-1")
+        )
+        assertEquals("Before", productService.getProductsBySkuCodes(setOf("sku-1")).getValue("sku-1").name)
+        assertEquals(1, productCache.getBySkuCodes(setOf("sku-1")).size)
+
+        productRepository.save(saved.copy(name = "After"))
+
+        withTimeout(10_000) {
+            while (productCache.getBySkuCodes(setOf("sku-1")).isNotEmpty()) {
+                delay(50)
+            }
+        }
+        assertEquals("After", productService.getProductsBySkuCodes(setOf("sku-1")).getValue("sku-1").name)
+    }
+}
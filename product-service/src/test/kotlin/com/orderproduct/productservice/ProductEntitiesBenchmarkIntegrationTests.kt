@@ -0,0 +1,116 @@
+package com.orderproduct.productservice
+
+import com.orderproduct.productservice.entity.Product
+import com.orderproduct.productservice.repository.ProductRepository
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureHttpGraphQlTester
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.graphql.test.tester.HttpGraphQlTester
+import org.springframework.test.context.DynamicPropertyRegistry
+import org.springframework.test.context.DynamicPropertySource
+import org.testcontainers.containers.MongoDBContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.math.BigDecimal
+
+// Seeds a catalog and times many GraphQL requests, so this only runs on request:
+// mvn test -Dtest=ProductEntitiesBenchmarkIntegrationTests -Dbenchmark=true
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureHttpGraphQlTester
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductEntitiesBenchmarkIntegrationTests {
+
+    companion object {
+        private const val PRODUCTS = 1000
+        private const val WARMUP_RUNS = 5
+        private const val MEASURED_RUNS = 20
+
+        @Container
+        @JvmStatic
+        val mongoDBContainer = MongoDBContainer("mongo:4.4.2")
+
+        @DynamicPropertySource
+        @JvmStatic
+        fun setProperties(registry: DynamicPropertyRegistry) {
+            registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl)
+        }
+    }
+
+    @Autowired
+    lateinit var graphQlTester: HttpGraphQlTester
+
+    @Autowired
+    lateinit var productRepository: ProductRepository
+
+    @BeforeEach
+    fun seedProducts() = runBlocking {
+        val products = (0 until PRODUCTS).map { i ->
+            Product(
+                name = "Product $i",
+                description = "Description $i",
+                price = BigDecimal.valueOf(i.toLong()),
+                skuCode = "sku-$i"
+            )
+        }
+        productRepository.saveAll(products).collect()
+    }
+
+    @AfterEach
+    fun cleanup() = runBlocking {
+        productRepository.deleteAll()
+    }
+
+    @Test
+    @DisplayName("_entities latency for 10, 100 and 1000 skuCode representations")
+    fun entitiesQuery_skuCodeRepresentations_reportsLatency() {
+        listOf(10, 100, 1000).forEach { count ->
+            val document = entitiesDocument(count)
+            repeat(WARMUP_RUNS) { resolve(document, count) }
+
+            val samples = (1..MEASURED_RUNS).map {
+                val startedAt = System.nanoTime()
+                resolve(document, count)
+                System.nanoTime() - startedAt
+            }.sorted()
+
+            println(
+                "_entities with %d representations: median %.2f ms, p90 %.2f ms over %d runs".format(
+                    count,
+                    samples[samples.size / 2] / 1_000_000.0,
+                    samples[samples.size * 9 / 10] / 1_000_000.0,
+                    MEASURED_RUNS
+                )
+            )
+        }
+    }
+
+    private fun resolve(document: String, count: Int) {
+        graphQlTester.document(document)
+            .execute()
+            .path("_entities[*].skuCode").entityList(String::class.java).hasSize(count)
+    }
+
+    private fun entitiesDocument(count: Int): String {
+        // Spread the keys over the whole catalog so larger requests do not just hit the first documents
+        val representations = (0 until count)
+            .map { i -> i * (PRODUCTS / count) }
+            .joinToString(", ") { i -> """{__typename: "Product", skuCode: "sku-$i"}""" }
+        return """
+            query {
+                _entities(representations: [$representations]) {
+                    ... on Product {
+                        skuCode
+                    }
+                }
+            }
+        """
+    }
+}
@@ -2,7 +2,10 @@ package com.orderproduct.productservice
 
 import com.orderproduct.productservice.common.BAD_REQUEST_ERROR_CODE
 import com.orderproduct.productservice.common.BAD_REQUEST_MSG
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_ERROR_CODE
 import com.orderproduct.productservice.common.ErrorBody
+import com.orderproduct.productservice.dto.ProductConnection
+import com.orderproduct.productservice.dto.ProductImportResult
 import com.orderproduct.productservice.dto.ProductRequest
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.entity.Product
@@ -16,6 +19,7 @@ import org.junit.jupiter.api.Test
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient
 import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
 import org.springframework.test.context.DynamicPropertyRegistry
 import org.springframework.test.context.DynamicPropertySource
@@ -65,6 +69,27 @@ class ProductServiceApplicationTests {
         assertEquals(1, productRepository.count())
     }
 
+    @Test
+    @DisplayName("should return 409 when POST /api/products is called twice with the same skuCode")
+    fun postApiCall_ShouldRejectDuplicateSkuCode() = runBlocking<Unit> {
+        val request = ProductRequest("iPhone 13", "iPhone 13", BigDecimal.valueOf(1200), "iphone-13")
+        webTestClient.post().uri("/api/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isCreated
+
+        val errorBody = webTestClient.post().uri("/api/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(request)
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+            .expectBody(ErrorBody::class.java)
+            .returnResult().responseBody!!
+        assertEquals(DUPLICATE_SKU_CODE_ERROR_CODE, errorBody.errorCode)
+        assertEquals(1, productRepository.count())
+    }
+
     @Test
     @DisplayName("should throw BadRequestException when POST /api/products is called with all-null fields")
     fun postApiCall_ShouldThrowBadRequestException_WhenNameOrDescriptionOrPriceIsEmptyOrMissing() {
@@ -115,4 +140,71 @@ class ProductServiceApplicationTests {
 
         assertTrue(responses.any { it.name == uniqueName })
     }
+
+    @Test
+    @DisplayName("should insert valid records and report invalid and duplicate ones when POST /api/products/bulk is called")
+    fun bulkImport_ShouldInsertValidRecordsAndReportFailures() = runBlocking<Unit> {
+        productRepository.save(
+            Product(name = "iPhone 13", description = "Apple phone", price = BigDecimal.ONE, skuCode = "iphone-13")
+        )
+        val body = listOf(
+            """{"name":"Galaxy S24","description":"Samsung phone","price":1100,"skuCode":"galaxy-s24"}""",
+            """{"name":"","description":"Blank name","price":10,"skuCode":"blank-name"}""",
+            """{"name":"iPhone 13 again","description":"Existing skuCode","price":1200,"skuCode":"iphone-13"}""",
+            """{"name":"Pixel 8","description":"Google phone","price":900,"skuCode":"pixel-8"}"""
+        ).joinToString("\n", postfix = "\n")
+
+        val results = webTestClient.post().uri("/api/products/bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(body)
+            .exchange()
+            .expectStatus().isOk
+            .expectBodyList(ProductImportResult::class.java)
+            .returnResult().responseBody!!
+
+        assertEquals(4, results.sumOf { it.received })
+        assertEquals(2, results.sumOf { it.inserted })
+        assertEquals(
+            listOf(1 to BAD_REQUEST_ERROR_CODE, 2 to DUPLICATE_SKU_CODE_ERROR_CODE),
+            results.flatMap { it.failures }.map { it.index to it.errorCode }
+        )
+        assertEquals(3, productRepository.count())
+    }
+
+    @Test
+    @DisplayName("should page through every product once, in _id order, when the products query follows endCursor")
+    fun productsQuery_FollowingEndCursor_VisitsEveryProductOnce() = runBlocking<Unit> {
+        val saved = (1..5).map {
+            productRepository.save(Product(name = "Name$it", description = "Description", price = BigDecimal.ONE))
+        }
+
+        val visitedIds = mutableListOf<String>()
+        var after: String? = null
+        do {
+            val page = productsPage(first = 2, after = after)
+            visitedIds += page.edges.map { it.node.id }
+            after = page.pageInfo.endCursor
+        } while (page.pageInfo.hasNextPage)
+
+        assertEquals(saved.map { requireNotNull(it.id) }.sorted(), visitedIds)
+    }
+
+    private fun productsPage(first: Int, after: String?): ProductConnection {
+        val query = "query(\$first: Int!, \$after: String) { products(first: \$first, after: \$after) " +
+                "{ edges { cursor node { id name description price } } " +
+                "pageInfo { hasNextPage hasPreviousPage startCursor endCursor } } }"
+        return webTestClient.post().uri("/graphql")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(mapOf("query" to query, "variables" to mapOf("first" to first, "after" to after)))
+            .exchange()
+            .expectStatus().isOk
+            .expectBody(ProductsQueryResponse::class.java)
+            .returnResult().responseBody!!
+            .data.products
+    }
+
+    data class ProductsQueryResponse(val data: ProductsData)
+
+    data class ProductsData(val products: ProductConnection)
 }
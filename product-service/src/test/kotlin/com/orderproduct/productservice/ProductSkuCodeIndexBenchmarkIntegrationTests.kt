@@ -0,0 +1,101 @@
+package com.orderproduct.productservice
+
+import com.orderproduct.productservice.config.ProductIndexInitializer
+import com.orderproduct.productservice.entity.Product
+import com.orderproduct.productservice.repository.ProductRepository
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.reactor.awaitSingle
+import kotlinx.coroutines.reactor.awaitSingleOrNull
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import org.springframework.test.context.DynamicPropertyRegistry
+import org.springframework.test.context.DynamicPropertySource
+import org.testcontainers.containers.MongoDBContainer
+import org.testcontainers.junit.jupiter.Container
+import org.testcontainers.junit.jupiter.Testcontainers
+import java.math.BigDecimal
+
+// Seeding a million products takes a while, so this only runs on request:
+// mvn test -Dtest=ProductSkuCodeIndexBenchmarkIntegrationTests -Dbenchmark=true
+@SpringBootTest(properties = ["product.cache.enabled=false"])
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductSkuCodeIndexBenchmarkIntegrationTests {
+
+    companion object {
+        private const val PRODUCTS = 1_000_000
+        private const val INSERT_BATCH_SIZE = 10_000
+        private const val LOOKUPS = 200
+
+        @Container
+        @JvmStatic
+        val mongoDBContainer = MongoDBContainer("mongo:4.4.2")
+
+        @DynamicPropertySource
+        @JvmStatic
+        fun setProperties(registry: DynamicPropertyRegistry) {
+            registry.add("spring.data.mongodb.uri", mongoDBContainer::getReplicaSetUrl)
+        }
+    }
+
+    @Autowired
+    lateinit var mongoTemplate: ReactiveMongoTemplate
+
+    @Autowired
+    lateinit var productRepository: ProductRepository
+
+    @Autowired
+    lateinit var productIndexInitializer: ProductIndexInitializer
+
+    @AfterAll
+    fun cleanup() = runBlocking {
+        mongoTemplate.dropCollection(Product::class.java).awaitSingleOrNull()
+    }
+
+    @Test
+    @DisplayName("skuCode lookup latency against 1M products with and without the skuCode index")
+    fun findBySkuCodeIn_MillionProducts_ReportsLatencyWithAndWithoutIndex() = runBlocking<Unit> {
+        // Given
+        for (offset in 0 until PRODUCTS step INSERT_BATCH_SIZE) {
+            val batch = (offset until offset + INSERT_BATCH_SIZE).map { i ->
+                Product(name = "Product $i", description = "Description $i", price = BigDecimal.ONE, skuCode = "sku-$i")
+            }
+            mongoTemplate.insertAll(batch).collectList().awaitSingle()
+        }
+        // Spread lookups over the whole catalog, as federation requests do
+        val skuCodes = (0 until LOOKUPS).map { "sku-${it * (PRODUCTS / LOOKUPS)}" }
+
+        // When
+        val indexedNanos = measureLookups(skuCodes)
+        mongoTemplate.indexOps(Product::class.java).dropIndex("skuCode").awaitSingleOrNull()
+        val scanNanos = measureLookups(skuCodes.take(LOOKUPS / 20))
+        productIndexInitializer.afterPropertiesSet()
+
+        // Then
+        println(
+            "findBySkuCodeIn over %d products: %.3f ms per lookup with the skuCode index, %.3f ms without".format(
+                PRODUCTS, indexedNanos / 1_000_000.0, scanNanos / 1_000_000.0
+            )
+        )
+        assertEquals(1, productRepository.findBySkuCodeIn(listOf("sku-0")).toList().size)
+    }
+
+    // Returns the mean latency of a single-skuCode lookup, in nanoseconds.
+    private suspend fun measureLookups(skuCodes: List<String>): Double {
+        productRepository.findBySkuCodeIn(listOf(skuCodes.first())).toList()
+        val startedAt = System.nanoTime()
+        skuCodes.forEach { skuCode ->
+            assertEquals(1, productRepository.findBySkuCodeIn(listOf(skuCode)).toList().size)
+        }
+        return (System.nanoTime() - startedAt).toDouble() / skuCodes.size
+    }
+}
@@ -0,0 +1,85 @@
+package com.orderproduct.productservice.cache
+
+import com.orderproduct.productservice.dto.ProductResponse
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import java.math.BigDecimal
+
+class ProductCacheTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+    private val productCache = ProductCache(2, meterRegistry)
+
+    private val product1 = ProductResponse("id1", "Name1", "Description1", BigDecimal.valueOf(1), "sku-1")
+    private val product2 = ProductResponse("id2", "Name2", "Description2", BigDecimal.valueOf(2), "sku-2")
+    private val product3 = ProductResponse("id3", "Name3", "Description3", BigDecimal.valueOf(3), "sku-3")
+
+    @Test
+    @DisplayName("getByIds() and getBySkuCodes() return cached products under either key and count hits and misses")
+    fun lookupByIdAndSkuCode() {
+        productCache.activate()
+        productCache.putAll(listOf(product1), productCache.currentGeneration())
+
+        assertEquals(mapOf("id1" to product1), productCache.getByIds(listOf("id1", "id2")))
+        assertEquals(mapOf("sku-1" to product1), productCache.getBySkuCodes(listOf("sku-1")))
+        assertEquals(2.0, meterRegistry.get("product.cache.gets").tag("result", "hit").counter().count())
+        assertEquals(1.0, meterRegistry.get("product.cache.gets").tag("result", "miss").counter().count())
+    }
+
+    @Test
+    @DisplayName("putAll() evicts the least recently used product, under both keys, once max-size is reached")
+    fun evictsLeastRecentlyUsed() {
+        productCache.activate()
+        productCache.putAll(listOf(product1, product2), productCache.currentGeneration())
+        productCache.getByIds(listOf("id1"))
+
+        productCache.putAll(listOf(product3), productCache.currentGeneration())
+
+        assertEquals(setOf("id1", "id3"), productCache.getByIds(listOf("id1", "id2", "id3")).keys)
+        assertEquals(emptyMap<String, ProductResponse>(), productCache.getBySkuCodes(listOf("sku-2")))
+        assertEquals(1.0, meterRegistry.get("product.cache.evictions").counter().count())
+        assertEquals(2.0, meterRegistry.get("product.cache.size").gauge().value())
+    }
+
+    @Test
+    @DisplayName("invalidate() drops the product under both its id and its skuCode")
+    fun invalidateById() {
+        productCache.activate()
+        productCache.putAll(listOf(product1, product2), productCache.currentGeneration())
+
+        productCache.invalidate("id1")
+
+        assertEquals(emptyMap<String, ProductResponse>(), productCache.getByIds(listOf("id1")))
+        assertEquals(emptyMap<String, ProductResponse>(), productCache.getBySkuCodes(listOf("sku-1")))
+        assertEquals(mapOf("sku-2" to product2), productCache.getBySkuCodes(listOf("sku-2")))
+        assertEquals(1.0, meterRegistry.get("product.cache.invalidations").counter().count())
+    }
+
+    @Test
+    @DisplayName("putAll() drops products loaded before an invalidation, so a racing write cannot be cached stale")
+    fun putAllAfterInvalidationIsIgnored() {
+        productCache.activate()
+        val generation = productCache.currentGeneration()
+
+        productCache.invalidate("id1")
+        productCache.putAll(listOf(product1), generation)
+
+        assertEquals(0, productCache.size())
+    }
+
+    @Test
+    @DisplayName("an inactive cache neither stores nor serves products")
+    fun inactiveCacheIsBypassed() {
+        productCache.putAll(listOf(product1), productCache.currentGeneration())
+        assertEquals(0, productCache.size())
+
+        productCache.activate()
+        productCache.putAll(listOf(product1), productCache.currentGeneration())
+        productCache.deactivate()
+
+        assertEquals(emptyMap<String, ProductResponse>(), productCache.getByIds(listOf("id1")))
+        assertEquals(0, productCache.size())
+    }
+}
@@ -1,13 +1,24 @@
 package com.orderproduct.productservice.controller
 
+import com.orderproduct.productservice.common.BAD_REQUEST_ERROR_CODE
+import com.orderproduct.productservice.common.BAD_REQUEST_MSG
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_ERROR_CODE
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
+import com.orderproduct.productservice.common.DuplicateSkuCodeException
 import com.orderproduct.productservice.common.InternalServerException
+import com.orderproduct.productservice.dto.ProductImportFailure
+import com.orderproduct.productservice.dto.ProductImportResult
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.dto.SavedProduct
+import com.orderproduct.productservice.service.ProductImportService
 import com.orderproduct.productservice.service.ProductService
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.runBlocking
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.whenever
@@ -16,6 +27,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest
 import org.springframework.boot.test.context.TestConfiguration
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.Import
+import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
 import org.springframework.test.web.reactive.server.WebTestClient
 import java.math.BigDecimal
@@ -30,15 +42,21 @@ class ProductControllerTest {
     @Autowired
     lateinit var productService: ProductService
 
+    @Autowired
+    lateinit var productImportService: ProductImportService
+
     @TestConfiguration
     class MockedServiceConfig {
         @Bean
         fun productService(): ProductService = mock()
+
+        @Bean
+        fun productImportService(): ProductImportService = mock()
     }
 
     @BeforeEach
     fun setUp() {
-        reset(productService)
+        reset(productService, productImportService)
     }
 
     @Test
@@ -119,6 +137,24 @@ class ProductControllerTest {
             .expectStatus().isBadRequest
     }
 
+    @Test
+    @DisplayName("should return 409 when POST /api/products and productService throws DuplicateSkuCodeException")
+    fun createProductDuplicateSkuCode() {
+        runBlocking {
+            whenever(productService.createProduct("name", "description", BigDecimal.valueOf(1000), "sku-1"))
+                .thenThrow(DuplicateSkuCodeException())
+        }
+
+        webTestClient.post().uri("/api/products")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue("""{"name":"name","description":"description","price":1000,"skuCode":"sku-1"}""")
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+            .expectBody()
+            .jsonPath("$.errorCode").isEqualTo(DUPLICATE_SKU_CODE_ERROR_CODE)
+            .jsonPath("$.errorMessage").isEqualTo(DUPLICATE_SKU_CODE_MSG)
+    }
+
     @Test
     @DisplayName("should return 500 when POST /api/products and productService throws InternalServerException")
     fun createProductInternalServerError() {
@@ -139,11 +175,10 @@ class ProductControllerTest {
     fun getAllProductsTest() {
         val product1 = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000))
         val product2 = ProductResponse("id2", "name2", "description2", BigDecimal.valueOf(2000))
-        runBlocking {
-            whenever(productService.getAllProducts()).thenReturn(listOf(product1, product2))
-        }
+        whenever(productService.streamAllProducts()).thenReturn(flowOf(product1, product2))
 
         webTestClient.get().uri("/api/products")
+            .accept(MediaType.APPLICATION_JSON)
             .exchange()
             .expectStatus().isOk
             .expectBody()
@@ -157,4 +192,57 @@ class ProductControllerTest {
             .jsonPath("$[1].description").isEqualTo(product2.description)
             .jsonPath("$[1].price").isEqualTo(product2.price)
     }
+
+    @Test
+    @DisplayName("should stream one product per line when GET /api/products is called with Accept: application/x-ndjson")
+    fun getAllProductsNdjsonTest() {
+        val product1 = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000))
+        val product2 = ProductResponse("id2", "name2", "description2", BigDecimal.valueOf(2000))
+        whenever(productService.streamAllProducts()).thenReturn(flowOf(product1, product2))
+
+        webTestClient.get().uri("/api/products")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBodyList(ProductResponse::class.java)
+            .hasSize(2)
+            .contains(product1, product2)
+    }
+
+    @Test
+    @DisplayName("should return 500 when GET /api/products and the product stream fails with InternalServerException")
+    fun getAllProductsInternalServerError() {
+        whenever(productService.streamAllProducts()).thenReturn(flow { throw InternalServerException() })
+
+        webTestClient.get().uri("/api/products")
+            .exchange()
+            .expectStatus().is5xxServerError
+    }
+
+    @Test
+    @DisplayName("should stream one ProductImportResult per chunk when POST /api/products/bulk is called with NDJSON")
+    fun importProductsTest() {
+        val result = ProductImportResult(
+            fromIndex = 0,
+            received = 2,
+            inserted = 1,
+            failures = listOf(ProductImportFailure(1, null, BAD_REQUEST_ERROR_CODE, BAD_REQUEST_MSG))
+        )
+        whenever(productImportService.importProducts(any())).thenReturn(flowOf(result))
+
+        webTestClient.post().uri("/api/products/bulk")
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .accept(MediaType.APPLICATION_NDJSON)
+            .bodyValue(
+                """{"name":"name","description":"description","price":1000,"skuCode":"sku-1"}""" + "\n" +
+                        """{"name":"","description":"description","price":1000}""" + "\n"
+            )
+            .exchange()
+            .expectStatus().isOk
+            .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+            .expectBodyList(ProductImportResult::class.java)
+            .hasSize(1)
+            .contains(result)
+    }
 }
@@ -1,6 +1,11 @@
 package com.orderproduct.productservice.controller
 
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
+import com.orderproduct.productservice.common.DuplicateSkuCodeException
 import com.orderproduct.productservice.common.InternalServerException
+import com.orderproduct.productservice.dto.PageInfo
+import com.orderproduct.productservice.dto.ProductConnection
+import com.orderproduct.productservice.dto.ProductEdge
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.dto.SavedProduct
 import com.orderproduct.productservice.service.ProductService
@@ -40,35 +45,137 @@ class ProductGraphQLControllerTest {
     @BeforeEach
     fun setUp() {
         reset(productService)
+        // _entities looks up both key groups, so an empty group must resolve to an empty map
+        runBlocking {
+            whenever(productService.getProductsByIds(emptySet())).thenReturn(emptyMap())
+            whenever(productService.getProductsBySkuCodes(emptySet())).thenReturn(emptyMap())
+        }
     }
 
     @Test
-    @DisplayName("should return product list when products query is executed")
-    fun productsQuery_returnsProductList() {
+    @DisplayName("should return a product connection when products query is executed")
+    fun productsQuery_returnsProductConnection() {
         val product1 = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000))
         val product2 = ProductResponse("id2", "name2", "description2", BigDecimal.valueOf(2000))
         runBlocking {
-            whenever(productService.getAllProducts()).thenReturn(listOf(product1, product2))
+            whenever(productService.getProductsPage(2, null)).thenReturn(
+                ProductConnection(
+                    edges = listOf(ProductEdge(product1, "id1"), ProductEdge(product2, "id2")),
+                    pageInfo = PageInfo(hasNextPage = true, hasPreviousPage = false, "id1", "id2")
+                )
+            )
         }
 
         graphQlTester.document(
             """
             query {
-                products {
-                    id
-                    name
-                    description
-                    price
+                products(first: 2) {
+                    edges {
+                        cursor
+                        node {
+                            id
+                            name
+                            description
+                            price
+                        }
+                    }
+                    pageInfo {
+                        hasNextPage
+                        endCursor
+                    }
+                }
+            }
+        """
+        )
+            .execute()
+            .path("products.edges").entityList(Any::class.java).hasSize(2)
+            .path("products.edges[0].cursor").entity(String::class.java).isEqualTo("id1")
+            .path("products.edges[0].node.id").entity(String::class.java).isEqualTo(product1.id)
+            .path("products.edges[0].node.name").entity(String::class.java).isEqualTo(product1.name)
+            .path("products.edges[0].node.description").entity(String::class.java).isEqualTo(product1.description)
+            .path("products.edges[1].node.id").entity(String::class.java).isEqualTo(product2.id)
+            .path("products.pageInfo.hasNextPage").entity(Boolean::class.java).isEqualTo(true)
+            .path("products.pageInfo.endCursor").entity(String::class.java).isEqualTo("id2")
+    }
+
+    @Test
+    @DisplayName("should pass the default page size and the after cursor to productService when products query is executed")
+    fun productsQuery_defaultFirstAndAfter_passedToService() {
+        val after = "65f1c0ffee0000000000000a"
+        runBlocking {
+            whenever(productService.getProductsPage(50, after)).thenReturn(
+                ProductConnection(
+                    edges = emptyList(),
+                    pageInfo = PageInfo(hasNextPage = false, hasPreviousPage = true, null, null)
+                )
+            )
+        }
+
+        graphQlTester.document(
+            """
+            query {
+                products(after: "$after") {
+                    edges {
+                        cursor
+                    }
+                    pageInfo {
+                        hasNextPage
+                        endCursor
+                    }
                 }
             }
         """
         )
             .execute()
-            .path("products").entityList(ProductResponse::class.java).hasSize(2)
-            .path("products[0].id").entity(String::class.java).isEqualTo(product1.id)
-            .path("products[0].name").entity(String::class.java).isEqualTo(product1.name)
-            .path("products[0].description").entity(String::class.java).isEqualTo(product1.description)
-            .path("products[1].id").entity(String::class.java).isEqualTo(product2.id)
+            .path("products.edges").entityList(Any::class.java).hasSize(0)
+            .path("products.pageInfo.hasNextPage").entity(Boolean::class.java).isEqualTo(false)
+            .path("products.pageInfo.endCursor").valueIsNull()
+    }
+
+    @Test
+    @DisplayName("should return ValidationError with BAD_USER_INPUT code when products query is called with first above the maximum page size")
+    fun productsQuery_firstTooLarge_returnsValidationError() {
+        graphQlTester.document(
+            """
+            query {
+                products(first: 501) {
+                    edges {
+                        cursor
+                    }
+                }
+            }
+        """
+        )
+            .execute()
+            .errors()
+            .satisfy { errors ->
+                assertThat(errors).hasSize(1)
+                assertThat(errors[0].errorType).isEqualTo(ErrorType.ValidationError)
+                assertThat(errors[0].extensions["code"]).isEqualTo("BAD_USER_INPUT")
+            }
+    }
+
+    @Test
+    @DisplayName("should return ValidationError with BAD_USER_INPUT code when products query is called with a malformed cursor")
+    fun productsQuery_malformedCursor_returnsValidationError() {
+        graphQlTester.document(
+            """
+            query {
+                products(after: "not-a-cursor") {
+                    edges {
+                        cursor
+                    }
+                }
+            }
+        """
+        )
+            .execute()
+            .errors()
+            .satisfy { errors ->
+                assertThat(errors).hasSize(1)
+                assertThat(errors[0].errorType).isEqualTo(ErrorType.ValidationError)
+                assertThat(errors[0].extensions["code"]).isEqualTo("BAD_USER_INPUT")
+            }
     }
 
     @Test
@@ -139,15 +246,19 @@ class ProductGraphQLControllerTest {
     @DisplayName("should return DataFetchingException with INTERNAL_SERVER_ERROR code when products query and productService throws InternalServerException")
     fun productsQuery_serviceThrowsInternalServerException_returnsDataFetchingException() {
         runBlocking {
-            whenever(productService.getAllProducts()).thenThrow(InternalServerException())
+            whenever(productService.getProductsPage(50, null)).thenThrow(InternalServerException())
         }
 
         graphQlTester.document(
             """
             query {
                 products {
-                    id
-                    name
+                    edges {
+                        node {
+                            id
+                            name
+                        }
+                    }
                 }
             }
         """
@@ -187,6 +298,33 @@ class ProductGraphQLControllerTest {
             }
     }
 
+    @Test
+    @DisplayName("should return ValidationError with BAD_USER_INPUT code when createProduct mutation uses a skuCode that already exists")
+    fun createProductMutation_duplicateSkuCode_returnsValidationError() {
+        runBlocking {
+            whenever(productService.createProduct("name", "description", BigDecimal.valueOf(1000), "sku-1"))
+                .thenThrow(DuplicateSkuCodeException())
+        }
+
+        graphQlTester.document(
+            """
+            mutation {
+                createProduct(input: {name: "name", description: "description", price: 1000, skuCode: "sku-1"}) {
+                    productId
+                }
+            }
+        """
+        )
+            .execute()
+            .errors()
+            .satisfy { errors ->
+                assertThat(errors).hasSize(1)
+                assertThat(errors[0].errorType).isEqualTo(ErrorType.ValidationError)
+                assertThat(errors[0].message).isEqualTo(DUPLICATE_SKU_CODE_MSG)
+                assertThat(errors[0].extensions["code"]).isEqualTo("BAD_USER_INPUT")
+            }
+    }
+
     // Federation: _service { sdl }
 
     @Test
@@ -218,7 +356,7 @@ class ProductGraphQLControllerTest {
     fun entitiesQuery_productRepresentation_returnsProduct() {
         val product = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000))
         runBlocking {
-            whenever(productService.getProductById("id1")).thenReturn(product)
+            whenever(productService.getProductsByIds(setOf("id1"))).thenReturn(mapOf("id1" to product))
         }
 
         graphQlTester.document(
@@ -245,7 +383,7 @@ class ProductGraphQLControllerTest {
     @DisplayName("should return null when _entities is called with a Product representation but product does not exist")
     fun entitiesQuery_productNotFound_returnsNull() {
         runBlocking {
-            whenever(productService.getProductById("unknown")).thenReturn(null)
+            whenever(productService.getProductsByIds(setOf("unknown"))).thenReturn(emptyMap())
         }
 
         graphQlTester.document(
@@ -264,12 +402,11 @@ class ProductGraphQLControllerTest {
     }
 
     @Test
-    @DisplayName("should resolve multiple representations in one call, returning each Product or null independently")
-    fun entitiesQuery_multipleRepresentations_resolvesEachIndependently() {
+    @DisplayName("should resolve multiple representations with one lookup, returning each Product or null in order")
+    fun entitiesQuery_multipleRepresentations_resolvesInOneLookup() {
         val product1 = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000))
         runBlocking {
-            whenever(productService.getProductById("id1")).thenReturn(product1)
-            whenever(productService.getProductById("id2")).thenReturn(null)
+            whenever(productService.getProductsByIds(setOf("id1", "id2"))).thenReturn(mapOf("id1" to product1))
         }
 
         graphQlTester.document(
@@ -296,7 +433,7 @@ class ProductGraphQLControllerTest {
     @DisplayName("should return DataFetchingException when _entities is called and productService throws InternalServerException")
     fun entitiesQuery_serviceThrowsInternalServerException_returnsDataFetchingException() {
         runBlocking {
-            whenever(productService.getProductById("id1")).thenThrow(InternalServerException())
+            whenever(productService.getProductsByIds(setOf("id1"))).thenThrow(InternalServerException())
         }
 
         graphQlTester.document(
@@ -326,7 +463,7 @@ class ProductGraphQLControllerTest {
     fun entitiesQuery_skuCodeRepresentation_returnsProduct() {
         val product = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000), "sku-1")
         runBlocking {
-            whenever(productService.getProductBySkuCode("sku-1")).thenReturn(product)
+            whenever(productService.getProductsBySkuCodes(setOf("sku-1"))).thenReturn(mapOf("sku-1" to product))
         }
 
         graphQlTester.document(
@@ -352,7 +489,7 @@ class ProductGraphQLControllerTest {
     @DisplayName("should return null when _entities is called with a skuCode representation but product does not exist")
     fun entitiesQuery_skuCodeNotFound_returnsNull() {
         runBlocking {
-            whenever(productService.getProductBySkuCode("unknown")).thenReturn(null)
+            whenever(productService.getProductsBySkuCodes(setOf("unknown"))).thenReturn(emptyMap())
         }
 
         graphQlTester.document(
@@ -369,4 +506,40 @@ class ProductGraphQLControllerTest {
             .execute()
             .path("_entities[0]").valueIsNull()
     }
+
+    @Test
+    @DisplayName("should resolve id and skuCode representations together, preserving order and repeated keys")
+    fun entitiesQuery_mixedKeyRepresentations_preservesOrder() {
+        val product1 = ProductResponse("id1", "name1", "description1", BigDecimal.valueOf(1000), "sku-1")
+        val product2 = ProductResponse("id2", "name2", "description2", BigDecimal.valueOf(2000), "sku-2")
+        runBlocking {
+            whenever(productService.getProductsByIds(setOf("id1"))).thenReturn(mapOf("id1" to product1))
+            whenever(productService.getProductsBySkuCodes(setOf("sku-2", "unknown")))
+                .thenReturn(mapOf("sku-2" to product2))
+        }
+
+        graphQlTester.document(
+            """
+            query {
+                _entities(representations: [
+                    {__typename: "Product", skuCode: "sku-2"},
+                    {__typename: "Product", id: "id1"},
+                    {__typename: "Product", skuCode: "unknown"},
+                    {__typename: "Unknown", id: "id1"},
+                    {__typename: "Product", skuCode: "sku-2"}
+                ]) {
+                    ... on Product {
+                        id
+                    }
+                }
+            }
+        """
+        )
+            .execute()
+            .path("_entities[0].id").entity(String::class.java).isEqualTo("id2")
+            .path("_entities[1].id").entity(String::class.java).isEqualTo("id1")
+            .path("_entities[2]").valueIsNull()
+            .path("_entities[3]").valueIsNull()
+            .path("_entities[4].id").entity(String::class.java).isEqualTo("id2")
+    }
 }
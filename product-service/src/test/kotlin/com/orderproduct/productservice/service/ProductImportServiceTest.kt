@@ -0,0 +1,172 @@
+package com.orderproduct.productservice.service
+
+import com.mongodb.MongoBulkWriteException
+import com.mongodb.ServerAddress
+import com.mongodb.bulk.BulkWriteError
+import com.mongodb.bulk.BulkWriteResult
+import com.orderproduct.productservice.common.BAD_REQUEST_ERROR_CODE
+import com.orderproduct.productservice.common.BAD_REQUEST_MSG
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_ERROR_CODE
+import com.orderproduct.productservice.common.DUPLICATE_SKU_CODE_MSG
+import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_ERROR_CODE
+import com.orderproduct.productservice.common.SOMETHING_WENT_WRONG_MSG
+import com.orderproduct.productservice.dto.ProductImportFailure
+import com.orderproduct.productservice.dto.ProductImportResult
+import com.orderproduct.productservice.dto.ProductRequest
+import com.orderproduct.productservice.entity.Product
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import org.bson.BsonDocument
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.DisplayName
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.springframework.dao.DataAccessResourceFailureException
+import org.springframework.data.mongodb.BulkOperationException
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode
+import org.springframework.data.mongodb.core.ReactiveBulkOperations
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate
+import reactor.core.publisher.Mono
+import java.math.BigDecimal
+
+class ProductImportServiceTest {
+
+    private val mongoTemplate = mock<ReactiveMongoTemplate>()
+    private val bulkOperations = mock<ReactiveBulkOperations>()
+    private val productImportService = ProductImportService(mongoTemplate, 2)
+
+    @Test
+    @DisplayName("importProducts() inserts valid records in unordered chunks of chunk-size and reports each chunk")
+    fun importProductsInChunks() = runTest {
+        whenever(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product::class.java)).thenReturn(bulkOperations)
+        whenever(bulkOperations.insert(any<List<Any>>())).thenReturn(bulkOperations)
+        whenever(bulkOperations.execute()).thenReturn(
+            Mono.just(acknowledged(2)),
+            Mono.just(acknowledged(1))
+        )
+
+        val results = productImportService.importProducts(
+            flowOf(request("sku-1"), request("sku-2"), request("sku-3"))
+        ).toList()
+
+        assertEquals(
+            listOf(
+                ProductImportResult(fromIndex = 0, received = 2, inserted = 2, failures = emptyList()),
+                ProductImportResult(fromIndex = 2, received = 1, inserted = 1, failures = emptyList())
+            ),
+            results
+        )
+        verify(bulkOperations).insert(listOf(product("sku-1"), product("sku-2")))
+        verify(bulkOperations).insert(listOf(product("sku-3")))
+    }
+
+    @Test
+    @DisplayName("importProducts() rejects invalid records without writing them and inserts the rest of the chunk")
+    fun importProductsRejectsInvalidRecords() = runTest {
+        whenever(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product::class.java)).thenReturn(bulkOperations)
+        whenever(bulkOperations.insert(listOf(product("sku-2")))).thenReturn(bulkOperations)
+        whenever(bulkOperations.execute()).thenReturn(Mono.just(acknowledged(1)))
+
+        val results = productImportService.importProducts(
+            flowOf(ProductRequest("", "Description", BigDecimal.ONE, "sku-1"), request("sku-2"))
+        ).toList()
+
+        assertEquals(
+            listOf(
+                ProductImportResult(
+                    fromIndex = 0, received = 2, inserted = 1,
+                    failures = listOf(ProductImportFailure(0, "sku-1", BAD_REQUEST_ERROR_CODE, BAD_REQUEST_MSG))
+                )
+            ),
+            results
+        )
+    }
+
+    @Test
+    @DisplayName("importProducts() does not write a chunk in which every record is invalid")
+    fun importProductsAllInvalid() = runTest {
+        val results = productImportService.importProducts(
+            flowOf(ProductRequest("Name", "Description", null, "sku-1"))
+        ).toList()
+
+        assertEquals(
+            listOf(
+                ProductImportResult(
+                    fromIndex = 0, received = 1, inserted = 0,
+                    failures = listOf(ProductImportFailure(0, "sku-1", BAD_REQUEST_ERROR_CODE, BAD_REQUEST_MSG))
+                )
+            ),
+            results
+        )
+        verify(mongoTemplate, never()).bulkOps(any<BulkMode>(), any<Class<*>>())
+    }
+
+    @Test
+    @DisplayName("importProducts() maps duplicate-key write errors back to the index of the record in the request")
+    fun importProductsReportsDuplicateSkuCodes() = runTest {
+        whenever(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product::class.java)).thenReturn(bulkOperations)
+        whenever(bulkOperations.insert(any<List<Any>>())).thenReturn(bulkOperations)
+        whenever(bulkOperations.execute()).thenReturn(Mono.error(bulkFailure(inserted = 1, failedPosition = 1)))
+
+        val results = productImportService.importProducts(flowOf(request("sku-1"), request("sku-taken"))).toList()
+
+        assertEquals(
+            listOf(
+                ProductImportResult(
+                    fromIndex = 0, received = 2, inserted = 1,
+                    failures = listOf(
+                        ProductImportFailure(1, "sku-taken", DUPLICATE_SKU_CODE_ERROR_CODE, DUPLICATE_SKU_CODE_MSG)
+                    )
+                )
+            ),
+            results
+        )
+    }
+
+    @Test
+    @DisplayName("importProducts() fails every record of a chunk when MongoDB cannot be reached")
+    fun importProductsWhenDBThrowsError() = runTest {
+        whenever(mongoTemplate.bulkOps(BulkMode.UNORDERED, Product::class.java)).thenReturn(bulkOperations)
+        whenever(bulkOperations.insert(any<List<Any>>())).thenReturn(bulkOperations)
+        whenever(bulkOperations.execute())
+            .thenReturn(Mono.error(DataAccessResourceFailureException("Child class of DataAccessException")))
+
+        val results = productImportService.importProducts(flowOf(request("sku-1"))).toList()
+
+        assertEquals(
+            listOf(
+                ProductImportResult(
+                    fromIndex = 0, received = 1, inserted = 0,
+                    failures = listOf(
+                        ProductImportFailure(0, "sku-1", SOMETHING_WENT_WRONG_ERROR_CODE, SOMETHING_WENT_WRONG_MSG)
+                    )
+                )
+            ),
+            results
+        )
+    }
+
+    private fun request(skuCode: String) = ProductRequest("Name", "Description", BigDecimal.ONE, skuCode)
+
+    private fun product(skuCode: String) =
+        Product(name = "Name", description = "Description", price = BigDecimal.ONE, skuCode = skuCode)
+
+    private fun acknowledged(inserted: Int) =
+        BulkWriteResult.acknowledged(inserted, 0, 0, 0, emptyList(), emptyList())
+
+    private fun bulkFailure(inserted: Int, failedPosition: Int) = BulkOperationException(
+        "E11000 duplicate key error",
+        MongoBulkWriteException(
+            acknowledged(inserted),
+            listOf(BulkWriteError(11000, "E11000 duplicate key error", BsonDocument(), failedPosition)),
+            null,
+            ServerAddress(),
+            emptySet()
+        )
+    )
+}
@@ -1,11 +1,20 @@
 package com.orderproduct.productservice.service
 
+import com.orderproduct.productservice.cache.ProductCache
+import com.orderproduct.productservice.common.DuplicateSkuCodeException
 import com.orderproduct.productservice.common.InternalServerException
+import com.orderproduct.productservice.dto.PageInfo
+import com.orderproduct.productservice.dto.ProductEdge
 import com.orderproduct.productservice.dto.ProductResponse
 import com.orderproduct.productservice.dto.SavedProduct
 import com.orderproduct.productservice.entity.Product
 import com.orderproduct.productservice.repository.ProductRepository
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.test.runTest
 import org.junit.jupiter.api.Assertions.assertEquals
@@ -14,14 +23,18 @@ import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import org.springframework.dao.DataAccessResourceFailureException
+import org.springframework.dao.DuplicateKeyException
+import org.springframework.data.domain.Limit
 import java.math.BigDecimal
 
 class ProductServiceTest {
 
     private val productRepository = mock<ProductRepository>()
-    private val productService = ProductService(productRepository)
+    private val productCache = ProductCache(100, SimpleMeterRegistry())
+    private val productService = ProductService(productRepository, productCache)
 
     @Test
     @DisplayName("createProduct() (i) transforms args to Product (ii) saves to repo (iii) returns SavedProduct")
@@ -59,8 +72,24 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("getAllProducts() fetches Flow<Product> from repo and transforms them to List<ProductResponse>")
-    fun getAllProductsTest() = runTest {
+    @DisplayName("createProduct throws DuplicateSkuCodeException when the skuCode is already taken")
+    fun createProductWhenSkuCodeIsDuplicate() = runTest {
+        val productPassedToRepo =
+            Product(name = "Name", description = "Description", price = BigDecimal.valueOf(123), skuCode = "sku-1")
+
+        whenever(productRepository.save(productPassedToRepo))
+            .thenThrow(DuplicateKeyException("E11000 duplicate key error collection: product index: skuCode"))
+
+        assertThrows(DuplicateSkuCodeException::class.java) {
+            runBlocking {
+                productService.createProduct("Name", "Description", BigDecimal.valueOf(123), "sku-1")
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("streamAllProducts() streams Flow<Product> from repo as Flow<ProductResponse>")
+    fun streamAllProductsTest() = runTest {
         val product1 =
             Product(id = "id1", name = "Name1", description = "Description1", price = BigDecimal.valueOf(123))
         val product2 =
@@ -68,7 +97,7 @@ class ProductServiceTest {
 
         whenever(productRepository.findAll()).thenReturn(flowOf(product1, product2))
 
-        val result = productService.getAllProducts()
+        val result = productService.streamAllProducts().toList()
 
         assertEquals(
             listOf(
@@ -80,85 +109,172 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("getAllProducts throws InternalServerException when repo throws DataAccessException")
-    fun getAllProductsWhenDBThrowsError() = runTest {
+    @DisplayName("streamAllProducts() fails with InternalServerException when the repo flow fails with DataAccessException")
+    fun streamAllProductsWhenDBThrowsError() = runTest {
         whenever(productRepository.findAll())
-            .thenThrow(DataAccessResourceFailureException("Child class of DataAccessException"))
+            .thenReturn(flow { throw DataAccessResourceFailureException("Child class of DataAccessException") })
 
         assertThrows(InternalServerException::class.java) {
-            runBlocking { productService.getAllProducts() }
+            runBlocking { productService.streamAllProducts().toList() }
+        }
+    }
+
+    // getProductsPage tests
+
+    @Test
+    @DisplayName("getProductsPage() without a cursor reads first + 1 products and reports the next page")
+    fun getProductsPageFirstPage() = runTest {
+        val products = (1..3).map {
+            Product(id = "id$it", name = "Name$it", description = "Description$it", price = BigDecimal.valueOf(1))
         }
+        whenever(productRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(products.asFlow())
+
+        val result = productService.getProductsPage(2, null)
+
+        assertEquals(listOf("id1", "id2"), result.edges.map { it.node.id })
+        assertEquals(listOf("id1", "id2"), result.edges.map { it.cursor })
+        assertEquals(PageInfo(hasNextPage = true, hasPreviousPage = false, "id1", "id2"), result.pageInfo)
     }
 
     @Test
-    @DisplayName("getProductById() returns ProductResponse when product exists")
-    fun getProductByIdHappyFlow() = runTest {
-        val product = Product(id = "id1", name = "Name", description = "Description", price = BigDecimal.valueOf(123))
-        whenever(productRepository.findById("id1")).thenReturn(product)
+    @DisplayName("getProductsPage() with a cursor continues after it and reports the last page")
+    fun getProductsPageAfterCursor() = runTest {
+        val product = Product(id = "id3", name = "Name3", description = "Description3", price = BigDecimal.valueOf(1))
+        whenever(productRepository.findByIdGreaterThanOrderByIdAsc("id2", Limit.of(3))).thenReturn(flowOf(product))
 
-        val result = productService.getProductById("id1")
+        val result = productService.getProductsPage(2, "id2")
 
-        assertEquals(ProductResponse("id1", "Name", "Description", BigDecimal.valueOf(123)), result)
+        assertEquals(listOf("id3"), result.edges.map { it.node.id })
+        assertEquals(PageInfo(hasNextPage = false, hasPreviousPage = true, "id3", "id3"), result.pageInfo)
     }
 
     @Test
-    @DisplayName("getProductById() returns null when product does not exist")
-    fun getProductByIdNotFound() = runTest {
-        whenever(productRepository.findById("unknown")).thenReturn(null)
+    @DisplayName("getProductsPage() returns an empty page with null cursors when there are no more products")
+    fun getProductsPageEmpty() = runTest {
+        whenever(productRepository.findByIdGreaterThanOrderByIdAsc("id3", Limit.of(3))).thenReturn(emptyFlow())
 
-        val result = productService.getProductById("unknown")
+        val result = productService.getProductsPage(2, "id3")
 
-        assertEquals(null, result)
+        assertEquals(emptyList<ProductEdge>(), result.edges)
+        assertEquals(PageInfo(hasNextPage = false, hasPreviousPage = true, null, null), result.pageInfo)
     }
 
     @Test
-    @DisplayName("getProductById() throws InternalServerException when repo throws DataAccessException")
-    fun getProductByIdWhenDBThrowsError() = runTest {
-        whenever(productRepository.findById("id1"))
+    @DisplayName("getProductsPage() throws InternalServerException when repo throws DataAccessException")
+    fun getProductsPageWhenDBThrowsError() = runTest {
+        whenever(productRepository.findAllByOrderByIdAsc(Limit.of(3)))
+            .thenReturn(flow { throw DataAccessResourceFailureException("Child class of DataAccessException") })
+
+        assertThrows(InternalServerException::class.java) {
+            runBlocking { productService.getProductsPage(2, null) }
+        }
+    }
+
+    @Test
+    @DisplayName("getProductsByIds() fetches all ids in one query and maps found products by id")
+    fun getProductsByIdsHappyFlow() = runTest {
+        val product = Product(id = "id1", name = "Name", description = "Description", price = BigDecimal.valueOf(123))
+        whenever(productRepository.findAllById(setOf("id1", "unknown"))).thenReturn(flowOf(product))
+
+        val result = productService.getProductsByIds(setOf("id1", "unknown"))
+
+        assertEquals(mapOf("id1" to ProductResponse("id1", "Name", "Description", BigDecimal.valueOf(123))), result)
+    }
+
+    @Test
+    @DisplayName("getProductsByIds() returns an empty map without querying when no ids are given")
+    fun getProductsByIdsEmpty() = runTest {
+        val result = productService.getProductsByIds(emptySet())
+
+        assertEquals(emptyMap<String, ProductResponse>(), result)
+        verifyNoInteractions(productRepository)
+    }
+
+    @Test
+    @DisplayName("getProductsByIds() throws InternalServerException when repo throws DataAccessException")
+    fun getProductsByIdsWhenDBThrowsError() = runTest {
+        whenever(productRepository.findAllById(setOf("id1")))
             .thenThrow(DataAccessResourceFailureException("Child class of DataAccessException"))
 
         assertThrows(InternalServerException::class.java) {
-            runBlocking { productService.getProductById("id1") }
+            runBlocking { productService.getProductsByIds(setOf("id1")) }
         }
     }
 
-    // getProductBySkuCode tests
+    @Test
+    @DisplayName("getProductsByIds() serves cached products and only queries the repo for the rest while the cache is active")
+    fun getProductsByIdsPartiallyCached() = runTest {
+        val cachedProduct = ProductResponse("id1", "Name1", "Description1", BigDecimal.valueOf(123), "sku-1")
+        val product2 = Product(id = "id2", name = "Name2", description = "Description2", price = BigDecimal.valueOf(456))
+        productCache.activate()
+        productCache.putAll(listOf(cachedProduct), productCache.currentGeneration())
+        whenever(productRepository.findAllById(setOf("id2"))).thenReturn(flowOf(product2))
+
+        val result = productService.getProductsByIds(setOf("id1", "id2"))
+
+        assertEquals(
+            mapOf(
+                "id1" to cachedProduct,
+                "id2" to ProductResponse("id2", "Name2", "Description2", BigDecimal.valueOf(456))
+            ),
+            result
+        )
+        verify(productRepository).findAllById(setOf("id2"))
+        assertEquals(2, productCache.size())
+    }
+
+    // getProductsBySkuCodes tests
 
     @Test
-    @DisplayName("getProductBySkuCode() returns ProductResponse when product exists")
-    fun getProductBySkuCodeHappyFlow() = runTest {
-        val product = Product(
+    @DisplayName("getProductsBySkuCodes() fetches all skuCodes in one query and maps found products by skuCode")
+    fun getProductsBySkuCodesHappyFlow() = runTest {
+        val product1 = Product(
             id = "id1",
-            name = "Name",
-            description = "Description",
+            name = "Name1",
+            description = "Description1",
             price = BigDecimal.valueOf(123),
             skuCode = "sku-1"
         )
-        whenever(productRepository.findFirstBySkuCode("sku-1")).thenReturn(product)
+        whenever(productRepository.findBySkuCodeIn(setOf("sku-1", "unknown"))).thenReturn(flowOf(product1))
 
-        val result = productService.getProductBySkuCode("sku-1")
+        val result = productService.getProductsBySkuCodes(setOf("sku-1", "unknown"))
 
-        assertEquals(ProductResponse("id1", "Name", "Description", BigDecimal.valueOf(123), "sku-1"), result)
+        assertEquals(
+            mapOf("sku-1" to ProductResponse("id1", "Name1", "Description1", BigDecimal.valueOf(123), "sku-1")),
+            result
+        )
     }
 
     @Test
-    @DisplayName("getProductBySkuCode() returns null when product does not exist")
-    fun getProductBySkuCodeNotFound() = runTest {
-        whenever(productRepository.findFirstBySkuCode("unknown")).thenReturn(null)
+    @DisplayName("getProductsBySkuCodes() returns an empty map without querying when no skuCodes are given")
+    fun getProductsBySkuCodesEmpty() = runTest {
+        val result = productService.getProductsBySkuCodes(emptySet())
 
-        val result = productService.getProductBySkuCode("unknown")
-
-        assertEquals(null, result)
+        assertEquals(emptyMap<String, ProductResponse>(), result)
+        verifyNoInteractions(productRepository)
     }
 
     @Test
-    @DisplayName("getProductBySkuCode() throws InternalServerException when repo throws DataAccessException")
-    fun getProductBySkuCodeWhenDBThrowsError() = runTest {
-        whenever(productRepository.findFirstBySkuCode("sku-1"))
+    @DisplayName("getProductsBySkuCodes() throws InternalServerException when repo throws DataAccessException")
+    fun getProductsBySkuCodesWhenDBThrowsError() = runTest {
+        whenever(productRepository.findBySkuCodeIn(setOf("sku-1")))
             .thenThrow(DataAccessResourceFailureException("Child class of DataAccessException"))
 
         assertThrows(InternalServerException::class.java) {
-            runBlocking { productService.getProductBySkuCode("sku-1") }
+            runBlocking { productService.getProductsBySkuCodes(setOf("sku-1")) }
         }
     }
+
+    @Test
+    @DisplayName("getProductsBySkuCodes() does not query the repo when every skuCode is cached")
+    fun getProductsBySkuCodesFullyCached() = runTest {
+        val cachedProduct = ProductResponse("id1", "Name1", "Description1", BigDecimal.valueOf(123), "sku-1")
+        productCache.activate()
+        productCache.putAll(listOf(cachedProduct), productCache.currentGeneration())
+
+        val result = productService.getProductsBySkuCodes(setOf("sku-1"))
+
+        assertEquals(mapOf("sku-1" to cachedProduct), result)
+        verifyNoInteractions(productRepository)
+    }
 }